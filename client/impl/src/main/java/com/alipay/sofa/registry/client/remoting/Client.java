@@ -17,6 +17,7 @@
 package com.alipay.sofa.registry.client.remoting;
 
 import com.alipay.remoting.exception.RemotingException;
+import com.alipay.sofa.registry.core.model.BatchRegisterRequest;
 
 /**
  * The interface Client.
@@ -52,4 +53,15 @@ public interface Client {
    * @throws InterruptedException the interrupted exception
    */
   Object invokeSync(Object request) throws RemotingException, InterruptedException;
+
+  /**
+   * Invoke sync a batch of registers in one frame, the timeout grows with the size of the batch.
+   *
+   * @param request the batch request
+   * @return the object
+   * @throws RemotingException the remoting exception
+   * @throws InterruptedException the interrupted exception
+   */
+  Object invokeBatchSync(BatchRegisterRequest request)
+      throws RemotingException, InterruptedException;
 }
@@ -30,6 +30,7 @@ import com.alipay.sofa.registry.client.log.LoggerFactory;
 import com.alipay.sofa.registry.client.provider.RegisterCache;
 import com.alipay.sofa.registry.client.task.TaskEvent;
 import com.alipay.sofa.registry.client.task.Worker;
+import com.alipay.sofa.registry.core.model.BatchRegisterRequest;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -50,6 +51,8 @@ public class ClientConnection implements Client {
   private static final Logger LOGGER = LoggerFactory.getLogger(ClientConnection.class);
   /** The Reconnecting delay. */
   private static final int RECONNECTING_DELAY = 5000;
+  /** The num of registers sharing one invoke timeout in a batch. */
+  private static final int BATCH_TIMEOUT_STEP = 50;
 
   private RpcClient client;
   private ServerManager serverManager;
@@ -166,6 +169,26 @@ public class ClientConnection implements Client {
     return client.invokeSync(clientConnection, request, config.getInvokeTimeout());
   }
 
+  /**
+   * Invoke sync a batch of registers, every BATCH_TIMEOUT_STEP registers get one more invoke
+   * timeout.
+   *
+   * @param request the batch request
+   * @return the object
+   * @throws RemotingException the remoting exception
+   * @throws InterruptedException the interrupted exception
+   */
+  @Override
+  public Object invokeBatchSync(BatchRegisterRequest request)
+      throws RemotingException, InterruptedException {
+    if (!isConnected()) {
+      throw new IllegalStateException("Not connected");
+    }
+    int size = request.getRegisters() == null ? 0 : request.getRegisters().size();
+    int timeout = config.getInvokeTimeout() * (1 + size / BATCH_TIMEOUT_STEP);
+    return client.invokeSync(clientConnection, request, timeout);
+  }
+
   private void recycle(Connection connection) {
     if (null == connection) {
       return;
@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.registry.client.task;
 
+import com.alipay.remoting.rpc.exception.InvokeServerException;
 import com.alipay.sofa.registry.client.api.Register;
 import com.alipay.sofa.registry.client.api.RegistryClientConfig;
 import com.alipay.sofa.registry.client.log.LoggerFactory;
@@ -23,9 +24,14 @@ import com.alipay.sofa.registry.client.provider.AbstractInternalRegister;
 import com.alipay.sofa.registry.client.provider.AbstractInternalRegister.SyncTask;
 import com.alipay.sofa.registry.client.provider.RegisterCache;
 import com.alipay.sofa.registry.client.remoting.Client;
+import com.alipay.sofa.registry.core.model.BaseRegister;
+import com.alipay.sofa.registry.core.model.BatchRegisterRequest;
+import com.alipay.sofa.registry.core.model.BatchRegisterResponse;
 import com.alipay.sofa.registry.core.model.RegisterResponse;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 
@@ -38,6 +44,13 @@ import org.slf4j.Logger;
 public class WorkerThread extends AbstractWorkerThread {
   private static final Logger LOGGER = LoggerFactory.getLogger(WorkerThread.class);
 
+  /** The default max num of registers sent in one batch */
+  public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+  private static final String NO_PROCESSOR_MSG = "No user processor found";
+
+  private static final long BATCH_RECHECK_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+
   /** Task queue */
   protected final TaskQueue requestQueue = new TaskQueue();
 
@@ -47,6 +60,11 @@ public class WorkerThread extends AbstractWorkerThread {
 
   private AtomicBoolean inited = new AtomicBoolean(false);
 
+  private volatile int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+  /** the last time the server rejected a batch request, batch is retried after a while */
+  private volatile long batchUnsupportedTimestamp;
+
   /**
    * Instantiates a new Worker thread.
    *
@@ -103,9 +121,9 @@ public class WorkerThread extends AbstractWorkerThread {
         }
 
         Iterator<TaskEvent> lt = requestQueue.iterator();
+        List<TaskEvent> batch = new ArrayList<TaskEvent>();
 
         while (lt.hasNext()) {
-          client.ensureConnected();
           TaskEvent ev = lt.next();
           lt.remove();
           int sendCount = ev.incSendCount();
@@ -115,7 +133,16 @@ public class WorkerThread extends AbstractWorkerThread {
             continue;
           }
 
-          handleTask(ev);
+          batch.add(ev);
+          if (batch.size() >= maxBatchSize) {
+            client.ensureConnected();
+            handleTasks(batch);
+            batch.clear();
+          }
+        }
+        if (!batch.isEmpty()) {
+          client.ensureConnected();
+          handleTasks(batch);
         }
 
         // Cleaning completed task, it will take more time when the registration number is large.
@@ -126,9 +153,100 @@ public class WorkerThread extends AbstractWorkerThread {
     }
   }
 
+  /**
+   * Sets max batch size, the max num of registers sent in one frame, 1 means no batch.
+   *
+   * @param maxBatchSize the max batch size
+   */
+  public void setMaxBatchSize(int maxBatchSize) {
+    this.maxBatchSize = Math.max(1, maxBatchSize);
+  }
+
+  void handleTasks(List<TaskEvent> events) {
+    if (events.size() == 1 || !isBatchEnabled()) {
+      for (TaskEvent event : events) {
+        handleTask(event);
+      }
+      return;
+    }
+    List<SyncItem> items = new ArrayList<SyncItem>(events.size());
+    List<BaseRegister> requests = new ArrayList<BaseRegister>(events.size());
+    for (TaskEvent event : events) {
+      SyncItem item = prepare(event);
+      if (item == null) {
+        continue;
+      }
+      if (item.syncTask.getRequest() instanceof BaseRegister) {
+        items.add(item);
+        requests.add((BaseRegister) item.syncTask.getRequest());
+      } else {
+        send(item);
+      }
+    }
+    if (items.isEmpty()) {
+      return;
+    }
+    if (items.size() == 1) {
+      send(items.get(0));
+      return;
+    }
+
+    Object result;
+    try {
+      result = client.invokeBatchSync(new BatchRegisterRequest(requests));
+    } catch (Exception e) {
+      if (!isBatchUnsupported(e)) {
+        LOGGER.error("[send] handle batch request failed, size={}", items.size(), e);
+        return;
+      }
+      // the server does not support the batch request, send them one by one
+      LOGGER.warn("[register] batch register unsupported by server, fallback to single", e);
+      batchUnsupportedTimestamp = System.currentTimeMillis();
+      for (SyncItem item : items) {
+        send(item);
+      }
+      return;
+    }
+
+    if (!(result instanceof BatchRegisterResponse)) {
+      LOGGER.warn("[register] batch result type is wrong, {}", result);
+      return;
+    }
+    List<RegisterResponse> responses = ((BatchRegisterResponse) result).getResponses();
+    if (responses == null || responses.size() != items.size()) {
+      LOGGER.warn("[register] batch result size is wrong, expect={}, {}", items.size(), result);
+      return;
+    }
+    for (int i = 0; i < items.size(); i++) {
+      onResult(items.get(i), responses.get(i));
+    }
+  }
+
+  static boolean isBatchUnsupported(Exception e) {
+    // the server without batch processor responds with a server exception,
+    // other errors are transient and the batch is retried in next round
+    if (e instanceof InvokeServerException && e.getCause() != null) {
+      String msg = e.getCause().getMessage();
+      return msg != null && msg.contains(NO_PROCESSOR_MSG);
+    }
+    return false;
+  }
+
+  private boolean isBatchEnabled() {
+    return maxBatchSize > 1
+        && System.currentTimeMillis() - batchUnsupportedTimestamp > BATCH_RECHECK_INTERVAL;
+  }
+
   private void handleTask(TaskEvent event) {
+    SyncItem item = prepare(event);
+    if (item != null) {
+      send(item);
+    }
+  }
+
+  private SyncItem prepare(TaskEvent event) {
     if (null == event) {
-      return;
+      return null;
     }
 
     try {
@@ -137,58 +255,79 @@ public class WorkerThread extends AbstractWorkerThread {
 
       if (!(register instanceof AbstractInternalRegister)) {
         LOGGER.warn("[register] register type unknown, {}", register);
-        return;
+        return null;
       }
 
       AbstractInternalRegister abstractInternalRegister = (AbstractInternalRegister) register;
 
       SyncTask syncTask = abstractInternalRegister.assemblySyncTask();
-      String requestId = syncTask.getRequestId();
 
       if (syncTask.isDone()) {
         LOGGER.info("[register] register already sync succeeded, {}", register);
-        return;
+        return null;
       }
+      return new SyncItem(abstractInternalRegister, syncTask);
+    } catch (Exception e) {
+      LOGGER.error("[send] handle request failed, {}", event, e);
+      return null;
+    }
+  }
 
-      Object request = syncTask.getRequest();
+  private void send(SyncItem item) {
+    try {
+      Object result = client.invokeSync(item.syncTask.getRequest());
+      onResult(item, result);
+    } catch (Exception e) {
+      LOGGER.error("[send] handle request failed, {}", item.register, e);
+    }
+  }
 
-      Object result = client.invokeSync(request);
+  private void onResult(SyncItem item, Object result) {
+    final AbstractInternalRegister register = item.register;
+    final String requestId = item.syncTask.getRequestId();
+    final Object request = item.syncTask.getRequest();
 
-      if (!(result instanceof RegisterResponse)) {
-        LOGGER.warn("[register] result type is wrong, {}", result);
-        return;
-      }
+    if (!(result instanceof RegisterResponse)) {
+      LOGGER.warn("[register] result type is wrong, {}", result);
+      return;
+    }
 
-      RegisterResponse response = (RegisterResponse) result;
-      if (!response.isSuccess()) {
-        LOGGER.info("[register] register to server failed, {}, {}", request, response);
-        return;
-      }
+    RegisterResponse response = (RegisterResponse) result;
+    if (!response.isSuccess()) {
+      LOGGER.info("[register] register to server failed, {}, {}", request, response);
+      return;
+    }
 
-      boolean syncOK =
-          abstractInternalRegister.syncOK(requestId, response.getVersion(), response.isRefused());
-      if (!syncOK) {
-        LOGGER.info(
-            "[register] requestId has expired, ignore this response, {}, {}, {}",
-            requestId,
-            request,
-            response);
-        return;
-      }
+    boolean syncOK = register.syncOK(requestId, response.getVersion(), response.isRefused());
+    if (!syncOK) {
+      LOGGER.info(
+          "[register] requestId has expired, ignore this response, {}, {}, {}",
+          requestId,
+          request,
+          response);
+      return;
+    }
 
-      if (!register.isEnabled()) {
-        registerCache.remove(register.getRegistId());
-      }
+    if (!register.isEnabled()) {
+      registerCache.remove(register.getRegistId());
+    }
 
-      if (response.isRefused()) {
-        LOGGER.info(
-            "[register] register refused by server, {}, {}, {}", requestId, request, response);
-      } else {
-        LOGGER.info(
-            "[register] register to server success, {}, {}, {}", requestId, request, response);
-      }
-    } catch (Exception e) {
-      LOGGER.error("[send] handle request failed, {}", event, e);
+    if (response.isRefused()) {
+      LOGGER.info(
+          "[register] register refused by server, {}, {}, {}", requestId, request, response);
+    } else {
+      LOGGER.info(
+          "[register] register to server success, {}, {}, {}", requestId, request, response);
+    }
+  }
+
+  private static final class SyncItem {
+    final AbstractInternalRegister register;
+    final SyncTask syncTask;
+
+    SyncItem(AbstractInternalRegister register, SyncTask syncTask) {
+      this.register = register;
+      this.syncTask = syncTask;
     }
   }
 }
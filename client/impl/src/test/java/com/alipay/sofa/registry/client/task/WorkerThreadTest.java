@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.client.task;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.alipay.remoting.rpc.exception.InvokeException;
+import com.alipay.remoting.rpc.exception.InvokeServerException;
+import com.alipay.remoting.rpc.exception.InvokeTimeoutException;
+import com.alipay.remoting.rpc.exception.RpcServerException;
+import com.alipay.sofa.registry.client.api.RegistryClientConfig;
+import com.alipay.sofa.registry.client.api.registration.ConfiguratorRegistration;
+import com.alipay.sofa.registry.client.provider.DefaultConfigurator;
+import com.alipay.sofa.registry.client.provider.DefaultRegistryClientConfigBuilder;
+import com.alipay.sofa.registry.client.provider.RegisterCache;
+import com.alipay.sofa.registry.client.remoting.Client;
+import com.alipay.sofa.registry.core.model.BaseRegister;
+import com.alipay.sofa.registry.core.model.BatchRegisterRequest;
+import com.alipay.sofa.registry.core.model.BatchRegisterResponse;
+import com.alipay.sofa.registry.core.model.RegisterResponse;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class WorkerThreadTest {
+  private static final Answer<Object> SUCCESS =
+      new Answer<Object>() {
+        @Override
+        public Object answer(InvocationOnMock invocation) {
+          return successOf(invocation);
+        }
+      };
+
+  private static final Answer<Object> SINGLE_SUCCESS =
+      new Answer<Object>() {
+        @Override
+        public Object answer(InvocationOnMock invocation) {
+          return responseOf((BaseRegister) invocation.getArguments()[0]);
+        }
+      };
+
+  private final RegistryClientConfig config =
+      DefaultRegistryClientConfigBuilder.start()
+          .setDataCenter("test-data-center")
+          .setZone("test-zone")
+          .build();
+
+  @Test
+  public void testBatch() throws Exception {
+    Client client = mock(Client.class);
+    WorkerThread worker = new WorkerThread(client, config, new RegisterCache());
+    List<DefaultConfigurator> registers = newConfigurators(3);
+    when(client.invokeBatchSync(any(BatchRegisterRequest.class))).then(SUCCESS);
+
+    worker.handleTasks(eventsOf(registers));
+    verify(client, times(1)).invokeBatchSync(any(BatchRegisterRequest.class));
+    verify(client, never()).invokeSync(anyObject());
+    for (DefaultConfigurator register : registers) {
+      Assert.assertTrue(register.isDone());
+    }
+  }
+
+  @Test
+  public void testBatchPartialFailed() throws Exception {
+    Client client = mock(Client.class);
+    WorkerThread worker = new WorkerThread(client, config, new RegisterCache());
+    List<DefaultConfigurator> registers = newConfigurators(2);
+    when(client.invokeBatchSync(any(BatchRegisterRequest.class)))
+        .then(
+            new Answer<Object>() {
+              @Override
+              public Object answer(InvocationOnMock invocation) {
+                BatchRegisterResponse response = successOf(invocation);
+                response.getResponses().get(1).setSuccess(false);
+                return response;
+              }
+            });
+
+    worker.handleTasks(eventsOf(registers));
+    Assert.assertTrue(registers.get(0).isDone());
+    Assert.assertFalse(registers.get(1).isDone());
+  }
+
+  @Test
+  public void testBatchUnsupported() throws Exception {
+    Client client = mock(Client.class);
+    WorkerThread worker = new WorkerThread(client, config, new RegisterCache());
+    when(client.invokeBatchSync(any(BatchRegisterRequest.class)))
+        .thenThrow(
+            new InvokeServerException(
+                "Server exception!",
+                new RpcServerException("No user processor found for request: xx")));
+    when(client.invokeSync(anyObject())).then(SINGLE_SUCCESS);
+
+    List<DefaultConfigurator> registers = newConfigurators(2);
+    worker.handleTasks(eventsOf(registers));
+    verify(client, times(2)).invokeSync(anyObject());
+    for (DefaultConfigurator register : registers) {
+      Assert.assertTrue(register.isDone());
+    }
+
+    // fallback to single until the recheck interval passes
+    registers = newConfigurators(2);
+    worker.handleTasks(eventsOf(registers));
+    verify(client, times(1)).invokeBatchSync(any(BatchRegisterRequest.class));
+    verify(client, times(4)).invokeSync(anyObject());
+  }
+
+  @Test
+  public void testBatchTransientFailed() throws Exception {
+    Client client = mock(Client.class);
+    WorkerThread worker = new WorkerThread(client, config, new RegisterCache());
+    when(client.invokeBatchSync(any(BatchRegisterRequest.class)))
+        .thenThrow(new InvokeException("connection reset"));
+
+    List<DefaultConfigurator> registers = newConfigurators(2);
+    worker.handleTasks(eventsOf(registers));
+    verify(client, times(0)).invokeSync(anyObject());
+    for (DefaultConfigurator register : registers) {
+      Assert.assertFalse(register.isDone());
+    }
+
+    // still batch in next round
+    worker.handleTasks(eventsOf(registers));
+    verify(client, times(2)).invokeBatchSync(any(BatchRegisterRequest.class));
+    verify(client, times(0)).invokeSync(anyObject());
+  }
+
+  @Test
+  public void testBatchDisabled() throws Exception {
+    Client client = mock(Client.class);
+    WorkerThread worker = new WorkerThread(client, config, new RegisterCache());
+    worker.setMaxBatchSize(1);
+    when(client.invokeSync(anyObject())).then(SINGLE_SUCCESS);
+
+    List<DefaultConfigurator> registers = newConfigurators(2);
+    worker.handleTasks(eventsOf(registers));
+    verify(client, never()).invokeBatchSync(any(BatchRegisterRequest.class));
+    verify(client, times(2)).invokeSync(anyObject());
+  }
+
+  @Test
+  public void testIsBatchUnsupported() {
+    Assert.assertFalse(WorkerThread.isBatchUnsupported(new InvokeException("NO_PROCESSOR")));
+    Assert.assertTrue(
+        WorkerThread.isBatchUnsupported(
+            new InvokeServerException(
+                "Server exception!",
+                new RpcServerException("No user processor found for request: xx"))));
+    Assert.assertFalse(
+        WorkerThread.isBatchUnsupported(
+            new InvokeServerException("Server exception!", new RpcServerException("xx"))));
+    Assert.assertFalse(WorkerThread.isBatchUnsupported(new InvokeTimeoutException("timeout")));
+  }
+
+  private List<DefaultConfigurator> newConfigurators(int num) {
+    List<DefaultConfigurator> registers = new ArrayList<DefaultConfigurator>();
+    for (int i = 0; i < num; i++) {
+      registers.add(
+          new DefaultConfigurator(
+              new ConfiguratorRegistration("test-data-" + i, null), config, null));
+    }
+    return registers;
+  }
+
+  private static List<TaskEvent> eventsOf(List<DefaultConfigurator> registers) {
+    List<TaskEvent> events = new ArrayList<TaskEvent>();
+    for (DefaultConfigurator register : registers) {
+      events.add(new TaskEvent(register));
+    }
+    return events;
+  }
+
+  private static BatchRegisterResponse successOf(InvocationOnMock invocation) {
+    BatchRegisterRequest request = (BatchRegisterRequest) invocation.getArguments()[0];
+    BatchRegisterResponse response = new BatchRegisterResponse();
+    for (BaseRegister register : request.getRegisters()) {
+      response.getResponses().add(responseOf(register));
+    }
+    return response;
+  }
+
+  private static RegisterResponse responseOf(BaseRegister register) {
+    RegisterResponse response = new RegisterResponse();
+    response.setSuccess(true);
+    response.setRegistId(register.getRegistId());
+    response.setVersion(0);
+    return response;
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.core.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The type Batch register request, carries publishers, subscribers and configurators in one frame.
+ * The session server answers with a {@link BatchRegisterResponse} whose results are in the same
+ * order as the registers.
+ */
+public class BatchRegisterRequest implements Serializable {
+
+  private static final long serialVersionUID = 2376523950781269034L;
+
+  private List<BaseRegister> registers;
+
+  /** Instantiates a new Batch register request. */
+  public BatchRegisterRequest() {
+    this.registers = new ArrayList<BaseRegister>();
+  }
+
+  /**
+   * Instantiates a new Batch register request.
+   *
+   * @param registers the registers
+   */
+  public BatchRegisterRequest(List<BaseRegister> registers) {
+    this.registers = registers;
+  }
+
+  /**
+   * Getter method for property <tt>registers</tt>.
+   *
+   * @return property value of registers
+   */
+  public List<BaseRegister> getRegisters() {
+    return registers;
+  }
+
+  /**
+   * Setter method for property <tt>registers</tt>.
+   *
+   * @param registers value to be assigned to property registers
+   */
+  public void setRegisters(List<BaseRegister> registers) {
+    this.registers = registers;
+  }
+
+  /**
+   * To string string.
+   *
+   * @return the string
+   */
+  @Override
+  public String toString() {
+    return "BatchRegisterRequest{"
+        + "registers="
+        + (registers == null ? 0 : registers.size())
+        + '}';
+  }
+}
@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.benchmark;
+
+import com.alipay.sofa.registry.common.model.ConnectId;
+import com.alipay.sofa.registry.common.model.ElementType;
+import com.alipay.sofa.registry.common.model.ProcessId;
+import com.alipay.sofa.registry.common.model.PublishSource;
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.client.pb.ReceivedDataBodyPb;
+import com.alipay.sofa.registry.common.model.client.pb.ReceivedDataPb;
+import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
+import com.alipay.sofa.registry.common.model.store.BaseInfo;
+import com.alipay.sofa.registry.common.model.store.DataInfo;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubPublisher;
+import com.alipay.sofa.registry.common.model.store.Subscriber;
+import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.core.model.ReceivedData;
+import com.alipay.sofa.registry.core.model.ScopeEnum;
+import com.alipay.sofa.registry.server.session.converter.ReceivedDataConverter;
+import com.alipay.sofa.registry.server.session.converter.pb.DataBoxConvertor;
+import com.alipay.sofa.registry.server.session.converter.pb.ReceivedDataConvertor;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * generate the synthetic data for the benchmarks. the production is about 1M publishers of 100k
+ * dataInfoIds, the data is generated by a fixed seed, so the runs are comparable
+ */
+public final class SyntheticData {
+  public static final String DATA_CENTER = "DefaultDataCenter";
+  public static final String CELL = "RZ00A";
+  public static final String GROUP = "SOFA";
+  public static final String INSTANCE_ID = "DEFAULT_INSTANCE_ID";
+
+  /** the production scale */
+  public static final int PROD_DATA_INFO_ID_NUM = 100000;
+
+  public static final int PROD_PUBLISHER_NUM = 1000000;
+
+  private static final String[] CELLS = {"RZ00A", "RZ00B", "RZ01A", "RZ01B"};
+  private static final AtomicLong REGISTER_ID_SEQ = new AtomicLong();
+  private static final ProcessId SESSION_PROCESS_ID =
+      new ProcessId("10.0.0.1", System.currentTimeMillis(), 1, 1);
+
+  private SyntheticData() {}
+
+  public static Random newRandom() {
+    return new Random(20211001L);
+  }
+
+  public static String dataId(int index) {
+    return "com.alipay.sofa.registry.benchmark.BenchService" + index + ":1.0";
+  }
+
+  public static String dataInfoId(int index) {
+    return DataInfo.toDataInfoId(dataId(index), INSTANCE_ID, GROUP);
+  }
+
+  public static List<String> dataInfoIds(int num) {
+    List<String> list = Lists.newArrayListWithCapacity(num);
+    for (int i = 0; i < num; i++) {
+      list.add(dataInfoId(i));
+    }
+    return list;
+  }
+
+  /**
+   * a typical service url published by rpc client, about 150 bytes
+   *
+   * @param random random
+   * @return String
+   */
+  public static String serviceUrl(Random random) {
+    return "bolt://"
+        + address(random)
+        + ":12200?_TIMEOUT=3000&p=1&_SERIALIZETYPE=hessian2&app_name=benchmark-app-"
+        + random.nextInt(1000)
+        + "&zone="
+        + CELLS[random.nextInt(CELLS.length)]
+        + "&v=4.0&_WEIGHT=100&_WARMUPTIME=0";
+  }
+
+  public static String address(Random random) {
+    return "10."
+        + random.nextInt(256)
+        + "."
+        + random.nextInt(256)
+        + "."
+        + (1 + random.nextInt(254));
+  }
+
+  public static String newRegisterId() {
+    return "benchmark-register-" + REGISTER_ID_SEQ.incrementAndGet();
+  }
+
+  public static Publisher publisher(String dataInfoId, Random random) {
+    DataInfo dataInfo = DataInfo.valueOf(dataInfoId);
+    Publisher publisher = new Publisher();
+    publisher.setDataInfoId(dataInfoId);
+    publisher.setDataId(dataInfo.getDataId());
+    publisher.setInstanceId(dataInfo.getInstanceId());
+    publisher.setGroup(dataInfo.getGroup());
+    publisher.setRegisterId(newRegisterId());
+    publisher.setCell(CELLS[random.nextInt(CELLS.length)]);
+    publisher.setVersion(1);
+    publisher.setRegisterTimestamp(System.currentTimeMillis());
+    publisher.setClientVersion(BaseInfo.ClientVersion.StoreData);
+    publisher.setSessionProcessId(SESSION_PROCESS_ID);
+    publisher.setDataList(Collections.singletonList(new ServerDataBox(serviceUrl(random))));
+    ConnectId connectId = ConnectId.of(address(random) + ":34567", "10.0.0.1:9600");
+    publisher.setSourceAddress(URL.valueOf(connectId.clientAddress()));
+    publisher.setTargetAddress(URL.valueOf(connectId.sessionAddress()));
+    return publisher;
+  }
+
+  public static List<Publisher> publishers(String dataInfoId, int num, Random random) {
+    List<Publisher> list = Lists.newArrayListWithCapacity(num);
+    for (int i = 0; i < num; i++) {
+      list.add(publisher(dataInfoId, random));
+    }
+    return list;
+  }
+
+  /**
+   * spread the publishers over the dataInfoIds, skewed like the production: a few hot dataInfoIds
+   * hold most of the publishers
+   *
+   * @param dataInfoIdNum dataInfoIdNum
+   * @param publisherNum publisherNum
+   * @param random random
+   * @return Map
+   */
+  public static Map<String, Map<String, Publisher>> publisherMap(
+      int dataInfoIdNum, int publisherNum, Random random) {
+    Map<String, Map<String, Publisher>> map = Maps.newHashMapWithExpectedSize(dataInfoIdNum);
+    for (int i = 0; i < dataInfoIdNum; i++) {
+      map.put(dataInfoId(i), Maps.newHashMap());
+    }
+    for (int i = 0; i < publisherNum; i++) {
+      // every dataInfoId has one publisher at least, the remains are skewed to the head
+      final int index =
+          i < dataInfoIdNum ? i : (int) (dataInfoIdNum * Math.pow(random.nextDouble(), 3));
+      final String dataInfoId = dataInfoId(index);
+      Publisher publisher = publisher(dataInfoId, random);
+      map.get(dataInfoId).put(publisher.getRegisterId(), publisher);
+    }
+    return map;
+  }
+
+  public static Map<String, DatumSummary> summaries(
+      Map<String, Map<String, Publisher>> publisherMap) {
+    Map<String, DatumSummary> summaries = Maps.newHashMapWithExpectedSize(publisherMap.size());
+    for (Map.Entry<String, Map<String, Publisher>> e : publisherMap.entrySet()) {
+      summaries.put(e.getKey(), DatumSummary.of(e.getKey(), e.getValue()));
+    }
+    return summaries;
+  }
+
+  public static SubPublisher subPublisher(Random random) {
+    return new SubPublisher(
+        newRegisterId(),
+        CELLS[random.nextInt(CELLS.length)],
+        Collections.singletonList(new ServerDataBox(serviceUrl(random))),
+        "benchmark-client",
+        1,
+        address(random) + ":34567",
+        System.currentTimeMillis(),
+        PublishSource.CLIENT);
+  }
+
+  public static SubDatum subDatum(String dataInfoId, long version, int publisherNum) {
+    final Random random = newRandom();
+    List<SubPublisher> publishers = Lists.newArrayListWithCapacity(publisherNum);
+    for (int i = 0; i < publisherNum; i++) {
+      publishers.add(subPublisher(random));
+    }
+    return subDatum(dataInfoId, version, publishers);
+  }
+
+  public static SubDatum subDatum(String dataInfoId, long version, List<SubPublisher> publishers) {
+    DataInfo dataInfo = DataInfo.valueOf(dataInfoId);
+    return SubDatum.normalOf(
+        dataInfoId,
+        DATA_CENTER,
+        version,
+        publishers,
+        dataInfo.getDataId(),
+        dataInfo.getInstanceId(),
+        dataInfo.getGroup(),
+        Collections.singletonList(version));
+  }
+
+  public static ReceivedDataPb receivedDataPb(SubDatum subDatum) {
+    return ReceivedDataConvertor.convert2Pb(receivedData(subDatum));
+  }
+
+  /**
+   * the body bytes of the push, which is compressed when the compress push is enabled
+   *
+   * @param subDatum subDatum
+   * @return byte[]
+   */
+  public static byte[] receivedDataBody(SubDatum subDatum) {
+    ReceivedData receivedData = receivedData(subDatum);
+    return ReceivedDataBodyPb.newBuilder()
+        .putAllData(DataBoxConvertor.convert2PbMaps(receivedData.getData()))
+        .build()
+        .toByteArray();
+  }
+
+  private static ReceivedData receivedData(SubDatum subDatum) {
+    return ReceivedDataConverter.getReceivedDataMulti(
+            subDatum,
+            ScopeEnum.zone,
+            Collections.singletonList(newRegisterId()),
+            CELL,
+            zone -> false)
+        .getPayload();
+  }
+
+  public static Subscriber subscriber(String dataInfoId, Random random) {
+    DataInfo dataInfo = DataInfo.valueOf(dataInfoId);
+    Subscriber subscriber = new Subscriber();
+    subscriber.setDataInfoId(dataInfoId);
+    subscriber.setDataId(dataInfo.getDataId());
+    subscriber.setInstanceId(dataInfo.getInstanceId());
+    subscriber.setGroup(dataInfo.getGroup());
+    subscriber.setRegisterId(newRegisterId());
+    subscriber.setCell(CELL);
+    subscriber.setScope(ScopeEnum.zone);
+    subscriber.setElementType(ElementType.SUBSCRIBER);
+    subscriber.setClientVersion(BaseInfo.ClientVersion.StoreData);
+    subscriber.setAppName("benchmark-app-" + random.nextInt(1000));
+    subscriber.setVersion(1);
+    subscriber.setRegisterTimestamp(System.currentTimeMillis());
+    subscriber.setSourceAddress(new URL(address(random), 34567));
+    subscriber.setTargetAddress(new URL("10.0.0.1", 9600));
+    return subscriber;
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.compress;
+
+import com.alipay.sofa.registry.benchmark.SyntheticData;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** compress the push body of the datum with the available compressors */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class CompressBenchmark {
+  @Param({"gzip", "zstd"})
+  String encoding;
+
+  @Param({"100", "10000"})
+  int publisherNum;
+
+  private Compressor compressor;
+  private byte[] body;
+  private byte[] compressed;
+
+  @Setup
+  public void setup() throws Exception {
+    compressor = CompressUtils.mustGet(encoding);
+    body =
+        SyntheticData.receivedDataBody(
+            SyntheticData.subDatum(SyntheticData.dataInfoId(0), 1, publisherNum));
+    compressed = compressor.compress(body);
+  }
+
+  @Benchmark
+  public byte[] compress() throws Exception {
+    return compressor.compress(body);
+  }
+
+  @Benchmark
+  public byte[] decompress() throws Exception {
+    return compressor.decompress(compressed, body.length);
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.remoting.bolt.serializer;
+
+import com.alipay.sofa.registry.benchmark.SyntheticData;
+import com.alipay.sofa.registry.common.model.client.pb.ReceivedDataPb;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** encode/decode the push message of the pb clients */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ProtobufSerializerBenchmark {
+  @Param({"10", "1000"})
+  int publisherNum;
+
+  private final ProtobufSerializer serializer = ProtobufSerializer.getInstance();
+  private ReceivedDataPb message;
+  private byte[] bytes;
+
+  @Setup
+  public void setup() throws Exception {
+    message =
+        SyntheticData.receivedDataPb(
+            SyntheticData.subDatum(SyntheticData.dataInfoId(0), 1, publisherNum));
+    bytes = serializer.serialize(message);
+  }
+
+  @Benchmark
+  public byte[] serialize() throws Exception {
+    return serializer.serialize(message);
+  }
+
+  @Benchmark
+  public Object decode() throws Exception {
+    return serializer.decode(bytes, ReceivedDataPb.class);
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.benchmark.SyntheticData;
+import com.alipay.sofa.registry.common.model.dataserver.Datum;
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * the publishers of one dataInfoId on data server. 1M publishers of 100k dataInfoIds are 10 per
+ * dataInfoId on average, the hot ones have 10k+. newPublisher is the baseline of addPublisher
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class PublisherGroupBenchmark {
+  @Param({"10", "1000", "10000"})
+  int publisherNum;
+
+  private PublisherGroup group;
+  private List<Publisher> publishers;
+  private long version;
+
+  @Setup(Level.Iteration)
+  public void setup() {
+    final String dataInfoId = SyntheticData.dataInfoId(0);
+    publishers = SyntheticData.publishers(dataInfoId, publisherNum, SyntheticData.newRandom());
+    group = new PublisherGroup(dataInfoId, SyntheticData.DATA_CENTER);
+    group.put(publishers);
+    version = 1;
+  }
+
+  @Benchmark
+  public DatumVersion addPublisher() {
+    return group.addPublisher(newPublisher());
+  }
+
+  @Benchmark
+  public Publisher newPublisher() {
+    Publisher prev = publishers.get(ThreadLocalRandom.current().nextInt(publisherNum));
+    Publisher publisher = new Publisher();
+    publisher.setDataInfoId(prev.getDataInfoId());
+    publisher.setDataId(prev.getDataId());
+    publisher.setInstanceId(prev.getInstanceId());
+    publisher.setGroup(prev.getGroup());
+    publisher.setRegisterId(prev.getRegisterId());
+    publisher.setCell(prev.getCell());
+    publisher.setClientVersion(prev.getClientVersion());
+    publisher.setSessionProcessId(prev.getSessionProcessId());
+    publisher.setDataList(prev.getDataList());
+    publisher.setSourceAddress(prev.getSourceAddress());
+    publisher.setTargetAddress(prev.getTargetAddress());
+    publisher.setRegisterTimestamp(prev.getRegisterTimestamp());
+    // a newer version of the publisher
+    publisher.setVersion(++version);
+    return publisher;
+  }
+
+  @Benchmark
+  public Datum toDatum() {
+    return group.toDatum();
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.push;
+
+import com.alipay.sofa.registry.benchmark.SyntheticData;
+import com.alipay.sofa.registry.common.model.store.PushData;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.Subscriber;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * the buffer of the push tasks, most of the tasks replace the buffered task of the same subscriber.
+ * newTask is the baseline of the task creation
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@Threads(4)
+public class PushTaskBufferBenchmark {
+  @Param({"1000", "10000"})
+  int subscriberNum;
+
+  @Param({"4", "16"})
+  int workerSize;
+
+  private PushTaskBuffer buffer;
+  private Map<String, Subscriber>[] subscriberMaps;
+  private InetSocketAddress[] addresses;
+  private final AtomicLong version = new AtomicLong();
+
+  @Setup
+  public void setup() {
+    final Random random = SyntheticData.newRandom();
+    buffer = new PushTaskBuffer(workerSize);
+    subscriberMaps = new Map[subscriberNum];
+    addresses = new InetSocketAddress[subscriberNum];
+    for (int i = 0; i < subscriberNum; i++) {
+      Subscriber subscriber = SyntheticData.subscriber(SyntheticData.dataInfoId(i), random);
+      subscriberMaps[i] = Collections.singletonMap(subscriber.getRegisterId(), subscriber);
+      addresses[i] =
+          new InetSocketAddress(
+              subscriber.getSourceAddress().getIpAddress(),
+              subscriber.getSourceAddress().getPort());
+    }
+  }
+
+  @Benchmark
+  public boolean buffer() {
+    return buffer.buffer(newTask());
+  }
+
+  @Benchmark
+  public PushTask newTask() {
+    final int index = ThreadLocalRandom.current().nextInt(subscriberNum);
+    final Subscriber subscriber = subscriberMaps[index].values().iterator().next();
+    final long ver = version.incrementAndGet();
+    SubDatum datum =
+        SyntheticData.subDatum(subscriber.getDataInfoId(), ver, Collections.emptyList());
+    TriggerPushContext ctx =
+        new TriggerPushContext(SyntheticData.DATA_CENTER, ver, null, System.currentTimeMillis());
+    PushTask task =
+        new BenchmarkPushTask(
+            new PushCause(ctx, PushType.Sub, System.currentTimeMillis()),
+            addresses[index],
+            subscriberMaps[index],
+            datum);
+    // keep the task in the buffer, the benchmark measures the replace
+    task.expireAfter(1000);
+    return task;
+  }
+
+  static final class BenchmarkPushTask extends PushTask {
+    BenchmarkPushTask(
+        PushCause pushCause,
+        InetSocketAddress addr,
+        Map<String, Subscriber> subscriberMap,
+        SubDatum datum) {
+      super(pushCause, addr, subscriberMap, datum);
+    }
+
+    @Override
+    protected boolean commit() {
+      return true;
+    }
+
+    @Override
+    protected PushData createPushData() {
+      return null;
+    }
+  }
+}
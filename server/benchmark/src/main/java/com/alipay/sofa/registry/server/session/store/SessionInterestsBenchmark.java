@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.store;
+
+import com.alipay.sofa.registry.benchmark.SyntheticData;
+import com.alipay.sofa.registry.common.model.Tuple;
+import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.store.Subscriber;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** the scan of the subscribers for the version watchdog */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(
+    value = 1,
+    jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SessionInterestsBenchmark {
+  @Param({"10000", "100000"})
+  int dataInfoIdNum;
+
+  @Param({"2"})
+  int subscribersPerDataInfoId;
+
+  private SessionInterests sessionInterests;
+
+  @Setup
+  public void setup() {
+    SessionServerConfigBean configBean = new SessionServerConfigBean(null);
+    configBean.setSessionServerDataCenter(SyntheticData.DATA_CENTER);
+    sessionInterests = new SessionInterests();
+    sessionInterests.setSessionServerConfig(configBean);
+    final Random random = SyntheticData.newRandom();
+    for (int i = 0; i < dataInfoIdNum; i++) {
+      final String dataInfoId = SyntheticData.dataInfoId(i);
+      for (int j = 0; j < subscribersPerDataInfoId; j++) {
+        Subscriber subscriber = SyntheticData.subscriber(dataInfoId, random);
+        sessionInterests.add(subscriber);
+        subscriber.checkAndUpdateCtx(SyntheticData.DATA_CENTER, i + 1, 1);
+      }
+    }
+  }
+
+  @Benchmark
+  public Tuple<Map<String, DatumVersion>, List<Subscriber>> selectSubscribers() {
+    return sessionInterests.selectSubscribers(SyntheticData.DATA_CENTER);
+  }
+}
@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.registry.common.model;
 
+import com.alipay.sofa.registry.common.model.dataserver.AdditiveDatumDigest;
 import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
 import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
 import com.google.common.collect.Maps;
@@ -71,6 +72,31 @@ public final class PublisherDigestUtil {
         publisherNum, publisherIdSign, publisherVerSign, publisherTimestampSign, max, min);
   }
 
+  public static Map<String, DatumDigest> additiveDigest(Map<String, DatumSummary> summaryMap) {
+    if (summaryMap.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    final Map<String, DatumDigest> ret = Maps.newHashMapWithExpectedSize(summaryMap.size());
+    for (Map.Entry<String, DatumSummary> e : summaryMap.entrySet()) {
+      ret.put(e.getKey(), additiveDigest(e.getValue()));
+    }
+    return ret;
+  }
+
+  /**
+   * the digest is independent of the order of publishers, the session maintains it incrementally
+   *
+   * @param summary
+   * @return DatumDigest
+   */
+  public static DatumDigest additiveDigest(DatumSummary summary) {
+    AdditiveDatumDigest digest = new AdditiveDatumDigest();
+    for (Map.Entry<String, RegisterVersion> pub : summary.getPublisherVersions().entrySet()) {
+      digest.add(pub.getKey(), pub.getValue());
+    }
+    return digest.toDigest();
+  }
+
   private static int digest(String str) {
     // use string.hashCode, it's the fastest. the calc result has cached.
     // but must pay attention to the compatibility of different jdk versions
@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.registry.common.model;
 
+import com.alipay.sofa.registry.util.SystemUtils;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.google.common.base.Objects;
 import java.io.ByteArrayInputStream;
@@ -24,6 +25,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 /**
@@ -35,7 +37,17 @@ public class ServerDataBox implements Serializable {
   /** UID */
   private static final long serialVersionUID = 2817539491173993030L;
   /** */
-  private static final int SERIALIZED_BY_JAVA = 1;
+  public static final int SERIALIZED_BY_JAVA = 1;
+  /** the raw utf-8 bytes of a string, no object stream header */
+  public static final int SERIALIZED_BY_UTF8 = 2;
+
+  public static final String KEY_UTF8_ENABLED = "registry.dataBox.utf8.enabled";
+  /**
+   * write the string as SERIALIZED_BY_UTF8, the old version could not read it. enable it after all
+   * the servers are upgraded, the reading is always supported
+   */
+  private static volatile boolean utf8Enabled =
+      Boolean.parseBoolean(SystemUtils.getSystem(KEY_UTF8_ENABLED, "false"));
   /** Null for locally instantiated, otherwise for internalized */
   private byte[] bytes;
   /** Only available if bytes != null */
@@ -61,8 +73,45 @@ public class ServerDataBox implements Serializable {
    * @param bytes the bytes
    */
   public ServerDataBox(byte[] bytes) {
+    this(bytes, SERIALIZED_BY_JAVA);
+  }
+
+  /**
+   * Instantiates a new DataBox.
+   *
+   * @param bytes the bytes
+   * @param serialization the serialization type of bytes
+   */
+  public ServerDataBox(byte[] bytes, int serialization) {
     this.bytes = bytes;
-    this.serialization = SERIALIZED_BY_JAVA;
+    this.serialization = serialization;
+  }
+
+  /**
+   * Instantiates a DataBox holding the bytes of the data, utf-8 if enabled, otherwise serialized by
+   * java
+   *
+   * @param data the data
+   * @return ServerDataBox
+   */
+  public static ServerDataBox of(String data) {
+    if (utf8Enabled && data != null) {
+      return ofUtf8(data);
+    }
+    return new ServerDataBox(getBytes(data));
+  }
+
+  /**
+   * Instantiates a DataBox holding the utf-8 bytes of the data, null data is kept as object
+   *
+   * @param data the data
+   * @return ServerDataBox
+   */
+  public static ServerDataBox ofUtf8(String data) {
+    if (data == null) {
+      return new ServerDataBox((Object) null);
+    }
+    return new ServerDataBox(data.getBytes(StandardCharsets.UTF_8), SERIALIZED_BY_UTF8);
   }
 
   /**
@@ -93,13 +142,16 @@ public class ServerDataBox implements Serializable {
    */
   public Object extract() throws IOException, ClassNotFoundException {
     if (object == null && isInBytes()) {
-      ByteArrayInputStream bis = new ByteArrayInputStream(bytes);
+      if (serialization == SERIALIZED_BY_UTF8) {
+        object = new String(bytes, StandardCharsets.UTF_8);
+        return object;
+      }
       if (serialization != SERIALIZED_BY_JAVA) {
         throw new IOException("Unsupported serialization type: " + serialization);
       }
       ServerDataBoxInputStream input = null;
       try {
-        input = new ServerDataBoxInputStream(bis);
+        input = new ServerDataBoxInputStream(new ByteArrayInputStream(bytes));
         object = input.readObject();
       } finally {
         if (input != null) {
@@ -118,8 +170,13 @@ public class ServerDataBox implements Serializable {
    */
   public ServerDataBox object2bytes() {
     if (!isInBytes()) {
-      bytes = getBytes(object);
-      serialization = SERIALIZED_BY_JAVA;
+      if (utf8Enabled && object instanceof String) {
+        bytes = ((String) object).getBytes(StandardCharsets.UTF_8);
+        serialization = SERIALIZED_BY_UTF8;
+      } else {
+        bytes = getBytes(object);
+        serialization = SERIALIZED_BY_JAVA;
+      }
     }
     return this;
   }
@@ -156,6 +213,11 @@ public class ServerDataBox implements Serializable {
       out.writeByte(serialization); // Write serialization type
       out.writeInt(bytes.length); // Write byte stream size
       out.write(bytes); // Write the byte stream
+    } else if (utf8Enabled && object instanceof String) {
+      byte[] b = ((String) object).getBytes(StandardCharsets.UTF_8);
+      out.writeByte(SERIALIZED_BY_UTF8); // Write serialization type
+      out.writeInt(b.length); // Write byte stream size
+      out.write(b); // Write the byte stream
     } else {
       ByteArrayOutputStream bos = new ByteArrayOutputStream();
       ObjectOutputStream javaos = new ObjectOutputStream(bos);
@@ -174,6 +236,14 @@ public class ServerDataBox implements Serializable {
     }
   }
 
+  public static boolean isUtf8Enabled() {
+    return utf8Enabled;
+  }
+
+  public static void setUtf8Enabled(boolean enabled) {
+    utf8Enabled = enabled;
+  }
+
   public int byteSize() {
     final byte[] b = bytes;
     return b != null ? b.length : 0;
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.dataserver;
+
+import com.alipay.sofa.registry.common.model.RegisterVersion;
+import com.alipay.sofa.registry.util.StringFormatter;
+
+/**
+ * the digest of publishers which is independent of the order, the sign of each publisher is added
+ * to the digest, so it could be maintained incrementally when the publisher is added or removed
+ */
+public final class AdditiveDatumDigest {
+  private int publisherNum;
+  private long publisherIdSign;
+  private long publisherVerSign;
+  private long publisherTimestampSign;
+
+  public synchronized void add(String registerId, RegisterVersion ver) {
+    final long idHash = registerId.hashCode();
+    publisherNum++;
+    publisherIdSign += mix(idHash);
+    publisherVerSign += mix(idHash * 31 + ver.getVersion());
+    publisherTimestampSign += mix(idHash * 31 + ver.getRegisterTimestamp());
+  }
+
+  public synchronized void remove(String registerId, RegisterVersion ver) {
+    final long idHash = registerId.hashCode();
+    publisherNum--;
+    publisherIdSign -= mix(idHash);
+    publisherVerSign -= mix(idHash * 31 + ver.getVersion());
+    publisherTimestampSign -= mix(idHash * 31 + ver.getRegisterTimestamp());
+  }
+
+  public synchronized int getPublisherNum() {
+    return publisherNum;
+  }
+
+  /**
+   * the count may reach zero with signs left when the changes are applied out of order, the digest
+   * is empty only when all of them are zero
+   *
+   * @return boolean
+   */
+  public synchronized boolean isEmpty() {
+    return publisherNum == 0
+        && publisherIdSign == 0
+        && publisherVerSign == 0
+        && publisherTimestampSign == 0;
+  }
+
+  /**
+   * the max/min timestamp could not be maintained when removing, always zero
+   *
+   * @return DatumDigest
+   */
+  public synchronized DatumDigest toDigest() {
+    return new DatumDigest(
+        publisherNum,
+        publisherIdSign,
+        publisherVerSign,
+        publisherTimestampSign,
+        (short) 0,
+        (short) 0);
+  }
+
+  // the finalizer of murmur3, spread the bits to make the sum hard to collide
+  public static long mix(long k) {
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return StringFormatter.format(
+        "AdditiveDigest{num={},idSign={},verSign={},tsSign={}}",
+        publisherNum,
+        publisherIdSign,
+        publisherVerSign,
+        publisherTimestampSign);
+  }
+}
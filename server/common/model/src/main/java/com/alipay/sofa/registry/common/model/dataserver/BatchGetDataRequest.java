@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.dataserver;
+
+import com.alipay.sofa.registry.common.model.ProcessId;
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.collect.Lists;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * get the datum of multi dataInfoIds in one request, the slots of the dataInfoIds share the same
+ * leader. each item is checked and handled as a GetDataRequest
+ */
+public class BatchGetDataRequest implements Serializable {
+  private static final long serialVersionUID = -6373623183749372532L;
+
+  private final ProcessId sessionProcessId;
+
+  private final List<GetDataRequest> requests;
+
+  public BatchGetDataRequest(ProcessId sessionProcessId, List<GetDataRequest> requests) {
+    this.sessionProcessId = sessionProcessId;
+    this.requests = Lists.newArrayList(requests);
+  }
+
+  public ProcessId getSessionProcessId() {
+    return sessionProcessId;
+  }
+
+  public List<GetDataRequest> getRequests() {
+    return requests;
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format("BatchGetData:num={}", requests.size());
+  }
+}
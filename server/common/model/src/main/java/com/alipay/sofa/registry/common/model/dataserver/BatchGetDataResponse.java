@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.dataserver;
+
+import com.alipay.sofa.registry.util.StringFormatter;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * the responses of BatchGetDataRequest, in the same order as the requests. each item is the
+ * response of the GetDataRequest, a SlotAccessGenericResponse
+ */
+public class BatchGetDataResponse implements Serializable {
+  private static final long serialVersionUID = 2493856019402741257L;
+
+  private final List<Object> responses;
+
+  public BatchGetDataResponse(List<Object> responses) {
+    this.responses = responses;
+  }
+
+  public List<Object> getResponses() {
+    return responses;
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format("BatchGetDataResp:num={}", responses.size());
+  }
+}
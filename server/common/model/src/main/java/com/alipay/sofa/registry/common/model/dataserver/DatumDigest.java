@@ -43,6 +43,24 @@ public final class DatumDigest implements Serializable {
     this.minTimestamp = minTimestamp;
   }
 
+  public int getPublisherNum() {
+    return publisherNum;
+  }
+
+  /**
+   * the sign of all the fields, use to calc the sign of bucket
+   *
+   * @return long
+   */
+  public long sign() {
+    long sign = publisherNum;
+    sign = 31 * sign + publisherIdSign;
+    sign = 31 * sign + publisherVerSign;
+    sign = 31 * sign + publisherTimestampSign;
+    sign = 31 * sign + maxTimestamp;
+    return 31 * sign + minTimestamp;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
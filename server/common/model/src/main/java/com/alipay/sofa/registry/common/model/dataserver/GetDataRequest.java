@@ -36,6 +36,9 @@ public class GetDataRequest extends AbstractSlotRequest {
 
   private String[] acceptEncodes;
 
+  /** if sinceVersion is positive, only the changes since the version are required */
+  private long sinceVersion;
+
   public GetDataRequest(
       ProcessId sessionProcessId, String dataInfoId, String dataCenter, int slotId) {
     super(slotId, sessionProcessId);
@@ -64,12 +67,13 @@ public class GetDataRequest extends AbstractSlotRequest {
   @Override
   public String toString() {
     return StringFormatter.format(
-        "GetData:{},{},{},{},{}",
+        "GetData:{},{},{},{},{},since={}",
         dataInfoId,
         dataCenter,
         getSlotId(),
         getSlotLeaderEpoch(),
-        getSlotTableEpoch());
+        getSlotTableEpoch(),
+        sinceVersion);
   }
 
   public String[] getAcceptEncodes() {
@@ -79,4 +83,26 @@ public class GetDataRequest extends AbstractSlotRequest {
   public void setAcceptEncodes(String[] encodes) {
     acceptEncodes = encodes;
   }
+
+  /**
+   * Getter method for property <tt>sinceVersion</tt>.
+   *
+   * @return property value of sinceVersion
+   */
+  public long getSinceVersion() {
+    return sinceVersion;
+  }
+
+  /**
+   * Setter method for property <tt>sinceVersion</tt>.
+   *
+   * @param sinceVersion value to be assigned to property sinceVersion
+   */
+  public void setSinceVersion(long sinceVersion) {
+    this.sinceVersion = sinceVersion;
+  }
+
+  public boolean isDelta() {
+    return sinceVersion > 0;
+  }
 }
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.metaserver;
+
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * fetch the provide datas which version is larger than the version held by the node, the response
+ * is a Map[dataInfoId, ProvideData] only contains the advanced ones
+ */
+public class FetchProvideDataBatchRequest implements Serializable {
+
+  /** dataInfoId -> version held by the node, -1 if not hold */
+  private final Map<String, Long> dataInfoIdsWithVersion;
+
+  public FetchProvideDataBatchRequest(Map<String, Long> dataInfoIdsWithVersion) {
+    ParaCheckUtil.checkNotNull(dataInfoIdsWithVersion, "dataInfoIdsWithVersion");
+    this.dataInfoIdsWithVersion = dataInfoIdsWithVersion;
+  }
+
+  /**
+   * Getter method for property <tt>dataInfoIdsWithVersion</tt>.
+   *
+   * @return property value of dataInfoIdsWithVersion
+   */
+  public Map<String, Long> getDataInfoIdsWithVersion() {
+    return dataInfoIdsWithVersion;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("FetchProvideDataBatchRequest{");
+    sb.append("size=").append(dataInfoIdsWithVersion.size());
+    sb.append('}');
+    return sb.toString();
+  }
+}
@@ -20,6 +20,7 @@ import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedList;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.MetaNode;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.SessionNode;
 import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotTableDelta;
 import com.google.common.collect.Sets;
 import java.io.Serializable;
 import java.util.*;
@@ -32,11 +33,14 @@ public class BaseHeartBeatResponse implements Serializable {
 
   private final boolean heartbeatOnLeader;
 
-  private final SlotTable slotTable;
+  // the sections are null if not changed since the versions known by the conditional heartbeat
+  private SlotTable slotTable;
 
-  private final VersionedList<MetaNode> metaNodes;
+  private SlotTableDelta slotTableDelta;
 
-  private final VersionedList<SessionNode> sessionNodes;
+  private VersionedList<MetaNode> metaNodes;
+
+  private VersionedList<SessionNode> sessionNodes;
 
   private final String metaLeader;
 
@@ -70,6 +74,65 @@ public class BaseHeartBeatResponse implements Serializable {
     this.metaLeaderEpoch = metaLeaderEpoch;
   }
 
+  public BaseHeartBeatResponse(
+      boolean heartbeatOnLeader,
+      VersionedList<MetaNode> metaNodes,
+      SlotTable slotTable,
+      SlotTableDelta slotTableDelta,
+      VersionedList<SessionNode> sessionNodes,
+      String metaLeader,
+      long metaLeaderEpoch) {
+    this(heartbeatOnLeader, metaNodes, slotTable, sessionNodes, metaLeader, metaLeaderEpoch);
+    this.slotTableDelta = slotTableDelta;
+  }
+
+  /**
+   * fill the sections omitted by the conditional heartbeat with the last ones
+   *
+   * @param lastMetaNodes the meta nodes of last response
+   * @param lastSlotTable the slot table of last response
+   * @param lastSessionNodes the session nodes of last response
+   * @return false if the slot table delta could not be applied to lastSlotTable
+   */
+  public boolean fillUnchanged(
+      VersionedList<MetaNode> lastMetaNodes,
+      SlotTable lastSlotTable,
+      VersionedList<SessionNode> lastSessionNodes) {
+    if (metaNodes == null) {
+      metaNodes = lastMetaNodes;
+    }
+    if (sessionNodes == null) {
+      sessionNodes = lastSessionNodes;
+    }
+    if (slotTable != null) {
+      return true;
+    }
+    if (slotTableDelta == null) {
+      slotTable = lastSlotTable;
+      return true;
+    }
+    slotTable = slotTableDelta.apply(lastSlotTable);
+    if (slotTable != null) {
+      slotTableDelta = null;
+      return true;
+    }
+    // keep the last, the next heartbeat would fetch the whole slot table
+    slotTable = lastSlotTable;
+    return false;
+  }
+
+  public SlotTableDelta getSlotTableDelta() {
+    return slotTableDelta;
+  }
+
+  public VersionedList<MetaNode> getVersionedMetaNodes() {
+    return metaNodes;
+  }
+
+  public VersionedList<SessionNode> getVersionedSessionNodes() {
+    return sessionNodes;
+  }
+
   public SlotTable getSlotTable() {
     return slotTable;
   }
@@ -17,10 +17,14 @@
 package com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat;
 
 import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.metaserver.nodes.SessionNode;
 import com.alipay.sofa.registry.common.model.slot.BaseSlotStatus;
 import com.alipay.sofa.registry.common.model.slot.SlotConfig;
 import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.google.common.hash.Hashing;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -46,6 +50,18 @@ public class HeartbeatRequest<T extends Node> implements Serializable {
 
   private SlotTable slotTable;
 
+  // the versions known by the node, meta omits the unchanged sections in the response
+  private boolean conditional;
+
+  private long knownSlotTableEpoch = -1;
+
+  private long knownMetaNodesEpoch = -1;
+
+  private long knownSessionNodesEpoch = -1;
+
+  // the blacklist filters session nodes without changing the epoch
+  private long knownSessionNodesSign;
+
   /**
    * constructor
    *
@@ -179,6 +195,63 @@ public class HeartbeatRequest<T extends Node> implements Serializable {
     return this;
   }
 
+  /**
+   * set the versions known by the node, the sections in the response would be omitted if not
+   * changed
+   *
+   * @param slotTableEpoch the epoch of slot table which the delta could be applied to
+   * @param metaNodesEpoch the epoch of meta nodes
+   * @param sessionNodesEpoch the epoch of session nodes
+   * @param sessionNodesSign the sign of session nodes, see sessionNodesSign
+   * @return HeartbeatRequest
+   */
+  public HeartbeatRequest<T> setKnownEpochs(
+      long slotTableEpoch, long metaNodesEpoch, long sessionNodesEpoch, long sessionNodesSign) {
+    this.conditional = true;
+    this.knownSlotTableEpoch = slotTableEpoch;
+    this.knownMetaNodesEpoch = metaNodesEpoch;
+    this.knownSessionNodesEpoch = sessionNodesEpoch;
+    this.knownSessionNodesSign = sessionNodesSign;
+    return this;
+  }
+
+  /**
+   * the sign of the session node addresses, independent of the order
+   *
+   * @param sessionNodes the session nodes
+   * @return long
+   */
+  public static long sessionNodesSign(Collection<SessionNode> sessionNodes) {
+    long sign = 0;
+    for (SessionNode node : sessionNodes) {
+      sign +=
+          Hashing.murmur3_128()
+              .hashString(node.getNodeUrl().getIpAddress(), StandardCharsets.UTF_8)
+              .asLong();
+    }
+    return sign;
+  }
+
+  public boolean isConditional() {
+    return conditional;
+  }
+
+  public long getKnownSlotTableEpoch() {
+    return knownSlotTableEpoch;
+  }
+
+  public long getKnownMetaNodesEpoch() {
+    return knownMetaNodesEpoch;
+  }
+
+  public long getKnownSessionNodesEpoch() {
+    return knownSessionNodesEpoch;
+  }
+
+  public long getKnownSessionNodesSign() {
+    return knownSessionNodesSign;
+  }
+
   /**
    * To string string.
    *
@@ -32,6 +32,9 @@ public class BaseSlotStatus implements Serializable {
 
   protected final String server;
 
+  /** the load of the slot, null if the data server not reports it */
+  protected SlotWeight weight;
+
   /**
    * Constructor.
    *
@@ -83,6 +86,24 @@ public class BaseSlotStatus implements Serializable {
     return server;
   }
 
+  /**
+   * Gets get weight.
+   *
+   * @return the get weight
+   */
+  public SlotWeight getWeight() {
+    return weight;
+  }
+
+  /**
+   * Sets weight.
+   *
+   * @param weight the weight
+   */
+  public void setWeight(SlotWeight weight) {
+    this.weight = weight;
+  }
+
   public enum LeaderStatus {
     INIT,
     HEALTHY,
@@ -110,6 +131,8 @@ public class BaseSlotStatus implements Serializable {
         + ", server='"
         + server
         + '\''
+        + ", weight="
+        + weight
         + '}';
   }
 }
@@ -20,6 +20,7 @@ import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author yuzhi.lyz
@@ -30,6 +31,15 @@ public class DataSlotDiffDigestRequest implements Serializable {
   // all dataInfoIds, diff by digest
   private final Map<String, DatumDigest> datumDigest;
   private final int slotId;
+  // the digests are calc by PublisherDigestUtil.additiveDigest, false if the sender is old version
+  private boolean additiveDigest;
+
+  // the num of buckets which the dataInfoIds are hashed to, 0 means not bucketed
+  private int bucketNum;
+  // the signs of all buckets, the datumDigest is empty if the bucketSigns is set
+  private long[] bucketSigns;
+  // only diff the dataInfoIds in the buckets
+  private Set<Integer> diffBuckets;
 
   public DataSlotDiffDigestRequest(
       long slotTableEpoch, int slotId, Map<String, DatumDigest> datumDigest) {
@@ -56,6 +66,51 @@ public class DataSlotDiffDigestRequest implements Serializable {
     return slotTableEpoch;
   }
 
+  public boolean isAdditiveDigest() {
+    return additiveDigest;
+  }
+
+  public void setAdditiveDigest(boolean additiveDigest) {
+    this.additiveDigest = additiveDigest;
+  }
+
+  /**
+   * the first round of bucket sync, only carry the signs of buckets
+   *
+   * @param bucketSigns
+   */
+  public void setBucketSigns(long[] bucketSigns) {
+    this.bucketNum = bucketSigns.length;
+    this.bucketSigns = bucketSigns;
+  }
+
+  /**
+   * the second round of bucket sync, carry the digests of the dataInfoIds in the diff buckets
+   *
+   * @param bucketNum
+   * @param diffBuckets
+   */
+  public void setDiffBuckets(int bucketNum, Set<Integer> diffBuckets) {
+    this.bucketNum = bucketNum;
+    this.diffBuckets = diffBuckets;
+  }
+
+  public boolean isBucketSigns() {
+    return bucketSigns != null;
+  }
+
+  public int getBucketNum() {
+    return bucketNum;
+  }
+
+  public long[] getBucketSigns() {
+    return bucketSigns;
+  }
+
+  public Set<Integer> getDiffBuckets() {
+    return diffBuckets;
+  }
+
   public Map<String, DatumDigest> getDatumDigest() {
     return Collections.unmodifiableMap(datumDigest);
   }
@@ -69,6 +124,12 @@ public class DataSlotDiffDigestRequest implements Serializable {
         + slotTableEpoch
         + ", digests="
         + datumDigest.size()
+        + ", additive="
+        + additiveDigest
+        + ", buckets="
+        + bucketNum
+        + "/"
+        + (bucketSigns != null ? "signs" : diffBuckets)
         + '}';
   }
 }
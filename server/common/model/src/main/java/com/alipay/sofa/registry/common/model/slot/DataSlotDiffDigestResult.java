@@ -34,6 +34,10 @@ public class DataSlotDiffDigestResult implements Serializable {
   private final List<String> removedDataInfoIds;
   // if from session, return the sessionProcessId for lease
   private ProcessId sessionProcessId;
+  // the result of bucket signs diff, null if the request is not bucketed or the peer not support
+  private List<Integer> diffBuckets;
+  // the peer could handle the additive digest, the old version peer always false
+  private boolean additiveDigestSupported;
 
   public DataSlotDiffDigestResult(
       List<String> updatedDataInfoIds,
@@ -97,6 +101,22 @@ public class DataSlotDiffDigestResult implements Serializable {
     this.sessionProcessId = sessionProcessId;
   }
 
+  public List<Integer> getDiffBuckets() {
+    return diffBuckets;
+  }
+
+  public void setDiffBuckets(List<Integer> diffBuckets) {
+    this.diffBuckets = diffBuckets;
+  }
+
+  public boolean isAdditiveDigestSupported() {
+    return additiveDigestSupported;
+  }
+
+  public void setAdditiveDigestSupported(boolean additiveDigestSupported) {
+    this.additiveDigestSupported = additiveDigestSupported;
+  }
+
   public boolean isEmpty() {
     return CollectionUtils.isEmpty(updatedDataInfoIds)
         && CollectionUtils.isEmpty(removedDataInfoIds)
@@ -19,6 +19,7 @@ package com.alipay.sofa.registry.common.model.slot;
 import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
 import com.alipay.sofa.registry.common.model.PublisherUtils;
 import com.alipay.sofa.registry.common.model.RegisterVersion;
+import com.alipay.sofa.registry.common.model.dataserver.AdditiveDatumDigest;
 import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
 import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
 import com.alipay.sofa.registry.common.model.store.Publisher;
@@ -27,6 +28,7 @@ import com.alipay.sofa.registry.log.LoggerFactory;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import java.util.*;
+import org.apache.commons.collections.CollectionUtils;
 
 /**
  * @author yuzhi.lyz
@@ -45,6 +47,75 @@ public final class DataSlotDiffUtils {
     return diffDigest(targetDigestMap, digestMap);
   }
 
+  /**
+   * diff the additive digests, handle the bucketed request
+   *
+   * @param request
+   * @param sourceDigestMap the additive digests
+   * @return DataSlotDiffDigestResult
+   */
+  public static DataSlotDiffDigestResult diffDigest(
+      DataSlotDiffDigestRequest request, Map<String, DatumDigest> sourceDigestMap) {
+    final int bucketNum = request.getBucketNum();
+    if (request.isBucketSigns()) {
+      long[] sourceSigns = bucketSigns(sourceDigestMap, bucketNum);
+      DataSlotDiffDigestResult result =
+          new DataSlotDiffDigestResult(
+              Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+      result.setDiffBuckets(diffBuckets(request.getBucketSigns(), sourceSigns));
+      return result;
+    }
+    if (request.getDiffBuckets() != null) {
+      sourceDigestMap = filterBuckets(sourceDigestMap, bucketNum, request.getDiffBuckets());
+    }
+    return diffDigest(request.getDatumDigest(), sourceDigestMap);
+  }
+
+  public static int bucketOf(String dataInfoId, int bucketNum) {
+    // the dataInfoIds in one slot have the same slot hash, mix it to spread
+    return (int) ((AdditiveDatumDigest.mix(dataInfoId.hashCode()) & Long.MAX_VALUE) % bucketNum);
+  }
+
+  public static long[] bucketSigns(Map<String, DatumDigest> digestMap, int bucketNum) {
+    long[] signs = new long[bucketNum];
+    for (Map.Entry<String, DatumDigest> e : digestMap.entrySet()) {
+      final DatumDigest digest = e.getValue();
+      if (digest.getPublisherNum() == 0) {
+        // the empty datum is ignored like the session does
+        continue;
+      }
+      final String dataInfoId = e.getKey();
+      signs[bucketOf(dataInfoId, bucketNum)] +=
+          AdditiveDatumDigest.mix(dataInfoId.hashCode() * 31L + digest.sign());
+    }
+    return signs;
+  }
+
+  public static List<Integer> diffBuckets(long[] targetSigns, long[] sourceSigns) {
+    if (targetSigns.length != sourceSigns.length) {
+      throw new IllegalArgumentException(
+          "bucketNum not match, " + targetSigns.length + "!=" + sourceSigns.length);
+    }
+    List<Integer> buckets = Lists.newArrayList();
+    for (int i = 0; i < targetSigns.length; i++) {
+      if (targetSigns[i] != sourceSigns[i]) {
+        buckets.add(i);
+      }
+    }
+    return buckets;
+  }
+
+  public static Map<String, DatumDigest> filterBuckets(
+      Map<String, DatumDigest> digestMap, int bucketNum, Set<Integer> buckets) {
+    Map<String, DatumDigest> ret = Maps.newHashMap();
+    for (Map.Entry<String, DatumDigest> e : digestMap.entrySet()) {
+      if (buckets.contains(bucketOf(e.getKey(), bucketNum))) {
+        ret.put(e.getKey(), e.getValue());
+      }
+    }
+    return ret;
+  }
+
   public static DataSlotDiffDigestResult diffDigest(
       Map<String, DatumDigest> targetDigestMap, Map<String, DatumDigest> sourceDigestMap) {
     List<String> adds = Lists.newArrayList();
@@ -143,6 +214,9 @@ public final class DataSlotDiffUtils {
   }
 
   public static void logDiffResult(DataSlotDiffDigestResult result, int slotId) {
+    if (!CollectionUtils.isEmpty(result.getDiffBuckets())) {
+      SYNC_LOGGER.info("DiffBucket, slotId={}, buckets={}", slotId, result.getDiffBuckets());
+    }
     if (!result.isEmpty()) {
       SYNC_LOGGER.info(
           "DiffDigest, slotId={}, update={}, add={}, remove={}, adds={}, removes={}",
@@ -63,6 +63,8 @@ public class LeaderSlotStatus extends BaseSlotStatus implements Serializable {
         + ", server='"
         + server
         + '\''
+        + ", weight="
+        + weight
         + '}';
   }
 }
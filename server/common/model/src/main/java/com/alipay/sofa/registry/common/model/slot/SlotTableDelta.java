@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.slot;
+
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.collect.Lists;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/** the changed slots between two slot tables, use to avoid sending the whole slot table */
+public final class SlotTableDelta implements Serializable {
+  private static final long serialVersionUID = 6160587953937412736L;
+
+  private final long fromEpoch;
+
+  private final long epoch;
+
+  private final List<Slot> updatedSlots;
+
+  private final List<Integer> removedSlotIds;
+
+  public SlotTableDelta(
+      long fromEpoch, long epoch, List<Slot> updatedSlots, List<Integer> removedSlotIds) {
+    this.fromEpoch = fromEpoch;
+    this.epoch = epoch;
+    this.updatedSlots = updatedSlots;
+    this.removedSlotIds = removedSlotIds;
+  }
+
+  public static SlotTableDelta of(SlotTable from, SlotTable to) {
+    final Map<Integer, Slot> fromSlots = from.getSlotMap();
+    List<Slot> updated = Lists.newArrayList();
+    for (Slot slot : to.getSlots()) {
+      if (!slot.equals(fromSlots.remove(slot.getId()))) {
+        updated.add(slot);
+      }
+    }
+    // the remains are not in the to table
+    return new SlotTableDelta(
+        from.getEpoch(), to.getEpoch(), updated, Lists.newArrayList(fromSlots.keySet()));
+  }
+
+  /**
+   * apply the delta to the base table
+   *
+   * @param base the slot table with the epoch of fromEpoch
+   * @return the patched slot table, null if the base is not match
+   */
+  public SlotTable apply(SlotTable base) {
+    if (base == null || base.getEpoch() != fromEpoch) {
+      return null;
+    }
+    Map<Integer, Slot> slots = base.getSlotMap();
+    for (Slot slot : updatedSlots) {
+      slots.put(slot.getId(), slot);
+    }
+    for (Integer slotId : removedSlotIds) {
+      slots.remove(slotId);
+    }
+    return new SlotTable(epoch, slots.values());
+  }
+
+  public int size() {
+    return updatedSlots.size() + removedSlotIds.size();
+  }
+
+  public long getFromEpoch() {
+    return fromEpoch;
+  }
+
+  public long getEpoch() {
+    return epoch;
+  }
+
+  public List<Slot> getUpdatedSlots() {
+    return updatedSlots;
+  }
+
+  public List<Integer> getRemovedSlotIds() {
+    return removedSlotIds;
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format(
+        "SlotTableDelta{from={},epoch={},updated={},removed={}}",
+        fromEpoch,
+        epoch,
+        updatedSlots.size(),
+        removedSlotIds);
+  }
+}
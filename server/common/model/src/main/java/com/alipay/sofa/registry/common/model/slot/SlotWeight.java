@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.slot;
+
+import com.alipay.sofa.registry.util.StringFormatter;
+import java.io.Serializable;
+
+/**
+ * the load metrics of a slot reported by data server, used by meta to balance the load of slots
+ * beyond the count of slots
+ */
+public final class SlotWeight implements Serializable {
+  private static final long serialVersionUID = -2405380829717402916L;
+
+  public static final SlotWeight EMPTY = new SlotWeight(0, 0, 0);
+
+  private final int publisherNum;
+
+  private final long dataBytes;
+
+  private final long changesPerMin;
+
+  public SlotWeight(int publisherNum, long dataBytes, long changesPerMin) {
+    this.publisherNum = publisherNum;
+    this.dataBytes = dataBytes;
+    this.changesPerMin = changesPerMin;
+  }
+
+  public int getPublisherNum() {
+    return publisherNum;
+  }
+
+  public long getDataBytes() {
+    return dataBytes;
+  }
+
+  public long getChangesPerMin() {
+    return changesPerMin;
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format(
+        "SlotWeight{pubs={},bytes={},changes={}}", publisherNum, dataBytes, changesPerMin);
+  }
+}
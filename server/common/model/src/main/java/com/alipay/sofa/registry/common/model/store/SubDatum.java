@@ -215,17 +215,7 @@ public final class SubDatum implements Serializable, Sizer {
     if (datum.publishers != null) {
       publishers = Lists.newArrayListWithCapacity(datum.mustGetPublishers().size());
       for (SubPublisher publisher : datum.mustGetPublishers()) {
-        final String cell = WordCache.getWordCache(publisher.getCell());
-        publishers.add(
-            new SubPublisher(
-                publisher.getRegisterId(),
-                cell,
-                publisher.getDataList(),
-                publisher.getClientId(),
-                publisher.getVersion(),
-                publisher.getSrcAddressString(),
-                publisher.getRegisterTimestamp(),
-                publisher.getPublishSource()));
+        publishers.add(SubPublisher.intern(publisher));
       }
     }
     return new SubDatum(
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.store;
+
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.collect.Lists;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * the changes of a datum between fromVersion and version. if the data server could not build the
+ * delta (the change log has been trimmed), the whole datum is carried in fullDatum
+ */
+public final class SubDatumDelta implements Serializable {
+  private static final long serialVersionUID = -3390170262342391620L;
+
+  private final String dataInfoId;
+
+  private final String dataCenter;
+
+  private final long fromVersion;
+
+  private final long version;
+
+  /** the num of publishers after the delta applied, use to verify the patched datum */
+  private final int pubNum;
+
+  /** the added or replaced publishers */
+  private final List<SubPublisher> addPublishers;
+
+  private final List<String> removedRegisterIds;
+
+  private final List<Long> recentVersions;
+
+  private final SubDatum fullDatum;
+
+  private SubDatumDelta(
+      String dataInfoId,
+      String dataCenter,
+      long fromVersion,
+      long version,
+      int pubNum,
+      List<SubPublisher> addPublishers,
+      List<String> removedRegisterIds,
+      List<Long> recentVersions,
+      SubDatum fullDatum) {
+    this.dataInfoId = dataInfoId;
+    this.dataCenter = dataCenter;
+    this.fromVersion = fromVersion;
+    this.version = version;
+    this.pubNum = pubNum;
+    this.addPublishers = addPublishers;
+    this.removedRegisterIds = removedRegisterIds;
+    this.recentVersions = recentVersions;
+    this.fullDatum = fullDatum;
+  }
+
+  public static SubDatumDelta deltaOf(
+      String dataInfoId,
+      String dataCenter,
+      long fromVersion,
+      long version,
+      int pubNum,
+      List<SubPublisher> addPublishers,
+      List<String> removedRegisterIds,
+      List<Long> recentVersions) {
+    return new SubDatumDelta(
+        dataInfoId,
+        dataCenter,
+        fromVersion,
+        version,
+        pubNum,
+        addPublishers,
+        removedRegisterIds,
+        recentVersions,
+        null);
+  }
+
+  public static SubDatumDelta fullOf(String dataInfoId, String dataCenter, SubDatum fullDatum) {
+    if (fullDatum == null) {
+      return new SubDatumDelta(
+          dataInfoId,
+          dataCenter,
+          0,
+          0,
+          0,
+          Collections.emptyList(),
+          Collections.emptyList(),
+          Collections.emptyList(),
+          null);
+    }
+    return new SubDatumDelta(
+        dataInfoId,
+        dataCenter,
+        0,
+        fullDatum.getVersion(),
+        fullDatum.getPubNum(),
+        Collections.emptyList(),
+        Collections.emptyList(),
+        fullDatum.getRecentVersions(),
+        fullDatum);
+  }
+
+  public static SubDatumDelta intern(SubDatumDelta delta) {
+    final String dataInfoId = WordCache.getWordCache(delta.dataInfoId);
+    final String dataCenter = WordCache.getWordCache(delta.dataCenter);
+    List<SubPublisher> addPublishers = Lists.newArrayListWithCapacity(delta.addPublishers.size());
+    for (SubPublisher publisher : delta.addPublishers) {
+      addPublishers.add(SubPublisher.intern(publisher));
+    }
+    return new SubDatumDelta(
+        dataInfoId,
+        dataCenter,
+        delta.fromVersion,
+        delta.version,
+        delta.pubNum,
+        addPublishers,
+        delta.removedRegisterIds,
+        delta.recentVersions,
+        delta.fullDatum == null ? null : SubDatum.intern(delta.fullDatum));
+  }
+
+  /**
+   * the delta could not be applied to the cached datum, it carries the whole datum or no datum
+   * exists
+   *
+   * @return boolean
+   */
+  public boolean isFull() {
+    return fromVersion == 0;
+  }
+
+  public String getDataInfoId() {
+    return dataInfoId;
+  }
+
+  public String getDataCenter() {
+    return dataCenter;
+  }
+
+  public long getFromVersion() {
+    return fromVersion;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public int getPubNum() {
+    return pubNum;
+  }
+
+  public List<SubPublisher> getAddPublishers() {
+    return addPublishers;
+  }
+
+  public List<String> getRemovedRegisterIds() {
+    return removedRegisterIds;
+  }
+
+  public List<Long> getRecentVersions() {
+    return recentVersions;
+  }
+
+  public SubDatum getFullDatum() {
+    return fullDatum;
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format(
+        "SubDatumDelta{{},{},from={},ver={},num={},add={},remove={},full={}}",
+        dataInfoId,
+        dataCenter,
+        fromVersion,
+        version,
+        pubNum,
+        addPublishers.size(),
+        removedRegisterIds.size(),
+        fullDatum);
+  }
+}
@@ -57,6 +57,19 @@ public final class SubPublisher implements Serializable, Sizer {
     this.publishSource = publishSource;
   }
 
+  public static SubPublisher intern(SubPublisher publisher) {
+    final String cell = WordCache.getWordCache(publisher.getCell());
+    return new SubPublisher(
+        publisher.getRegisterId(),
+        cell,
+        publisher.getDataList(),
+        publisher.getClientId(),
+        publisher.getVersion(),
+        publisher.getSrcAddressString(),
+        publisher.getRegisterTimestamp(),
+        publisher.getPublishSource());
+  }
+
   public String getCell() {
     return cell;
   }
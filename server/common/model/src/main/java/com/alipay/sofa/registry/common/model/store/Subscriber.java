@@ -21,12 +21,11 @@ import com.alipay.sofa.registry.common.model.constants.ValueConstants;
 import com.alipay.sofa.registry.core.model.ScopeEnum;
 import com.alipay.sofa.registry.util.StringFormatter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringUtils;
-import org.springframework.util.CollectionUtils;
 
 /**
  * @author shangyu.wh
@@ -43,8 +42,14 @@ public class Subscriber extends BaseInfo {
   /** */
   private String[] acceptEncodes;
 
-  /** last push context */
-  private Map<String /*dataCenter*/, PushContext> lastPushContexts;
+  /**
+   * last push contexts, a singly linked list, one node per dataCenter. the head is replaced by cas,
+   * the scan path reads the versions without locking
+   */
+  private volatile PushContext pushContexts;
+
+  private static final AtomicReferenceFieldUpdater<Subscriber, PushContext> CONTEXTS_UPDATER =
+      AtomicReferenceFieldUpdater.newUpdater(Subscriber.class, PushContext.class, "pushContexts");
 
   /**
    * Getter method for property <tt>scope</tt>.
@@ -69,95 +74,114 @@ public class Subscriber extends BaseInfo {
   }
 
   private PushContext getPushContext(String dataCenter) {
-    PushContext ctx = null;
-    if (lastPushContexts == null) {
-      ctx = new PushContext();
-      this.lastPushContexts = Collections.singletonMap(dataCenter, ctx);
-    } else {
-      ctx = lastPushContexts.get(dataCenter);
-      if (ctx == null) {
-        // multi dataCenter, replace the singletonMap
-        if (!(lastPushContexts instanceof HashMap)) {
-          this.lastPushContexts = new HashMap<>(lastPushContexts);
+    for (; ; ) {
+      final PushContext head = pushContexts;
+      for (PushContext ctx = head; ctx != null; ctx = ctx.next) {
+        if (ctx.dataCenter == dataCenter || ctx.dataCenter.equals(dataCenter)) {
+          return ctx;
         }
-        ctx = new PushContext();
-        this.lastPushContexts.put(dataCenter, ctx);
+      }
+      // the dataCenter is shared by all the subscribers, intern it
+      final PushContext ctx = new PushContext(WordCache.getWordCache(dataCenter), head);
+      if (CONTEXTS_UPDATER.compareAndSet(this, head, ctx)) {
+        return ctx;
       }
     }
-    return ctx;
   }
+
   // check the version
-  public synchronized boolean checkVersion(String dataCenter, long version) {
+  public boolean checkVersion(String dataCenter, long version) {
     final PushContext ctx = getPushContext(dataCenter);
     // emptyVersion != 0, means not care any version update
     return ctx.pushedVersion < version && ctx.emptyVersion == 0;
   }
 
-  public synchronized boolean checkAndUpdateCtx(String dataCenter, long pushVersion, int num) {
+  public boolean checkAndUpdateCtx(String dataCenter, long pushVersion, int num) {
     final PushContext ctx = getPushContext(dataCenter);
-
-    if (ctx.pushedVersion < pushVersion) {
-      ctx.pushedVersion = pushVersion;
-      ctx.pushedNum = num;
-      ctx.pushedFailCount = 0;
-      ctx.lastPushedFailTimeStamp = 0;
-      return true;
+    synchronized (ctx) {
+      if (ctx.pushedVersion < pushVersion) {
+        ctx.beginWrite();
+        ctx.counts = PushContext.packCounts(num, 0);
+        ctx.lastPushedFailTimeStamp = 0;
+        ctx.pushedVersion = pushVersion;
+        ctx.endWrite();
+        return true;
+      }
+      return false;
     }
-    return false;
   }
 
-  public synchronized boolean onPushFail(String dataCenter, long pushVersion) {
+  public boolean onPushFail(String dataCenter, long pushVersion) {
     final PushContext ctx = getPushContext(dataCenter);
-
-    if (ctx.pushedVersion < pushVersion) {
-      ctx.pushedFailCount += 1;
-      ctx.lastPushedFailTimeStamp = System.currentTimeMillis();
-      return true;
+    synchronized (ctx) {
+      if (ctx.pushedVersion < pushVersion) {
+        final long counts = ctx.counts;
+        ctx.beginWrite();
+        ctx.counts =
+            PushContext.packCounts(
+                PushContext.pushedNum(counts), PushContext.pushedFailCount(counts) + 1);
+        ctx.lastPushedFailTimeStamp = System.currentTimeMillis();
+        ctx.endWrite();
+        return true;
+      }
+      return false;
     }
-    return false;
   }
 
-  public synchronized boolean checkSkipPushEmpty(String dataCenter, long pushVersion, int num) {
+  public boolean checkSkipPushEmpty(String dataCenter, long pushVersion, int num) {
     final PushContext ctx = getPushContext(dataCenter);
-    long lastPushMaxVersion = ctx.lastMaxPushVersion;
-    long lastPushVersion = ctx.lastPushVersion;
-    ctx.lastMaxPushVersion = Math.max(lastPushMaxVersion, pushVersion);
-    ctx.lastPushVersion = pushVersion;
-    if (num > 0) {
-      return false;
-    }
-    if (lastPushMaxVersion <= ValueConstants.DEFAULT_NO_DATUM_VERSION) {
-      return false;
+    synchronized (ctx) {
+      long lastPushMaxVersion = ctx.lastMaxPushVersion;
+      long lastPushVersion = ctx.lastPushVersion;
+      ctx.lastMaxPushVersion = Math.max(lastPushMaxVersion, pushVersion);
+      ctx.lastPushVersion = pushVersion;
+      if (num > 0) {
+        return false;
+      }
+      if (lastPushMaxVersion <= ValueConstants.DEFAULT_NO_DATUM_VERSION) {
+        return false;
+      }
+      return lastPushVersion == lastPushMaxVersion
+          && lastPushMaxVersion == ctx.pushedVersion
+          && PushContext.pushedNum(ctx.counts) == 0;
     }
-    return lastPushVersion == lastPushMaxVersion
-        && lastPushMaxVersion == ctx.pushedVersion
-        && ctx.pushedNum == 0;
   }
 
-  public synchronized boolean needPushEmpty(String dataCenter) {
+  public boolean needPushEmpty(String dataCenter) {
     final PushContext ctx = getPushContext(dataCenter);
-    if (ctx.emptyVersion == 0) {
+    final long emptyVersion = ctx.emptyVersion;
+    if (emptyVersion == 0) {
       return false;
     }
-    // empty has mark, last push.num is not empty
-    if (ctx.pushedNum != 0) {
-      return true;
+    for (; ; ) {
+      final int seq = ctx.seq;
+      if ((seq & 1) != 0) {
+        // writing
+        Thread.yield();
+        continue;
+      }
+      final long counts = ctx.counts;
+      final long pushedVersion = ctx.pushedVersion;
+      if (seq != ctx.seq) {
+        continue;
+      }
+      // empty has mark, last push.num is not empty
+      if (PushContext.pushedNum(counts) != 0) {
+        return true;
+      }
+      // emptyVersion has pushed
+      return emptyVersion != pushedVersion;
     }
-    // emptyVersion has pushed
-    return ctx.emptyVersion != ctx.pushedVersion;
   }
 
-  public synchronized boolean isMarkedPushEmpty(String dataCenter) {
+  public boolean isMarkedPushEmpty(String dataCenter) {
     final PushContext ctx = getPushContext(dataCenter);
     return ctx.emptyVersion != 0;
   }
 
-  public synchronized boolean hasPushed() {
+  public boolean hasPushed() {
     // TODO now not care multi-datacenter
-    if (CollectionUtils.isEmpty(lastPushContexts)) {
-      return false;
-    }
-    for (PushContext ctx : lastPushContexts.values()) {
+    for (PushContext ctx = pushContexts; ctx != null; ctx = ctx.next) {
       if (ctx.pushedVersion != 0) {
         return true;
       }
@@ -194,44 +218,66 @@ public class Subscriber extends BaseInfo {
   }
 
   @Override
-  protected synchronized String getOtherInfo() {
+  protected String getOtherInfo() {
+    final PushContext head = pushContexts;
     return StringFormatter.format(
-        "scope={},elementType={},ctx={}", scope, elementType, lastPushContexts);
+        "scope={},elementType={},ctx={}",
+        scope,
+        elementType,
+        head == null ? "null" : formatPushContexts(head));
   }
 
-  public synchronized String printPushContext() {
-    return lastPushContexts == null ? "{}" : lastPushContexts.toString();
+  public String printPushContext() {
+    final PushContext head = pushContexts;
+    return head == null ? "{}" : formatPushContexts(head);
+  }
+
+  private static String formatPushContexts(PushContext head) {
+    final StringBuilder sb = new StringBuilder(128).append('{');
+    for (PushContext ctx = head; ctx != null; ctx = ctx.next) {
+      sb.append(ctx.dataCenter).append('=').append(ctx);
+      if (ctx.next != null) {
+        sb.append(", ");
+      }
+    }
+    return sb.append('}').toString();
   }
 
-  public synchronized long getPushedVersion(String dataCenter) {
+  public long getPushedVersion(String dataCenter) {
     final PushContext ctx = getPushContext(dataCenter);
     return ctx.pushedVersion;
   }
 
-  public synchronized int getPushedNum(String dataCenter) {
+  public int getPushedNum(String dataCenter) {
     final PushContext ctx = getPushContext(dataCenter);
-    return ctx.pushedNum;
+    return PushContext.pushedNum(ctx.counts);
   }
 
-  public synchronized long markPushEmpty(String dataCenter, long emptyVersion) {
+  public long markPushEmpty(String dataCenter, long emptyVersion) {
     final PushContext ctx = getPushContext(dataCenter);
-
-    if (ctx.emptyVersion != 0) {
-      return ctx.emptyVersion;
+    if (PushContext.EMPTY_VERSION_UPDATER.compareAndSet(ctx, 0, emptyVersion)) {
+      return emptyVersion;
     }
-    ctx.emptyVersion = emptyVersion;
-    return emptyVersion;
+    return ctx.emptyVersion;
   }
 
   /** @return */
-  public synchronized CircuitBreakerStatistic getStatistic(String dataCenter) {
+  public CircuitBreakerStatistic getStatistic(String dataCenter) {
     final PushContext ctx = getPushContext(dataCenter);
+    long counts;
+    long failTimestamp;
+    int seq;
+    do {
+      seq = ctx.seq;
+      counts = ctx.counts;
+      failTimestamp = ctx.lastPushedFailTimeStamp;
+    } while ((seq & 1) != 0 || seq != ctx.seq);
     return new CircuitBreakerStatistic(
         getGroup(),
         getSourceAddress().getIpAddress(),
         getSourceAddress().buildAddressString(),
-        ctx.pushedFailCount,
-        ctx.lastPushedFailTimeStamp);
+        PushContext.pushedFailCount(counts),
+        failTimestamp);
   }
 
   /**
@@ -280,24 +326,61 @@ public class Subscriber extends BaseInfo {
     this.acceptEncodes = encodes;
   }
 
-  private static class PushContext {
-    long pushedVersion;
+  private static final class PushContext {
+    static final AtomicLongFieldUpdater<PushContext> EMPTY_VERSION_UPDATER =
+        AtomicLongFieldUpdater.newUpdater(PushContext.class, "emptyVersion");
+
+    final String dataCenter;
+    final PushContext next;
+
+    volatile long pushedVersion;
+    // pushedNum in the high 32 bits, pushedFailCount in the low 32 bits
+    volatile long counts = packCounts(-1, 0);
+    volatile long emptyVersion;
+    volatile long lastPushedFailTimeStamp;
+    // odd when a writer is updating the counts/pushedVersion/failTs, readers retry on change
+    volatile int seq;
+
+    // guarded by this
     long lastMaxPushVersion = -1;
     long lastPushVersion = -1;
-    long emptyVersion;
-    int pushedNum = -1;
-    int pushedFailCount = 0;
-    long lastPushedFailTimeStamp = 0;
+
+    PushContext(String dataCenter, PushContext next) {
+      this.dataCenter = dataCenter;
+      this.next = next;
+    }
+
+    // call with the lock of this
+    void beginWrite() {
+      seq++;
+    }
+
+    void endWrite() {
+      seq++;
+    }
+
+    static long packCounts(int pushedNum, int pushedFailCount) {
+      return ((long) pushedNum << 32) | (pushedFailCount & 0xFFFFFFFFL);
+    }
+
+    static int pushedNum(long counts) {
+      return (int) (counts >> 32);
+    }
+
+    static int pushedFailCount(long counts) {
+      return (int) counts;
+    }
 
     @Override
     public String toString() {
+      final long c = counts;
       return StringFormatter.format(
           "PushCtx{pushedVer={},lastMaxPushVer={},num={},empty={},failCount={},failTs={}}",
           pushedVersion,
           lastMaxPushVersion,
-          pushedNum,
+          pushedNum(c),
           emptyVersion,
-          pushedFailCount,
+          pushedFailCount(c),
           lastPushedFailTimeStamp);
     }
   }
@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.registry.common.model;
 
+import com.alipay.sofa.registry.common.model.dataserver.AdditiveDatumDigest;
 import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
 import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
 import com.alipay.sofa.registry.util.StringFormatter;
@@ -83,6 +84,66 @@ public class PublisherDigestUtilTest {
     }
   }
 
+  @Test
+  public void testAdditiveDigestConflict() {
+    for (int i = 1; i < 100; i++) {
+      int count = i * 10;
+      Map<String, RegisterVersion> m1 = Maps.newHashMapWithExpectedSize(count);
+      Map<String, RegisterVersion> m2 = Maps.newHashMapWithExpectedSize(count);
+      for (int j = 0; j < count; j++) {
+        String id = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        long ver = 0;
+        int r = RANDOM.nextInt(9);
+        m1.put(id, RegisterVersion.of(ver, now));
+        if (r % 3 == 0) {
+          m2.put(id, RegisterVersion.of(ver, now));
+        } else if (r % 3 == 1) {
+          m2.put(id, RegisterVersion.of(ver + 1, now));
+        } else {
+          m2.put(UUID.randomUUID().toString(), RegisterVersion.of(ver, now));
+        }
+      }
+      DatumDigest d1 = PublisherDigestUtil.additiveDigest(new DatumSummary("testDataId", m1));
+      DatumDigest d2 = PublisherDigestUtil.additiveDigest(new DatumSummary("testDataId", m2));
+      Assert.assertFalse(StringFormatter.format("m1={},m2={}", m1, m2), d1.equals(d2));
+    }
+  }
+
+  @Test
+  public void testAdditiveDigestIncremental() {
+    Map<String, RegisterVersion> m = Maps.newHashMap();
+    AdditiveDatumDigest incremental = new AdditiveDatumDigest();
+    for (int i = 0; i < 100; i++) {
+      String id = UUID.randomUUID().toString();
+      RegisterVersion ver = RegisterVersion.of(i, System.currentTimeMillis());
+      m.put(id, ver);
+      incremental.add(id, ver);
+    }
+    Assert.assertEquals(
+        PublisherDigestUtil.additiveDigest(new DatumSummary("testDataId", m)),
+        incremental.toDigest());
+    List<String> ids = new ArrayList<>(m.keySet());
+    for (int i = 0; i < 50; i++) {
+      String id = ids.get(i);
+      RegisterVersion ver = m.get(id);
+      incremental.remove(id, ver);
+      if (i % 2 == 0) {
+        m.remove(id);
+      } else {
+        RegisterVersion newer =
+            RegisterVersion.of(ver.getVersion() + 1, ver.getRegisterTimestamp());
+        m.put(id, newer);
+        incremental.add(id, newer);
+      }
+    }
+    Assert.assertEquals(incremental.getPublisherNum(), 75);
+    Assert.assertEquals(
+        PublisherDigestUtil.additiveDigest(new DatumSummary("testDataId", m)),
+        incremental.toDigest());
+    Assert.assertTrue(incremental.toString().length() != 0);
+  }
+
   private static void perf(int count, int len) {
     Map<String, Object> m = Maps.newHashMapWithExpectedSize(len);
 
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ServerDataBoxTest {
+
+  @Test
+  public void testUtf8() throws Exception {
+    final String data = "bolt://127.0.0.1:12200?app=测试";
+    ServerDataBox box = ServerDataBox.ofUtf8(data);
+    Assert.assertTrue(box.isInBytes());
+    Assert.assertEquals(ServerDataBox.SERIALIZED_BY_UTF8, box.getSerialization());
+    Assert.assertArrayEquals(data.getBytes(StandardCharsets.UTF_8), box.getBytes());
+    Assert.assertEquals(data, box.extract());
+
+    box = ServerDataBox.ofUtf8(null);
+    Assert.assertFalse(box.isInBytes());
+    Assert.assertNull(box.extract());
+  }
+
+  @Test
+  public void testObject2bytes() throws Exception {
+    ServerDataBox.setUtf8Enabled(true);
+    try {
+      ServerDataBox box = new ServerDataBox("testData").object2bytes();
+      Assert.assertEquals(ServerDataBox.SERIALIZED_BY_UTF8, box.getSerialization());
+      Assert.assertEquals(8, box.byteSize());
+      Assert.assertEquals(
+          "testData", new ServerDataBox(box.getBytes(), box.getSerialization()).extract());
+      Assert.assertEquals(
+          ServerDataBox.SERIALIZED_BY_UTF8, ServerDataBox.of("testData").getSerialization());
+
+      box = new ServerDataBox(Long.valueOf(10)).object2bytes();
+      Assert.assertEquals(ServerDataBox.SERIALIZED_BY_JAVA, box.getSerialization());
+      Assert.assertEquals(10L, new ServerDataBox(box.getBytes()).extract());
+    } finally {
+      ServerDataBox.setUtf8Enabled(false);
+    }
+  }
+
+  @Test
+  public void testUtf8Disabled() throws Exception {
+    Assert.assertFalse(ServerDataBox.isUtf8Enabled());
+    final String data = "testData";
+    // the old version reads the bytes by the java object stream
+    ServerDataBox box = new ServerDataBox(data).object2bytes();
+    Assert.assertEquals(ServerDataBox.SERIALIZED_BY_JAVA, box.getSerialization());
+    Assert.assertEquals(data, readByJava(box.getBytes()));
+
+    box = ServerDataBox.of(data);
+    Assert.assertEquals(ServerDataBox.SERIALIZED_BY_JAVA, box.getSerialization());
+    Assert.assertEquals(data, readByJava(box.getBytes()));
+
+    box = ServerDataBox.of(null);
+    Assert.assertEquals(ServerDataBox.SERIALIZED_BY_JAVA, box.getSerialization());
+    Assert.assertNull(readByJava(box.getBytes()));
+
+    box = copy(new ServerDataBox(data));
+    Assert.assertEquals(ServerDataBox.SERIALIZED_BY_JAVA, box.getSerialization());
+    Assert.assertEquals(data, readByJava(box.getBytes()));
+  }
+
+  @Test
+  public void testLegacy() throws Exception {
+    ServerDataBox box = new ServerDataBox(ServerDataBox.getBytes("testData"));
+    Assert.assertEquals(ServerDataBox.SERIALIZED_BY_JAVA, box.getSerialization());
+    Assert.assertEquals("testData", box.extract());
+  }
+
+  @Test
+  public void testJavaSerializable() throws Exception {
+    ServerDataBox.setUtf8Enabled(true);
+    try {
+      ServerDataBox box = copy(new ServerDataBox("testData"));
+      Assert.assertEquals(ServerDataBox.SERIALIZED_BY_UTF8, box.getSerialization());
+      Assert.assertEquals("testData", box.extract());
+
+      box = copy(new ServerDataBox(ServerDataBox.getBytes("testData")));
+      Assert.assertEquals(ServerDataBox.SERIALIZED_BY_JAVA, box.getSerialization());
+      Assert.assertEquals("testData", box.extract());
+    } finally {
+      ServerDataBox.setUtf8Enabled(false);
+    }
+  }
+
+  @Test(expected = java.io.IOException.class)
+  public void testUnsupported() throws Exception {
+    new ServerDataBox(new byte[] {1}, 100).extract();
+  }
+
+  private static Object readByJava(byte[] bytes) throws Exception {
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+      return in.readObject();
+    }
+  }
+
+  private static ServerDataBox copy(ServerDataBox box) throws Exception {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bos)) {
+      out.writeObject(box);
+    }
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+      return (ServerDataBox) in.readObject();
+    }
+  }
+}
@@ -89,6 +89,54 @@ public class DataSlotDiffSyncResultTest {
     DataSlotDiffUtils.logDiffResult(result, 10);
   }
 
+  @Test
+  public void testDiffBuckets() {
+    Map<String, Integer> m = Maps.newHashMap();
+    for (int i = 0; i < 20; i++) {
+      m.put("d" + i, 10);
+    }
+    Map<String, Map<String, Publisher>> publishers = randPublishers(m);
+    Map<String, DatumDigest> digestMap =
+        PublisherDigestUtil.additiveDigest(PublisherUtils.getDatumSummary(publishers));
+    final int bucketNum = 4;
+
+    DataSlotDiffDigestRequest request = new DataSlotDiffDigestRequest(1, 1, null);
+    request.setBucketSigns(DataSlotDiffUtils.bucketSigns(digestMap, bucketNum));
+    Assert.assertEquals(request.getBucketNum(), bucketNum);
+    DataSlotDiffDigestResult result = DataSlotDiffUtils.diffDigest(request, digestMap);
+    Assert.assertTrue(result.isEmpty());
+    Assert.assertTrue(result.getDiffBuckets().isEmpty());
+
+    // modify d1 and add an empty datum, the empty one is ignored
+    Map<String, DatumDigest> source = Maps.newHashMap(digestMap);
+    source.put("d1", new DatumDigest(1, 0, 0, 0, (short) 0, (short) 0));
+    source.put("empty", new DatumDigest(0, 0, 0, 0, (short) 0, (short) 0));
+    result = DataSlotDiffUtils.diffDigest(request, source);
+    final int d1Bucket = DataSlotDiffUtils.bucketOf("d1", bucketNum);
+    Assert.assertEquals(result.getDiffBuckets(), Collections.singletonList(d1Bucket));
+    DataSlotDiffUtils.logDiffResult(result, 1);
+
+    // only diff the dataInfoIds in the bucket
+    Map<String, DatumDigest> target =
+        DataSlotDiffUtils.filterBuckets(digestMap, bucketNum, Collections.singleton(d1Bucket));
+    Assert.assertTrue(target.containsKey("d1"));
+    Assert.assertTrue(target.size() < digestMap.size());
+    request = new DataSlotDiffDigestRequest(1, 1, target);
+    request.setDiffBuckets(bucketNum, Collections.singleton(d1Bucket));
+    result = DataSlotDiffUtils.diffDigest(request, source);
+    Assert.assertEquals(result.getUpdatedDataInfoIds(), Lists.newArrayList("d1"));
+    Assert.assertTrue(result.getAddedDataInfoIds().isEmpty());
+    Assert.assertTrue(result.getRemovedDataInfoIds().isEmpty());
+    Assert.assertNull(result.getDiffBuckets());
+
+    try {
+      DataSlotDiffUtils.diffBuckets(new long[2], new long[3]);
+      Assert.fail();
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
   @Test
   public void testDiffPublishersResult() {
     Map<String, Integer> m = Maps.newHashMap();
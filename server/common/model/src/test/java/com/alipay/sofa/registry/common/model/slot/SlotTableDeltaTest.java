@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.slot;
+
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SlotTableDeltaTest {
+
+  @Test
+  public void testApply() {
+    SlotTable from =
+        new SlotTable(
+            10,
+            Lists.newArrayList(
+                new Slot(0, "a", 1, Collections.singletonList("b")),
+                new Slot(1, "b", 1, Collections.singletonList("a")),
+                new Slot(2, "a", 1, Collections.emptyList())));
+    SlotTable to =
+        new SlotTable(
+            11,
+            Lists.newArrayList(
+                new Slot(0, "a", 1, Collections.singletonList("b")),
+                new Slot(1, "a", 2, Collections.singletonList("b")),
+                new Slot(3, "b", 1, Collections.emptyList())));
+    SlotTableDelta delta = SlotTableDelta.of(from, to);
+    Assert.assertEquals(10, delta.getFromEpoch());
+    Assert.assertEquals(11, delta.getEpoch());
+    Assert.assertEquals(2, delta.getUpdatedSlots().size());
+    Assert.assertEquals(Lists.newArrayList(2), delta.getRemovedSlotIds());
+    Assert.assertEquals(3, delta.size());
+
+    SlotTable patched = delta.apply(from);
+    Assert.assertEquals(to, patched);
+    Assert.assertEquals(to.getSlotMap(), patched.getSlotMap());
+
+    Assert.assertNull(delta.apply(to));
+    Assert.assertNull(delta.apply(null));
+    Assert.assertTrue(delta.toString(), delta.toString().contains("from=10"));
+  }
+
+  @Test
+  public void testEmpty() {
+    SlotTable table = new SlotTable(10, Lists.newArrayList(new Slot(0, "a", 1, null)));
+    SlotTableDelta delta = SlotTableDelta.of(SlotTable.INIT, table);
+    Assert.assertEquals(1, delta.size());
+    Assert.assertEquals(table.getSlotMap(), delta.apply(SlotTable.INIT).getSlotMap());
+
+    delta = SlotTableDelta.of(table, new SlotTable(11, table.getSlots()));
+    Assert.assertEquals(0, delta.size());
+    Assert.assertEquals(11, delta.apply(table).getEpoch());
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.common.model.store;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SubscriberTest {
+  private static final String DC1 = "dc1";
+  private static final String DC2 = "dc2";
+
+  @Test
+  public void testPushContext() {
+    Subscriber subscriber = new Subscriber();
+    subscriber.setSourceAddress(new URL("192.168.1.1", 9600));
+    Assert.assertEquals("{}", subscriber.printPushContext());
+    Assert.assertFalse(subscriber.hasPushed());
+    Assert.assertTrue(subscriber.checkVersion(DC1, 10));
+    Assert.assertEquals(-1, subscriber.getPushedNum(DC1));
+
+    Assert.assertTrue(subscriber.onPushFail(DC1, 10));
+    Assert.assertTrue(subscriber.onPushFail(DC1, 10));
+    Assert.assertEquals(2, subscriber.getStatistic(DC1).getFailCount());
+    Assert.assertEquals(-1, subscriber.getPushedNum(DC1));
+
+    Assert.assertTrue(subscriber.checkAndUpdateCtx(DC1, 10, 5));
+    Assert.assertFalse(subscriber.checkAndUpdateCtx(DC1, 10, 6));
+    Assert.assertFalse(subscriber.onPushFail(DC1, 10));
+    Assert.assertEquals(10, subscriber.getPushedVersion(DC1));
+    Assert.assertEquals(5, subscriber.getPushedNum(DC1));
+    Assert.assertEquals(0, subscriber.getStatistic(DC1).getFailCount());
+    Assert.assertFalse(subscriber.getStatistic(DC1).circuitBreak(0, 60000));
+    Assert.assertFalse(subscriber.checkVersion(DC1, 10));
+    Assert.assertTrue(subscriber.hasPushed());
+
+    // the other dataCenter is independent
+    Assert.assertEquals(0, subscriber.getPushedVersion(DC2));
+    Assert.assertTrue(subscriber.checkVersion(DC2, 10));
+    Assert.assertTrue(subscriber.printPushContext().contains(DC1 + "=PushCtx{pushedVer=10"));
+    Assert.assertTrue(subscriber.printPushContext().contains(DC2 + "=PushCtx{pushedVer=0"));
+  }
+
+  @Test
+  public void testPushEmpty() {
+    Subscriber subscriber = new Subscriber();
+    Assert.assertFalse(subscriber.needPushEmpty(DC1));
+    Assert.assertFalse(subscriber.isMarkedPushEmpty(DC1));
+    subscriber.checkAndUpdateCtx(DC1, 10, 5);
+
+    Assert.assertEquals(20, subscriber.markPushEmpty(DC1, 20));
+    Assert.assertEquals(20, subscriber.markPushEmpty(DC1, 30));
+    Assert.assertTrue(subscriber.isMarkedPushEmpty(DC1));
+    // marked, not care the version update
+    Assert.assertFalse(subscriber.checkVersion(DC1, 100));
+    Assert.assertTrue(subscriber.needPushEmpty(DC1));
+
+    subscriber.checkAndUpdateCtx(DC1, 20, 0);
+    Assert.assertFalse(subscriber.needPushEmpty(DC1));
+  }
+
+  @Test
+  public void testSkipPushEmpty() {
+    Subscriber subscriber = new Subscriber();
+    Assert.assertFalse(subscriber.checkSkipPushEmpty(DC1, 10, 0));
+    subscriber.checkAndUpdateCtx(DC1, 10, 0);
+    Assert.assertTrue(subscriber.checkSkipPushEmpty(DC1, 10, 0));
+    Assert.assertFalse(subscriber.checkSkipPushEmpty(DC1, 11, 1));
+  }
+}
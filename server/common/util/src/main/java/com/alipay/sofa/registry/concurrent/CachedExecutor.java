@@ -77,6 +77,10 @@ public class CachedExecutor<K, V> {
     cache.invalidateAll();
   }
 
+  public void invalidate(K key) {
+    cache.invalidate(key);
+  }
+
   public long getHitCount() {
     return hitCount.longValue();
   }
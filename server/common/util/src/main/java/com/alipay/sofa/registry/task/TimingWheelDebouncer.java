@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.task;
+
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * a hashed timing wheel which buffers one value for each key. the value is put into the bucket of
+ * its expire tick, a newer value of the same key replaces the buffered one. pollExpired only
+ * touches the buckets of the elapsed ticks, the values expired in the past ticks are put into a
+ * separate due bucket.
+ *
+ * <p>the producers and the consumer are synchronized by the debouncer, shard the keys into several
+ * debouncers to reduce the contention
+ */
+public final class TimingWheelDebouncer<K, V> {
+  private final long tickMillis;
+  private final int mask;
+  private final Bucket<K, V>[] wheel;
+  private final Bucket<K, V> due = new Bucket<>();
+  private final Map<K, Node<K, V>> nodes = Maps.newHashMapWithExpectedSize(1024);
+  private final ToLongFunction<V> expireTimestampFunc;
+
+  // the ticks before processedTick (include) have been polled
+  private long processedTick;
+  private volatile int size;
+
+  public interface Merger<V> {
+    /**
+     * merge the value into the buffered one of the same key, called in the lock of the debouncer
+     *
+     * @param prev the buffered value
+     * @param value the new value
+     * @return the value to buffer: value replaces prev and is scheduled by its expireTimestamp;
+     *     prev keeps the prev as is; null rejects the value
+     */
+    V merge(V prev, V value);
+  }
+
+  /**
+   * @param tickMillis the duration of a tick
+   * @param ticksPerWheel normalized to power of 2, tickMillis * ticksPerWheel should cover the
+   *     common delay, the value expires after the span stays for more rounds
+   * @param expireTimestampFunc get the expireTimestamp of the value
+   */
+  public TimingWheelDebouncer(
+      long tickMillis, int ticksPerWheel, ToLongFunction<V> expireTimestampFunc) {
+    ParaCheckUtil.checkIsPositive(tickMillis, "tickMillis");
+    ParaCheckUtil.checkIsPositive(ticksPerWheel, "ticksPerWheel");
+    ParaCheckUtil.checkNotNull(expireTimestampFunc, "expireTimestampFunc");
+    final int n = normalize(ticksPerWheel);
+    this.tickMillis = tickMillis;
+    this.mask = n - 1;
+    this.wheel = new Bucket[n];
+    for (int i = 0; i < n; i++) {
+      wheel[i] = new Bucket<>();
+    }
+    this.expireTimestampFunc = expireTimestampFunc;
+    this.processedTick = System.currentTimeMillis() / tickMillis;
+  }
+
+  private static int normalize(int ticksPerWheel) {
+    int n = 1;
+    while (n < ticksPerWheel) {
+      n <<= 1;
+    }
+    return n;
+  }
+
+  /**
+   * buffer the value, if the key has a buffered value, the merger decides which to keep
+   *
+   * @return false if the value is rejected by the merger
+   */
+  public boolean put(K key, V value, Merger<V> merger) {
+    ParaCheckUtil.checkNotNull(value, "value");
+    synchronized (this) {
+      final Node<K, V> exist = nodes.get(key);
+      if (exist == null) {
+        Node<K, V> node = new Node<>(key, value);
+        nodes.put(key, node);
+        schedule(node);
+        size = nodes.size();
+        return true;
+      }
+      final V merged = merger.merge(exist.value, value);
+      if (merged == null) {
+        return false;
+      }
+      if (merged != exist.value) {
+        exist.bucket.remove(exist);
+        exist.value = merged;
+        schedule(exist);
+      }
+      return true;
+    }
+  }
+
+  private void schedule(Node<K, V> node) {
+    final long expireTimestamp = expireTimestampFunc.applyAsLong(node.value);
+    // round up, the value is not polled before the expireTimestamp
+    final long tick = (expireTimestamp + tickMillis - 1) / tickMillis;
+    node.tick = tick;
+    if (tick <= processedTick) {
+      due.add(node);
+    } else {
+      wheel[(int) (tick & mask)].add(node);
+    }
+  }
+
+  /**
+   * remove and return the values which expireTimestamp <= now
+   *
+   * @param now the current timestamp
+   * @return expired values
+   */
+  public List<V> pollExpired(long now) {
+    final long nowTick = now / tickMillis;
+    synchronized (this) {
+      if (nodes.isEmpty()) {
+        processedTick = Math.max(processedTick, nowTick);
+        return Collections.emptyList();
+      }
+      List<V> expired = Lists.newArrayListWithCapacity(Math.min(nodes.size(), 1024));
+      due.drainTo(expired, Long.MAX_VALUE, nodes);
+      if (nowTick > processedTick) {
+        if (nowTick - processedTick >= wheel.length) {
+          for (Bucket<K, V> bucket : wheel) {
+            bucket.drainTo(expired, nowTick, nodes);
+          }
+        } else {
+          for (long tick = processedTick + 1; tick <= nowTick; tick++) {
+            wheel[(int) (tick & mask)].drainTo(expired, nowTick, nodes);
+          }
+        }
+        processedTick = nowTick;
+      }
+      size = nodes.size();
+      return expired;
+    }
+  }
+
+  public V get(K key) {
+    synchronized (this) {
+      Node<K, V> node = nodes.get(key);
+      return node == null ? null : node.value;
+    }
+  }
+
+  public Map<K, V> getAll() {
+    synchronized (this) {
+      Map<K, V> ret = Maps.newHashMapWithExpectedSize(nodes.size());
+      nodes.forEach((k, v) -> ret.put(k, v.value));
+      return ret;
+    }
+  }
+
+  public void clear() {
+    synchronized (this) {
+      nodes.clear();
+      due.head = due.tail = null;
+      for (Bucket<K, V> bucket : wheel) {
+        bucket.head = bucket.tail = null;
+      }
+      size = 0;
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format(
+        "TimingWheelDebouncer{tick={},wheel={},size={}}", tickMillis, wheel.length, size);
+  }
+
+  private static final class Node<K, V> {
+    final K key;
+    V value;
+    long tick;
+    Bucket<K, V> bucket;
+    Node<K, V> prev;
+    Node<K, V> next;
+
+    Node(K key, V value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+
+  private static final class Bucket<K, V> {
+    Node<K, V> head;
+    Node<K, V> tail;
+
+    void add(Node<K, V> node) {
+      node.bucket = this;
+      node.prev = tail;
+      node.next = null;
+      if (tail == null) {
+        head = node;
+      } else {
+        tail.next = node;
+      }
+      tail = node;
+    }
+
+    void remove(Node<K, V> node) {
+      if (node.prev == null) {
+        head = node.next;
+      } else {
+        node.prev.next = node.next;
+      }
+      if (node.next == null) {
+        tail = node.prev;
+      } else {
+        node.next.prev = node.prev;
+      }
+      node.prev = null;
+      node.next = null;
+      node.bucket = null;
+    }
+
+    void drainTo(List<V> expired, long nowTick, Map<K, Node<K, V>> nodes) {
+      Node<K, V> node = head;
+      while (node != null) {
+        final Node<K, V> next = node.next;
+        // the node of the later rounds stays in the bucket
+        if (node.tick <= nowTick) {
+          remove(node);
+          nodes.remove(node.key);
+          expired.add(node.value);
+        }
+        node = next;
+      }
+    }
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * lock-free generator of the datum version, the layout is the same as {@link
+ * DatumVersionUtil#nextId()}: 49 bit millisecond timestamp + 15 bit incremental ID, so {@link
+ * DatumVersionUtil#getRealTimestamp(long)} works on the generated versions.
+ *
+ * <p>the versions of one generator are strictly increasing. the generator is cheap, the data server
+ * keeps one per slot, so the slots do not contend on a global monitor when publishers change
+ */
+public final class DatumVersionGenerator {
+  private final AtomicLong last = new AtomicLong(-1L);
+
+  public long nextId() {
+    return nextId(-1L);
+  }
+
+  /**
+   * generate a version greater than the last one of this generator and greater than the given
+   * version, the latter keeps the version of a datum increasing even if it was not generated by
+   * this generator
+   *
+   * @param after the generated version must be greater than it
+   * @return long
+   */
+  public long nextId(long after) {
+    for (; ; ) {
+      final long prev = last.get();
+      final long floor = Math.max(prev, after);
+      final long now = (timeGen() - DatumVersionUtil.TWEPOCH) << DatumVersionUtil.SEQUENCE_BITS;
+      long next;
+      if (now > floor) {
+        next = now;
+      } else {
+        next = floor + 1;
+        if ((next & DatumVersionUtil.SEQUENCE_MASK) == 0
+            && (floor >>> DatumVersionUtil.SEQUENCE_BITS)
+                == (now >>> DatumVersionUtil.SEQUENCE_BITS)) {
+          // the sequence of the current millisecond is exhausted, wait for the next millisecond
+          Thread.yield();
+          continue;
+        }
+      }
+      if (last.compareAndSet(prev, next)) {
+        return next;
+      }
+    }
+  }
+
+  private static long timeGen() {
+    return System.currentTimeMillis();
+  }
+}
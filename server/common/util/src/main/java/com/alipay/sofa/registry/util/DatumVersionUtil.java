@@ -38,56 +38,28 @@ public final class DatumVersionUtil {
 
   private DatumVersionUtil() {}
 
-  private static long sequence = 0L;
-
   /** Tue Jan 01 00:00:00 CST 2019 */
-  private static final long twepoch = 1546272000000L;
+  static final long TWEPOCH = 1546272000000L;
 
   /** Tue Jan 01 00:00:00 CST 2021 */
   private static final long timeStart = 1609459200000L;
 
-  private static final long sequenceBits = 15L;
-  private static final long timestampLeftShift = sequenceBits;
-  private static final long sequenceMask = -1L ^ (-1L << sequenceBits);
+  static final long SEQUENCE_BITS = 15L;
+  static final long SEQUENCE_MASK = -1L ^ (-1L << SEQUENCE_BITS);
 
-  private static long lastTimestamp = -1L;
+  private static final long registryMinVersion = (timeStart - TWEPOCH) << SEQUENCE_BITS;
 
-  private static final long registryMinVersion = (timeStart - twepoch) << timestampLeftShift;
+  private static final DatumVersionGenerator GENERATOR = new DatumVersionGenerator();
 
-  public static synchronized long nextId() {
-    long timestamp = timeGen();
-    if (timestamp < lastTimestamp) {
-      throw new RuntimeException(
-          String.format(
-              "Clock moved backwards. Refusing to generate id for %d milliseconds",
-              lastTimestamp - timestamp));
-    }
-
-    if (lastTimestamp == timestamp) {
-      sequence = (sequence + 1) & sequenceMask;
-      if (sequence == 0) {
-        timestamp = untilNextMillis(lastTimestamp);
-      }
-    } else {
-      sequence = 0L;
-    }
-    lastTimestamp = timestamp;
-    return ((timestamp - twepoch) << timestampLeftShift) | sequence;
+  public static long nextId() {
+    return GENERATOR.nextId();
   }
 
   public static long getRealTimestamp(long id) {
     if (versionType(id).equals(DATUM_VERSION_TYPE_CONFREG)) {
       return id;
     }
-    return (id >> timestampLeftShift) + twepoch;
-  }
-
-  static long untilNextMillis(long lastTimestamp) {
-    long timestamp = timeGen();
-    while (timestamp <= lastTimestamp) {
-      timestamp = timeGen();
-    }
-    return timestamp;
+    return (id >> SEQUENCE_BITS) + TWEPOCH;
   }
 
   public static boolean useConfregVersionGen() {
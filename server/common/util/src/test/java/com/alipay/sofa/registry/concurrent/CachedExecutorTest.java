@@ -42,4 +42,14 @@ public class CachedExecutorTest {
 
     Assert.assertEquals(1, i.get());
   }
+
+  @Test
+  public void testInvalidate() throws Exception {
+    AtomicInteger i = new AtomicInteger();
+    CachedExecutor<String, Integer> cachedExecutor = new CachedExecutor<>(10000);
+    Assert.assertEquals(1, cachedExecutor.execute("1", i::incrementAndGet).intValue());
+    Assert.assertEquals(1, cachedExecutor.execute("1", i::incrementAndGet).intValue());
+    cachedExecutor.invalidate("1");
+    Assert.assertEquals(2, cachedExecutor.execute("1", i::incrementAndGet).intValue());
+  }
 }
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.task;
+
+import com.alipay.sofa.registry.TestUtils;
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TimingWheelDebouncerTest {
+  private static final class Task {
+    final String key;
+    final int version;
+    final long expireTimestamp;
+
+    Task(String key, int version, long expireTimestamp) {
+      this.key = key;
+      this.version = version;
+      this.expireTimestamp = expireTimestamp;
+    }
+  }
+
+  private static Task newer(Task prev, Task task) {
+    return task.version > prev.version ? task : null;
+  }
+
+  private static Task keep(Task prev, Task task) {
+    return prev;
+  }
+
+  @Test
+  public void testPoll() {
+    TestUtils.assertException(
+        IllegalArgumentException.class, () -> new TimingWheelDebouncer<String, Task>(0, 8, t -> 0));
+    TimingWheelDebouncer<String, Task> debouncer =
+        new TimingWheelDebouncer<>(10, 6, t -> t.expireTimestamp);
+    Assert.assertTrue(debouncer.toString(), debouncer.toString().contains("wheel=8"));
+    final long now = System.currentTimeMillis();
+    Assert.assertTrue(debouncer.pollExpired(now).isEmpty());
+
+    Task t1 = new Task("a", 1, now + 100);
+    Task t2 = new Task("b", 1, now + 35);
+    Task t3 = new Task("c", 1, now - 1000);
+    Assert.assertTrue(debouncer.put(t1.key, t1, TimingWheelDebouncerTest::newer));
+    Assert.assertTrue(debouncer.put(t2.key, t2, TimingWheelDebouncerTest::newer));
+    Assert.assertTrue(debouncer.put(t3.key, t3, TimingWheelDebouncerTest::newer));
+    Assert.assertEquals(3, debouncer.size());
+    Assert.assertEquals(t1, debouncer.get("a"));
+    Assert.assertNull(debouncer.get("d"));
+
+    // expired before the last poll
+    Assert.assertEquals(Collections.singletonList(t3), debouncer.pollExpired(now));
+    Assert.assertTrue(debouncer.pollExpired(now + 34).isEmpty());
+    Assert.assertEquals(Collections.singletonList(t2), debouncer.pollExpired(now + 50));
+    // t1 is beyond the wheel span, stays in the bucket for a round
+    Assert.assertTrue(debouncer.pollExpired(now + 99).isEmpty());
+    Assert.assertEquals(1, debouncer.size());
+    Assert.assertEquals(Collections.singletonList(t1), debouncer.pollExpired(now + 110));
+    Assert.assertTrue(debouncer.isEmpty());
+  }
+
+  @Test
+  public void testReplace() {
+    TimingWheelDebouncer<String, Task> debouncer =
+        new TimingWheelDebouncer<>(10, 64, t -> t.expireTimestamp);
+    final long now = System.currentTimeMillis();
+    Task t1 = new Task("a", 2, now + 100);
+    Assert.assertTrue(debouncer.put(t1.key, t1, TimingWheelDebouncerTest::newer));
+    // reject the older
+    Assert.assertFalse(
+        debouncer.put(t1.key, new Task("a", 1, now), TimingWheelDebouncerTest::newer));
+    Assert.assertEquals(t1, debouncer.get("a"));
+    // keep the prev and its schedule
+    Assert.assertTrue(debouncer.put(t1.key, new Task("a", 3, now), TimingWheelDebouncerTest::keep));
+    Assert.assertEquals(t1, debouncer.get("a"));
+    Assert.assertTrue(debouncer.pollExpired(now + 50).isEmpty());
+
+    // replace and reschedule
+    Task t2 = new Task("a", 3, now + 200);
+    Assert.assertTrue(debouncer.put(t2.key, t2, TimingWheelDebouncerTest::newer));
+    Assert.assertEquals(1, debouncer.size());
+    Assert.assertTrue(debouncer.pollExpired(now + 150).isEmpty());
+    Assert.assertEquals(Collections.singletonList(t2), debouncer.pollExpired(now + 210));
+
+    // replace in the due bucket
+    Task t3 = new Task("a", 4, 0);
+    Task t4 = new Task("a", 5, 0);
+    Assert.assertTrue(debouncer.put(t3.key, t3, TimingWheelDebouncerTest::newer));
+    Assert.assertTrue(debouncer.put(t4.key, t4, TimingWheelDebouncerTest::newer));
+    Assert.assertEquals(Collections.singletonList(t4), debouncer.pollExpired(now + 210));
+
+    Assert.assertTrue(debouncer.put(t1.key, t1, TimingWheelDebouncerTest::newer));
+    Assert.assertTrue(debouncer.put("b", t3, TimingWheelDebouncerTest::newer));
+    Assert.assertEquals(2, debouncer.getAll().size());
+    Assert.assertEquals(t1, debouncer.getAll().get("a"));
+    debouncer.clear();
+    Assert.assertTrue(debouncer.isEmpty());
+    Assert.assertTrue(debouncer.pollExpired(now + 1000).isEmpty());
+  }
+
+  @Test
+  public void testPollAfterRounds() {
+    TimingWheelDebouncer<String, Task> debouncer =
+        new TimingWheelDebouncer<>(10, 8, t -> t.expireTimestamp);
+    final long now = System.currentTimeMillis();
+    List<Task> tasks = Lists.newArrayList();
+    for (int i = 0; i < 100; i++) {
+      Task t = new Task(String.valueOf(i), 1, now + i * 7);
+      tasks.add(t);
+      Assert.assertTrue(debouncer.put(t.key, t, TimingWheelDebouncerTest::newer));
+    }
+    // the value is not polled before expired, and delays one tick at most
+    final long pollTimestamp = now + 350;
+    List<Task> expired = debouncer.pollExpired(pollTimestamp);
+    for (Task t : expired) {
+      Assert.assertTrue(t.expireTimestamp <= pollTimestamp);
+    }
+    for (Task t : tasks) {
+      if (t.expireTimestamp <= pollTimestamp - 10) {
+        Assert.assertTrue(expired.contains(t));
+      }
+    }
+    Assert.assertEquals(100, expired.size() + debouncer.size());
+    expired = debouncer.pollExpired(now + 7 * 100 + 10);
+    Assert.assertEquals(100, tasks.size());
+    Assert.assertTrue(expired.size() > 0);
+    Assert.assertTrue(debouncer.isEmpty());
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.util;
+
+import com.google.common.collect.Sets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DatumVersionGeneratorTest {
+
+  @Test
+  public void testNextId() {
+    DatumVersionGenerator generator = new DatumVersionGenerator();
+    long timestamp = System.currentTimeMillis();
+    long last = generator.nextId();
+    long ts = DatumVersionUtil.getRealTimestamp(last);
+    Assert.assertTrue(ts >= timestamp);
+    Assert.assertTrue(ts <= System.currentTimeMillis());
+    Assert.assertEquals(
+        DatumVersionUtil.versionType(last), DatumVersionUtil.DATUM_VERSION_TYPE_REGISTRY);
+
+    // more than the sequence of one millisecond
+    for (int i = 0; i < 100000; i++) {
+      long v = generator.nextId();
+      Assert.assertTrue(v > last);
+      last = v;
+    }
+    Assert.assertTrue(DatumVersionUtil.getRealTimestamp(last) <= System.currentTimeMillis());
+  }
+
+  @Test
+  public void testNextIdAfter() {
+    DatumVersionGenerator generator = new DatumVersionGenerator();
+    long v = generator.nextId();
+    long after = v + 1000;
+    long next = generator.nextId(after);
+    Assert.assertEquals(after + 1, next);
+    Assert.assertTrue(generator.nextId(0) > next);
+
+    // the version of other generator
+    long other = DatumVersionUtil.nextId();
+    Assert.assertTrue(new DatumVersionGenerator().nextId(other) > other);
+  }
+
+  @Test
+  public void testConcurrent() throws Exception {
+    final DatumVersionGenerator generator = new DatumVersionGenerator();
+    final int threads = 4;
+    final int count = 20000;
+    final Set<Long> versions = Sets.newSetFromMap(new ConcurrentHashMap<>());
+    final CountDownLatch latch = new CountDownLatch(threads);
+    for (int i = 0; i < threads; i++) {
+      new Thread(
+              () -> {
+                long last = -1;
+                for (int j = 0; j < count; j++) {
+                  long v = generator.nextId();
+                  Assert.assertTrue(v > last);
+                  versions.add(v);
+                  last = v;
+                }
+                latch.countDown();
+              })
+          .start();
+    }
+    latch.await();
+    Assert.assertEquals(threads * count, versions.size());
+  }
+}
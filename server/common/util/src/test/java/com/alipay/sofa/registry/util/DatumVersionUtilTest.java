@@ -30,14 +30,6 @@ public class DatumVersionUtilTest {
     Assert.assertTrue(ts <= System.currentTimeMillis());
   }
 
-  @Test
-  public void testUnit() {
-    long timestamp = System.currentTimeMillis();
-    long millis = DatumVersionUtil.untilNextMillis(timestamp + 100);
-    Assert.assertTrue(millis >= timestamp + 100);
-    Assert.assertTrue(millis <= System.currentTimeMillis());
-  }
-
   @Test
   public void testConfregNextId() {
     long timestamp = System.currentTimeMillis();
@@ -21,6 +21,7 @@ import com.alipay.remoting.exception.DeserializationException;
 import com.alipay.remoting.exception.SerializationException;
 import com.alipay.remoting.serialization.Serializer;
 import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.nio.charset.StandardCharsets;
@@ -36,11 +37,11 @@ public class ProtobufSerializer implements Serializer {
 
   public static final byte PROTOCOL_PROTOBUF = 11;
 
-  /** cache parse method */
-  private final ConcurrentHashMap<Class, Method> parseMethodMap = new ConcurrentHashMap<>();
+  /** class to parser, registered on startup, the unregistered class is resolved once */
+  private final ConcurrentHashMap<Class, Parser> parserMap = new ConcurrentHashMap<>();
 
-  /** cache toByteArray method */
-  private final ConcurrentHashMap<Class, Method> toByteArrayMethodMap = new ConcurrentHashMap<>();
+  /** className to class, avoid Class.forName for every frame */
+  private final ConcurrentHashMap<String, Class> classMap = new ConcurrentHashMap<>();
 
   private static final ProtobufSerializer instance = new ProtobufSerializer();
 
@@ -50,34 +51,25 @@ public class ProtobufSerializer implements Serializer {
     return instance;
   }
 
+  public <T extends MessageLite> void registerParser(Class<T> clazz, Parser<T> parser) {
+    if (clazz == null || parser == null) {
+      throw new IllegalArgumentException("class and parser can not be null");
+    }
+    parserMap.put(clazz, parser);
+    classMap.put(clazz.getName(), clazz);
+  }
+
   @Override
   public byte[] serialize(Object object) throws CodecException {
     if (object == null) {
       throw new SerializationException("Unsupported null message");
-    } else if (isProtoBufMessageLite(object)) {
-      Class clazz = object.getClass();
-      Method method = toByteArrayMethodMap.get(clazz);
-      if (method == null) {
-        try {
-          method = clazz.getMethod("toByteArray");
-          method.setAccessible(true);
-          toByteArrayMethodMap.put(clazz, method);
-        } catch (Exception e) {
-          throw new SerializationException(
-              "Cannot found method "
-                  + clazz.getName()
-                  + ".toByteArray(), please check the generated code");
-        }
-      }
+    } else if (object instanceof MessageLite) {
       try {
-        return (byte[]) method.invoke(object);
-      } catch (Exception e) {
+        return ((MessageLite) object).toByteArray();
+      } catch (Throwable e) {
         throw new SerializationException(
-            "Cannot found method "
-                + clazz.getName()
-                + ".toByteArray(), please check the generated code");
+            "Failed to serialize " + object.getClass().getName() + ", " + e.getMessage(), e);
       }
-
     } else if (object instanceof String) {
       return ((String) object).getBytes(StandardCharsets.UTF_8);
     } else {
@@ -88,45 +80,63 @@ public class ProtobufSerializer implements Serializer {
 
   @Override
   public <T> T deserialize(byte[] data, String classOfT) throws CodecException {
+    return (T) decode(data, getClass(classOfT));
+  }
+
+  public Object decode(byte[] bytes, Class clazz) throws DeserializationException {
+    if (clazz == String.class) {
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+    final Parser parser = getParser(clazz);
+    try {
+      return parser.parseFrom(bytes);
+    } catch (Exception e) {
+      throw new DeserializationException(
+          "Failed to parse " + clazz.getName() + ", " + e.getMessage(), e);
+    }
+  }
+
+  private Class getClass(String className) throws SerializationException {
+    Class clazz = classMap.get(className);
+    if (clazz != null) {
+      return clazz;
+    }
     try {
-      Class requestClass = Class.forName(classOfT);
-      return (T) decode(data, requestClass);
+      clazz = Class.forName(className);
     } catch (ClassNotFoundException e) {
-      throw new SerializationException("Cannot found class " + classOfT, e);
+      throw new SerializationException("Cannot found class " + className, e);
     }
+    classMap.put(className, clazz);
+    return clazz;
   }
 
-  public Object decode(byte[] bytes, Class clazz) throws DeserializationException {
-    if (isProtoBufMessageLite(clazz)) {
-      try {
-        Method method = parseMethodMap.get(clazz);
-        if (method == null) {
-          method = clazz.getMethod("parseFrom", byte[].class);
-          if (!Modifier.isStatic(method.getModifiers())) {
-            throw new CodecException(
-                "Cannot found method "
-                    + clazz.getName()
-                    + ".parseFrom(byte[]), please check the generated code");
-          }
-          method.setAccessible(true);
-          parseMethodMap.put(clazz, method);
-        }
-        return method.invoke(null, bytes);
-      } catch (DeserializationException e) {
-        throw e;
-      } catch (Exception e) {
-        throw new DeserializationException(
+  private Parser getParser(Class clazz) throws DeserializationException {
+    Parser parser = parserMap.get(clazz);
+    if (parser != null) {
+      return parser;
+    }
+    if (!isProtoBufMessageLite(clazz)) {
+      throw new DeserializationException(
+          "Unsupported class:" + clazz.getName() + ", only support protobuf message");
+    }
+    try {
+      Method method = clazz.getMethod("getDefaultInstance");
+      if (!Modifier.isStatic(method.getModifiers())) {
+        throw new CodecException(
             "Cannot found method "
                 + clazz.getName()
-                + ".parseFrom(byte[]), please check the generated code",
-            e);
+                + ".getDefaultInstance(), please check the generated code");
       }
-    } else if (clazz == String.class) {
-      return new String(bytes, StandardCharsets.UTF_8);
-    } else {
+      parser = ((MessageLite) method.invoke(null)).getParserForType();
+    } catch (Exception e) {
       throw new DeserializationException(
-          "Unsupported class:" + clazz.getName() + ", only support protobuf message");
+          "Cannot found method "
+              + clazz.getName()
+              + ".getDefaultInstance(), please check the generated code",
+          e);
     }
+    parserMap.put(clazz, parser);
+    return parser;
   }
 
   public static boolean isProtoBufMessageLite(Object object) {
@@ -18,6 +18,7 @@ package com.alipay.sofa.registry.remoting.bolt.serializer;
 
 import com.alipay.remoting.exception.DeserializationException;
 import com.alipay.remoting.exception.SerializationException;
+import com.alipay.sofa.registry.common.model.client.pb.ResultPb;
 import com.alipay.sofa.registry.remoting.bolt.TestUtils;
 import org.junit.Assert;
 import org.junit.Test;
@@ -38,4 +39,20 @@ public class ProtobufSerializerTest {
     Assert.assertFalse(ProtobufSerializer.isProtoBufMessageLite(new Integer(10)));
     Assert.assertFalse(ProtobufSerializer.isProtoBufMessageLite("xx"));
   }
+
+  @Test
+  public void testSerde() throws Exception {
+    ProtobufSerializer serializer = ProtobufSerializer.getInstance();
+    ResultPb result = ResultPb.newBuilder().setSuccess(true).setMessage("testMsg").build();
+    byte[] bytes = serializer.serialize(result);
+    Assert.assertEquals(result, serializer.deserialize(bytes, ResultPb.class.getName()));
+    Assert.assertEquals(result, serializer.decode(bytes, ResultPb.class));
+
+    serializer.registerParser(ResultPb.class, ResultPb.parser());
+    Assert.assertEquals(result, serializer.deserialize(bytes, ResultPb.class.getName()));
+    Assert.assertEquals(
+        "xx", serializer.deserialize(serializer.serialize("xx"), String.class.getName()));
+    TestUtils.assertRunException(
+        IllegalArgumentException.class, () -> serializer.registerParser(ResultPb.class, null));
+  }
 }
@@ -187,6 +187,7 @@ public class DataServerBeanConfiguration {
     public Collection<AbstractServerHandler> serverHandlers() {
       Collection<AbstractServerHandler> list = new ArrayList<>();
       list.add(getDataHandler());
+      list.add(batchGetDataHandler());
       list.add(batchPutDataHandler());
       list.add(getDataVersionsHandler());
       return list;
@@ -213,6 +214,11 @@ public class DataServerBeanConfiguration {
       return new GetDataHandler();
     }
 
+    @Bean
+    public AbstractServerHandler batchGetDataHandler() {
+      return new BatchGetDataHandler();
+    }
+
     @Bean
     public AbstractServerHandler slotFollowerDiffDataInfoIdRequestHandler() {
       return new SlotFollowerDiffDigestRequestHandler();
@@ -19,6 +19,7 @@ package com.alipay.sofa.registry.server.data.bootstrap;
 import com.alipay.sofa.registry.server.shared.config.ServerShareConfig;
 import com.alipay.sofa.registry.server.shared.env.ServerEnv;
 import com.alipay.sofa.registry.util.OsUtils;
+import java.io.File;
 import java.util.Collection;
 import org.apache.commons.lang.builder.ToStringBuilder;
 import org.apache.commons.lang.builder.ToStringStyle;
@@ -58,6 +59,10 @@ public class DataServerConfig implements ServerShareConfig {
 
   private int notifyRetryBackoffMillis = 500;
 
+  private volatile boolean notifyInterestFilterEnabled = true;
+
+  private volatile int notifyInterestExpireMillis = 30000;
+
   private int notifyTempExecutorPoolSize = OsUtils.getCpuCount() * 3;
 
   private int notifyTempExecutorQueueSize = 4000;
@@ -102,6 +107,9 @@ public class DataServerConfig implements ServerShareConfig {
 
   private volatile int slotSyncPublisherMaxNum = 512;
 
+  // hash the dataInfoIds of slot to buckets, only diff the digests in the changed buckets
+  private volatile int slotSyncDigestBucketNum = 64;
+
   private int slotSyncRequestExecutorMinPoolSize = OsUtils.getCpuCount() * 3;
 
   private int slotSyncRequestExecutorMaxPoolSize = OsUtils.getCpuCount() * 3;
@@ -118,6 +126,26 @@ public class DataServerConfig implements ServerShareConfig {
 
   private int cacheDigestIntervalMinutes = 15;
 
+  // the slot weight reported by heartbeat is recalculated in the interval
+  private int slotWeightRefreshSecs = 30;
+
+  // snapshot the publishers of slots to local disk, the snapshot is preloaded when restart
+  private int slotSnapshotIntervalSecs = 0;
+
+  private int slotSnapshotMaxAgeSecs = 60 * 30;
+
+  private String slotSnapshotDir =
+      System.getProperty("user.home")
+          + File.separator
+          + "sofa-registry"
+          + File.separator
+          + "slot-snapshot";
+
+  // keep the data boxes of publishers in an off-heap arena, 0 means on heap
+  private long dataBoxArenaMaxBytes = 0;
+
+  private int dataBoxArenaSlabBytes = 1024 * 1024;
+
   private int cacheCountIntervalSecs = 60;
 
   private int lowWaterMark = 1024 * 256;
@@ -471,6 +499,24 @@ public class DataServerConfig implements ServerShareConfig {
     this.slotSyncPublisherDigestMaxNum = slotSyncPublisherDigestMaxNum;
   }
 
+  /**
+   * Getter method for property <tt>slotSyncDigestBucketNum</tt>.
+   *
+   * @return property value of slotSyncDigestBucketNum
+   */
+  public int getSlotSyncDigestBucketNum() {
+    return slotSyncDigestBucketNum;
+  }
+
+  /**
+   * Setter method for property <tt>slotSyncDigestBucketNum</tt>.
+   *
+   * @param slotSyncDigestBucketNum value to be assigned to property slotSyncDigestBucketNum
+   */
+  public void setSlotSyncDigestBucketNum(int slotSyncDigestBucketNum) {
+    this.slotSyncDigestBucketNum = slotSyncDigestBucketNum;
+  }
+
   /**
    * Getter method for property <tt>slotSyncPublisherMaxNum</tt>.
    *
@@ -765,6 +811,42 @@ public class DataServerConfig implements ServerShareConfig {
     this.notifyRetryTimes = notifyRetryTimes;
   }
 
+  /**
+   * Getter method for property <tt>notifyInterestFilterEnabled</tt>.
+   *
+   * @return property value of notifyInterestFilterEnabled
+   */
+  public boolean isNotifyInterestFilterEnabled() {
+    return notifyInterestFilterEnabled;
+  }
+
+  /**
+   * Setter method for property <tt>notifyInterestFilterEnabled</tt>.
+   *
+   * @param notifyInterestFilterEnabled value to be assigned to property notifyInterestFilterEnabled
+   */
+  public void setNotifyInterestFilterEnabled(boolean notifyInterestFilterEnabled) {
+    this.notifyInterestFilterEnabled = notifyInterestFilterEnabled;
+  }
+
+  /**
+   * Getter method for property <tt>notifyInterestExpireMillis</tt>.
+   *
+   * @return property value of notifyInterestExpireMillis
+   */
+  public int getNotifyInterestExpireMillis() {
+    return notifyInterestExpireMillis;
+  }
+
+  /**
+   * Setter method for property <tt>notifyInterestExpireMillis</tt>.
+   *
+   * @param notifyInterestExpireMillis value to be assigned to property notifyInterestExpireMillis
+   */
+  public void setNotifyInterestExpireMillis(int notifyInterestExpireMillis) {
+    this.notifyInterestExpireMillis = notifyInterestExpireMillis;
+  }
+
   public int getCacheDigestIntervalMinutes() {
     return cacheDigestIntervalMinutes;
   }
@@ -773,6 +855,114 @@ public class DataServerConfig implements ServerShareConfig {
     this.cacheDigestIntervalMinutes = cacheDigestIntervalMinutes;
   }
 
+  /**
+   * Getter method for property <tt>slotSnapshotIntervalSecs</tt>.
+   *
+   * @return property value of slotSnapshotIntervalSecs
+   */
+  public int getSlotSnapshotIntervalSecs() {
+    return slotSnapshotIntervalSecs;
+  }
+
+  /**
+   * Setter method for property <tt>slotSnapshotIntervalSecs</tt>.
+   *
+   * @param slotSnapshotIntervalSecs value to be assigned to property slotSnapshotIntervalSecs
+   */
+  public void setSlotSnapshotIntervalSecs(int slotSnapshotIntervalSecs) {
+    this.slotSnapshotIntervalSecs = slotSnapshotIntervalSecs;
+  }
+
+  /**
+   * Getter method for property <tt>slotSnapshotMaxAgeSecs</tt>.
+   *
+   * @return property value of slotSnapshotMaxAgeSecs
+   */
+  public int getSlotSnapshotMaxAgeSecs() {
+    return slotSnapshotMaxAgeSecs;
+  }
+
+  /**
+   * Setter method for property <tt>slotSnapshotMaxAgeSecs</tt>.
+   *
+   * @param slotSnapshotMaxAgeSecs value to be assigned to property slotSnapshotMaxAgeSecs
+   */
+  public void setSlotSnapshotMaxAgeSecs(int slotSnapshotMaxAgeSecs) {
+    this.slotSnapshotMaxAgeSecs = slotSnapshotMaxAgeSecs;
+  }
+
+  /**
+   * Getter method for property <tt>slotSnapshotDir</tt>.
+   *
+   * @return property value of slotSnapshotDir
+   */
+  public String getSlotSnapshotDir() {
+    return slotSnapshotDir;
+  }
+
+  /**
+   * Setter method for property <tt>slotSnapshotDir</tt>.
+   *
+   * @param slotSnapshotDir value to be assigned to property slotSnapshotDir
+   */
+  public void setSlotSnapshotDir(String slotSnapshotDir) {
+    this.slotSnapshotDir = slotSnapshotDir;
+  }
+
+  /**
+   * Getter method for property <tt>slotWeightRefreshSecs</tt>.
+   *
+   * @return property value of slotWeightRefreshSecs
+   */
+  public int getSlotWeightRefreshSecs() {
+    return slotWeightRefreshSecs;
+  }
+
+  /**
+   * Setter method for property <tt>slotWeightRefreshSecs</tt>.
+   *
+   * @param slotWeightRefreshSecs value to be assigned to property slotWeightRefreshSecs
+   */
+  public void setSlotWeightRefreshSecs(int slotWeightRefreshSecs) {
+    this.slotWeightRefreshSecs = slotWeightRefreshSecs;
+  }
+
+  /**
+   * Getter method for property <tt>dataBoxArenaMaxBytes</tt>.
+   *
+   * @return property value of dataBoxArenaMaxBytes
+   */
+  public long getDataBoxArenaMaxBytes() {
+    return dataBoxArenaMaxBytes;
+  }
+
+  /**
+   * Setter method for property <tt>dataBoxArenaMaxBytes</tt>.
+   *
+   * @param dataBoxArenaMaxBytes value to be assigned to property dataBoxArenaMaxBytes
+   */
+  public void setDataBoxArenaMaxBytes(long dataBoxArenaMaxBytes) {
+    this.dataBoxArenaMaxBytes = dataBoxArenaMaxBytes;
+  }
+
+  /**
+   * Getter method for property <tt>dataBoxArenaSlabBytes</tt>.
+   *
+   * @return property value of dataBoxArenaSlabBytes
+   */
+  public int getDataBoxArenaSlabBytes() {
+    return dataBoxArenaSlabBytes;
+  }
+
+  /**
+   * Setter method for property <tt>dataBoxArenaSlabBytes</tt>.
+   *
+   * @param dataBoxArenaSlabBytes value to be assigned to property dataBoxArenaSlabBytes
+   */
+  public void setDataBoxArenaSlabBytes(int dataBoxArenaSlabBytes) {
+    this.dataBoxArenaSlabBytes = dataBoxArenaSlabBytes;
+  }
+
   public int getCacheCountIntervalSecs() {
     return cacheCountIntervalSecs;
   }
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.common.model.ConnectId;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * secondary index of the publishers by connectId, shared by the PublisherGroups of one slot. the
+ * index is updated when the pubMap of PublisherGroup changes, so the query by connectId does not
+ * need to scan all the publishers
+ */
+final class ConnectIdIndex {
+  // the inner map is only accessed in the compute of the outer map
+  private final Map<ConnectId, Map<String /*dataInfoId*/, Set<String /*registerId*/>>> index =
+      Maps.newConcurrentMap();
+
+  void add(ConnectId connectId, String dataInfoId, String registerId) {
+    index.compute(
+        connectId,
+        (k, v) -> {
+          if (v == null) {
+            v = Maps.newHashMapWithExpectedSize(4);
+          }
+          v.computeIfAbsent(dataInfoId, d -> Sets.newHashSetWithExpectedSize(4)).add(registerId);
+          return v;
+        });
+  }
+
+  void remove(ConnectId connectId, String dataInfoId, String registerId) {
+    index.computeIfPresent(
+        connectId,
+        (k, v) -> {
+          Set<String> registerIds = v.get(dataInfoId);
+          if (registerIds != null && registerIds.remove(registerId) && registerIds.isEmpty()) {
+            v.remove(dataInfoId);
+          }
+          return v.isEmpty() ? null : v;
+        });
+  }
+
+  void update(String dataInfoId, String registerId, PublisherEnvelope prev, PublisherEnvelope now) {
+    final ConnectId prevConnectId = prev == null ? null : prev.connectId;
+    final ConnectId nowConnectId = now == null ? null : now.connectId;
+    if (prevConnectId != null && !prevConnectId.equals(nowConnectId)) {
+      remove(prevConnectId, dataInfoId, registerId);
+    }
+    if (nowConnectId != null) {
+      add(nowConnectId, dataInfoId, registerId);
+    }
+  }
+
+  Map<String, Set<String>> query(ConnectId connectId) {
+    final Map<String, Set<String>> ret = Maps.newHashMap();
+    index.computeIfPresent(
+        connectId,
+        (k, v) -> {
+          v.forEach((dataInfoId, registerIds) -> ret.put(dataInfoId, Sets.newHashSet(registerIds)));
+          return v;
+        });
+    return ret;
+  }
+
+  Set<String> query(ConnectId connectId, String dataInfoId) {
+    final Set<String> ret = Sets.newHashSet();
+    index.computeIfPresent(
+        connectId,
+        (k, v) -> {
+          Set<String> registerIds = v.get(dataInfoId);
+          if (registerIds != null) {
+            ret.addAll(registerIds);
+          }
+          return v;
+        });
+    return ret;
+  }
+
+  int size() {
+    return index.size();
+  }
+}
@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.collect.Lists;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * off-heap memory for the data boxes of publishers. the memory is allocated in slabs of direct
+ * buffers, each slab is cut into the chunks of one size class. a freed chunk is reused by the next
+ * allocation of the same size class, the slabs are never returned. a chunk is referenced by a
+ * handle: the index of the slab in the high 32 bits and the offset in the low 32 bits.
+ *
+ * <p>the arena does not protect a chunk from being freed while reading, the owner of the handle
+ * must serialize the free with the reads, PublisherGroup frees under the write lock and reads under
+ * the read lock
+ */
+final class DataBoxArena {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DataBoxArena.class);
+
+  static final long NULL_HANDLE = -1L;
+
+  private static final int MIN_CHUNK_BYTES = 64;
+
+  // count + per box: serialization + length
+  private static final int HEADER_BYTES = 4;
+  private static final int BOX_HEADER_BYTES = 5;
+
+  private final int slabBytes;
+
+  private final ByteBuffer[] slabs;
+
+  // guarded by this
+  private int slabNum;
+
+  private final SizeClass[] sizeClasses;
+
+  private final AtomicLong usedBytes = new AtomicLong();
+
+  private volatile boolean exhausted;
+
+  DataBoxArena(long maxBytes, int slabBytes) {
+    ParaCheckUtil.checkIsPositive(maxBytes, "maxBytes");
+    ParaCheckUtil.checkIsPositive(slabBytes, "slabBytes");
+    this.slabBytes = Math.max(Integer.highestOneBit(slabBytes), MIN_CHUNK_BYTES);
+    this.slabs = new ByteBuffer[(int) Math.max(1, Math.min(maxBytes / this.slabBytes, 1 << 20))];
+    List<SizeClass> classes = Lists.newArrayList();
+    for (int chunk = MIN_CHUNK_BYTES; chunk <= this.slabBytes; chunk <<= 1) {
+      classes.add(new SizeClass(chunk));
+    }
+    this.sizeClasses = classes.toArray(new SizeClass[classes.size()]);
+  }
+
+  /**
+   * @return the encoded length of the boxes, -1 if the boxes could not be kept in the arena
+   */
+  static int encodedLength(List<ServerDataBox> boxes) {
+    if (boxes == null || boxes.isEmpty()) {
+      return -1;
+    }
+    long length = HEADER_BYTES;
+    for (ServerDataBox box : boxes) {
+      // the box in object form is rare on data server, keep it on heap
+      if (box == null || !box.isInBytes()) {
+        return -1;
+      }
+      length += BOX_HEADER_BYTES + box.byteSize();
+    }
+    return length > Integer.MAX_VALUE ? -1 : (int) length;
+  }
+
+  /**
+   * copy the boxes into the arena
+   *
+   * @param boxes
+   * @param length the encodedLength of the boxes
+   * @return the handle, NULL_HANDLE if the length is larger than a slab or the arena is full
+   */
+  long store(List<ServerDataBox> boxes, int length) {
+    final SizeClass sizeClass = sizeClassOf(length);
+    if (sizeClass == null) {
+      return NULL_HANDLE;
+    }
+    final long handle = sizeClass.allocate();
+    if (handle == NULL_HANDLE) {
+      if (!exhausted) {
+        exhausted = true;
+        LOGGER.warn("[DataBoxArena]exhausted, fallback to heap, {}", this);
+      }
+      return NULL_HANDLE;
+    }
+    usedBytes.addAndGet(sizeClass.chunkBytes);
+    final ByteBuffer buffer = duplicate(handle);
+    buffer.putInt(boxes.size());
+    for (ServerDataBox box : boxes) {
+      final byte[] bytes = box.getBytes();
+      buffer.put((byte) box.getSerialization());
+      buffer.putInt(bytes.length);
+      buffer.put(bytes);
+    }
+    return handle;
+  }
+
+  /** @return the read only view of the chunk, without copying */
+  ByteBuffer view(long handle, int length) {
+    final ByteBuffer buffer = duplicate(handle);
+    buffer.limit(buffer.position() + length);
+    return buffer.slice().asReadOnlyBuffer();
+  }
+
+  /** @return the boxes decoded from the chunk, the bytes of each box are copied out */
+  List<ServerDataBox> load(long handle, int length) {
+    final ByteBuffer buffer = view(handle, length);
+    final int count = buffer.getInt();
+    final List<ServerDataBox> boxes = Lists.newArrayListWithCapacity(count);
+    for (int i = 0; i < count; i++) {
+      final int serialization = buffer.get();
+      final byte[] bytes = new byte[buffer.getInt()];
+      buffer.get(bytes);
+      boxes.add(new ServerDataBox(bytes, serialization));
+    }
+    return boxes;
+  }
+
+  void free(long handle, int length) {
+    final SizeClass sizeClass = sizeClassOf(length);
+    ParaCheckUtil.checkNotNull(sizeClass, "sizeClass");
+    sizeClass.free(handle);
+    usedBytes.addAndGet(-sizeClass.chunkBytes);
+    exhausted = false;
+  }
+
+  long usedBytes() {
+    return usedBytes.get();
+  }
+
+  synchronized long allocatedBytes() {
+    return (long) slabNum * slabBytes;
+  }
+
+  private ByteBuffer duplicate(long handle) {
+    final ByteBuffer buffer = slabs[(int) (handle >>> 32)].duplicate();
+    buffer.position((int) handle);
+    return buffer;
+  }
+
+  private SizeClass sizeClassOf(int length) {
+    if (length <= 0 || length > slabBytes) {
+      return null;
+    }
+    final int chunk = Math.max(MIN_CHUNK_BYTES, Integer.highestOneBit(length - 1) << 1);
+    return sizeClasses[Integer.numberOfTrailingZeros(chunk / MIN_CHUNK_BYTES)];
+  }
+
+  /** @return the index of the new slab, -1 if reach the max bytes */
+  private synchronized int newSlab() {
+    if (slabNum == slabs.length) {
+      return -1;
+    }
+    slabs[slabNum] = ByteBuffer.allocateDirect(slabBytes);
+    return slabNum++;
+  }
+
+  private final class SizeClass {
+    final int chunkBytes;
+
+    // the freed chunks, used as a stack
+    long[] frees = new long[16];
+
+    int freeNum;
+
+    // the slab being cut, -1 if none
+    int slab = -1;
+
+    int offset;
+
+    SizeClass(int chunkBytes) {
+      this.chunkBytes = chunkBytes;
+    }
+
+    synchronized long allocate() {
+      if (freeNum != 0) {
+        return frees[--freeNum];
+      }
+      if (slab == -1 || offset + chunkBytes > slabBytes) {
+        slab = newSlab();
+        offset = 0;
+        if (slab == -1) {
+          return NULL_HANDLE;
+        }
+      }
+      final long handle = ((long) slab << 32) | offset;
+      offset += chunkBytes;
+      return handle;
+    }
+
+    synchronized void free(long handle) {
+      if (freeNum == frees.length) {
+        frees = Arrays.copyOf(frees, freeNum << 1);
+      }
+      frees[freeNum++] = handle;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format(
+        "DataBoxArena{slabBytes={},maxSlabs={},allocated={},used={}}",
+        slabBytes,
+        slabs.length,
+        allocatedBytes(),
+        usedBytes());
+  }
+}
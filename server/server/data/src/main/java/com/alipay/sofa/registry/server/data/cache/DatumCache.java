@@ -20,6 +20,7 @@ import com.alipay.sofa.registry.common.model.ConnectId;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
 import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Maps;
@@ -49,6 +50,29 @@ public class DatumCache {
     return localDatumStorage.get(dataInfoId);
   }
 
+  /**
+   * get the snapshot of datum, the readers of the same version share it
+   *
+   * @param dataCenter
+   * @param dataInfoId
+   * @return SubDatumSnapshot
+   */
+  public SubDatumSnapshot getSnapshot(String dataCenter, String dataInfoId) {
+    return localDatumStorage.getSnapshot(dataInfoId);
+  }
+
+  /**
+   * get the changes of datum since the version
+   *
+   * @param dataCenter
+   * @param dataInfoId
+   * @param sinceVersion
+   * @return null if the delta is not available
+   */
+  public SubDatumDelta getDelta(String dataCenter, String dataInfoId, long sinceVersion) {
+    return localDatumStorage.getDelta(dataInfoId, sinceVersion);
+  }
+
   public void clean(String dataCenter, String dataInfoId) {
     localDatumStorage.remove(dataInfoId, null);
   }
@@ -69,6 +93,10 @@ public class DatumCache {
     return localDatumStorage.updateVersion(dataInfoId);
   }
 
+  public DatumVersion updateVersion(String dataCenter, String dataInfoId, long after) {
+    return localDatumStorage.updateVersion(dataInfoId, after);
+  }
+
   /**
    * get all datum
    *
@@ -22,7 +22,9 @@ import com.alipay.sofa.registry.common.model.RegisterVersion;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.SlotWeight;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
 import com.alipay.sofa.registry.server.data.slot.SlotChangeListener;
 import java.util.Collection;
 import java.util.List;
@@ -43,6 +45,23 @@ public interface DatumStorage {
    */
   Datum get(String dataInfoId);
 
+  /**
+   * get the immutable snapshot of the datum, it is shared by the readers until the datum changes
+   *
+   * @param dataInfoId
+   * @return null if the datum not exists
+   */
+  SubDatumSnapshot getSnapshot(String dataInfoId);
+
+  /**
+   * get the changes of the datum since the version
+   *
+   * @param dataInfoId
+   * @param sinceVersion
+   * @return null if the datum not exists or the changes has been trimmed
+   */
+  SubDatumDelta getDelta(String dataInfoId, long sinceVersion);
+
   DatumVersion getVersion(String dataInfoId);
 
   Map<String, DatumVersion> getVersions(int slotId, Collection<String> targetDatInfoIds);
@@ -82,6 +101,8 @@ public interface DatumStorage {
 
   Map<String, DatumSummary> getDatumSummary(int slotId);
 
+  SlotWeight getSlotWeight(int slotId);
+
   SlotChangeListener getSlotChangeListener();
 
   Set<ProcessId> getSessionProcessIds();
@@ -93,4 +114,13 @@ public interface DatumStorage {
   Map<String, DatumVersion> updateVersion(int slotId);
 
   DatumVersion updateVersion(String dataInfoId);
+
+  /**
+   * update the version of the datum, the new version is greater than the given one
+   *
+   * @param dataInfoId dataInfoId
+   * @param after the new version must be greater than it
+   * @return DatumVersion
+   */
+  DatumVersion updateVersion(String dataInfoId, long after);
 }
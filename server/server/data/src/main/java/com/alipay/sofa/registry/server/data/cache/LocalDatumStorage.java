@@ -23,18 +23,28 @@ import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.slot.SlotWeight;
 import com.alipay.sofa.registry.common.model.slot.func.SlotFunction;
 import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.data.bootstrap.DataServerConfig;
 import com.alipay.sofa.registry.server.data.slot.SlotChangeListener;
+import com.alipay.sofa.registry.util.DatumVersionGenerator;
+import com.alipay.sofa.registry.util.NamedThreadFactory;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import java.io.File;
 import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.CollectionUtils;
 
@@ -48,8 +58,97 @@ public final class LocalDatumStorage implements DatumStorage {
   private final SlotFunction slotFunction = SlotFunctionRegistry.getFunc();
   private final Map<Integer, PublisherGroups> publisherGroupsMap = Maps.newConcurrentMap();
 
+  // not removed with the slot, the versions keep increasing when the slot is added back
+  private final Map<Integer, DatumVersionGenerator> versionGenerators = Maps.newConcurrentMap();
+
   @Autowired private DataServerConfig dataServerConfig;
 
+  private volatile SlotSnapshotStore snapshotStore;
+
+  // the snapshot only preload once when the slot first assigned after restart
+  private final Set<Integer> snapshotPreloadedSlots = Sets.newConcurrentHashSet();
+
+  private ScheduledExecutorService snapshotExecutor;
+
+  // keep the dataList of the publishers off heap, null means on heap
+  private DataBoxArena arena;
+
+  @PostConstruct
+  public void init() {
+    final long arenaMaxBytes = dataServerConfig.getDataBoxArenaMaxBytes();
+    if (arenaMaxBytes > 0) {
+      this.arena = new DataBoxArena(arenaMaxBytes, dataServerConfig.getDataBoxArenaSlabBytes());
+      LOGGER.info("data box arena on, {}", arena);
+    }
+    final int intervalSecs = dataServerConfig.getSlotSnapshotIntervalSecs();
+    if (intervalSecs <= 0) {
+      LOGGER.info("slot snapshot off with intervalSecs={}", intervalSecs);
+      return;
+    }
+    this.snapshotStore = new SlotSnapshotStore(new File(dataServerConfig.getSlotSnapshotDir()));
+    this.snapshotExecutor =
+        new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("SlotSnapshot"));
+    snapshotExecutor.scheduleWithFixedDelay(
+        this::snapshot, intervalSecs, intervalSecs, TimeUnit.SECONDS);
+    LOGGER.info("slot snapshot on, intervalSecs={}, {}", intervalSecs, snapshotStore);
+  }
+
+  int snapshot() {
+    final SlotSnapshotStore store = snapshotStore;
+    if (store == null) {
+      return 0;
+    }
+    int count = 0;
+    for (Map.Entry<Integer, PublisherGroups> e : publisherGroupsMap.entrySet()) {
+      final int slotId = e.getKey();
+      try {
+        final long start = System.currentTimeMillis();
+        List<Publisher> publishers = Lists.newArrayListWithCapacity(256);
+        e.getValue().getAllPublisher().values().forEach(publishers::addAll);
+        final int bytes = store.save(slotId, publishers);
+        count++;
+        LOGGER.info(
+            "[snapshot]slotId={}, pubs={}, bytes={}, span={}",
+            slotId,
+            publishers.size(),
+            bytes,
+            System.currentTimeMillis() - start);
+      } catch (Throwable t) {
+        LOGGER.error("[snapshot]failed to snapshot slotId={}", slotId, t);
+      }
+    }
+    return count;
+  }
+
+  int preload(int slotId, PublisherGroups groups) {
+    final SlotSnapshotStore store = snapshotStore;
+    if (store == null || !snapshotPreloadedSlots.add(slotId)) {
+      return 0;
+    }
+    List<Publisher> publishers =
+        store.load(slotId, dataServerConfig.getSlotSnapshotMaxAgeSecs() * 1000L);
+    if (CollectionUtils.isEmpty(publishers)) {
+      return 0;
+    }
+    Map<String, List<Publisher>> publisherMap = Maps.newHashMapWithExpectedSize(128);
+    for (Publisher publisher : publishers) {
+      if (slotFunction.slotOf(publisher.getDataInfoId()) != slotId) {
+        // the slot func has changed
+        LOGGER.warn("[preload]skip slotId={}, {}", slotId, publisher.getDataInfoId());
+        return 0;
+      }
+      publisherMap
+          .computeIfAbsent(publisher.getDataInfoId(), k -> Lists.newArrayList())
+          .add(Publisher.internPublisher(publisher));
+    }
+    // the preloaded publishers would be reconciled by the digest sync of migrating,
+    // the newer publishers put by session are not overwritten
+    publisherMap.forEach(groups::put);
+    LOGGER.info(
+        "[preload]slotId={}, datas={}, pubs={}", slotId, publisherMap.size(), publishers.size());
+    return publishers.size();
+  }
+
   private PublisherGroups getPublisherGroups(String dataInfoId) {
     final Integer slotId = slotFunction.slotOf(dataInfoId);
     PublisherGroups groups = publisherGroupsMap.get(slotId);
@@ -73,6 +172,18 @@ public final class LocalDatumStorage implements DatumStorage {
     return groups == null ? null : groups.getDatum(dataInfoId);
   }
 
+  @Override
+  public SubDatumSnapshot getSnapshot(String dataInfoId) {
+    final PublisherGroups groups = getPublisherGroups(dataInfoId);
+    return groups == null ? null : groups.getSnapshot(dataInfoId);
+  }
+
+  @Override
+  public SubDatumDelta getDelta(String dataInfoId, long sinceVersion) {
+    final PublisherGroups groups = getPublisherGroups(dataInfoId);
+    return groups == null ? null : groups.getDelta(dataInfoId, sinceVersion);
+  }
+
   @Override
   public DatumVersion getVersion(String dataInfoId) {
     PublisherGroups groups = getPublisherGroups(dataInfoId);
@@ -208,6 +319,16 @@ public final class LocalDatumStorage implements DatumStorage {
     return groups != null ? groups.getAllSummary() : Collections.emptyMap();
   }
 
+  @Override
+  public SlotWeight getSlotWeight(int slotId) {
+    final PublisherGroups groups = publisherGroupsMap.get(slotId);
+    if (groups == null) {
+      return SlotWeight.EMPTY;
+    }
+    return groups.weigh(
+        System.currentTimeMillis(), dataServerConfig.getSlotWeightRefreshSecs() * 1000L);
+  }
+
   @Override
   public SlotChangeListener getSlotChangeListener() {
     return new SlotListener();
@@ -251,27 +372,47 @@ public final class LocalDatumStorage implements DatumStorage {
     return groups == null ? null : groups.updateVersion(dataInfoId);
   }
 
+  @Override
+  public DatumVersion updateVersion(String dataInfoId, long after) {
+    PublisherGroups groups = getPublisherGroups(dataInfoId);
+    return groups == null ? null : groups.updateVersion(dataInfoId, after);
+  }
+
+  private DatumVersionGenerator versionGeneratorOf(int slotId) {
+    return versionGenerators.computeIfAbsent(slotId, k -> new DatumVersionGenerator());
+  }
+
   private final class SlotListener implements SlotChangeListener {
 
     @Override
     public void onSlotAdd(int slotId, Slot.Role role) {
-      publisherGroupsMap.computeIfAbsent(
-          slotId,
-          k -> {
-            PublisherGroups groups = new PublisherGroups(dataServerConfig.getLocalDataCenter());
-            LOGGER.info(
-                "{} add publisherGroup {}, role={}, slotNum={}",
-                dataServerConfig.getLocalDataCenter(),
-                slotId,
-                role,
-                publisherGroupsMap.size());
-            return groups;
-          });
+      final boolean[] added = new boolean[1];
+      PublisherGroups groups =
+          publisherGroupsMap.computeIfAbsent(
+              slotId,
+              k -> {
+                LOGGER.info(
+                    "{} add publisherGroup {}, role={}, slotNum={}",
+                    dataServerConfig.getLocalDataCenter(),
+                    slotId,
+                    role,
+                    publisherGroupsMap.size());
+                added[0] = true;
+                return new PublisherGroups(
+                    dataServerConfig.getLocalDataCenter(), versionGeneratorOf(slotId), arena);
+              });
+      if (added[0]) {
+        preload(slotId, groups);
+      }
     }
 
     @Override
     public void onSlotRemove(int slotId, Slot.Role role) {
-      boolean removed = publisherGroupsMap.remove(slotId) != null;
+      PublisherGroups groups = publisherGroupsMap.remove(slotId);
+      boolean removed = groups != null;
+      if (removed) {
+        groups.release();
+      }
       LOGGER.info(
           "{}, remove publisherGroup {}, removed={}, role={}, slotNum={}",
           dataServerConfig.getLocalDataCenter(),
@@ -287,6 +428,16 @@ public final class LocalDatumStorage implements DatumStorage {
     this.dataServerConfig = dataServerConfig;
   }
 
+  @VisibleForTesting
+  void setArena(DataBoxArena arena) {
+    this.arena = arena;
+  }
+
+  @VisibleForTesting
+  void setSnapshotStore(SlotSnapshotStore snapshotStore) {
+    this.snapshotStore = snapshotStore;
+  }
+
   @VisibleForTesting
   public DataServerConfig getDataServerConfig() {
     return dataServerConfig;
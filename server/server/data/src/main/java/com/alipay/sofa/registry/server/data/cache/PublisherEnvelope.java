@@ -19,36 +19,77 @@ package com.alipay.sofa.registry.server.data.cache;
 import com.alipay.sofa.registry.common.model.ConnectId;
 import com.alipay.sofa.registry.common.model.ProcessId;
 import com.alipay.sofa.registry.common.model.RegisterVersion;
+import com.alipay.sofa.registry.common.model.ServerDataBox;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.StoreData;
+import com.alipay.sofa.registry.common.model.store.SubPublisher;
+import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * @author yuzhi.lyz
  * @version v 0.1 2020-12-02 19:47 yuzhi.lyz Exp $
  */
 public final class PublisherEnvelope {
+  // if the dataList is kept in the arena, the publisher is a copy without dataList
   final Publisher publisher;
+  // cache the connectId of publisher, null if unpub or without address
+  final ConnectId connectId;
   final ProcessId sessionProcessId;
   final RegisterVersion registerVersion;
   final long tombstoneTimestamp;
 
+  // not null if the dataList is kept in the arena
+  private final DataBoxArena arena;
+  private final long dataHandle;
+  // the encoded length in the arena, or the bytes of the dataList on heap
+  private final int dataLength;
+
   private PublisherEnvelope(
       Publisher publisher,
       ProcessId sessionProcessId,
       RegisterVersion registerVersion,
-      long tombstoneTimestamp) {
-    this.publisher = publisher;
+      long tombstoneTimestamp,
+      DataBoxArena arena) {
+    this.connectId = connectIdOf(publisher);
     this.sessionProcessId = sessionProcessId;
     this.registerVersion = registerVersion;
     this.tombstoneTimestamp = tombstoneTimestamp;
+    final int length =
+        arena == null || publisher == null
+            ? -1
+            : DataBoxArena.encodedLength(publisher.getDataList());
+    final long handle =
+        length == -1 ? DataBoxArena.NULL_HANDLE : arena.store(publisher.getDataList(), length);
+    if (handle == DataBoxArena.NULL_HANDLE) {
+      this.publisher = publisher;
+      this.arena = null;
+      this.dataHandle = DataBoxArena.NULL_HANDLE;
+      this.dataLength = heapBytesOf(publisher);
+    } else {
+      this.publisher = copyOf(publisher, null);
+      this.arena = arena;
+      this.dataHandle = handle;
+      this.dataLength = length;
+    }
   }
 
   static PublisherEnvelope of(Publisher publisher) {
+    return of(publisher, null);
+  }
+
+  /**
+   * @param publisher
+   * @param arena keep the dataList of the publisher in the arena, null means on heap
+   * @return PublisherEnvelope
+   */
+  static PublisherEnvelope of(Publisher publisher, DataBoxArena arena) {
     ParaCheckUtil.checkNotNull(publisher.getSessionProcessId(), "publisher.sessionProcessId");
     switch (publisher.getDataType()) {
       case PUBLISHER:
-        return pubOf(publisher, publisher.getSessionProcessId());
+        return pubOf(publisher, publisher.getSessionProcessId(), arena);
       case UN_PUBLISHER:
         return unpubOf(publisher.registerVersion(), publisher.getSessionProcessId());
       default:
@@ -57,6 +98,11 @@ public final class PublisherEnvelope {
   }
 
   static PublisherEnvelope pubOf(Publisher publisher, ProcessId sessionProcessId) {
+    return pubOf(publisher, sessionProcessId, null);
+  }
+
+  static PublisherEnvelope pubOf(
+      Publisher publisher, ProcessId sessionProcessId, DataBoxArena arena) {
     ParaCheckUtil.checkEquals(
         publisher.getDataType(), StoreData.DataType.PUBLISHER, "Publisher.dataType");
     return new PublisherEnvelope(
@@ -64,23 +110,115 @@ public final class PublisherEnvelope {
         sessionProcessId,
         publisher.registerVersion(),
         // Long.max means pub never compact
-        Long.MAX_VALUE);
+        Long.MAX_VALUE,
+        arena);
   }
 
   static PublisherEnvelope unpubOf(RegisterVersion version, ProcessId sessionProcessId) {
-    return new PublisherEnvelope(null, sessionProcessId, version, System.currentTimeMillis());
+    return new PublisherEnvelope(null, sessionProcessId, version, System.currentTimeMillis(), null);
+  }
+
+  private static ConnectId connectIdOf(Publisher publisher) {
+    if (publisher == null
+        || publisher.getSourceAddress() == null
+        || publisher.getTargetAddress() == null) {
+      return null;
+    }
+    return publisher.connectId();
+  }
+
+  private static Publisher copyOf(Publisher publisher, List<ServerDataBox> dataList) {
+    Publisher copy = new Publisher();
+    copy.setDataInfoId(publisher.getDataInfoId());
+    copy.setDataId(publisher.getDataId());
+    copy.setClientId(publisher.getClientId());
+    copy.setInstanceId(publisher.getInstanceId());
+    copy.setCell(publisher.getCell());
+    copy.setAppName(publisher.getAppName());
+    copy.setProcessId(publisher.getProcessId());
+    copy.setRegisterId(publisher.getRegisterId());
+    copy.setVersion(publisher.getVersion());
+    copy.setSourceAddress(publisher.getSourceAddress());
+    copy.setTargetAddress(publisher.getTargetAddress());
+    copy.setClientVersion(publisher.getClientVersion());
+    copy.setGroup(publisher.getGroup());
+    copy.setRegisterTimestamp(publisher.getRegisterTimestamp());
+    copy.setClientRegisterTimestamp(publisher.getClientRegisterTimestamp());
+    copy.setAttributes(publisher.getAttributes());
+    copy.setPublishType(publisher.getPublishType());
+    copy.setPublishSource(publisher.getPublishSource());
+    copy.setSessionProcessId(publisher.getSessionProcessId());
+    copy.setDataList(dataList);
+    return copy;
   }
 
   boolean isPub() {
     return publisher != null;
   }
 
+  boolean isOffHeap() {
+    return arena != null;
+  }
+
+  /** the dataList in the arena is copied out, must not race with release */
+  Publisher getPublisher() {
+    return isOffHeap() ? copyOf(publisher, arena.load(dataHandle, dataLength)) : publisher;
+  }
+
+  /** the dataList in the arena is copied out, must not race with release */
+  SubPublisher toSubPublisher() {
+    return isOffHeap()
+        ? DatumUtils.of(publisher, arena.load(dataHandle, dataLength))
+        : DatumUtils.of(publisher);
+  }
+
+  /** must not race with release */
+  boolean isSameData(PublisherEnvelope that) {
+    if (isOffHeap() && that.isOffHeap()) {
+      // compare the encoded bytes without copying
+      return arena
+          .view(dataHandle, dataLength)
+          .equals(that.arena.view(that.dataHandle, that.dataLength));
+    }
+    return Objects.equals(dataListOf(this), dataListOf(that));
+  }
+
+  private static List<ServerDataBox> dataListOf(PublisherEnvelope envelope) {
+    return envelope.isPub() ? envelope.getPublisher().getDataList() : null;
+  }
+
+  /** the encoded bytes include a few bytes of header if the dataList is in the arena */
+  long dataBytes() {
+    return dataLength;
+  }
+
+  private static int heapBytesOf(Publisher publisher) {
+    final List<ServerDataBox> dataList = publisher == null ? null : publisher.getDataList();
+    if (dataList == null) {
+      return 0;
+    }
+    int bytes = 0;
+    for (ServerDataBox box : dataList) {
+      if (box != null) {
+        bytes += box.byteSize();
+      }
+    }
+    return bytes;
+  }
+
+  /** free the dataList in the arena, called once when the envelope is removed from the pubMap */
+  void release() {
+    if (isOffHeap()) {
+      arena.free(dataHandle, dataLength);
+    }
+  }
+
   RegisterVersion getVersionIfPub() {
     return isPub() ? registerVersion : null;
   }
 
   boolean isConnectId(ConnectId connectId) {
-    return isPub() && publisher.connectId().equals(connectId);
+    return isPub() && connectId.equals(this.connectId);
   }
 
   @Override
@@ -89,11 +227,13 @@ public final class PublisherEnvelope {
     sb.append("pub=")
         .append(isPub())
         .append(", connectId=")
-        .append(publisher != null ? publisher.connectId() : "null")
+        .append(connectId)
         .append(", ver=")
         .append(registerVersion)
         .append(", ts=")
-        .append(tombstoneTimestamp);
+        .append(tombstoneTimestamp)
+        .append(", offHeap=")
+        .append(isOffHeap());
     return sb.toString();
   }
 }
@@ -27,17 +27,23 @@ import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.store.DataInfo;
 import com.alipay.sofa.registry.common.model.store.ProcessIdCache;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
+import com.alipay.sofa.registry.common.model.store.SubPublisher;
 import com.alipay.sofa.registry.common.model.store.WordCache;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.util.DatumVersionGenerator;
 import com.alipay.sofa.registry.util.DatumVersionUtil;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -57,6 +63,10 @@ public final class PublisherGroup {
 
   private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
+  // the snapshot of the current version, saves the cache lookup of the hot path. a stale one is
+  // dropped when the version changes, the older versions are only kept by the bounded cache
+  private volatile SubDatumSnapshot snapshot;
+
   final String dataInfoId;
 
   final String dataCenter;
@@ -72,22 +82,80 @@ public final class PublisherGroup {
 
   private volatile long version;
 
+  // the num and the data bytes of the pub in pubMap, written in the write lock, the weigh of the
+  // slot reads them without lock
+  private volatile int pubNum;
+
+  private volatile long pubDataBytes;
+
   private static final int RECENT_VERSIONS_CAP = 10;
 
   private final ArrayDeque<Long> recentVersions = new ArrayDeque<>(RECENT_VERSIONS_CAP);
 
+  private static final int CHANGE_LOGS_CAP = 32;
+
+  private static final int CHANGE_LOGS_MAX_REGISTER_IDS = 1024;
+
+  // the registerIds modified but not versioned yet, move to changeLogs when update version
+  private final Set<String> pendingChanges = Sets.newHashSet();
+
+  // too many modified, the pendingChanges is not complete
+  private boolean pendingOverflow;
+
+  private final ArrayDeque<ChangeLog> changeLogs = new ArrayDeque<>(CHANGE_LOGS_CAP);
+
+  // the changes after changeLogBaseVersion are all in changeLogs
+  private long changeLogBaseVersion;
+
+  private int changeLogRegisterIdNum;
+
+  // shared with the groups in the same slot
+  private final ConnectIdIndex connectIdIndex;
+
+  // shared with the groups in the same slot
+  private final DatumVersionGenerator versionGenerator;
+
+  // keep the dataList of the publishers off heap, null means on heap. the chunks are freed under
+  // the write lock, so the reads of the dataList must hold the read lock
+  private final DataBoxArena arena;
+
+  // the group is removed with the slot, the new publishers are kept on heap
+  private boolean released;
+
   PublisherGroup(String dataInfoId, String dataCenter) {
+    this(dataInfoId, dataCenter, new ConnectIdIndex(), new DatumVersionGenerator());
+  }
+
+  PublisherGroup(
+      String dataInfoId,
+      String dataCenter,
+      ConnectIdIndex connectIdIndex,
+      DatumVersionGenerator versionGenerator) {
+    this(dataInfoId, dataCenter, connectIdIndex, versionGenerator, null);
+  }
+
+  PublisherGroup(
+      String dataInfoId,
+      String dataCenter,
+      ConnectIdIndex connectIdIndex,
+      DatumVersionGenerator versionGenerator,
+      DataBoxArena arena) {
     DataInfo dataInfo = DataInfo.valueOf(dataInfoId);
     this.dataInfoId = WordCache.getWordCache(dataInfoId);
     this.dataCenter = WordCache.getWordCache(dataCenter);
     this.dataId = WordCache.getWordCache(dataInfo.getDataId());
     this.instanceId = WordCache.getWordCache(dataInfo.getInstanceId());
     this.group = WordCache.getWordCache(dataInfo.getGroup());
+    this.versionGenerator = versionGenerator;
     if (DatumVersionUtil.useConfregVersionGen()) {
       this.version = DatumVersionUtil.confregNextId(0);
     } else {
-      this.version = DatumVersionUtil.nextId();
+      // greater than the versions generated before, include the versions of other generators
+      this.version = versionGenerator.nextId(DatumVersionUtil.nextId());
     }
+    this.changeLogBaseVersion = this.version;
+    this.connectIdIndex = connectIdIndex;
+    this.arena = arena;
   }
 
   DatumVersion getVersion() {
@@ -110,7 +178,7 @@ public final class PublisherGroup {
       ver = this.version;
       for (PublisherEnvelope envelope : pubMap.values()) {
         if (envelope.isPub()) {
-          list.add(envelope.publisher);
+          list.add(envelope.getPublisher());
         }
       }
     } finally {
@@ -121,37 +189,196 @@ public final class PublisherGroup {
     return datum;
   }
 
-  List<Publisher> getPublishers() {
-    List<Publisher> list = new ArrayList<>(pubMap.size());
+  SubDatumSnapshot getSnapshot() {
+    final SubDatumSnapshot current = snapshot;
+    if (current != null && current.getVersion() == version) {
+      return current;
+    }
+    // hold the read lock, the version could not change during building the snapshot
+    lock.readLock().lock();
+    try {
+      final SubDatumSnapshot s =
+          SubDatumSnapshot.get(dataInfoId, dataCenter, version, this::toSubDatum);
+      this.snapshot = s;
+      return s;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private SubDatum toSubDatum() {
+    List<SubPublisher> publishers = Lists.newArrayListWithCapacity(pubMap.size());
     for (PublisherEnvelope envelope : pubMap.values()) {
       if (envelope.isPub()) {
-        list.add(envelope.publisher);
+        publishers.add(envelope.toSubPublisher());
       }
     }
+    return SubDatum.normalOf(
+        dataInfoId,
+        dataCenter,
+        version,
+        publishers,
+        dataId,
+        instanceId,
+        group,
+        recentVersions.stream().filter(Objects::nonNull).collect(Collectors.toList()));
+  }
+
+  List<Publisher> getPublishers() {
+    List<Publisher> list = new ArrayList<>(pubMap.size());
+    lock.readLock().lock();
+    try {
+      for (PublisherEnvelope envelope : pubMap.values()) {
+        if (envelope.isPub()) {
+          list.add(envelope.getPublisher());
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
     return list;
   }
 
+  /**
+   * get the changes since the version
+   *
+   * @param sinceVersion
+   * @return null if the changes since the version has been trimmed
+   */
+  SubDatumDelta getDelta(long sinceVersion) {
+    lock.readLock().lock();
+    try {
+      final Set<String> changes = collectChanges(sinceVersion);
+      if (changes == null) {
+        return null;
+      }
+      List<SubPublisher> adds = Lists.newArrayListWithCapacity(changes.size());
+      List<String> removes = Lists.newArrayListWithCapacity(changes.size());
+      for (String registerId : changes) {
+        PublisherEnvelope envelope = pubMap.get(registerId);
+        if (envelope != null && envelope.isPub()) {
+          adds.add(envelope.toSubPublisher());
+        } else {
+          removes.add(registerId);
+        }
+      }
+      return SubDatumDelta.deltaOf(
+          dataInfoId,
+          dataCenter,
+          sinceVersion,
+          version,
+          pubNum,
+          adds,
+          removes,
+          recentVersions.stream().filter(Objects::nonNull).collect(Collectors.toList()));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private Set<String> collectChanges(long sinceVersion) {
+    if (pendingOverflow || sinceVersion < changeLogBaseVersion || sinceVersion > version) {
+      return null;
+    }
+    Set<String> changes = Sets.newHashSet(pendingChanges);
+    boolean found = sinceVersion == changeLogBaseVersion;
+    for (ChangeLog changeLog : changeLogs) {
+      if (found) {
+        Collections.addAll(changes, changeLog.registerIds);
+      } else if (changeLog.version == sinceVersion) {
+        found = true;
+      }
+    }
+    // the sinceVersion is not a version of this group
+    return found ? changes : null;
+  }
+
+  private void onChanged(String registerId, PublisherEnvelope prev, PublisherEnvelope now) {
+    connectIdIndex.update(dataInfoId, registerId, prev, now);
+    if (prev != null && prev.isPub()) {
+      pubNum--;
+      pubDataBytes -= prev.dataBytes();
+    }
+    if (now != null && now.isPub()) {
+      pubNum++;
+      pubDataBytes += now.dataBytes();
+    }
+    markChanged(registerId);
+  }
+
+  private void markChanged(String registerId) {
+    if (pendingOverflow) {
+      return;
+    }
+    pendingChanges.add(registerId);
+    if (pendingChanges.size() > CHANGE_LOGS_MAX_REGISTER_IDS) {
+      markAllChanged();
+    }
+  }
+
+  private void markAllChanged() {
+    pendingOverflow = true;
+    pendingChanges.clear();
+  }
+
+  private void appendChangeLog(long version) {
+    if (pendingOverflow) {
+      changeLogs.clear();
+      changeLogRegisterIdNum = 0;
+      changeLogBaseVersion = version;
+      pendingOverflow = false;
+      return;
+    }
+    String[] registerIds = pendingChanges.toArray(new String[pendingChanges.size()]);
+    pendingChanges.clear();
+    changeLogs.addLast(new ChangeLog(version, registerIds));
+    changeLogRegisterIdNum += registerIds.length;
+    while (changeLogs.size() > CHANGE_LOGS_CAP
+        || changeLogRegisterIdNum > CHANGE_LOGS_MAX_REGISTER_IDS) {
+      ChangeLog trimmed = changeLogs.pollFirst();
+      changeLogRegisterIdNum -= trimmed.registerIds.length;
+      changeLogBaseVersion = trimmed.version;
+    }
+  }
+
   Map<String, Publisher> getByConnectId(ConnectId connectId) {
-    Map<String, Publisher> map = Maps.newHashMap();
-    for (PublisherEnvelope p : pubMap.values()) {
-      if (p.isConnectId(connectId)) {
-        map.put(p.publisher.getRegisterId(), p.publisher);
+    return getByRegisterIds(connectId, connectIdIndex.query(connectId, dataInfoId));
+  }
+
+  Map<String, Publisher> getByRegisterIds(ConnectId connectId, Collection<String> registerIds) {
+    Map<String, Publisher> map = Maps.newHashMapWithExpectedSize(registerIds.size());
+    lock.readLock().lock();
+    try {
+      for (String registerId : registerIds) {
+        PublisherEnvelope p = pubMap.get(registerId);
+        // the index is updated with pubMap, double check in case of concurrent modification
+        if (p != null && p.isConnectId(connectId)) {
+          map.put(registerId, p.getPublisher());
+        }
       }
+    } finally {
+      lock.readLock().unlock();
     }
     return map;
   }
 
   DatumVersion updateVersion() {
+    return updateVersion(-1L);
+  }
+
+  DatumVersion updateVersion(long after) {
     final boolean useConfreg = DatumVersionUtil.useConfregVersionGen();
     lock.writeLock().lock();
     try {
       long lastVersion = this.version;
       if (useConfreg) {
-        this.version = DatumVersionUtil.confregNextId(lastVersion);
+        this.version = DatumVersionUtil.confregNextId(Math.max(lastVersion, after));
       } else {
-        this.version = DatumVersionUtil.nextId();
+        this.version = versionGenerator.nextId(Math.max(lastVersion, after));
       }
       appendRecentVersion(lastVersion);
+      appendChangeLog(version);
+      this.snapshot = null;
       return new DatumVersion(version);
     } finally {
       lock.writeLock().unlock();
@@ -169,8 +396,9 @@ public final class PublisherGroup {
     PublisherEnvelope exist = pubMap.get(publisher.getRegisterId());
     final RegisterVersion registerVersion = publisher.registerVersion();
     if (exist == null) {
-      PublisherEnvelope envelope = PublisherEnvelope.of(publisher);
+      PublisherEnvelope envelope = PublisherEnvelope.of(publisher, released ? null : arena);
       pubMap.put(publisher.getRegisterId(), envelope);
+      onChanged(publisher.getRegisterId(), null, envelope);
       return envelope.isPub();
     }
 
@@ -194,10 +422,11 @@ public final class PublisherGroup {
           publisher.registerVersion());
       return false;
     }
-    PublisherEnvelope envelope = PublisherEnvelope.of(publisher);
+    PublisherEnvelope envelope = PublisherEnvelope.of(publisher, released ? null : arena);
     pubMap.put(publisher.getRegisterId(), envelope);
+    onChanged(publisher.getRegisterId(), exist, envelope);
 
-    if (exist.publisher == null) {
+    if (!exist.isPub()) {
       // publisher is null after client_off
       LOGGER.info(
           "[ReplaceEmptyPub] {}, {}, exist={}, add={}, regIsPub={}",
@@ -209,10 +438,7 @@ public final class PublisherGroup {
       return envelope.isPub();
     }
     try {
-      boolean same =
-          exist.publisher.getDataList() == null
-              ? publisher.getDataList() == null
-              : exist.publisher.getDataList().equals(publisher.getDataList());
+      boolean same = exist.isSameData(envelope);
       if (same) {
         SKIP_SAME_VALUE_COUNTER.inc();
         LOGGER.info(
@@ -234,6 +460,8 @@ public final class PublisherGroup {
           publisher.registerVersion(),
           t);
       return true;
+    } finally {
+      exist.release();
     }
   }
 
@@ -261,7 +489,15 @@ public final class PublisherGroup {
           return null;
         }
         cleanContinues.onClean(size);
+        pubMap.forEach(
+            (k, v) -> {
+              connectIdIndex.update(dataInfoId, k, v, null);
+              v.release();
+            });
         pubMap.clear();
+        pubNum = 0;
+        pubDataBytes = 0;
+        markAllChanged();
         return updateVersion();
       } finally {
         lock.writeLock().unlock();
@@ -285,6 +521,8 @@ public final class PublisherGroup {
         }
         if (pubMap.remove(clean.getKey(), clean.getValue())) {
           cleanContinues.onClean(1);
+          onChanged(clean.getKey(), clean.getValue(), null);
+          clean.getValue().release();
           modified = true;
         }
       }
@@ -317,14 +555,18 @@ public final class PublisherGroup {
           // sync from leader
           if (sessionProcessId == null) {
             pubMap.remove(registerId);
+            onChanged(registerId, existing, null);
+            existing.release();
             modified = true;
             continue;
           }
           if (sessionProcessId.equals(existing.sessionProcessId)) {
             // syn from session, mark unpub with higher registerTimestamp
-            pubMap.put(
-                registerId,
-                PublisherEnvelope.unpubOf(removedVer.incrRegisterTimestamp(), sessionProcessId));
+            PublisherEnvelope unpub =
+                PublisherEnvelope.unpubOf(removedVer.incrRegisterTimestamp(), sessionProcessId);
+            pubMap.put(registerId, unpub);
+            onChanged(registerId, existing, unpub);
+            existing.release();
             modified = true;
           } else {
             LOGGER.warn(
@@ -446,6 +688,32 @@ public final class PublisherGroup {
     return count;
   }
 
+  /** free the dataList in the arena when the group is removed with the slot */
+  void release() {
+    if (arena == null) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      released = true;
+      this.snapshot = null;
+      pubMap.values().forEach(PublisherEnvelope::release);
+      pubMap.clear();
+      pubNum = 0;
+      pubDataBytes = 0;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  int pubNum() {
+    return pubNum;
+  }
+
+  long pubDataBytes() {
+    return pubDataBytes;
+  }
+
   int tombstoneNum() {
     int count = 0;
     for (PublisherEnvelope envelope : pubMap.values()) {
@@ -456,6 +724,16 @@ public final class PublisherGroup {
     return count;
   }
 
+  private static final class ChangeLog {
+    final long version;
+    final String[] registerIds;
+
+    ChangeLog(long version, String[] registerIds) {
+      this.version = version;
+      this.registerIds = registerIds;
+    }
+  }
+
   @Override
   public String toString() {
     return StringFormatter.format(
@@ -22,14 +22,20 @@ import com.alipay.sofa.registry.common.model.RegisterVersion;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.SlotWeight;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
+import com.alipay.sofa.registry.util.DatumVersionGenerator;
 import com.alipay.sofa.registry.util.StringFormatter;
 import com.google.common.collect.Maps;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import org.glassfish.jersey.internal.guava.Sets;
 import org.springframework.util.CollectionUtils;
 
@@ -40,9 +46,31 @@ import org.springframework.util.CollectionUtils;
 public final class PublisherGroups {
   private final Map<String, PublisherGroup> publisherGroupMap = Maps.newConcurrentMap();
   private final String dataCenter;
+  final ConnectIdIndex connectIdIndex = new ConnectIdIndex();
+  // the versions of the slot, avoid contending with the other slots on a global generator
+  private final DatumVersionGenerator versionGenerator;
+
+  // keep the dataList of the publishers off heap, null means on heap
+  private final DataBoxArena arena;
+
+  // the num of datum changes by put/remove/clean, use to calc the change rate of the slot
+  private final LongAdder changes = new LongAdder();
+  private SlotWeight weight;
+  private long weighTimestamp = System.currentTimeMillis();
+  private long weighChanges;
 
   PublisherGroups(String dataCenter) {
+    this(dataCenter, new DatumVersionGenerator());
+  }
+
+  PublisherGroups(String dataCenter, DatumVersionGenerator versionGenerator) {
+    this(dataCenter, versionGenerator, null);
+  }
+
+  PublisherGroups(String dataCenter, DatumVersionGenerator versionGenerator, DataBoxArena arena) {
     this.dataCenter = dataCenter;
+    this.versionGenerator = versionGenerator;
+    this.arena = arena;
   }
 
   Datum getDatum(String dataInfoId) {
@@ -50,6 +78,16 @@ public final class PublisherGroups {
     return group == null ? null : group.toDatum();
   }
 
+  SubDatumSnapshot getSnapshot(String dataInfoId) {
+    PublisherGroup group = publisherGroupMap.get(dataInfoId);
+    return group == null ? null : group.getSnapshot();
+  }
+
+  SubDatumDelta getDelta(String dataInfoId, long sinceVersion) {
+    PublisherGroup group = publisherGroupMap.get(dataInfoId);
+    return group == null ? null : group.getDelta(sinceVersion);
+  }
+
   DatumVersion getVersion(String dataInfoId) {
     PublisherGroup group = publisherGroupMap.get(dataInfoId);
     return group == null ? null : group.getVersion();
@@ -97,14 +135,24 @@ public final class PublisherGroups {
   }
 
   Map<String, Publisher> getByConnectId(ConnectId connectId) {
+    Map<String, Set<String>> registerIds = connectIdIndex.query(connectId);
+    if (registerIds.isEmpty()) {
+      return Collections.emptyMap();
+    }
     Map<String, Publisher> map = Maps.newHashMapWithExpectedSize(64);
-    publisherGroupMap.values().forEach(v -> map.putAll(v.getByConnectId(connectId)));
+    for (Map.Entry<String, Set<String>> e : registerIds.entrySet()) {
+      PublisherGroup group = publisherGroupMap.get(e.getKey());
+      if (group != null) {
+        map.putAll(group.getByRegisterIds(connectId, e.getValue()));
+      }
+    }
     return map;
   }
 
   PublisherGroup createGroupIfAbsent(String dataInfoId) {
     return publisherGroupMap.computeIfAbsent(
-        dataInfoId, k -> new PublisherGroup(dataInfoId, dataCenter));
+        dataInfoId,
+        k -> new PublisherGroup(dataInfoId, dataCenter, connectIdIndex, versionGenerator, arena));
   }
 
   Map<String, DatumVersion> clean(ProcessId sessionProcessId, CleanContinues cleanContinues) {
@@ -115,12 +163,13 @@ public final class PublisherGroups {
         versionMap.put(g.dataInfoId, ver);
       }
     }
+    changes.add(versionMap.size());
     return versionMap;
   }
 
   DatumVersion remove(String dataInfoId, ProcessId sessionProcessId) {
     PublisherGroup group = publisherGroupMap.get(dataInfoId);
-    return group == null ? null : group.clean(sessionProcessId, CleanContinues.ALWAYS);
+    return onChange(group == null ? null : group.clean(sessionProcessId, CleanContinues.ALWAYS));
   }
 
   DatumVersion put(String dataInfoId, List<Publisher> publishers) {
@@ -128,7 +177,7 @@ public final class PublisherGroups {
       return null;
     }
     PublisherGroup group = createGroupIfAbsent(dataInfoId);
-    return group.put(publishers);
+    return onChange(group.put(publishers));
   }
 
   DatumVersion remove(
@@ -136,7 +185,38 @@ public final class PublisherGroups {
       ProcessId sessionProcessId,
       Map<String, RegisterVersion> removedPublishers) {
     PublisherGroup group = publisherGroupMap.get(dataInfoId);
-    return group == null ? null : group.remove(sessionProcessId, removedPublishers);
+    return onChange(group == null ? null : group.remove(sessionProcessId, removedPublishers));
+  }
+
+  private DatumVersion onChange(DatumVersion version) {
+    if (version != null) {
+      changes.increment();
+    }
+    return version;
+  }
+
+  /**
+   * the weight is cached in minIntervalMillis, the pub num and data bytes are summed from the
+   * counters of the groups
+   */
+  synchronized SlotWeight weigh(long now, long minIntervalMillis) {
+    if (weight != null && now - weighTimestamp < minIntervalMillis) {
+      return weight;
+    }
+    int pubNum = 0;
+    long dataBytes = 0;
+    for (PublisherGroup g : publisherGroupMap.values()) {
+      pubNum += g.pubNum();
+      dataBytes += g.pubDataBytes();
+    }
+    final long currentChanges = changes.sum();
+    final long span = Math.max(now - weighTimestamp, 1);
+    final long changesPerMin =
+        (currentChanges - weighChanges) * TimeUnit.MINUTES.toMillis(1) / span;
+    this.weight = new SlotWeight(pubNum, dataBytes, changesPerMin);
+    this.weighTimestamp = now;
+    this.weighChanges = currentChanges;
+    return weight;
   }
 
   Map<String, Map<String, DatumSummary>> getSummary(Set<String> sessions) {
@@ -202,6 +282,11 @@ public final class PublisherGroups {
     return count;
   }
 
+  /** free the off heap memory of the groups, called after the slot removed */
+  void release() {
+    publisherGroupMap.values().forEach(PublisherGroup::release);
+  }
+
   Map<String, DatumVersion> updateVersion() {
     Map<String, DatumVersion> ret = Maps.newHashMapWithExpectedSize(publisherGroupMap.size());
     for (PublisherGroup g : publisherGroupMap.values()) {
@@ -214,11 +299,15 @@ public final class PublisherGroups {
   }
 
   DatumVersion updateVersion(String dataInfoId) {
+    return updateVersion(dataInfoId, -1L);
+  }
+
+  DatumVersion updateVersion(String dataInfoId, long after) {
     PublisherGroup group = publisherGroupMap.get(dataInfoId);
     if (group == null) {
       return null;
     }
-    return group.updateVersion();
+    return group.updateVersion(after);
   }
 
   @Override
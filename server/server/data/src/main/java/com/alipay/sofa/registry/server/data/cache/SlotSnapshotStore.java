@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.remoting.exception.CodecException;
+import com.alipay.remoting.serialization.Serializer;
+import com.alipay.remoting.serialization.SerializerManager;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.annotations.VisibleForTesting;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * the snapshot of the publishers of a slot on local disk, one file for each slot.
+ *
+ * <pre>
+ * | magic(4) | version(4) | slotId(4) | timestamp(8) | publisherNum(4) | bodyLength(4) | crc32(8) |
+ * | body: hessian2 of the publisher list |
+ * </pre>
+ *
+ * the file is written to a temp file and renamed, the reading maps the file and verifies the
+ * checksum before decoding
+ */
+public final class SlotSnapshotStore {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SlotSnapshotStore.class);
+
+  static final int MAGIC = 0x52535350;
+  static final int VERSION = 1;
+  static final int HEADER_LENGTH = 4 + 4 + 4 + 8 + 4 + 4 + 8;
+
+  private static final String SUFFIX = ".snapshot";
+  private static final String TMP_SUFFIX = ".tmp";
+
+  private final File dir;
+
+  public SlotSnapshotStore(File dir) {
+    ParaCheckUtil.checkNotNull(dir, "dir");
+    this.dir = dir;
+  }
+
+  /**
+   * write the publishers of the slot, replace the exist snapshot
+   *
+   * @return the bytes of the snapshot
+   */
+  public int save(int slotId, List<Publisher> publishers) throws IOException, CodecException {
+    final byte[] body = serializer().serialize(new ArrayList<>(publishers));
+    final CRC32 crc = new CRC32();
+    crc.update(body, 0, body.length);
+
+    ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+    header.putInt(MAGIC);
+    header.putInt(VERSION);
+    header.putInt(slotId);
+    header.putLong(System.currentTimeMillis());
+    header.putInt(publishers.size());
+    header.putInt(body.length);
+    header.putLong(crc.getValue());
+    header.flip();
+
+    if (!dir.exists() && !dir.mkdirs() && !dir.exists()) {
+      throw new IOException("failed to create dir " + dir);
+    }
+    final File tmp = new File(dir, fileName(slotId) + TMP_SUFFIX);
+    try (FileChannel channel =
+        FileChannel.open(
+            tmp.toPath(),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      ByteBuffer content = ByteBuffer.wrap(body);
+      while (header.hasRemaining() || content.hasRemaining()) {
+        channel.write(new ByteBuffer[] {header, content});
+      }
+      channel.force(true);
+    }
+    Files.move(
+        tmp.toPath(),
+        file(slotId).toPath(),
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    return HEADER_LENGTH + body.length;
+  }
+
+  /**
+   * read the publishers of the slot
+   *
+   * @param maxAgeMillis the snapshot older than it is ignored
+   * @return null if no valid snapshot
+   */
+  public List<Publisher> load(int slotId, long maxAgeMillis) {
+    final File file = file(slotId);
+    if (!file.isFile()) {
+      return null;
+    }
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      final long size = channel.size();
+      if (size < HEADER_LENGTH) {
+        LOGGER.warn("[corrupt]slotId={}, size={}", slotId, size);
+        return null;
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      final int magic = buffer.getInt();
+      final int version = buffer.getInt();
+      final int id = buffer.getInt();
+      final long timestamp = buffer.getLong();
+      final int publisherNum = buffer.getInt();
+      final int bodyLength = buffer.getInt();
+      final long checksum = buffer.getLong();
+      if (magic != MAGIC || version != VERSION || id != slotId) {
+        LOGGER.warn("[corrupt]slotId={}, magic={}, version={}, id={}", slotId, magic, version, id);
+        return null;
+      }
+      final long age = System.currentTimeMillis() - timestamp;
+      if (age > maxAgeMillis) {
+        LOGGER.info("[expired]slotId={}, age={}", slotId, age);
+        return null;
+      }
+      if (bodyLength != size - HEADER_LENGTH) {
+        LOGGER.warn("[corrupt]slotId={}, size={}, bodyLength={}", slotId, size, bodyLength);
+        return null;
+      }
+      final CRC32 crc = new CRC32();
+      crc.update(buffer.duplicate());
+      if (crc.getValue() != checksum) {
+        LOGGER.warn("[corrupt]slotId={}, checksum={}/{}", slotId, crc.getValue(), checksum);
+        return null;
+      }
+      final byte[] body = new byte[bodyLength];
+      buffer.get(body);
+      List<Publisher> publishers = serializer().deserialize(body, ArrayList.class.getName());
+      if (publishers.size() != publisherNum) {
+        LOGGER.warn(
+            "[corrupt]slotId={}, publisherNum={}/{}", slotId, publishers.size(), publisherNum);
+        return null;
+      }
+      LOGGER.info("[load]slotId={}, age={}, pubs={}, bytes={}", slotId, age, publisherNum, size);
+      return publishers;
+    } catch (Throwable e) {
+      LOGGER.error("[load]failed to load snapshot, slotId={}", slotId, e);
+      return null;
+    }
+  }
+
+  private static Serializer serializer() {
+    return SerializerManager.getSerializer(SerializerManager.Hessian2);
+  }
+
+  @VisibleForTesting
+  File file(int slotId) {
+    return new File(dir, fileName(slotId));
+  }
+
+  private static String fileName(int slotId) {
+    return "slot-" + slotId + SUFFIX;
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format("SlotSnapshotStore{{}}", dir);
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.compress.Compressor;
+import com.alipay.sofa.registry.concurrent.CachedExecutor;
+import com.alipay.sofa.registry.server.shared.util.DatumUtils;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.alipay.sofa.registry.util.SystemUtils;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+
+/**
+ * the immutable view of a datum at one version, shared by the readers of the same version. the
+ * group holds the snapshot of its current version, the others are kept in a cache bounded by
+ * weight. the compressed forms are cached by the compressCachedExecutor of DatumUtils
+ */
+public final class SubDatumSnapshot {
+  private static final String KEY_SNAPSHOT_CACHE_CAPACITY = "registry.data.snapshot.capacity";
+
+  private static final CachedExecutor<Key, SubDatumSnapshot> snapshotCachedExecutor =
+      new CachedExecutor<>(
+          60 * 1000,
+          SystemUtils.getSystemInteger(KEY_SNAPSHOT_CACHE_CAPACITY, 1024 * 1024 * 128),
+          (Key k, SubDatumSnapshot v) -> k.size() + v.datum.size(),
+          true);
+
+  private final SubDatum datum;
+
+  SubDatumSnapshot(SubDatum datum) {
+    ParaCheckUtil.checkNotNull(datum, "datum");
+    this.datum = datum;
+  }
+
+  /**
+   * get the cached snapshot of the version, build it if absent
+   *
+   * @param dataInfoId
+   * @param dataCenter
+   * @param version the version must identify the content of the datum
+   * @param builder build the datum of the version
+   * @return SubDatumSnapshot
+   */
+  static SubDatumSnapshot get(
+      String dataInfoId, String dataCenter, long version, Callable<SubDatum> builder) {
+    try {
+      return snapshotCachedExecutor.execute(
+          new Key(dataInfoId, dataCenter, version),
+          () -> new SubDatumSnapshot(builder.call()));
+    } catch (Throwable e) {
+      throw new RuntimeException("build datum snapshot failed", e);
+    }
+  }
+
+  public SubDatum getDatum() {
+    return datum;
+  }
+
+  public long getVersion() {
+    return datum.getVersion();
+  }
+
+  /**
+   * @param compressor null means no compression
+   * @return the datum compressed by the compressor
+   */
+  public SubDatum compress(Compressor compressor) {
+    return DatumUtils.compressSubDatum(datum, compressor);
+  }
+
+  private static final class Key {
+    final String dataInfoId;
+    final String dataCenter;
+    final long version;
+
+    Key(String dataInfoId, String dataCenter, long version) {
+      this.dataInfoId = dataInfoId;
+      this.dataCenter = dataCenter;
+      this.version = version;
+    }
+
+    int size() {
+      return dataInfoId.length() + dataCenter.length() + 32;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return version == key.version
+          && Objects.equals(dataInfoId, key.dataInfoId)
+          && Objects.equals(dataCenter, key.dataCenter);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(dataInfoId, dataCenter, version);
+    }
+  }
+}
@@ -35,6 +35,8 @@ public final class ChangeMetrics {
   static final Counter.Child CHANGE_RETRY_COUNTER = CHANGE_COUNTER_.labels("retry");
   // skip change
   static final Counter.Child CHANGE_SKIP_COUNTER = CHANGE_COUNTER_.labels("skip");
+  // not interested by the session
+  static final Counter.Child CHANGE_FILTER_COUNTER = CHANGE_COUNTER_.labels("filter");
   // skip same pub value
   public static final Counter.Child SKIP_SAME_VALUE_COUNTER =
       CHANGE_COUNTER_.labels("skipSameValue");
@@ -24,6 +24,8 @@ import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.sessionserver.DataChangeRequest;
 import com.alipay.sofa.registry.common.model.sessionserver.DataPushRequest;
+import com.alipay.sofa.registry.common.model.slot.func.SlotFunction;
+import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.SubDatum;
 import com.alipay.sofa.registry.log.Logger;
@@ -70,6 +72,9 @@ public class DataChangeEventCenter {
   private final Map<String, Map<String, Datum>> dataCenter2TempChanges = Maps.newConcurrentMap();
   private final ReadWriteLock tempLock = new ReentrantReadWriteLock();
 
+  private final SessionInterests sessionInterests = new SessionInterests();
+  private final SlotFunction slotFunction = SlotFunctionRegistry.getFunc();
+
   private final TempChangeMerger tempChangeMerger = new TempChangeMerger();
   private final ChangeMerger changeMerger = new ChangeMerger();
 
@@ -124,6 +129,51 @@ public class DataChangeEventCenter {
     }
   }
 
+  public void onSessionInterests(String sessionIp, int slotId, Collection<String> dataInfoIds) {
+    if (!dataServerConfig.isNotifyInterestFilterEnabled()) {
+      return;
+    }
+    sessionInterests.register(
+        sessionIp,
+        slotId,
+        dataInfoIds,
+        System.currentTimeMillis(),
+        dataServerConfig.getNotifyInterestExpireMillis());
+  }
+
+  public void onSessionFetch(String sessionIp, String dataInfoId) {
+    if (!dataServerConfig.isNotifyInterestFilterEnabled()) {
+      return;
+    }
+    // the session fetches the dataInfoId which maybe not in the last report, e.g. new subscriber
+    sessionInterests.onFetch(
+        sessionIp, slotFunction.slotOf(dataInfoId), dataInfoId, System.currentTimeMillis());
+  }
+
+  Map<String, DatumVersion> filterInterests(String sessionIp, Map<String, DatumVersion> changes) {
+    if (!dataServerConfig.isNotifyInterestFilterEnabled()) {
+      return changes;
+    }
+    final long now = System.currentTimeMillis();
+    final long expireMillis = dataServerConfig.getNotifyInterestExpireMillis();
+    Map<String, DatumVersion> interests = null;
+    for (Map.Entry<String, DatumVersion> e : changes.entrySet()) {
+      final String dataInfoId = e.getKey();
+      final int slotId = slotFunction.slotOf(dataInfoId);
+      if (sessionInterests.mightContain(sessionIp, slotId, dataInfoId, now, expireMillis)) {
+        if (interests == null) {
+          interests = Maps.newHashMapWithExpectedSize(changes.size());
+        }
+        interests.put(dataInfoId, e.getValue());
+      }
+    }
+    if (interests == null) {
+      return Collections.emptyMap();
+    }
+    // all are interested, share the same map
+    return interests.size() == changes.size() ? changes : interests;
+  }
+
   final class TempNotifier implements Runnable {
     final Channel channel;
     final Datum datum;
@@ -373,18 +423,23 @@ public class DataChangeEventCenter {
         LOGGER.info("datum change notify: {},{}", entry.getKey(), entry.getValue());
       }
       for (Map.Entry<String, List<Channel>> entry : channelsMap.entrySet()) {
+        final Map<String, DatumVersion> interests = filterInterests(entry.getKey(), changes);
+        if (interests.isEmpty()) {
+          CHANGE_FILTER_COUNTER.inc();
+          continue;
+        }
         Channel channel = CollectionUtils.getRandom(entry.getValue());
         try {
           notifyExecutor.execute(
               channel.getRemoteAddress(),
-              new ChangeNotifier(channel, event.getDataCenter(), changes, event.getTraceTimes()));
+              new ChangeNotifier(channel, event.getDataCenter(), interests, event.getTraceTimes()));
           CHANGE_COMMIT_COUNTER.inc();
         } catch (FastRejectedExecutionException e) {
           CHANGE_SKIP_COUNTER.inc();
-          LOGGER.warn("commit notify full, {}, {}, {}", channel, changes.size(), e.getMessage());
+          LOGGER.warn("commit notify full, {}, {}, {}", channel, interests.size(), e.getMessage());
         } catch (Throwable e) {
           CHANGE_SKIP_COUNTER.inc();
-          LOGGER.error("commit notify failed, {}, {}", channel, changes.size(), e);
+          LOGGER.error("commit notify failed, {}, {}", channel, interests.size(), e);
         }
       }
     }
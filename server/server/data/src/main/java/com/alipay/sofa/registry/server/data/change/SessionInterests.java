@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.change;
+
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.google.common.collect.Maps;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * the interested dataInfoIds of every session server, grouped by slot. it is reported by the
+ * periodic GetDataVersionRequest and kept as a bloom filter, the false positive only causes a
+ * redundant notify. a slot without a fresh filter is treated as interested in everything. the
+ * dataInfoIds fetched by the session after the filter is built (e.g. a new subscriber registered)
+ * are kept aside until the next report contains them
+ */
+final class SessionInterests {
+  private static final double FPP = 0.01;
+  private static final int MIN_EXPECTED_INSERTIONS = 16;
+
+  private final Map<String /*sessionIp*/, Map<Integer /*slotId*/, Interest>> interests =
+      Maps.newConcurrentMap();
+
+  private volatile long lastCleanTimestamp;
+
+  void register(
+      String sessionIp, int slotId, Collection<String> dataInfoIds, long now, long expireMillis) {
+    BloomFilter<CharSequence> filter =
+        BloomFilter.create(
+            Funnels.stringFunnel(StandardCharsets.UTF_8),
+            Math.max(dataInfoIds.size(), MIN_EXPECTED_INSERTIONS),
+            FPP);
+    for (String dataInfoId : dataInfoIds) {
+      filter.put(dataInfoId);
+    }
+    final Interest interest = new Interest(filter, now);
+    final Interest prev =
+        interests.computeIfAbsent(sessionIp, k -> Maps.newConcurrentMap()).put(slotId, interest);
+    if (prev != null) {
+      // the report maybe collected before the fetching, keep the recent fetched which not contains
+      for (Map.Entry<String, Long> e : prev.fetched.entrySet()) {
+        if (e.getValue() + expireMillis >= now && !filter.mightContain(e.getKey())) {
+          interest.fetched.putIfAbsent(e.getKey(), e.getValue());
+        }
+      }
+    }
+    if (lastCleanTimestamp + expireMillis < now) {
+      lastCleanTimestamp = now;
+      clean(now, expireMillis);
+    }
+  }
+
+  void onFetch(String sessionIp, int slotId, String dataInfoId, long now) {
+    final Map<Integer, Interest> slots = interests.get(sessionIp);
+    if (slots == null) {
+      return;
+    }
+    Interest interest = slots.get(slotId);
+    while (interest != null && !interest.filter.mightContain(dataInfoId)) {
+      interest.fetched.put(dataInfoId, now);
+      final Interest current = slots.get(slotId);
+      // the filter is replaced concurrently, maybe not copied the fetched, add to the current
+      interest = current != interest ? current : null;
+    }
+  }
+
+  boolean mightContain(
+      String sessionIp, int slotId, String dataInfoId, long now, long expireMillis) {
+    final Map<Integer, Interest> slots = interests.get(sessionIp);
+    if (slots == null) {
+      return true;
+    }
+    final Interest interest = slots.get(slotId);
+    if (interest == null) {
+      return true;
+    }
+    if (interest.timestamp + expireMillis < now) {
+      // the session has not reported the slot for a while, maybe the slot leader has changed
+      return true;
+    }
+    return interest.filter.mightContain(dataInfoId) || interest.fetched.containsKey(dataInfoId);
+  }
+
+  void clean(long now, long expireMillis) {
+    for (Map<Integer, Interest> slots : interests.values()) {
+      slots.values().removeIf(interest -> interest.timestamp + expireMillis < now);
+    }
+    interests.values().removeIf(Map::isEmpty);
+  }
+
+  int size() {
+    int size = 0;
+    for (Map<Integer, Interest> slots : interests.values()) {
+      size += slots.size();
+    }
+    return size;
+  }
+
+  private static final class Interest {
+    final BloomFilter<CharSequence> filter;
+    final long timestamp;
+    final Map<String, Long> fetched = Maps.newConcurrentMap();
+
+    Interest(BloomFilter<CharSequence> filter, long timestamp) {
+      this.filter = filter;
+      this.timestamp = timestamp;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return StringFormatter.format(
+        "SessionInterests{sessions={},slots={}}", interests.size(), size());
+  }
+}
@@ -18,6 +18,8 @@ package com.alipay.sofa.registry.server.data.remoting.dataserver.handler;
 
 import com.alipay.sofa.registry.common.model.GenericResponse;
 import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
+import com.alipay.sofa.registry.common.model.PublisherUtils;
 import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestRequest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestResult;
@@ -62,11 +64,9 @@ public class SlotFollowerDiffDigestRequestHandler
         return new GenericResponse().fillFailed("not leader of " + slotId);
       }
       DataSlotDiffDigestResult result =
-          calcDiffResult(
-              slotId,
-              request.getDatumDigest(),
-              localDatumStorage.getPublishers(request.getSlotId()));
+          calcDiffResult(request, localDatumStorage.getPublishers(request.getSlotId()));
       result.setSlotTableEpoch(slotManager.getSlotTableEpoch());
+      result.setAdditiveDigestSupported(true);
       return new GenericResponse().fillSucceed(result);
     } catch (Throwable e) {
       String msg =
@@ -77,12 +77,16 @@ public class SlotFollowerDiffDigestRequestHandler
   }
 
   private DataSlotDiffDigestResult calcDiffResult(
-      int targetSlot,
-      Map<String, DatumDigest> targetDigestMap,
-      Map<String, Map<String, Publisher>> existingPublishers) {
-    DataSlotDiffDigestResult result =
-        DataSlotDiffUtils.diffDigestResult(targetDigestMap, existingPublishers);
-    DataSlotDiffUtils.logDiffResult(result, targetSlot);
+      DataSlotDiffDigestRequest request, Map<String, Map<String, Publisher>> existingPublishers) {
+    DataSlotDiffDigestResult result;
+    if (request.isAdditiveDigest()) {
+      Map<String, DatumDigest> digestMap =
+          PublisherDigestUtil.additiveDigest(PublisherUtils.getDatumSummary(existingPublishers));
+      result = DataSlotDiffUtils.diffDigest(request, digestMap);
+    } else {
+      result = DataSlotDiffUtils.diffDigestResult(request.getDatumDigest(), existingPublishers);
+    }
+    DataSlotDiffUtils.logDiffResult(result, request.getSlotId());
     return result;
   }
 
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
+
+import com.alipay.sofa.registry.common.model.dataserver.BatchGetDataRequest;
+import com.alipay.sofa.registry.common.model.dataserver.BatchGetDataResponse;
+import com.alipay.sofa.registry.common.model.dataserver.GetDataRequest;
+import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * processor to get the datum of multi dataInfoIds, each item is handled by GetDataHandler and
+ * responds independently, a failed item does not fail the others
+ */
+public class BatchGetDataHandler extends AbstractDataHandler<BatchGetDataRequest> {
+  private static final Logger LOGGER = DataLog.GET_LOGGER;
+
+  @Autowired private GetDataHandler getDataHandler;
+
+  @Autowired private ThreadPoolExecutor getDataProcessorExecutor;
+
+  @Override
+  public Executor getExecutor() {
+    return getDataProcessorExecutor;
+  }
+
+  @Override
+  public void checkParam(BatchGetDataRequest request) {
+    checkSessionProcessId(request.getSessionProcessId());
+    ParaCheckUtil.checkNotNull(request.getRequests(), "BatchGetDataRequest.requests");
+  }
+
+  @Override
+  public Object doHandle(Channel channel, BatchGetDataRequest request) {
+    final List<GetDataRequest> requests = request.getRequests();
+    final List<Object> responses = Lists.newArrayListWithCapacity(requests.size());
+    for (GetDataRequest req : requests) {
+      responses.add(handle(channel, req));
+    }
+    return new BatchGetDataResponse(responses);
+  }
+
+  private Object handle(Channel channel, GetDataRequest request) {
+    try {
+      getDataHandler.checkParam(request);
+      return getDataHandler.doHandle(channel, request);
+    } catch (Throwable e) {
+      LOGGER.error("failed to get data in batch, {}", request, e);
+      return SlotAccessGenericResponse.failedResponse(e.getMessage());
+    }
+  }
+
+  @Override
+  public Class interest() {
+    return BatchGetDataRequest.class;
+  }
+
+  @VisibleForTesting
+  void setGetDataHandler(GetDataHandler getDataHandler) {
+    this.getDataHandler = getDataHandler;
+  }
+}
@@ -18,18 +18,18 @@ package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
 
 import static com.alipay.sofa.registry.server.data.remoting.sessionserver.handler.HandlerMetrics.GetData.*;
 
-import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.GetDataRequest;
 import com.alipay.sofa.registry.common.model.slot.SlotAccess;
 import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
 import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
 import com.alipay.sofa.registry.compress.CompressUtils;
 import com.alipay.sofa.registry.compress.Compressor;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.server.data.cache.DatumCache;
+import com.alipay.sofa.registry.server.data.cache.SubDatumSnapshot;
 import com.alipay.sofa.registry.server.data.providedata.CompressDatumService;
-import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.google.common.annotations.VisibleForTesting;
 import java.util.concurrent.Executor;
@@ -75,7 +75,37 @@ public class GetDataHandler extends AbstractDataHandler<GetDataRequest> {
       GET_DATUM_N_COUNTER.inc();
       return SlotAccessGenericResponse.failedResponse(slotAccessBefore);
     }
-    final Datum datum = datumCache.get(dataCenter, dataInfoId);
+    // the subscriber registered after the last interests report, need to notify the change
+    dataChangeEventCenter.onSessionFetch(
+        channel.getRemoteAddress().getAddress().getHostAddress(), dataInfoId);
+    if (request.isDelta()) {
+      final SubDatumDelta delta =
+          datumCache.getDelta(dataCenter, dataInfoId, request.getSinceVersion());
+      if (delta != null) {
+        final SlotAccess slotAccessAfter =
+            checkAccess(dataInfoId, request.getSlotTableEpoch(), request.getSlotLeaderEpoch());
+        if (slotAccessAfter.getSlotLeaderEpoch() != slotAccessBefore.getSlotLeaderEpoch()) {
+          GET_DATUM_N_COUNTER.inc();
+          return SlotAccessGenericResponse.failedResponse(
+              slotAccessAfter, "slotLeaderEpoch has change, prev=" + slotAccessBefore);
+        }
+        GET_DATUM_DELTA_COUNTER.inc();
+        GET_PUBLISHER_COUNTER.inc(delta.getAddPublishers().size());
+        LOGGER.info(
+            "getDelta,{},{},{},{}>{},add={},remove={}",
+            dataInfoId,
+            dataCenter,
+            delta.getPubNum(),
+            delta.getFromVersion(),
+            delta.getVersion(),
+            delta.getAddPublishers().size(),
+            delta.getRemovedRegisterIds().size());
+        return SlotAccessGenericResponse.successResponse(slotAccessAfter, delta);
+      }
+      // the change log has been trimmed, fallback to get the whole datum
+    }
+    // the snapshot of the version is shared by the readers, only rebuilt after the datum changes
+    final SubDatumSnapshot snapshot = datumCache.getSnapshot(dataCenter, dataInfoId);
     // important. double check the slot access. avoid the case:
     // 1. the slot is leader, the first check pass
     // 2. slot moved and data cleaned
@@ -93,14 +123,14 @@ public class GetDataHandler extends AbstractDataHandler<GetDataRequest> {
           slotAccessAfter, "slotLeaderEpoch has change, prev=" + slotAccessBefore);
     }
     // return SubDatum, it's serdeSize and memoryOverhead much smaller than Datum
-    SubDatum subDatum = datum != null ? DatumUtils.of(datum) : null;
+    SubDatum subDatum = snapshot != null ? snapshot.getDatum() : null;
     String encode = "";
     Compressor compressor =
         compressDatumService.getCompressor(subDatum, request.getAcceptEncodes());
     if (compressor != null) {
       encode = compressor.getEncoding();
     }
-    SubDatum zipDatum = DatumUtils.compressSubDatum(subDatum, compressor);
+    SubDatum zipDatum = snapshot != null ? snapshot.compress(compressor) : null;
     GET_DATUM_Y_COUNTER.inc();
     if (subDatum != null) {
       LOGGER.info(
@@ -116,6 +146,10 @@ public class GetDataHandler extends AbstractDataHandler<GetDataRequest> {
     } else {
       LOGGER.info("getNilD,{},{}", dataInfoId, dataCenter);
     }
+    if (request.isDelta()) {
+      return SlotAccessGenericResponse.successResponse(
+          slotAccessAfter, SubDatumDelta.fullOf(dataInfoId, dataCenter, zipDatum));
+    }
     return SlotAccessGenericResponse.successResponse(slotAccessAfter, zipDatum);
   }
 
@@ -78,6 +78,9 @@ public class GetDataVersionsHandler extends AbstractDataHandler<GetDataVersionRe
       return SlotAccessGenericResponse.failedResponse(
           slotAccessAfter, "slotLeaderEpoch has change, prev=" + slotAccessBefore);
     }
+    // the interests of the slot leader, use to filter the change notify
+    dataChangeEventCenter.onSessionInterests(
+        channel.getRemoteAddress().getAddress().getHostAddress(), slotId, interests.keySet());
     final boolean localDataCenter = dataServerConfig.isLocalDataCenter(dataCenter);
     Map<String, DatumVersion> ret = Maps.newHashMapWithExpectedSize(64);
     for (Map.Entry<String, DatumVersion> e : interests.entrySet()) {
@@ -105,7 +108,8 @@ public class GetDataVersionsHandler extends AbstractDataHandler<GetDataVersionRe
           //    bigger than current datum.version=V1, the publisher-B would not push to
           // subscriber-A.
           // so, we need to compare the push.version and datum.version
-          DatumVersion updateVer = datumCache.updateVersion(dataCenter, dataInfoId);
+          DatumVersion updateVer =
+              datumCache.updateVersion(dataCenter, dataInfoId, interestVer.getValue());
           ret.put(dataInfoId, updateVer);
           LOGGER.info(
               "updateV,{},{},{},interestVer={},currentVer={},updateVer={}",
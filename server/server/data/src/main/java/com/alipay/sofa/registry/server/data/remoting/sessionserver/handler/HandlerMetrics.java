@@ -33,6 +33,7 @@ public final class HandlerMetrics {
 
     static final Counter.Child GET_DATUM_Y_COUNTER = GET_DATUM_COUNTER.labels("Y");
     static final Counter.Child GET_DATUM_N_COUNTER = GET_DATUM_COUNTER.labels("N");
+    static final Counter.Child GET_DATUM_DELTA_COUNTER = GET_DATUM_COUNTER.labels("D");
 
     static final Counter GET_PUBLISHER_COUNTER =
         Counter.build()
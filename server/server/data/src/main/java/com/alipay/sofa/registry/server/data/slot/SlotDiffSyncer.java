@@ -29,6 +29,7 @@ import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestRequest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestResult;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherRequest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherResult;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffUtils;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.WordCache;
 import com.alipay.sofa.registry.log.Logger;
@@ -61,16 +62,20 @@ public final class SlotDiffSyncer {
   private final DatumStorage datumStorage;
   private final DataChangeEventCenter dataChangeEventCenter;
   private final SessionLeaseManager sessionLeaseManager;
+  // the peers advertised the additive digest, the others are requested with the legacy digest
+  private final Set<String> additiveDigestPeers;
 
   SlotDiffSyncer(
       DataServerConfig dataServerConfig,
       DatumStorage datumStorage,
       DataChangeEventCenter dataChangeEventCenter,
-      SessionLeaseManager sessionLeaseManager) {
+      SessionLeaseManager sessionLeaseManager,
+      Set<String> additiveDigestPeers) {
     this.dataServerConfig = dataServerConfig;
     this.datumStorage = datumStorage;
     this.dataChangeEventCenter = dataChangeEventCenter;
     this.sessionLeaseManager = sessionLeaseManager;
+    this.additiveDigestPeers = additiveDigestPeers;
   }
 
   DataSlotDiffPublisherResult processSyncPublisherResp(
@@ -200,9 +205,36 @@ public final class SlotDiffSyncer {
     } else {
       SyncLeader.observeSyncLeaderId(slotId, summaryMap.size());
     }
-    Map<String, DatumDigest> digestMap = PublisherDigestUtil.digest(summaryMap);
+    // the old version peer could not know the additive digest, use the legacy digest until the
+    // peer advertises the support in the response
+    final boolean additive = additiveDigestPeers.contains(targetAddress);
+    Map<String, DatumDigest> digestMap =
+        additive
+            ? PublisherDigestUtil.additiveDigest(summaryMap)
+            : PublisherDigestUtil.digest(summaryMap);
+    final int bucketNum = dataServerConfig.getSlotSyncDigestBucketNum();
+    Set<Integer> diffBuckets = null;
+    if (additive && bucketNum > 0 && digestMap.size() > bucketNum) {
+      DataSlotDiffDigestResult bucketResult =
+          syncBuckets(slotId, targetAddress, exchanger, slotTableEpoch, bucketNum, digestMap);
+      if (bucketResult == null) {
+        return false;
+      }
+      if (bucketResult.getDiffBuckets() != null) {
+        if (bucketResult.getDiffBuckets().isEmpty()) {
+          return true;
+        }
+        diffBuckets = Sets.newHashSet(bucketResult.getDiffBuckets());
+        digestMap = DataSlotDiffUtils.filterBuckets(digestMap, bucketNum, diffBuckets);
+      }
+      // diffBuckets is null means the peer not support bucket, diff all the digests
+    }
     DataSlotDiffDigestRequest request =
         new DataSlotDiffDigestRequest(slotTableEpoch, slotId, digestMap);
+    request.setAdditiveDigest(additive);
+    if (diffBuckets != null) {
+      request.setDiffBuckets(bucketNum, diffBuckets);
+    }
     Response exchangeResp = exchanger.requestRaw(targetAddress, request);
     GenericResponse<DataSlotDiffDigestResult> resp =
         (GenericResponse<DataSlotDiffDigestResult>) exchangeResp.getResult();
@@ -227,6 +259,67 @@ public final class SlotDiffSyncer {
         syncSession);
   }
 
+  private DataSlotDiffDigestResult syncBuckets(
+      int slotId,
+      String targetAddress,
+      ClientSideExchanger exchanger,
+      long slotTableEpoch,
+      int bucketNum,
+      Map<String, DatumDigest> digestMap) {
+    DataSlotDiffDigestRequest request =
+        new DataSlotDiffDigestRequest(slotTableEpoch, slotId, Collections.emptyMap());
+    request.setAdditiveDigest(true);
+    request.setBucketSigns(DataSlotDiffUtils.bucketSigns(digestMap, bucketNum));
+    Response exchangeResp = exchanger.requestRaw(targetAddress, request);
+    GenericResponse<DataSlotDiffDigestResult> resp =
+        (GenericResponse<DataSlotDiffDigestResult>) exchangeResp.getResult();
+    return processSyncBucketResp(slotId, resp, targetAddress, bucketNum);
+  }
+
+  DataSlotDiffDigestResult processSyncBucketResp(
+      int slotId,
+      GenericResponse<DataSlotDiffDigestResult> resp,
+      String targetAddress,
+      int bucketNum) {
+    if (resp == null || !resp.isSuccess()) {
+      LOGGER.error("DiffBucketFailed, slotId={} from {}, resp={}", slotId, targetAddress, resp);
+      return null;
+    }
+    DataSlotDiffDigestResult result = resp.getData();
+    // sync from session
+    final ProcessId sessionProcessId = result.getSessionProcessId();
+    if (sessionProcessId != null) {
+      sessionLeaseManager.renewSession(sessionProcessId);
+    }
+    updateAdditiveDigestPeer(targetAddress, result);
+    if (result.getDiffBuckets() == null) {
+      // the old version treat the request as empty digests, ignore the result
+      DIFF_LOGGER.info("DiffBucketNotSupport, slotId={} from {}", slotId, targetAddress);
+    } else if (!result.getDiffBuckets().isEmpty()) {
+      DIFF_LOGGER.info(
+          "DiffBucket, slotId={} from {}, buckets={}/{}",
+          slotId,
+          targetAddress,
+          result.getDiffBuckets().size(),
+          bucketNum);
+    }
+    return result;
+  }
+
+  private void updateAdditiveDigestPeer(String targetAddress, DataSlotDiffDigestResult result) {
+    if (targetAddress == null) {
+      return;
+    }
+    if (result.isAdditiveDigestSupported()) {
+      if (additiveDigestPeers.add(targetAddress)) {
+        LOGGER.info("AdditiveDigestSupported, from {}", targetAddress);
+      }
+    } else {
+      // the peer maybe rollback to the old version
+      additiveDigestPeers.remove(targetAddress);
+    }
+  }
+
   static Map<String, DatumSummary> getSummaryForSyncPublishers(
       DataSlotDiffDigestResult result, Map<String, DatumSummary> digestSummaryMap) {
     final Map<String, DatumSummary> newSummaryMap =
@@ -256,6 +349,7 @@ public final class SlotDiffSyncer {
     if (sessionProcessId != null) {
       sessionLeaseManager.renewSession(sessionProcessId);
     }
+    updateAdditiveDigestPeer(targetAddress, result);
 
     if (result.isEmpty()) {
       DIFF_LOGGER.info("DiffDigestEmpty, slotId={} from {}", slotId, targetAddress);
@@ -383,4 +477,9 @@ public final class SlotDiffSyncer {
   DataServerConfig getDataServerConfig() {
     return dataServerConfig;
   }
+
+  @VisibleForTesting
+  Set<String> getAdditiveDigestPeers() {
+    return additiveDigestPeers;
+  }
 }
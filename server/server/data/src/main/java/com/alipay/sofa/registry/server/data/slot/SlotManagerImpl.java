@@ -103,6 +103,9 @@ public final class SlotManagerImpl implements SlotManager {
   private final ReadWriteLock updateLock = new ReentrantReadWriteLock();
   private final SlotTableStates slotTableStates = new SlotTableStates();
 
+  // the addresses of sessions and data which support the additive digest, shared by the syncers
+  private final Set<String> additiveDigestPeers = Sets.newConcurrentHashSet();
+
   @PostConstruct
   public void init() {
     initSlotChangeListener();
@@ -225,6 +228,7 @@ public final class SlotManagerImpl implements SlotManager {
                   slotState.migrated
                       ? BaseSlotStatus.LeaderStatus.HEALTHY
                       : BaseSlotStatus.LeaderStatus.UNHEALTHY);
+          status.setWeight(localDatumStorage.getSlotWeight(slotId));
           slotStatuses.add(status);
         } else {
           final KeyedTask syncLeaderTask = slotState.syncLeaderTask;
@@ -235,6 +239,7 @@ public final class SlotManagerImpl implements SlotManager {
                   ServerEnv.IP,
                   syncLeaderTask != null ? syncLeaderTask.getStartTime() : 0,
                   slotState.lastSuccessLeaderSyncTime);
+          status.setWeight(localDatumStorage.getSlotWeight(slotId));
           slotStatuses.add(status);
         }
       }
@@ -643,7 +648,8 @@ public final class SlotManagerImpl implements SlotManager {
     if (syncLeaderTask == null || syncLeaderTask.isOverAfter(syncLeaderIntervalMs)) {
       // sync leader no need to notify event
       SlotDiffSyncer syncer =
-          new SlotDiffSyncer(dataServerConfig, localDatumStorage, null, sessionLeaseManager);
+          new SlotDiffSyncer(
+              dataServerConfig, localDatumStorage, null, sessionLeaseManager, additiveDigestPeers);
       SyncContinues continues =
           new SyncContinues() {
             @Override
@@ -670,7 +676,11 @@ public final class SlotManagerImpl implements SlotManager {
       boolean migrate) {
     SlotDiffSyncer syncer =
         new SlotDiffSyncer(
-            dataServerConfig, localDatumStorage, dataChangeEventCenter, sessionLeaseManager);
+            dataServerConfig,
+            localDatumStorage,
+            dataChangeEventCenter,
+            sessionLeaseManager,
+            additiveDigestPeers);
     SyncContinues continues =
         new SyncContinues() {
           @Override
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DataBoxArenaTest {
+
+  @Test
+  public void testEncodedLength() {
+    Assert.assertEquals(DataBoxArena.encodedLength(null), -1);
+    Assert.assertEquals(DataBoxArena.encodedLength(Collections.emptyList()), -1);
+    Assert.assertEquals(
+        DataBoxArena.encodedLength(Lists.newArrayList(new ServerDataBox("object"))), -1);
+    Assert.assertEquals(
+        DataBoxArena.encodedLength(Lists.newArrayList(ServerDataBox.ofUtf8("abc"), null)), -1);
+    Assert.assertEquals(
+        DataBoxArena.encodedLength(
+            Lists.newArrayList(ServerDataBox.ofUtf8("abc"), ServerDataBox.ofUtf8("de"))),
+        4 + 5 + 3 + 5 + 2);
+  }
+
+  @Test
+  public void testStoreAndLoad() {
+    DataBoxArena arena = new DataBoxArena(1024 * 1024, 4096);
+    List<ServerDataBox> boxes =
+        Lists.newArrayList(
+            ServerDataBox.ofUtf8("testData"), new ServerDataBox(new byte[] {1, 2, 3}));
+    final int length = DataBoxArena.encodedLength(boxes);
+    long handle = arena.store(boxes, length);
+    Assert.assertNotEquals(handle, DataBoxArena.NULL_HANDLE);
+    Assert.assertEquals(arena.usedBytes(), 64);
+    Assert.assertEquals(arena.allocatedBytes(), 4096);
+
+    List<ServerDataBox> loaded = arena.load(handle, length);
+    Assert.assertEquals(loaded, boxes);
+    Assert.assertEquals(loaded.get(0).getSerialization(), ServerDataBox.SERIALIZED_BY_UTF8);
+    Assert.assertEquals(loaded.get(1).getSerialization(), ServerDataBox.SERIALIZED_BY_JAVA);
+
+    long same = arena.store(boxes, length);
+    Assert.assertNotEquals(same, handle);
+    Assert.assertEquals(arena.view(handle, length), arena.view(same, length));
+    Assert.assertEquals(arena.view(handle, length).remaining(), length);
+
+    // the freed chunk is reused
+    arena.free(same, length);
+    Assert.assertEquals(arena.usedBytes(), 64);
+    Assert.assertEquals(arena.store(boxes, length), same);
+
+    // larger than a slab, not stored
+    List<ServerDataBox> large = Lists.newArrayList(new ServerDataBox(new byte[8192]));
+    Assert.assertEquals(
+        arena.store(large, DataBoxArena.encodedLength(large)), DataBoxArena.NULL_HANDLE);
+  }
+
+  @Test
+  public void testExhausted() {
+    DataBoxArena arena = new DataBoxArena(1024, 1024);
+    List<ServerDataBox> boxes = Lists.newArrayList(new ServerDataBox(new byte[500]));
+    final int length = DataBoxArena.encodedLength(boxes);
+    long h1 = arena.store(boxes, length);
+    long h2 = arena.store(boxes, length);
+    Assert.assertNotEquals(h1, DataBoxArena.NULL_HANDLE);
+    Assert.assertNotEquals(h2, DataBoxArena.NULL_HANDLE);
+    Assert.assertEquals(arena.store(boxes, length), DataBoxArena.NULL_HANDLE);
+    // the slab is cut by the size class, could not be used by the other
+    List<ServerDataBox> small = Lists.newArrayList(new ServerDataBox(new byte[10]));
+    Assert.assertEquals(
+        arena.store(small, DataBoxArena.encodedLength(small)), DataBoxArena.NULL_HANDLE);
+
+    arena.free(h1, length);
+    Assert.assertEquals(arena.store(boxes, length), h1);
+    Assert.assertTrue(arena.toString(), arena.toString().contains("used=1024"));
+  }
+}
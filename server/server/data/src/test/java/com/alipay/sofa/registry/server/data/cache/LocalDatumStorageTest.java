@@ -18,17 +18,20 @@ package com.alipay.sofa.registry.server.data.cache;
 
 import com.alipay.sofa.registry.common.model.ProcessId;
 import com.alipay.sofa.registry.common.model.RegisterVersion;
+import com.alipay.sofa.registry.common.model.ServerDataBox;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.slot.Slot;
 import com.alipay.sofa.registry.common.model.slot.SlotConfig;
+import com.alipay.sofa.registry.common.model.slot.SlotWeight;
 import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.UnPublisher;
 import com.alipay.sofa.registry.server.data.TestBaseUtils;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import java.nio.file.Files;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -278,6 +281,44 @@ public class LocalDatumStorageTest {
     Assert.assertNull(v);
   }
 
+  @Test
+  public void testSlotWeight() {
+    LocalDatumStorage storage = TestBaseUtils.newLocalStorage(testDc, true);
+    Assert.assertEquals(SlotWeight.EMPTY, storage.getSlotWeight(SlotConfig.SLOT_NUM + 1));
+    Publisher publisher = TestBaseUtils.createTestPublisher(testDataId);
+    publisher.setDataList(Collections.singletonList(ServerDataBox.ofUtf8("testData")));
+    storage.put(publisher);
+    final int slotId = SlotFunctionRegistry.getFunc().slotOf(publisher.getDataInfoId());
+
+    storage.getDataServerConfig().setSlotWeightRefreshSecs(0);
+    SlotWeight weight = storage.getSlotWeight(slotId);
+    Assert.assertEquals(1, weight.getPublisherNum());
+    Assert.assertEquals(8, weight.getDataBytes());
+    Assert.assertTrue(weight.getChangesPerMin() > 0);
+
+    // cached in the refresh interval
+    storage.getDataServerConfig().setSlotWeightRefreshSecs(60);
+    storage.put(TestBaseUtils.createTestPublisher(testDataId));
+    Assert.assertSame(weight, storage.getSlotWeight(slotId));
+
+    storage.getDataServerConfig().setSlotWeightRefreshSecs(0);
+    weight = storage.getSlotWeight(slotId);
+    Assert.assertEquals(2, weight.getPublisherNum());
+    Assert.assertEquals(8, weight.getDataBytes());
+
+    // the counters are kept on remove
+    storage.remove(
+        publisher.getDataInfoId(),
+        publisher.getSessionProcessId(),
+        Collections.singletonMap(publisher.getRegisterId(), publisher.registerVersion()));
+    weight = storage.getSlotWeight(slotId);
+    Assert.assertEquals(1, weight.getPublisherNum());
+    Assert.assertEquals(0, weight.getDataBytes());
+
+    storage.remove(publisher.getDataInfoId(), null);
+    Assert.assertEquals(0, storage.getSlotWeight(slotId).getPublisherNum());
+  }
+
   @Test
   public void testUpdateVersion() {
     LocalDatumStorage storage = TestBaseUtils.newLocalStorage(testDc, true);
@@ -292,6 +333,22 @@ public class LocalDatumStorageTest {
     Assert.assertTrue(v3.getValue() > v2.getValue());
   }
 
+  @Test
+  public void testVersionAfterSlotReAdded() {
+    LocalDatumStorage storage = TestBaseUtils.newLocalStorage(testDc, true);
+    Publisher publisher = TestBaseUtils.createTestPublisher(testDataId);
+    storage.put(publisher);
+    final int slotId = SlotFunctionRegistry.getFunc().slotOf(publisher.getDataInfoId());
+    DatumVersion v1 = storage.updateVersion(publisher.getDataInfoId());
+
+    storage.getSlotChangeListener().onSlotRemove(slotId, Slot.Role.Leader);
+    Assert.assertNull(storage.getVersion(publisher.getDataInfoId()));
+    storage.getSlotChangeListener().onSlotAdd(slotId, Slot.Role.Leader);
+    storage.put(publisher);
+    DatumVersion v2 = storage.getVersion(publisher.getDataInfoId());
+    Assert.assertTrue(v2.getValue() > v1.getValue());
+  }
+
   @Test
   public void testClean() {
     LocalDatumStorage storage = TestBaseUtils.newLocalStorage(testDc, true);
@@ -311,4 +368,48 @@ public class LocalDatumStorageTest {
     Assert.assertEquals(map.size(), 1);
     Assert.assertEquals(map.get(publisher.getDataInfoId()).size(), 0);
   }
+
+  @Test
+  public void testSnapshot() throws Exception {
+    LocalDatumStorage storage = TestBaseUtils.newLocalStorage(testDc, false);
+    Assert.assertEquals(0, storage.snapshot());
+    SlotSnapshotStore store = new SlotSnapshotStore(Files.createTempDirectory("snapshot").toFile());
+    storage.setSnapshotStore(store);
+    storage.getDataServerConfig().setSlotSnapshotMaxAgeSecs(60);
+
+    storage.getSlotChangeListener().onSlotAdd(1, Slot.Role.Leader);
+    storage.getSlotChangeListener().onSlotAdd(2, Slot.Role.Follower);
+    List<Publisher> publishers = TestBaseUtils.createTestPublishers(1, 10);
+    storage.put(publishers.get(0).getDataInfoId(), publishers);
+    Assert.assertEquals(2, storage.snapshot());
+
+    // restart
+    LocalDatumStorage restart = TestBaseUtils.newLocalStorage(testDc, false);
+    restart.setSnapshotStore(store);
+    restart.getDataServerConfig().setSlotSnapshotMaxAgeSecs(60);
+    restart.getSlotChangeListener().onSlotAdd(2, Slot.Role.Leader);
+    Assert.assertTrue(restart.getPublishers(2).isEmpty());
+    restart.getSlotChangeListener().onSlotAdd(1, Slot.Role.Leader);
+    Map<String, Publisher> loads = restart.getPublishers(1).get(publishers.get(0).getDataInfoId());
+    Assert.assertEquals(publishers.size(), loads.size());
+    for (Publisher p : publishers) {
+      Assert.assertEquals(p.registerVersion(), loads.get(p.getRegisterId()).registerVersion());
+    }
+    // the session put the newer version
+    Publisher newer = TestBaseUtils.cloneBase(publishers.get(0));
+    newer.setVersion(publishers.get(0).getVersion() + 1);
+    restart.put(newer);
+    Assert.assertEquals(
+        newer.getVersion(),
+        restart
+            .getPublishers(1)
+            .get(newer.getDataInfoId())
+            .get(newer.getRegisterId())
+            .getVersion());
+
+    // preload only once
+    restart.getSlotChangeListener().onSlotRemove(1, Slot.Role.Leader);
+    restart.getSlotChangeListener().onSlotAdd(1, Slot.Role.Leader);
+    Assert.assertTrue(restart.getPublishers(1).isEmpty());
+  }
 }
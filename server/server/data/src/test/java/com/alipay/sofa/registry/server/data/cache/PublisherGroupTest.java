@@ -24,9 +24,15 @@ import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
 import com.alipay.sofa.registry.common.model.store.URL;
+import com.alipay.sofa.registry.compress.CompressConstants;
+import com.alipay.sofa.registry.compress.CompressUtils;
+import com.alipay.sofa.registry.compress.Compressor;
 import com.alipay.sofa.registry.server.data.TestBaseUtils;
 import com.alipay.sofa.registry.server.shared.env.ServerEnv;
+import com.alipay.sofa.registry.util.DatumVersionGenerator;
 import com.alipay.sofa.registry.util.DatumVersionUtil;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -343,6 +349,122 @@ public class PublisherGroupTest {
     Assert.assertEquals(conns.get(newer.getRegisterId()), newer);
   }
 
+  @Test
+  public void testDelta() {
+    Publisher pub1 = TestBaseUtils.createTestPublisher("testDataId");
+    Publisher pub2 = TestBaseUtils.createTestPublisher("testDataId");
+    PublisherGroup group = new PublisherGroup(pub1.getDataInfoId(), "dc");
+    final long v0 = group.getVersion().getValue();
+    Assert.assertNull(group.getDelta(v0 - 1));
+
+    // not changed
+    SubDatumDelta delta = group.getDelta(v0);
+    Assert.assertFalse(delta.isFull());
+    Assert.assertEquals(delta.getVersion(), v0);
+    Assert.assertEquals(delta.getPubNum(), 0);
+    Assert.assertTrue(delta.getAddPublishers().isEmpty());
+    Assert.assertTrue(delta.getRemovedRegisterIds().isEmpty());
+
+    final long v1 = group.addPublisher(pub1).getValue();
+    final long v2 = group.addPublisher(pub2).getValue();
+    delta = group.getDelta(v0);
+    Assert.assertEquals(delta.getFromVersion(), v0);
+    Assert.assertEquals(delta.getVersion(), v2);
+    Assert.assertEquals(delta.getPubNum(), 2);
+    Assert.assertEquals(delta.getAddPublishers().size(), 2);
+
+    delta = group.getDelta(v1);
+    Assert.assertEquals(delta.getAddPublishers().size(), 1);
+    Assert.assertEquals(delta.getAddPublishers().get(0).getRegisterId(), pub2.getRegisterId());
+    Assert.assertTrue(delta.getRemovedRegisterIds().isEmpty());
+
+    // the version not in the change logs
+    Assert.assertNull(group.getDelta(v2 + 1));
+
+    final long v3 =
+        group
+            .remove(
+                ServerEnv.PROCESS_ID,
+                Collections.singletonMap(pub1.getRegisterId(), pub1.registerVersion()))
+            .getValue();
+    delta = group.getDelta(v1);
+    Assert.assertEquals(delta.getVersion(), v3);
+    Assert.assertEquals(delta.getPubNum(), 1);
+    Assert.assertEquals(delta.getAddPublishers().size(), 1);
+    Assert.assertEquals(delta.getRemovedRegisterIds(), Lists.newArrayList(pub1.getRegisterId()));
+
+    // trim the change logs
+    long last = v3;
+    for (int i = 0; i < 64; i++) {
+      last = group.updateVersion().getValue();
+    }
+    Assert.assertNull(group.getDelta(v3));
+    delta = group.getDelta(last);
+    Assert.assertEquals(delta.getPubNum(), 1);
+    Assert.assertTrue(delta.getAddPublishers().isEmpty());
+
+    // clean all, the change logs are reset
+    final long v4 = group.clean(null, CleanContinues.ALWAYS).getValue();
+    Assert.assertNull(group.getDelta(last));
+    delta = group.getDelta(v4);
+    Assert.assertEquals(delta.getPubNum(), 0);
+
+    // too many changes in one version
+    List<Publisher> pubs = Lists.newArrayList();
+    for (int i = 0; i < 2000; i++) {
+      pubs.add(TestBaseUtils.createTestPublisher("testDataId"));
+    }
+    final long v5 = group.put(pubs).getValue();
+    Assert.assertNull(group.getDelta(v4));
+    Assert.assertEquals(group.getDelta(v5).getPubNum(), 2000);
+  }
+
+  @Test
+  public void testSnapshot() {
+    Publisher pub1 = TestBaseUtils.createTestPublisher("testDataId");
+    Publisher pub2 = TestBaseUtils.createTestPublisher("testDataId");
+    PublisherGroup group = new PublisherGroup(pub1.getDataInfoId(), "dc");
+    SubDatumSnapshot snapshot = group.getSnapshot();
+    Assert.assertEquals(snapshot.getVersion(), group.getVersion().getValue());
+    Assert.assertEquals(snapshot.getDatum().getPubNum(), 0);
+    // not changed, shared the same snapshot
+    Assert.assertSame(snapshot, group.getSnapshot());
+
+    final long v1 = group.addPublisher(pub1).getValue();
+    SubDatumSnapshot snapshot1 = group.getSnapshot();
+    Assert.assertNotSame(snapshot, snapshot1);
+    Assert.assertEquals(snapshot1.getVersion(), v1);
+    Assert.assertEquals(snapshot1.getDatum().getPubNum(), 1);
+    Assert.assertEquals(
+        snapshot1.getDatum().mustGetPublishers().get(0).getRegisterId(), pub1.getRegisterId());
+    Assert.assertSame(snapshot1, group.getSnapshot());
+
+    // the compressed bytes are shared by the compress cache
+    Assert.assertSame(snapshot1.compress(null), snapshot1.getDatum());
+    Compressor compressor = CompressUtils.mustGet(CompressConstants.encodingGzip);
+    SubDatum zip = snapshot1.compress(compressor);
+    Assert.assertNotNull(zip.getZipPublishers());
+    Assert.assertEquals(zip.getVersion(), v1);
+    Assert.assertSame(
+        zip.getZipPublishers().getCompressedData(),
+        snapshot1.compress(compressor).getZipPublishers().getCompressedData());
+
+    // the same publisher, the version not changed
+    group.addPublisher(pub1);
+    Assert.assertEquals(group.getSnapshot().getVersion(), v1);
+
+    final long v2 = group.addPublisher(pub2).getValue();
+    Assert.assertEquals(group.getSnapshot().getVersion(), v2);
+    Assert.assertEquals(group.getSnapshot().getDatum().getPubNum(), 2);
+
+    final long v3 = group.clean(null, CleanContinues.ALWAYS).getValue();
+    Assert.assertEquals(group.getSnapshot().getVersion(), v3);
+    Assert.assertEquals(group.getSnapshot().getDatum().getPubNum(), 0);
+
+    final long v4 = group.updateVersion().getValue();
+    Assert.assertEquals(group.getSnapshot().getVersion(), v4);
+  }
+
   //    public static void main(String[] args) {
   //        Map<String, DatumVersion> m = Maps.newConcurrentMap();
   //        Set<String> set = new HashSet<>();
@@ -399,4 +521,83 @@ public class PublisherGroupTest {
   //        }
   //        return ret;
   //    }
+
+  @Test
+  public void testOffHeap() {
+    DataBoxArena arena = new DataBoxArena(1024 * 1024, 4096);
+    Publisher publisher = TestBaseUtils.createTestPublisher("testDataInfoId");
+    publisher.setDataList(Lists.newArrayList(ServerDataBox.ofUtf8("testDataBox1")));
+    PublisherGroup group =
+        new PublisherGroup(
+            publisher.getDataInfoId(),
+            "dc",
+            new ConnectIdIndex(),
+            new DatumVersionGenerator(),
+            arena);
+    Assert.assertNotNull(group.addPublisher(publisher));
+    Assert.assertEquals(arena.usedBytes(), 64);
+    Assert.assertTrue(group.pubMap.get(publisher.getRegisterId()).isOffHeap());
+    Assert.assertNull(group.pubMap.get(publisher.getRegisterId()).publisher.getDataList());
+
+    // read the copy from the arena
+    Publisher read = group.getPublishers().get(0);
+    Assert.assertNotSame(read, publisher);
+    Assert.assertEquals(read.getRegisterId(), publisher.getRegisterId());
+    Assert.assertEquals(read.registerVersion(), publisher.registerVersion());
+    Assert.assertEquals(read.getDataList(), publisher.getDataList());
+    Assert.assertEquals(
+        group.toDatum().getPubMap().get(publisher.getRegisterId()).getDataList(),
+        publisher.getDataList());
+    SubDatum subDatum = group.getSnapshot().getDatum();
+    Assert.assertEquals(subDatum.mustGetPublishers().get(0).getDataList(), publisher.getDataList());
+    Assert.assertEquals(
+        group.getByConnectId(publisher.connectId()).get(publisher.getRegisterId()).getDataList(),
+        publisher.getDataList());
+
+    // same data with newer version, the old chunk is freed
+    Publisher same = TestBaseUtils.cloneBase(publisher);
+    same.setVersion(publisher.getVersion() + 1);
+    same.setDataList(Lists.newArrayList(ServerDataBox.ofUtf8("testDataBox1")));
+    Assert.assertNull(group.addPublisher(same));
+    Assert.assertEquals(arena.usedBytes(), 64);
+
+    // data changed
+    Publisher changed = TestBaseUtils.cloneBase(same);
+    changed.setVersion(same.getVersion() + 1);
+    changed.setDataList(Lists.newArrayList(ServerDataBox.ofUtf8("testDataBox2")));
+    Assert.assertNotNull(group.addPublisher(changed));
+    Assert.assertEquals(arena.usedBytes(), 64);
+    Assert.assertEquals(group.getPublishers().get(0).getDataList(), changed.getDataList());
+
+    // the object box is kept on heap
+    Publisher onHeap = TestBaseUtils.createTestPublisher("testDataInfoId");
+    onHeap.setDataList(Lists.newArrayList(new ServerDataBox("testDataBox3")));
+    Assert.assertNotNull(group.addPublisher(onHeap));
+    Assert.assertFalse(group.pubMap.get(onHeap.getRegisterId()).isOffHeap());
+    Assert.assertEquals(arena.usedBytes(), 64);
+
+    // unpub by session, the chunk is freed
+    Assert.assertNotNull(
+        group.remove(
+            ServerEnv.PROCESS_ID,
+            Collections.singletonMap(changed.getRegisterId(), changed.registerVersion())));
+    Assert.assertEquals(arena.usedBytes(), 0);
+
+    Publisher other = TestBaseUtils.createTestPublisher("testDataInfoId");
+    other.setDataList(Lists.newArrayList(ServerDataBox.ofUtf8("testDataBox4")));
+    Assert.assertNotNull(group.addPublisher(other));
+    Assert.assertEquals(arena.usedBytes(), 64);
+    Assert.assertNotNull(group.clean(null, CleanContinues.ALWAYS));
+    Assert.assertEquals(arena.usedBytes(), 0);
+
+    // released with the slot, the new publishers are kept on heap
+    Assert.assertNotNull(group.addPublisher(publisher));
+    Assert.assertEquals(arena.usedBytes(), 64);
+    group.release();
+    Assert.assertEquals(arena.usedBytes(), 0);
+    Assert.assertTrue(group.pubMap.isEmpty());
+    Assert.assertNotNull(group.addPublisher(other));
+    Assert.assertFalse(group.pubMap.get(other.getRegisterId()).isOffHeap());
+    Assert.assertEquals(arena.usedBytes(), 0);
+  }
 }
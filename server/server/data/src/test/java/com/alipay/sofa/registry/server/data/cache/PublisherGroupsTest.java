@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.registry.server.data.cache;
 
+import com.alipay.sofa.registry.common.model.ConnectId;
 import com.alipay.sofa.registry.common.model.ProcessId;
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumSummary;
@@ -419,6 +420,44 @@ public class PublisherGroupsTest {
     Assert.assertEquals(publishers.get(publisher3.getDataInfoId()).size(), 0);
   }
 
+  @Test
+  public void testConnectIdIndex() {
+    PublisherGroups groups = new PublisherGroups(testDc);
+    Publisher publisher1 = TestBaseUtils.createTestPublisher(testDataId);
+    Publisher publisher2 = TestBaseUtils.createTestPublisher(testDataId + "aa");
+    groups.put(publisher1.getDataInfoId(), Collections.singletonList(publisher1));
+    groups.put(publisher2.getDataInfoId(), Collections.singletonList(publisher2));
+    final ConnectId connectId = publisher1.connectId();
+    Assert.assertEquals(groups.getByConnectId(connectId).size(), 2);
+    Assert.assertEquals(groups.connectIdIndex.size(), 1);
+
+    // reconnect with another client address
+    Publisher reconnect = TestBaseUtils.cloneBase(publisher1);
+    reconnect.setVersion(publisher1.getVersion() + 1);
+    reconnect.setSourceAddress(URL.valueOf("192.168.1.1:8888"));
+    groups.put(reconnect.getDataInfoId(), Collections.singletonList(reconnect));
+    Map<String, Publisher> publisherMap = groups.getByConnectId(connectId);
+    Assert.assertEquals(publisherMap.size(), 1);
+    Assert.assertEquals(publisherMap.get(publisher2.getRegisterId()), publisher2);
+    publisherMap = groups.getByConnectId(reconnect.connectId());
+    Assert.assertEquals(publisherMap.size(), 1);
+    Assert.assertEquals(publisherMap.get(reconnect.getRegisterId()), reconnect);
+    Assert.assertEquals(groups.connectIdIndex.size(), 2);
+
+    // remove by session, mark unpub
+    Assert.assertNotNull(
+        groups.remove(
+            publisher2.getDataInfoId(),
+            publisher2.getSessionProcessId(),
+            Collections.singletonMap(publisher2.getRegisterId(), publisher2.registerVersion())));
+    Assert.assertTrue(groups.getByConnectId(connectId).isEmpty());
+    Assert.assertEquals(groups.connectIdIndex.size(), 1);
+
+    groups.clean(null, CleanContinues.ALWAYS);
+    Assert.assertTrue(groups.getByConnectId(reconnect.connectId()).isEmpty());
+    Assert.assertEquals(groups.connectIdIndex.size(), 0);
+  }
+
   private void assertEmpty(PublisherGroups groups, String dataInfoId) {
     Assert.assertNull(groups.getDatum(dataInfoId));
     Assert.assertNull(groups.getVersion(dataInfoId));
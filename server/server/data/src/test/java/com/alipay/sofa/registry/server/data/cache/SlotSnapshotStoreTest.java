@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.cache;
+
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.server.data.TestBaseUtils;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SlotSnapshotStoreTest {
+
+  @Test
+  public void testSaveLoad() throws Exception {
+    File dir = new File(Files.createTempDirectory("snapshot").toFile(), "slots");
+    SlotSnapshotStore store = new SlotSnapshotStore(dir);
+    Assert.assertTrue(store.toString(), store.toString().contains(dir.getName()));
+    Assert.assertNull(store.load(10, 10000));
+
+    List<Publisher> publishers = TestBaseUtils.createTestPublishers(10, 10);
+    publishers
+        .get(0)
+        .setDataList(Collections.singletonList(new ServerDataBox("testData".getBytes())));
+    int bytes = store.save(10, publishers);
+    Assert.assertEquals(bytes, store.file(10).length());
+    List<Publisher> loads = store.load(10, 10000);
+    Assert.assertEquals(publishers.size(), loads.size());
+    for (int i = 0; i < publishers.size(); i++) {
+      Publisher p = publishers.get(i);
+      Publisher load = loads.get(i);
+      Assert.assertEquals(p.getRegisterId(), load.getRegisterId());
+      Assert.assertEquals(p.getDataInfoId(), load.getDataInfoId());
+      Assert.assertEquals(p.registerVersion(), load.registerVersion());
+      Assert.assertEquals(p.getSessionProcessId(), load.getSessionProcessId());
+      Assert.assertEquals(p.getDataList(), load.getDataList());
+    }
+    // expired
+    Thread.sleep(5);
+    Assert.assertNull(store.load(10, 1));
+    // slotId not match
+    Files.copy(store.file(10).toPath(), store.file(11).toPath());
+    Assert.assertNull(store.load(11, 10000));
+
+    // replace
+    store.save(10, Collections.emptyList());
+    Assert.assertEquals(0, store.load(10, 10000).size());
+  }
+
+  @Test
+  public void testCorrupt() throws Exception {
+    File dir = Files.createTempDirectory("snapshot").toFile();
+    SlotSnapshotStore store = new SlotSnapshotStore(dir);
+    List<Publisher> publishers = TestBaseUtils.createTestPublishers(1, 3);
+    store.save(1, publishers);
+    try (RandomAccessFile file = new RandomAccessFile(store.file(1), "rw")) {
+      final long length = file.length();
+      file.seek(length - 1);
+      final int b = file.read();
+      file.seek(length - 1);
+      file.write(b + 1);
+    }
+    Assert.assertNull(store.load(1, 10000));
+
+    store.save(1, publishers);
+    try (RandomAccessFile file = new RandomAccessFile(store.file(1), "rw")) {
+      file.setLength(file.length() - 1);
+    }
+    Assert.assertNull(store.load(1, 10000));
+
+    try (RandomAccessFile file = new RandomAccessFile(store.file(1), "rw")) {
+      file.setLength(SlotSnapshotStore.HEADER_LENGTH - 1);
+    }
+    Assert.assertNull(store.load(1, 10000));
+  }
+}
@@ -20,6 +20,7 @@ import static com.alipay.sofa.registry.server.data.change.ChangeMetrics.*;
 
 import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.remoting.Server;
@@ -161,6 +162,98 @@ public class DataChangeEventCenterTest {
     Assert.assertTrue(CHANGETEMP_SUCCESS_COUNTER.get() == (spre + 1));
   }
 
+  @Test
+  public void testFilterInterests() {
+    setCenter();
+    Map<String, DatumVersion> changes = Maps.newHashMap();
+    for (int i = 0; i < 100; i++) {
+      changes.put("dataInfoId-" + i, new DatumVersion(i + 1));
+    }
+    // no interests reported, notify all
+    Assert.assertSame(center.filterInterests("session1", changes), changes);
+
+    int slotId = SlotFunctionRegistry.getFunc().slotOf("dataInfoId-1");
+    center.onSessionInterests("session1", slotId, Collections.singletonList("dataInfoId-1"));
+    Map<String, DatumVersion> interests = center.filterInterests("session1", changes);
+    Assert.assertTrue(interests.containsKey("dataInfoId-1"));
+    for (String dataInfoId : changes.keySet()) {
+      // other slots are unknown, always notify
+      if (SlotFunctionRegistry.getFunc().slotOf(dataInfoId) != slotId) {
+        Assert.assertTrue(interests.containsKey(dataInfoId));
+      }
+    }
+    Assert.assertSame(center.filterInterests("session2", changes), changes);
+
+    // report empty interests
+    center.onSessionInterests("session1", slotId, Collections.emptyList());
+    Assert.assertTrue(
+        center
+            .filterInterests(
+                "session1", Collections.singletonMap("dataInfoId-1", new DatumVersion(1)))
+            .isEmpty());
+
+    // the new subscriber fetched the datum before the next report
+    center.onSessionFetch("session1", "dataInfoId-1");
+    Assert.assertEquals(
+        center
+            .filterInterests(
+                "session1", Collections.singletonMap("dataInfoId-1", new DatumVersion(1)))
+            .size(),
+        1);
+    // the report collected before the fetching not lose it
+    center.onSessionInterests("session1", slotId, Collections.emptyList());
+    Assert.assertEquals(
+        center
+            .filterInterests(
+                "session1", Collections.singletonMap("dataInfoId-1", new DatumVersion(1)))
+            .size(),
+        1);
+    // the session without filter not record the fetching
+    center.onSessionFetch("session2", "dataInfoId-1");
+    Assert.assertSame(center.filterInterests("session2", changes), changes);
+
+    // expired
+    dataServerConfig.setNotifyInterestExpireMillis(-1);
+    Assert.assertEquals(
+        center
+            .filterInterests(
+                "session1", Collections.singletonMap("dataInfoId-1", new DatumVersion(1)))
+            .size(),
+        1);
+
+    // disable
+    dataServerConfig.setNotifyInterestExpireMillis(30000);
+    center.onSessionInterests("session1", slotId, Collections.emptyList());
+    dataServerConfig.setNotifyInterestFilterEnabled(false);
+    Assert.assertSame(center.filterInterests("session1", changes), changes);
+  }
+
+  @Test
+  public void testHandleChangeFilter() {
+    setCenter();
+    Publisher pub = TestBaseUtils.createTestPublisher("testDataId");
+    datumCache.getLocalDatumStorage().put(pub);
+    TestBaseUtils.MockBlotChannel channel = TestBaseUtils.newChannel(9620, "localhost", 1000);
+    Map<String, List<Channel>> channelsMap = Maps.newHashMap();
+    channelsMap.put("localhost", Lists.newArrayList(channel));
+    int slotId = SlotFunctionRegistry.getFunc().slotOf(pub.getDataInfoId());
+    center.onSessionInterests("localhost", slotId, Collections.emptyList());
+    center.setNotifyExecutor(TestBaseUtils.rejectExecutor());
+
+    center.onChange(Lists.newArrayList(pub.getDataInfoId()), DataChangeType.PUT, DC);
+    double pre = CHANGE_FILTER_COUNTER.get();
+    double skipPre = CHANGE_SKIP_COUNTER.get();
+    Assert.assertTrue(center.handleChanges(channelsMap));
+    Assert.assertTrue(CHANGE_FILTER_COUNTER.get() == (pre + 1));
+    Assert.assertTrue(CHANGE_SKIP_COUNTER.get() == skipPre);
+
+    center.onSessionInterests("localhost", slotId, Collections.singletonList(pub.getDataInfoId()));
+    center.onChange(Lists.newArrayList(pub.getDataInfoId()), DataChangeType.PUT, DC);
+    Assert.assertTrue(center.handleChanges(channelsMap));
+    Assert.assertTrue(CHANGE_FILTER_COUNTER.get() == (pre + 1));
+    Assert.assertTrue(CHANGE_SKIP_COUNTER.get() == (skipPre + 1));
+  }
+
   @Test
   public void testHandleExpire_npe() {
     initHandleExpire();
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.when;
+
+import com.alipay.sofa.registry.common.model.dataserver.BatchGetDataRequest;
+import com.alipay.sofa.registry.common.model.dataserver.BatchGetDataResponse;
+import com.alipay.sofa.registry.common.model.dataserver.GetDataRequest;
+import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
+import com.alipay.sofa.registry.common.model.store.Publisher;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
+import com.alipay.sofa.registry.server.data.TestBaseUtils;
+import com.alipay.sofa.registry.server.shared.env.ServerEnv;
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BatchGetDataHandlerTest {
+
+  @Test
+  public void testCheckParam() {
+    BatchGetDataHandler handler = newHandler();
+    Assert.assertEquals(handler.interest(), BatchGetDataRequest.class);
+    TestBaseUtils.assertException(
+        IllegalArgumentException.class,
+        () -> {
+          handler.checkParam(new BatchGetDataRequest(null, Collections.emptyList()));
+        });
+    handler.checkParam(new BatchGetDataRequest(ServerEnv.PROCESS_ID, Collections.emptyList()));
+  }
+
+  @Test
+  public void testHandle() {
+    BatchGetDataHandler handler = newHandler();
+    GetDataHandler getDataHandler = GetDataHandlerTest.newHandler();
+    handler.setGetDataHandler(getDataHandler);
+    TestBaseUtils.MockBlotChannel channel = TestBaseUtils.newChannel(9620, "localhost", 8888);
+    when(getDataHandler.slotManager.checkSlotAccess(anyInt(), anyLong(), anyLong()))
+        .thenReturn(TestBaseUtils.accept());
+
+    Publisher pub = TestBaseUtils.createTestPublishers(1, 1).get(0);
+    getDataHandler.localDatumStorage.put(pub);
+    GetDataRequest datumRequest = GetDataHandlerTest.request("testDc", pub.getDataInfoId());
+    GetDataRequest deltaRequest = GetDataHandlerTest.request("testDc", "testDataId");
+    deltaRequest.setSinceVersion(100);
+    // illegal item
+    GetDataRequest illegalRequest = GetDataHandlerTest.request(null, "testDataId");
+
+    BatchGetDataResponse resp =
+        (BatchGetDataResponse)
+            handler.doHandle(
+                channel,
+                new BatchGetDataRequest(
+                    ServerEnv.PROCESS_ID,
+                    Lists.newArrayList(datumRequest, illegalRequest, deltaRequest)));
+    Assert.assertEquals(resp.getResponses().size(), 3);
+
+    SlotAccessGenericResponse datumResp = (SlotAccessGenericResponse) resp.getResponses().get(0);
+    Assert.assertTrue(datumResp.isSuccess());
+    SubDatum subDatum = (SubDatum) datumResp.getData();
+    Assert.assertEquals(subDatum.mustGetPublishers().get(0).getRegisterId(), pub.getRegisterId());
+
+    SlotAccessGenericResponse illegalResp = (SlotAccessGenericResponse) resp.getResponses().get(1);
+    Assert.assertFalse(illegalResp.isSuccess());
+
+    SlotAccessGenericResponse deltaResp = (SlotAccessGenericResponse) resp.getResponses().get(2);
+    Assert.assertTrue(deltaResp.isSuccess());
+    SubDatumDelta delta = (SubDatumDelta) deltaResp.getData();
+    Assert.assertTrue(delta.isFull());
+    Assert.assertNull(delta.getFullDatum());
+  }
+
+  private static BatchGetDataHandler newHandler() {
+    BatchGetDataHandler handler = new BatchGetDataHandler();
+    Assert.assertNull(handler.getExecutor());
+    return handler;
+  }
+}
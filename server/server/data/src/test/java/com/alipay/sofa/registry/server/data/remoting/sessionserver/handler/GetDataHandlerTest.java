@@ -19,6 +19,8 @@ package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.alipay.sofa.registry.common.model.Node;
@@ -26,6 +28,7 @@ import com.alipay.sofa.registry.common.model.dataserver.GetDataRequest;
 import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
 import com.alipay.sofa.registry.remoting.ChannelHandler;
 import com.alipay.sofa.registry.server.data.TestBaseUtils;
 import com.alipay.sofa.registry.server.data.cache.DatumCache;
@@ -34,6 +37,7 @@ import com.alipay.sofa.registry.server.data.lease.SessionLeaseManager;
 import com.alipay.sofa.registry.server.data.providedata.CompressDatumService;
 import com.alipay.sofa.registry.server.data.slot.SlotManager;
 import com.alipay.sofa.registry.server.shared.env.ServerEnv;
+import java.util.List;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -57,7 +61,7 @@ public class GetDataHandlerTest {
     handler.checkParam(request("xx", "xx"));
   }
 
-  private GetDataHandler newHandler() {
+  static GetDataHandler newHandler() {
     GetDataHandler handler = new GetDataHandler();
     Assert.assertNull(handler.getExecutor());
     Assert.assertEquals(handler.interest(), GetDataRequest.class);
@@ -75,7 +79,7 @@ public class GetDataHandlerTest {
     handler.setDatumCache(datumCache);
     handler.setCompressDatumService(compressDatumService);
     handler.localDatumStorage = datumCache.getLocalDatumStorage();
-    handler.dataChangeEventCenter = new DataChangeEventCenter();
+    handler.dataChangeEventCenter = mock(DataChangeEventCenter.class);
     handler.dataServerConfig = TestBaseUtils.newDataConfig("testDc");
     return handler;
   }
@@ -118,6 +122,62 @@ public class GetDataHandlerTest {
     Assert.assertEquals(
         subDatum.mustGetPublishers().get(0).getRegisterTimestamp(), pub.getRegisterTimestamp());
     Assert.assertEquals(subDatum.mustGetPublishers().get(0).getVersion(), pub.getVersion());
+    verify(handler.dataChangeEventCenter, times(1))
+        .onSessionFetch(
+            channel.getRemoteAddress().getAddress().getHostAddress(), pub.getDataInfoId());
+  }
+
+  @Test
+  public void testHandleDelta() {
+    GetDataHandler handler = newHandler();
+    TestBaseUtils.MockBlotChannel channel = TestBaseUtils.newChannel(9620, "localhost", 8888);
+    when(handler.slotManager.checkSlotAccess(anyInt(), anyLong(), anyLong()))
+        .thenReturn(TestBaseUtils.accept());
+
+    // get nil
+    GetDataRequest request = request("testDc", "testDataId");
+    request.setSinceVersion(100);
+    SlotAccessGenericResponse resp = (SlotAccessGenericResponse) handler.doHandle(channel, request);
+    Assert.assertTrue(resp.isSuccess());
+    SubDatumDelta delta = (SubDatumDelta) resp.getData();
+    Assert.assertTrue(delta.isFull());
+    Assert.assertNull(delta.getFullDatum());
+
+    List<Publisher> pubs = TestBaseUtils.createTestPublishers(1, 2);
+    final String dataInfoId = pubs.get(0).getDataInfoId();
+    final long v1 = handler.localDatumStorage.put(pubs.get(0)).getValue();
+    final long v2 = handler.localDatumStorage.put(pubs.get(1)).getValue();
+
+    // get delta
+    request = request("testDc", dataInfoId);
+    request.setSinceVersion(v1);
+    resp = (SlotAccessGenericResponse) handler.doHandle(channel, request);
+    Assert.assertTrue(resp.isSuccess());
+    delta = (SubDatumDelta) resp.getData();
+    Assert.assertFalse(delta.isFull());
+    Assert.assertEquals(delta.getVersion(), v2);
+    Assert.assertEquals(delta.getPubNum(), 2);
+    Assert.assertEquals(delta.getAddPublishers().size(), 1);
+    Assert.assertEquals(
+        delta.getAddPublishers().get(0).getRegisterId(), pubs.get(1).getRegisterId());
+
+    // unknown version, fallback to full
+    request = request("testDc", dataInfoId);
+    request.setSinceVersion(v2 + 1);
+    resp = (SlotAccessGenericResponse) handler.doHandle(channel, request);
+    Assert.assertTrue(resp.isSuccess());
+    delta = (SubDatumDelta) resp.getData();
+    Assert.assertTrue(delta.isFull());
+    Assert.assertEquals(delta.getVersion(), v2);
+    Assert.assertEquals(delta.getFullDatum().getPubNum(), 2);
+
+    // leader change
+    when(handler.slotManager.checkSlotAccess(anyInt(), anyLong(), anyLong()))
+        .thenReturn(TestBaseUtils.accept(), TestBaseUtils.migrating(1, 10, 100));
+    request = request("testDc", dataInfoId);
+    request.setSinceVersion(v1);
+    resp = (SlotAccessGenericResponse) handler.doHandle(channel, request);
+    Assert.assertFalse(resp.isSuccess());
   }
 
   @Test
@@ -146,7 +206,7 @@ public class GetDataHandlerTest {
     Assert.assertEquals(resp.getSlotAccess().getStatus(), TestBaseUtils.migrating().getStatus());
   }
 
-  private static GetDataRequest request(String dataCenter, String dataInfoId) {
+  static GetDataRequest request(String dataCenter, String dataInfoId) {
     return new GetDataRequest(ServerEnv.PROCESS_ID, dataInfoId, dataCenter, 10);
   }
 }
@@ -19,6 +19,8 @@ package com.alipay.sofa.registry.server.data.remoting.sessionserver.handler;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.alipay.sofa.registry.common.model.Node;
@@ -67,7 +69,7 @@ public class GetDataVersionsHandlerTest {
     DatumCache datumCache = TestBaseUtils.newLocalDatumCache("testDc", true);
     handler.setDatumCache(datumCache);
     handler.localDatumStorage = datumCache.getLocalDatumStorage();
-    handler.dataChangeEventCenter = new DataChangeEventCenter();
+    handler.dataChangeEventCenter = mock(DataChangeEventCenter.class);
     handler.dataServerConfig = TestBaseUtils.newDataConfig("testDc");
     return handler;
   }
@@ -115,8 +117,9 @@ public class GetDataVersionsHandlerTest {
     retV = ret.get(pub.getDataInfoId());
     Assert.assertEquals(retV.getValue(), putV);
 
-    // get more than store's version
-    v = new DatumVersion(DatumVersionUtil.nextId());
+    // get more than store's version, the versions are generated per slot, the version generated
+    // by another generator may not be greater than the store's
+    v = new DatumVersion(Math.max(DatumVersionUtil.nextId(), putV + 1));
     request = request(Collections.singletonMap(pub.getDataInfoId(), v), 10);
     resp = (SlotAccessGenericResponse) handler.doHandle(channel, request);
     Assert.assertTrue(resp.isSuccess());
@@ -128,6 +131,11 @@ public class GetDataVersionsHandlerTest {
     Assert.assertTrue(retV.getValue() > v.getValue());
     putV = handler.localDatumStorage.get(pub.getDataInfoId()).getVersion();
     Assert.assertEquals(retV.getValue(), putV);
+    verify(handler.dataChangeEventCenter, times(2))
+        .onSessionInterests(
+            channel.getRemoteAddress().getAddress().getHostAddress(),
+            10,
+            Collections.singleton(pub.getDataInfoId()));
   }
 
   @Test
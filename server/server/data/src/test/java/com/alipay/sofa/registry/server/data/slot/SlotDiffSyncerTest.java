@@ -27,6 +27,7 @@ import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestRequest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestResult;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherRequest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffPublisherResult;
+import com.alipay.sofa.registry.common.model.slot.DataSlotDiffUtils;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.remoting.exchange.message.Response;
 import com.alipay.sofa.registry.server.data.TestBaseUtils;
@@ -40,6 +41,7 @@ import com.alipay.sofa.registry.server.shared.env.ServerEnv;
 import com.alipay.sofa.registry.server.shared.remoting.ClientSideExchanger;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -434,6 +436,100 @@ public class SlotDiffSyncerTest {
     Assert.assertEquals(datum4.getPubMap().get(p4.get(1).getRegisterId()), p4.get(1));
   }
 
+  @Test
+  public void testSyncBuckets() {
+    int slotId = 10;
+    MockSync mockSync = mockSync(slotId, "testDc");
+    SlotDiffSyncer syncer = mockSync.syncer;
+    syncer.getDataServerConfig().setSlotSyncDigestBucketNum(2);
+    final String p1 = mockSync.p1.get(0).getDataInfoId();
+    final int p1Bucket = DataSlotDiffUtils.bucketOf(p1, 2);
+
+    Assert.assertNull(syncer.processSyncBucketResp(slotId, failDigestResp(), null, 2));
+    Assert.assertNull(syncer.processSyncBucketResp(slotId, null, null, 2));
+
+    // the peer not advertised the additive digest, use the legacy digest without bucket
+    List<DataSlotDiffDigestRequest> requests = Lists.newArrayList();
+    DataNodeExchanger exchanger = mockBucketExchange(requests, additiveDigestResp());
+    Assert.assertTrue(syncer.syncSlotLeader(slotId, ServerEnv.IP, exchanger, 10, TRUE));
+    Assert.assertEquals(requests.size(), 1);
+    Assert.assertFalse(requests.get(0).isAdditiveDigest());
+    Assert.assertFalse(requests.get(0).isBucketSigns());
+    Assert.assertEquals(requests.get(0).getDatumDigest().size(), 3);
+    Assert.assertTrue(syncer.getAdditiveDigestPeers().contains(ServerEnv.IP));
+
+    // no diff bucket, only one round trip
+    requests.clear();
+    exchanger = mockBucketExchange(requests, bucketDigestResp(Collections.emptyList()));
+    Assert.assertTrue(syncer.syncSlotLeader(slotId, ServerEnv.IP, exchanger, 10, TRUE));
+    Assert.assertEquals(requests.size(), 1);
+    Assert.assertTrue(requests.get(0).isBucketSigns());
+    Assert.assertEquals(requests.get(0).getBucketSigns().length, 2);
+    Assert.assertTrue(requests.get(0).getDatumDigest().isEmpty());
+
+    // only diff the digests in the diff bucket
+    requests.clear();
+    exchanger =
+        mockBucketExchange(
+            requests, bucketDigestResp(Collections.singletonList(p1Bucket)), emptyDigestResp());
+    Assert.assertTrue(syncer.syncSlotLeader(slotId, ServerEnv.IP, exchanger, 10, TRUE));
+    Assert.assertEquals(requests.size(), 2);
+    DataSlotDiffDigestRequest request = requests.get(1);
+    Assert.assertFalse(request.isBucketSigns());
+    Assert.assertEquals(request.getDiffBuckets(), Collections.singleton(p1Bucket));
+    Assert.assertTrue(request.getDatumDigest().containsKey(p1));
+    for (String dataInfoId : request.getDatumDigest().keySet()) {
+      Assert.assertEquals(DataSlotDiffUtils.bucketOf(dataInfoId, 2), p1Bucket);
+    }
+
+    // the peer not support bucket, diff all the digests
+    requests.clear();
+    exchanger = mockBucketExchange(requests, emptyDigestResp(), emptyDigestResp());
+    Assert.assertTrue(syncer.syncSlotLeader(slotId, ServerEnv.IP, exchanger, 10, TRUE));
+    Assert.assertEquals(requests.size(), 2);
+    request = requests.get(1);
+    Assert.assertTrue(request.isAdditiveDigest());
+    Assert.assertNull(request.getDiffBuckets());
+    Assert.assertEquals(request.getDatumDigest().size(), 3);
+    // the peer rollback to the old version
+    Assert.assertFalse(syncer.getAdditiveDigestPeers().contains(ServerEnv.IP));
+  }
+
+  private static DataNodeExchanger mockBucketExchange(
+      List<DataSlotDiffDigestRequest> requests, Object... results) {
+    DataNodeExchanger exchanger = mock(DataNodeExchanger.class);
+    when(exchanger.requestRaw(anyString(), Matchers.isA(DataSlotDiffDigestRequest.class)))
+        .thenAnswer(
+            invocation -> {
+              requests.add((DataSlotDiffDigestRequest) invocation.getArguments()[1]);
+              final Object result = results[requests.size() - 1];
+              return new Response() {
+                @Override
+                public Object getResult() {
+                  return result;
+                }
+              };
+            });
+    return exchanger;
+  }
+
+  private static GenericResponse bucketDigestResp(List<Integer> diffBuckets) {
+    GenericResponse<DataSlotDiffDigestResult> resp = new GenericResponse<>();
+    DataSlotDiffDigestResult result =
+        new DataSlotDiffDigestResult(
+            Collections.EMPTY_LIST, Collections.EMPTY_LIST, Collections.EMPTY_LIST);
+    result.setDiffBuckets(diffBuckets);
+    result.setAdditiveDigestSupported(true);
+    resp.fillSucceed(result);
+    return resp;
+  }
+
+  private static GenericResponse additiveDigestResp() {
+    GenericResponse<DataSlotDiffDigestResult> resp = emptyDigestResp();
+    resp.getData().setAdditiveDigestSupported(true);
+    return resp;
+  }
+
   private static <T extends ClientSideExchanger> T mockExchange(
       Class<T> c, Object result1, Class reqClazz1, Object result2, Class reqClazz2) {
     T exchanger = mock(c);
@@ -468,7 +564,11 @@ public class SlotDiffSyncerTest {
     SessionLeaseManager sessionLeaseManager = new SessionLeaseManager();
     SlotDiffSyncer syncer =
         new SlotDiffSyncer(
-            storage.getDataServerConfig(), storage, eventCenter, sessionLeaseManager);
+            storage.getDataServerConfig(),
+            storage,
+            eventCenter,
+            sessionLeaseManager,
+            Sets.newConcurrentHashSet());
     return syncer;
   }
 
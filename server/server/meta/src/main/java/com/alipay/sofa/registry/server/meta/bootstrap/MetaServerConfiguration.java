@@ -40,6 +40,7 @@ import com.alipay.sofa.registry.server.meta.remoting.SessionNodeExchanger;
 import com.alipay.sofa.registry.server.meta.remoting.connection.DataConnectionManager;
 import com.alipay.sofa.registry.server.meta.remoting.connection.MetaConnectionManager;
 import com.alipay.sofa.registry.server.meta.remoting.connection.SessionConnectionManager;
+import com.alipay.sofa.registry.server.meta.remoting.handler.FetchProvideDataBatchRequestHandler;
 import com.alipay.sofa.registry.server.meta.remoting.handler.FetchProvideDataRequestHandler;
 import com.alipay.sofa.registry.server.meta.remoting.handler.FetchSystemPropertyRequestHandler;
 import com.alipay.sofa.registry.server.meta.remoting.handler.GetSlotTableStatusRequestHandler;
@@ -161,6 +162,7 @@ public class MetaServerConfiguration {
       Collection<AbstractServerHandler> list = new ArrayList<>();
       list.add(heartbeatRequestHandler());
       list.add(fetchProvideDataRequestHandler());
+      list.add(fetchProvideDataBatchRequestHandler());
       list.add(fetchSystemPropertyRequestHandler());
       list.add(registryForbiddenServerHandler());
       list.add(getSlotTableStatusRequestHandler());
@@ -172,6 +174,7 @@ public class MetaServerConfiguration {
       Collection<AbstractServerHandler> list = new ArrayList<>();
       list.add(heartbeatRequestHandler());
       list.add(fetchProvideDataRequestHandler());
+      list.add(fetchProvideDataBatchRequestHandler());
       list.add(registryForbiddenServerHandler());
       list.add(fetchSystemPropertyRequestHandler());
       list.add(getSlotTableStatusRequestHandler());
@@ -215,6 +218,11 @@ public class MetaServerConfiguration {
       return new FetchProvideDataRequestHandler();
     }
 
+    @Bean
+    public FetchProvideDataBatchRequestHandler fetchProvideDataBatchRequestHandler() {
+      return new FetchProvideDataBatchRequestHandler();
+    }
+
     @Bean
     public FetchSystemPropertyRequestHandler fetchSystemPropertyRequestHandler() {
       return new FetchSystemPropertyRequestHandler();
@@ -159,6 +159,15 @@ public class Metrics {
             .labelNames("from", "to", "slot")
             .register();
 
+    private static final Gauge LOAD_LEADER_SWAP =
+        Gauge.build()
+            .namespace("meta")
+            .subsystem("slot_balancer")
+            .name("load_leader_swap")
+            .help("swap slot leader and follower to balance load")
+            .labelNames("from", "to", "slot")
+            .register();
+
     public static void onLeaderUpgrade(String from, String to, int slotId) {
       try {
         HIGH_LEADER_MIGRATE.labels(from, to, String.valueOf(slotId)).inc();
@@ -198,6 +207,14 @@ public class Metrics {
         LOGGER.error("[onLowLeaderReplace]", throwable);
       }
     }
+
+    public static void onLoadLeaderSwap(String from, String to, int slotId) {
+      try {
+        LOAD_LEADER_SWAP.labels(from, to, String.valueOf(slotId)).inc();
+      } catch (Throwable throwable) {
+        LOGGER.error("[onLoadLeaderSwap]", throwable);
+      }
+    }
   }
 
   public static final class SlotAssign {
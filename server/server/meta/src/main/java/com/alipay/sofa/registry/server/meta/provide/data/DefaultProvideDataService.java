@@ -16,8 +16,10 @@
  */
 package com.alipay.sofa.registry.server.meta.provide.data;
 
+import com.alipay.sofa.registry.common.model.Node.NodeType;
 import com.alipay.sofa.registry.common.model.console.PersistenceData;
 import com.alipay.sofa.registry.common.model.console.PersistenceDataBuilder;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideDataChangeEvent;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.meta.MetaLeaderService;
@@ -25,6 +27,11 @@ import com.alipay.sofa.registry.store.api.DBResponse;
 import com.alipay.sofa.registry.store.api.meta.ProvideDataRepository;
 import com.alipay.sofa.registry.util.ConcurrentUtils;
 import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -50,6 +57,11 @@ public class DefaultProvideDataService implements ProvideDataService {
 
   @Autowired private ProvideDataRepository provideDataRepository;
 
+  @Autowired private DefaultProvideDataNotifier provideDataNotifier;
+
+  // the first refresh after becoming leader only loads the data, the changes are not notified
+  private volatile boolean notifyChanges = false;
+
   @PostConstruct
   public void init() {
     ConcurrentUtils.createDaemonThread("provideData_refresh", refresher).start();
@@ -69,33 +81,78 @@ public class DefaultProvideDataService implements ProvideDataService {
     }
   }
 
-  private void provideDataRefresh() {
+  @VisibleForTesting
+  void provideDataRefresh() {
     if (!metaLeaderService.amILeader()) {
       return;
     }
-    Map<String, PersistenceData> provideDatas = provideDataRepository.getAll();
+    Map<String, PersistenceData> provideDatas = provideDataRepository.getAllFromCache();
 
-    LOGGER.info(
-        "refresh provide data, old size: {}, new size: {}",
-        provideDataCache.size(),
-        provideDatas.size());
+    List<ProvideDataChangeEvent> changes = Collections.emptyList();
     lock.writeLock().lock();
     try {
+      if (notifyChanges) {
+        changes = diff(provideDataCache, provideDatas);
+      }
+      LOGGER.info(
+          "refresh provide data, old size: {}, new size: {}, changes: {}",
+          provideDataCache.size(),
+          provideDatas.size(),
+          changes.size());
       provideDataCache = provideDatas;
+      notifyChanges = true;
     } catch (Throwable t) {
       LOGGER.error("refresh provide data error.", t);
     } finally {
       lock.writeLock().unlock();
     }
+    for (ProvideDataChangeEvent event : changes) {
+      LOGGER.info("notify provide data change: {}", event);
+      provideDataNotifier.notifyProvideDataChange(event);
+    }
+  }
+
+  /**
+   * the data changed by the others (e.g. another meta server or the console writing to the storage
+   * directly), the changes made by this leader has been put into the cache and notified
+   */
+  static List<ProvideDataChangeEvent> diff(
+      Map<String, PersistenceData> olds, Map<String, PersistenceData> news) {
+    List<ProvideDataChangeEvent> changes = Lists.newArrayList();
+    for (Map.Entry<String, PersistenceData> e : news.entrySet()) {
+      if (!olds.containsKey(e.getKey())
+          || versionOf(olds.get(e.getKey())) != versionOf(e.getValue())) {
+        changes.add(changeEvent(e.getKey(), versionOf(e.getValue())));
+      }
+    }
+    for (Map.Entry<String, PersistenceData> e : olds.entrySet()) {
+      if (!news.containsKey(e.getKey())) {
+        changes.add(changeEvent(e.getKey(), versionOf(e.getValue())));
+      }
+    }
+    return changes;
+  }
+
+  private static long versionOf(PersistenceData data) {
+    return data == null ? 0 : data.getVersion();
+  }
+
+  private static ProvideDataChangeEvent changeEvent(String dataInfoId, long version) {
+    // not sure which kind of node consumes the data
+    return new ProvideDataChangeEvent(
+        dataInfoId, version, Sets.newHashSet(NodeType.SESSION, NodeType.DATA));
   }
 
   @Override
   public void becomeLeader() {
+    notifyChanges = false;
     refresher.wakeup();
   }
 
   @Override
-  public void loseLeader() {}
+  public void loseLeader() {
+    notifyChanges = false;
+  }
 
   /**
    * save or update provideData
@@ -211,4 +268,16 @@ public class DefaultProvideDataService implements ProvideDataService {
     }
     return success;
   }
+
+  @VisibleForTesting
+  DefaultProvideDataService setProvideDataRepository(ProvideDataRepository provideDataRepository) {
+    this.provideDataRepository = provideDataRepository;
+    return this;
+  }
+
+  @VisibleForTesting
+  DefaultProvideDataService setProvideDataNotifier(DefaultProvideDataNotifier provideDataNotifier) {
+    this.provideDataNotifier = provideDataNotifier;
+    return this;
+  }
 }
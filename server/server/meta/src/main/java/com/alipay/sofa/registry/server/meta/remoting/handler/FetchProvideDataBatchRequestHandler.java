@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.remoting.handler;
+
+import com.alipay.sofa.registry.common.model.ServerDataBox;
+import com.alipay.sofa.registry.common.model.console.PersistenceData;
+import com.alipay.sofa.registry.common.model.metaserver.FetchProvideDataBatchRequest;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideData;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.server.meta.provide.data.ProvideDataService;
+import com.alipay.sofa.registry.store.api.DBResponse;
+import com.alipay.sofa.registry.store.api.OperationStatus;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Handle the watch of provide datas from session/data, only answer the datas which version has
+ * advanced, or which have been deleted (with a null provideData)
+ */
+public class FetchProvideDataBatchRequestHandler
+    extends BaseMetaServerHandler<FetchProvideDataBatchRequest> {
+
+  private static final Logger DB_LOGGER =
+      LoggerFactory.getLogger(FetchProvideDataBatchRequestHandler.class, "[DBService]");
+
+  @Autowired private ProvideDataService provideDataService;
+
+  @Override
+  public void checkParam(FetchProvideDataBatchRequest request) {
+    ParaCheckUtil.checkNotNull(request, "fetchProvideDataBatchRequest");
+    ParaCheckUtil.checkNotNull(request.getDataInfoIdsWithVersion(), "dataInfoIdsWithVersion");
+  }
+
+  @Override
+  public Object doHandle(Channel channel, FetchProvideDataBatchRequest request) {
+    final HashMap<String, ProvideData> ret = Maps.newHashMap();
+    for (Map.Entry<String, Long> e : request.getDataInfoIdsWithVersion().entrySet()) {
+      final String dataInfoId = e.getKey();
+      DBResponse<PersistenceData> response = provideDataService.queryProvideData(dataInfoId);
+      if (response.getOperationStatus() == OperationStatus.NOTFOUND) {
+        // the querier holds the data which has been deleted, answer a deletion marker with the
+        // version it holds
+        if (e.getValue() != null && e.getValue() >= 0) {
+          ret.put(dataInfoId, new ProvideData(null, dataInfoId, e.getValue()));
+        }
+        continue;
+      }
+      if (response.getOperationStatus() != OperationStatus.SUCCESS) {
+        DB_LOGGER.error("get Data DB status error! {}", dataInfoId);
+        throw new RuntimeException("Get Data DB status error!");
+      }
+      PersistenceData data = response.getEntity();
+      if (e.getValue() == null || data.getVersion() > e.getValue()) {
+        ret.put(
+            dataInfoId,
+            new ProvideData(new ServerDataBox(data.getData()), dataInfoId, data.getVersion()));
+      }
+    }
+    DB_LOGGER.info(
+        "[fetchProvideDataBatch]query={}, changes={}",
+        request.getDataInfoIdsWithVersion().size(),
+        ret.keySet());
+    return ret;
+  }
+
+  @Override
+  public Class interest() {
+    return FetchProvideDataBatchRequest.class;
+  }
+
+  @VisibleForTesting
+  FetchProvideDataBatchRequestHandler setProvideDataService(
+      ProvideDataService provideDataService) {
+    this.provideDataService = provideDataService;
+    return this;
+  }
+}
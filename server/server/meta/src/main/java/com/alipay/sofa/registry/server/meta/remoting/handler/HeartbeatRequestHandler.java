@@ -26,6 +26,7 @@ import com.alipay.sofa.registry.common.model.metaserver.nodes.MetaNode;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.SessionNode;
 import com.alipay.sofa.registry.common.model.slot.SlotConfig;
 import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotTableDelta;
 import com.alipay.sofa.registry.exception.SofaRegistryMetaLeaderException;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
@@ -36,6 +37,7 @@ import com.alipay.sofa.registry.server.meta.metaserver.impl.DefaultCurrentDcMeta
 import com.alipay.sofa.registry.server.meta.monitor.data.DataMessageListener;
 import com.alipay.sofa.registry.server.meta.monitor.heartbeat.HeartbeatListener;
 import com.alipay.sofa.registry.server.meta.monitor.session.SessionMessageListener;
+import com.alipay.sofa.registry.server.meta.slot.util.SlotTableHistory;
 import com.alipay.sofa.registry.server.shared.slot.SlotTableUtils;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -62,6 +64,11 @@ public class HeartbeatRequestHandler extends BaseMetaServerHandler<HeartbeatRequ
 
   @Autowired private NodeConfig nodeConfig;
 
+  private final SlotTableHistory slotTableHistory = new SlotTableHistory(16);
+
+  // the session nodes are rebuilt for each heartbeat but seldom change, reuse the last sign
+  private volatile SessionNodesSign lastSessionNodesSign;
+
   /**
    * Do handle object.
    *
@@ -90,14 +97,17 @@ public class HeartbeatRequestHandler extends BaseMetaServerHandler<HeartbeatRequ
       switch (renewNode.getNodeType()) {
         case SESSION:
         case DATA:
+          slotTableHistory.record(slotTable);
           response =
-              new BaseHeartBeatResponse(
-                  true,
-                  metaServerInfo,
-                  slotTable,
-                  sessionMetaInfo,
-                  metaLeaderService.getLeader(),
-                  metaLeaderService.getLeaderEpoch());
+              heartbeat.isConditional()
+                  ? conditionalResponse(heartbeat, metaServerInfo, slotTable, sessionMetaInfo)
+                  : new BaseHeartBeatResponse(
+                      true,
+                      metaServerInfo,
+                      slotTable,
+                      sessionMetaInfo,
+                      metaLeaderService.getLeader(),
+                      metaLeaderService.getLeaderEpoch());
           break;
         case META:
           response =
@@ -133,6 +143,78 @@ public class HeartbeatRequestHandler extends BaseMetaServerHandler<HeartbeatRequ
     }
   }
 
+  // only the changed sections are carried, the node behind the slot table gets the delta if
+  // possible
+  private BaseHeartBeatResponse conditionalResponse(
+      HeartbeatRequest<Node> heartbeat,
+      VersionedList<MetaNode> metaServerInfo,
+      SlotTable slotTable,
+      VersionedList<SessionNode> sessionMetaInfo) {
+    SlotTable fullSlotTable = null;
+    SlotTableDelta slotTableDelta = null;
+    final long knownEpoch = heartbeat.getKnownSlotTableEpoch();
+    if (knownEpoch != slotTable.getEpoch()) {
+      slotTableDelta = slotTableHistory.deltaOf(knownEpoch, slotTable);
+      if (slotTableDelta == null) {
+        fullSlotTable = slotTable;
+      }
+    }
+    return new BaseHeartBeatResponse(
+        true,
+        heartbeat.getKnownMetaNodesEpoch() == metaServerInfo.getEpoch() ? null : metaServerInfo,
+        fullSlotTable,
+        slotTableDelta,
+        sessionNodesUnchanged(heartbeat, sessionMetaInfo) ? null : sessionMetaInfo,
+        metaLeaderService.getLeader(),
+        metaLeaderService.getLeaderEpoch());
+  }
+
+  // the blacklist filters the session nodes without changing the epoch, compare the content too
+  private boolean sessionNodesUnchanged(
+      HeartbeatRequest<Node> heartbeat, VersionedList<SessionNode> sessionMetaInfo) {
+    return heartbeat.getKnownSessionNodesEpoch() == sessionMetaInfo.getEpoch()
+        && heartbeat.getKnownSessionNodesSign() == sessionNodesSign(sessionMetaInfo);
+  }
+
+  long sessionNodesSign(VersionedList<SessionNode> sessionMetaInfo) {
+    SessionNodesSign sign = lastSessionNodesSign;
+    if (sign == null || !sign.isSameNodes(sessionMetaInfo)) {
+      sign = new SessionNodesSign(sessionMetaInfo);
+      this.lastSessionNodesSign = sign;
+    }
+    return sign.sign;
+  }
+
+  private static final class SessionNodesSign {
+    final long epoch;
+    final String[] ips;
+    final long sign;
+
+    SessionNodesSign(VersionedList<SessionNode> sessionMetaInfo) {
+      final List<SessionNode> nodes = sessionMetaInfo.getClusterMembers();
+      this.epoch = sessionMetaInfo.getEpoch();
+      this.ips = new String[nodes.size()];
+      for (int i = 0; i < ips.length; i++) {
+        ips[i] = nodes.get(i).getNodeUrl().getIpAddress();
+      }
+      this.sign = HeartbeatRequest.sessionNodesSign(nodes);
+    }
+
+    // compare the addresses in order, a reordered list only costs a rebuild
+    boolean isSameNodes(VersionedList<SessionNode> sessionMetaInfo) {
+      final List<SessionNode> nodes = sessionMetaInfo.getClusterMembers();
+      if (epoch != sessionMetaInfo.getEpoch() || ips.length != nodes.size()) {
+        return false;
+      }
+      for (int i = 0; i < ips.length; i++) {
+        if (!ips[i].equals(nodes.get(i).getNodeUrl().getIpAddress())) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
   @SuppressWarnings("unchecked")
   private void onHeartbeat(HeartbeatRequest heartbeat, Channel channel) {
     new DefaultHeartbeatListener(nodeConfig.getLocalDataCenter(), channel).onHeartbeat(heartbeat);
@@ -17,7 +17,10 @@
 package com.alipay.sofa.registry.server.meta.slot.arrange;
 
 import com.alipay.sofa.registry.common.model.metaserver.nodes.DataNode;
+import com.alipay.sofa.registry.common.model.slot.BaseSlotStatus;
+import com.alipay.sofa.registry.common.model.slot.Slot;
 import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotWeight;
 import com.alipay.sofa.registry.exception.DisposeException;
 import com.alipay.sofa.registry.exception.InitializeException;
 import com.alipay.sofa.registry.exception.SofaRegistrySlotTableException;
@@ -33,11 +36,14 @@ import com.alipay.sofa.registry.server.meta.lease.data.DataManagerObserver;
 import com.alipay.sofa.registry.server.meta.lease.data.DefaultDataServerManager;
 import com.alipay.sofa.registry.server.meta.monitor.Metrics;
 import com.alipay.sofa.registry.server.meta.monitor.SlotTableMonitor;
+import com.alipay.sofa.registry.server.meta.monitor.data.DataServerStats;
 import com.alipay.sofa.registry.server.meta.slot.SlotAssigner;
 import com.alipay.sofa.registry.server.meta.slot.SlotBalancer;
 import com.alipay.sofa.registry.server.meta.slot.SlotManager;
 import com.alipay.sofa.registry.server.meta.slot.assigner.DefaultSlotAssigner;
 import com.alipay.sofa.registry.server.meta.slot.balance.DefaultSlotBalancer;
+import com.alipay.sofa.registry.server.meta.slot.balance.WeightedBalancePolicy;
+import com.alipay.sofa.registry.server.meta.slot.balance.WeightedSlotBalancer;
 import com.alipay.sofa.registry.server.meta.slot.util.builder.SlotTableBuilder;
 import com.alipay.sofa.registry.server.shared.comparator.NodeComparator;
 import com.alipay.sofa.registry.server.shared.slot.SlotTableUtils;
@@ -47,8 +53,10 @@ import com.alipay.sofa.registry.util.JsonUtils;
 import com.alipay.sofa.registry.util.SystemUtils;
 import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import javax.annotation.PostConstruct;
@@ -80,6 +88,8 @@ public class ScheduledSlotArranger extends AbstractLifecycleObservable
 
   private volatile boolean slotTableProtectionMode = true;
 
+  private final WeightedBalancePolicy weightedBalancePolicy = new WeightedBalancePolicy();
+
   @Autowired
   public ScheduledSlotArranger(
       DefaultDataServerManager dataServerManager,
@@ -189,7 +199,32 @@ public class ScheduledSlotArranger extends AbstractLifecycleObservable
 
   protected SlotBalancer createSlotBalancer(
       SlotTableBuilder slotTableBuilder, Collection<String> currentDataServers) {
-    return new DefaultSlotBalancer(slotTableBuilder, currentDataServers);
+    if (!weightedBalancePolicy.isEnabled()) {
+      return new DefaultSlotBalancer(slotTableBuilder, currentDataServers);
+    }
+    return new WeightedSlotBalancer(
+        slotTableBuilder, currentDataServers, collectSlotWeights(), weightedBalancePolicy);
+  }
+
+  @VisibleForTesting
+  Map<Integer, SlotWeight> collectSlotWeights() {
+    Map<Integer, SlotWeight> weights = Maps.newHashMap();
+    for (DataServerStats stats : dataServerManager.getDataServersStats()) {
+      if (stats.getSlotStatus() == null) {
+        continue;
+      }
+      for (BaseSlotStatus status : stats.getSlotStatus()) {
+        final SlotWeight weight = status.getWeight();
+        if (weight == null) {
+          continue;
+        }
+        // prefer the weight reported by leader, the follower has no change rate
+        if (status.getRole() == Slot.Role.Leader || !weights.containsKey(status.getSlotId())) {
+          weights.put(status.getSlotId(), weight);
+        }
+      }
+    }
+    return weights;
   }
 
   @Override
@@ -44,17 +44,25 @@ public class DefaultSlotBalancer implements SlotBalancer {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(DefaultSlotBalancer.class);
 
-  private final Set<String> currentDataServers;
+  protected final Set<String> currentDataServers;
 
   protected final SlotTableBuilder slotTableBuilder;
-  private final BalancePolicy balancePolicy = new NaiveBalancePolicy();
-  private final int slotNum;
-  private final int slotReplicas;
+  protected final BalancePolicy balancePolicy;
+  protected final int slotNum;
+  protected final int slotReplicas;
 
   public DefaultSlotBalancer(
       SlotTableBuilder slotTableBuilder, Collection<String> currentDataServers) {
+    this(slotTableBuilder, currentDataServers, new NaiveBalancePolicy());
+  }
+
+  protected DefaultSlotBalancer(
+      SlotTableBuilder slotTableBuilder,
+      Collection<String> currentDataServers,
+      BalancePolicy balancePolicy) {
     this.currentDataServers = Collections.unmodifiableSet(Sets.newTreeSet(currentDataServers));
     this.slotTableBuilder = slotTableBuilder;
+    this.balancePolicy = balancePolicy;
     this.slotNum = slotTableBuilder.getSlotNums();
     this.slotReplicas = slotTableBuilder.getSlotReplicas();
   }
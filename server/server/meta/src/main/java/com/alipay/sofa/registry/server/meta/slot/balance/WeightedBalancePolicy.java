@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.slot.balance;
+
+import com.alipay.sofa.registry.common.model.slot.SlotWeight;
+
+/**
+ * balance the load of data servers by the weight of slots after the num of slots is balanced. the
+ * load of a slot is the weighted sum of its share of publishers, data bytes and change rate in the
+ * cluster, so the metrics in different units are comparable
+ */
+public class WeightedBalancePolicy extends NaiveBalancePolicy {
+
+  public static final String PROP_WEIGHT_ENABLED = "registry.slot.balance.weight.enabled";
+  public static final String PROP_LOAD_THRESHOLD = "registry.slot.balance.load.threshold";
+  public static final String PROP_WEIGHT_PUBLISHER = "registry.slot.balance.weight.publisher";
+  public static final String PROP_WEIGHT_BYTES = "registry.slot.balance.weight.bytes";
+  public static final String PROP_WEIGHT_CHANGES = "registry.slot.balance.weight.changes";
+  public static final String PROP_FOLLOWER_LOAD_PERCENT =
+      "registry.slot.balance.follower.load.percent";
+
+  private boolean enabled = Boolean.parseBoolean(System.getProperty(PROP_WEIGHT_ENABLED, "true"));
+
+  private int loadThreshold = Integer.getInteger(PROP_LOAD_THRESHOLD, 20);
+
+  private int publisherWeight = Integer.getInteger(PROP_WEIGHT_PUBLISHER, 1);
+
+  private int bytesWeight = Integer.getInteger(PROP_WEIGHT_BYTES, 1);
+
+  private int changesWeight = Integer.getInteger(PROP_WEIGHT_CHANGES, 2);
+
+  // the follower only replicates the data from leader, it costs less than leader
+  private int followerLoadPercent = Integer.getInteger(PROP_FOLLOWER_LOAD_PERCENT, 20);
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * the load of slot, sum of the loads of all slots is 1
+   *
+   * @param weight the weight of the slot
+   * @param total the sum weights of all slots
+   * @return load
+   */
+  public double loadOf(SlotWeight weight, SlotWeight total) {
+    if (weight == null) {
+      return 0;
+    }
+    double load = 0;
+    int weights = 0;
+    if (total.getPublisherNum() > 0) {
+      load += publisherWeight * (double) weight.getPublisherNum() / total.getPublisherNum();
+      weights += publisherWeight;
+    }
+    if (total.getDataBytes() > 0) {
+      load += bytesWeight * (double) weight.getDataBytes() / total.getDataBytes();
+      weights += bytesWeight;
+    }
+    if (total.getChangesPerMin() > 0) {
+      load += changesWeight * (double) weight.getChangesPerMin() / total.getChangesPerMin();
+      weights += changesWeight;
+    }
+    return weights == 0 ? 0 : load / weights;
+  }
+
+  public double followerLoadOf(double leaderLoad) {
+    return leaderLoad * followerLoadPercent / 100;
+  }
+
+  public double getHighWaterMarkLoad(double average) {
+    return average * (100 + loadThreshold) / 100;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public void setLoadThreshold(int loadThreshold) {
+    this.loadThreshold = loadThreshold;
+  }
+
+  public void setPublisherWeight(int publisherWeight) {
+    this.publisherWeight = publisherWeight;
+  }
+
+  public void setBytesWeight(int bytesWeight) {
+    this.bytesWeight = bytesWeight;
+  }
+
+  public void setChangesWeight(int changesWeight) {
+    this.changesWeight = changesWeight;
+  }
+
+  public void setFollowerLoadPercent(int followerLoadPercent) {
+    this.followerLoadPercent = followerLoadPercent;
+  }
+}
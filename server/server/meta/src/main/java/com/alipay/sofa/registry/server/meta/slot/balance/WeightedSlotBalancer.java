@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.slot.balance;
+
+import com.alipay.sofa.registry.common.model.slot.DataNodeSlot;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotWeight;
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.server.meta.monitor.Metrics;
+import com.alipay.sofa.registry.server.meta.slot.util.builder.SlotTableBuilder;
+import com.alipay.sofa.registry.util.MathUtils;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * after the num of slots is balanced by {@link DefaultSlotBalancer}, swap the leader and follower
+ * of the heavy slots to minimize the max load of data servers. the swap does not need migrating
+ * data, the num of swaps per round is limited by maxMoveLeaderSlots, and the leader nums are kept
+ * in the water marks of DefaultSlotBalancer to avoid the two balancer fights each other
+ */
+public class WeightedSlotBalancer extends DefaultSlotBalancer {
+  private static final Logger LOGGER = LoggerFactory.getLogger(WeightedSlotBalancer.class);
+
+  private final WeightedBalancePolicy weightedPolicy;
+
+  private final Map<Integer, SlotWeight> slotWeights;
+
+  public WeightedSlotBalancer(
+      SlotTableBuilder slotTableBuilder,
+      Collection<String> currentDataServers,
+      Map<Integer, SlotWeight> slotWeights,
+      WeightedBalancePolicy balancePolicy) {
+    super(slotTableBuilder, currentDataServers, balancePolicy);
+    this.weightedPolicy = balancePolicy;
+    this.slotWeights = slotWeights;
+  }
+
+  @Override
+  public SlotTable balance() {
+    SlotTable slotTable = super.balance();
+    if (slotTable != null) {
+      return slotTable;
+    }
+    if (balanceLoad()) {
+      LOGGER.info("[balanceLoad] end");
+      slotTableBuilder.incrEpoch();
+      return slotTableBuilder.build();
+    }
+    return null;
+  }
+
+  boolean balanceLoad() {
+    if (!weightedPolicy.isEnabled() || slotWeights.isEmpty() || currentDataServers.size() < 2) {
+      return false;
+    }
+    final Map<Integer, Double> slotLoads = calcSlotLoads();
+    final Map<String, Double> serverLoads = Maps.newHashMapWithExpectedSize(16);
+    double sum = 0;
+    for (String dataServer : currentDataServers) {
+      final double load = serverLoadOf(slotTableBuilder.getDataNodeSlot(dataServer), slotLoads);
+      serverLoads.put(dataServer, load);
+      sum += load;
+    }
+    final double threshold = weightedPolicy.getHighWaterMarkLoad(sum / currentDataServers.size());
+    final int maxLeaders =
+        balancePolicy.getHighWaterMarkSlotLeaderNums(
+            MathUtils.divideCeil(slotNum, currentDataServers.size()));
+    final int minLeaders =
+        balancePolicy.getLowWaterMarkSlotLeaderNums(
+            Math.floorDiv(slotNum, currentDataServers.size()));
+    final int followerNum = slotNum * (slotReplicas - 1);
+    final int maxFollowers =
+        balancePolicy.getHighWaterMarkSlotFollowerNums(
+            MathUtils.divideCeil(followerNum, currentDataServers.size()));
+    final int minFollowers =
+        balancePolicy.getLowWaterMarkSlotFollowerNums(
+            Math.floorDiv(followerNum, currentDataServers.size()));
+    final int maxMove = balancePolicy.getMaxMoveLeaderSlots();
+    // a slot swaps once at one round
+    final Set<Integer> swapped = Sets.newHashSet();
+    int balanced = 0;
+    while (balanced < maxMove) {
+      final String heaviest = heaviestOf(serverLoads);
+      final double heaviestLoad = serverLoads.get(heaviest);
+      if (heaviestLoad <= threshold) {
+        break;
+      }
+      final DataNodeSlot heavySlots = slotTableBuilder.getDataNodeSlot(heaviest);
+      if (heavySlots.getLeaders().size() <= minLeaders
+          || heavySlots.getFollowers().size() >= maxFollowers) {
+        LOGGER.info(
+            "[balanceLoad] {} load={} could not swap out leader, leaders={}, followers={}",
+            heaviest,
+            heaviestLoad,
+            heavySlots.getLeaders().size(),
+            heavySlots.getFollowers().size());
+        break;
+      }
+      int selectedSlot = -1;
+      String selectedFollower = null;
+      double selectedMax = heaviestLoad;
+      for (int slotId : new TreeSet<>(heavySlots.getLeaders())) {
+        if (swapped.contains(slotId)) {
+          continue;
+        }
+        final double delta = swapDelta(slotLoads.getOrDefault(slotId, 0d));
+        for (String follower : slotTableBuilder.getDataServersOwnsFollower(slotId)) {
+          final Double followerLoad = serverLoads.get(follower);
+          if (followerLoad == null) {
+            continue;
+          }
+          // keep the nums in the water marks after swapped
+          final DataNodeSlot followerSlots = slotTableBuilder.getDataNodeSlot(follower);
+          if (followerSlots.getLeaders().size() >= maxLeaders
+              || followerSlots.getFollowers().size() <= minFollowers) {
+            continue;
+          }
+          final double max = Math.max(heaviestLoad - delta, followerLoad + delta);
+          if (max < selectedMax) {
+            selectedMax = max;
+            selectedSlot = slotId;
+            selectedFollower = follower;
+          }
+        }
+      }
+      if (selectedFollower == null) {
+        LOGGER.info("[balanceLoad] {} load={} could not find slot to swap", heaviest, heaviestLoad);
+        break;
+      }
+      final double delta = swapDelta(slotLoads.getOrDefault(selectedSlot, 0d));
+      slotTableBuilder.replaceLeader(selectedSlot, selectedFollower);
+      slotTableBuilder.addFollower(selectedSlot, heaviest);
+      serverLoads.put(heaviest, heaviestLoad - delta);
+      serverLoads.put(selectedFollower, serverLoads.get(selectedFollower) + delta);
+      swapped.add(selectedSlot);
+      LOGGER.info(
+          "[balanceLoad] slotId={} leader swap from {} to {}, load={}, max={}, threshold={}",
+          selectedSlot,
+          heaviest,
+          selectedFollower,
+          slotLoads.get(selectedSlot),
+          selectedMax,
+          threshold);
+      Metrics.SlotBalance.onLoadLeaderSwap(heaviest, selectedFollower, selectedSlot);
+      balanced++;
+    }
+    return balanced != 0;
+  }
+
+  private Map<Integer, Double> calcSlotLoads() {
+    int pubNum = 0;
+    long dataBytes = 0;
+    long changes = 0;
+    for (SlotWeight w : slotWeights.values()) {
+      pubNum += w.getPublisherNum();
+      dataBytes += w.getDataBytes();
+      changes += w.getChangesPerMin();
+    }
+    final SlotWeight total = new SlotWeight(pubNum, dataBytes, changes);
+    Map<Integer, Double> loads = Maps.newHashMapWithExpectedSize(slotWeights.size());
+    slotWeights.forEach((k, v) -> loads.put(k, weightedPolicy.loadOf(v, total)));
+    return loads;
+  }
+
+  private double serverLoadOf(DataNodeSlot dataNodeSlot, Map<Integer, Double> slotLoads) {
+    double load = 0;
+    for (int slotId : dataNodeSlot.getLeaders()) {
+      load += slotLoads.getOrDefault(slotId, 0d);
+    }
+    for (int slotId : dataNodeSlot.getFollowers()) {
+      load += weightedPolicy.followerLoadOf(slotLoads.getOrDefault(slotId, 0d));
+    }
+    return load;
+  }
+
+  // the load moves from leader to follower when swapped
+  private double swapDelta(double slotLoad) {
+    return slotLoad - weightedPolicy.followerLoadOf(slotLoad);
+  }
+
+  private static String heaviestOf(Map<String, Double> serverLoads) {
+    String heaviest = null;
+    double max = -1;
+    for (Map.Entry<String, Double> e : serverLoads.entrySet()) {
+      if (e.getValue() > max) {
+        max = e.getValue();
+        heaviest = e.getKey();
+      }
+    }
+    return heaviest;
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.slot.util;
+
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotTableDelta;
+import com.google.common.collect.Maps;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * keeps the recent slot tables, the delta from a recent table to the current table is cached for
+ * the heartbeats of the nodes in the same epoch
+ */
+public final class SlotTableHistory {
+  private final int capacity;
+
+  private final LinkedHashMap<Long, SlotTable> tables = new LinkedHashMap<>();
+
+  private final Map<Long, SlotTableDelta> deltas = Maps.newHashMap();
+
+  private long currentEpoch = SlotTable.INIT.getEpoch();
+
+  public SlotTableHistory(int capacity) {
+    this.capacity = capacity;
+  }
+
+  /**
+   * get the delta from the recent table to the current table
+   *
+   * @param fromEpoch the epoch of the recent table
+   * @param current the current table
+   * @return null if the recent table is not found or the delta is too big
+   */
+  public synchronized SlotTableDelta deltaOf(long fromEpoch, SlotTable current) {
+    record(current);
+    if (fromEpoch == current.getEpoch()) {
+      return null;
+    }
+    // the value is null if the delta is too big
+    if (deltas.containsKey(fromEpoch)) {
+      return deltas.get(fromEpoch);
+    }
+    final SlotTable from = tables.get(fromEpoch);
+    if (from == null) {
+      return null;
+    }
+    SlotTableDelta delta = SlotTableDelta.of(from, current);
+    // the whole table is cheaper
+    if (delta.size() * 2 > current.getSlotIds().size()) {
+      delta = null;
+    }
+    deltas.put(fromEpoch, delta);
+    return delta;
+  }
+
+  /**
+   * record the table sent to the nodes, the following heartbeats may get the delta from it
+   *
+   * @param current the current table
+   */
+  public synchronized void record(SlotTable current) {
+    if (current.getEpoch() == currentEpoch) {
+      return;
+    }
+    currentEpoch = current.getEpoch();
+    deltas.clear();
+    tables.put(currentEpoch, current);
+    while (tables.size() > capacity) {
+      Long eldest = tables.keySet().iterator().next();
+      tables.remove(eldest);
+    }
+  }
+
+  synchronized int size() {
+    return tables.size();
+  }
+}
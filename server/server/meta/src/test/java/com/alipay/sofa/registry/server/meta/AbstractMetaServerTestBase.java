@@ -56,6 +56,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
@@ -821,16 +822,17 @@ public class AbstractMetaServerTestBase extends AbstractTestBase {
     }
 
     @Override
-    public synchronized List<ProvideDataDomain> queryByPage(
-        String dataCenter, int start, int limit) {
+    public synchronized List<ProvideDataDomain> queryAfterThanById(
+        String dataCenter, long maxId, int limit) {
       // not implement
       return null;
     }
 
     @Override
-    public synchronized int selectTotalCount(String dataCenter) {
-      Map<String, ProvideDataDomain> map = localRepo.get(dataCenter);
-      return CollectionUtils.isEmpty(map) ? 0 : map.size();
+    public synchronized List<ProvideDataDomain> queryAfterThanByVersion(
+        Collection<String> dataCenters, long maxVersion, int limit) {
+      // not implement
+      return null;
     }
   }
 }
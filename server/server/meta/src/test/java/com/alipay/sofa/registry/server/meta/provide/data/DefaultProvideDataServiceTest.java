@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.provide.data;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+import com.alipay.sofa.registry.common.model.console.PersistenceData;
+import com.alipay.sofa.registry.common.model.console.PersistenceDataBuilder;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideDataChangeEvent;
+import com.alipay.sofa.registry.common.model.store.DataInfo;
+import com.alipay.sofa.registry.server.meta.MetaLeaderService;
+import com.alipay.sofa.registry.store.api.meta.ProvideDataRepository;
+import com.google.common.collect.Maps;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class DefaultProvideDataServiceTest {
+
+  private DefaultProvideDataService service;
+
+  private ProvideDataRepository repository;
+
+  private DefaultProvideDataNotifier notifier;
+
+  @Before
+  public void beforeDefaultProvideDataServiceTest() {
+    repository = mock(ProvideDataRepository.class);
+    notifier = mock(DefaultProvideDataNotifier.class);
+    service =
+        new DefaultProvideDataService()
+            .setProvideDataRepository(repository)
+            .setProvideDataNotifier(notifier);
+    service.metaLeaderService = mock(MetaLeaderService.class);
+    when(service.metaLeaderService.amILeader()).thenReturn(true);
+  }
+
+  @Test
+  public void testRefreshNotifyChanges() {
+    Map<String, PersistenceData> datas = Maps.newHashMap();
+    datas.put(id("a"), data("a", "1", 1));
+    datas.put(id("b"), data("b", "1", 1));
+    when(repository.getAllFromCache()).thenReturn(Maps.newHashMap(datas));
+
+    // the first load is not notified
+    service.provideDataRefresh();
+    Assert.assertEquals("1", service.queryProvideData(id("a")).getEntity().getData());
+    verify(notifier, never()).notifyProvideDataChange(any());
+
+    // nothing changed
+    service.provideDataRefresh();
+    verify(notifier, never()).notifyProvideDataChange(any());
+
+    // changed by others
+    datas.put(id("a"), data("a", "2", 2));
+    datas.remove(id("b"));
+    datas.put(id("c"), data("c", "1", 1));
+    when(repository.getAllFromCache()).thenReturn(Maps.newHashMap(datas));
+    service.provideDataRefresh();
+    Assert.assertEquals("2", service.queryProvideData(id("a")).getEntity().getData());
+    ArgumentCaptor<ProvideDataChangeEvent> captor =
+        ArgumentCaptor.forClass(ProvideDataChangeEvent.class);
+    verify(notifier, times(3)).notifyProvideDataChange(captor.capture());
+    Map<String, Long> versions = Maps.newHashMap();
+    captor.getAllValues().forEach(e -> versions.put(e.getDataInfoId(), e.getVersion()));
+    Assert.assertEquals(2L, versions.get(id("a")).longValue());
+    Assert.assertEquals(1L, versions.get(id("b")).longValue());
+    Assert.assertEquals(1L, versions.get(id("c")).longValue());
+
+    // the first load after becoming leader again
+    datas.put(id("a"), data("a", "3", 3));
+    when(repository.getAllFromCache()).thenReturn(Maps.newHashMap(datas));
+    service.becomeLeader();
+    service.provideDataRefresh();
+    Assert.assertEquals("3", service.queryProvideData(id("a")).getEntity().getData());
+    verify(notifier, times(3)).notifyProvideDataChange(any());
+  }
+
+  @Test
+  public void testDiff() {
+    Map<String, PersistenceData> olds = Maps.newHashMap();
+    Map<String, PersistenceData> news = Maps.newHashMap();
+    olds.put(id("a"), data("a", "1", 1));
+    news.put(id("a"), data("a", "1", 1));
+    Assert.assertTrue(DefaultProvideDataService.diff(olds, news).isEmpty());
+
+    // the recover config may be null
+    olds.put(id("b"), null);
+    news.put(id("b"), null);
+    Assert.assertTrue(DefaultProvideDataService.diff(olds, news).isEmpty());
+    news.put(id("b"), data("b", "1", 1));
+    List<ProvideDataChangeEvent> changes = DefaultProvideDataService.diff(olds, news);
+    Assert.assertEquals(1, changes.size());
+    Assert.assertEquals(id("b"), changes.get(0).getDataInfoId());
+  }
+
+  private static String id(String key) {
+    return DataInfo.toDataInfoId(key, "DEFAULT", "DEFAULT");
+  }
+
+  private static PersistenceData data(String key, String value, long version) {
+    PersistenceData data = PersistenceDataBuilder.createPersistenceData(id(key), value);
+    data.setVersion(version);
+    return data;
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.remoting.handler;
+
+import com.alipay.sofa.registry.common.model.console.PersistenceData;
+import com.alipay.sofa.registry.common.model.console.PersistenceDataBuilder;
+import com.alipay.sofa.registry.common.model.metaserver.FetchProvideDataBatchRequest;
+import com.alipay.sofa.registry.common.model.metaserver.ProvideData;
+import com.alipay.sofa.registry.server.meta.AbstractMetaServerTestBase;
+import com.google.common.collect.Maps;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FetchProvideDataBatchRequestHandlerTest extends AbstractMetaServerTestBase {
+
+  @Test
+  public void testHandle() {
+    InMemoryProvideDataRepo repo = new InMemoryProvideDataRepo();
+    FetchProvideDataBatchRequestHandler handler =
+        new FetchProvideDataBatchRequestHandler().setProvideDataService(repo);
+    final String dataInfoId1 = "dataId1#@#DEFAULT_INSTANCE_ID#@#DEFAULT_GROUP";
+    final String dataInfoId2 = "dataId2#@#DEFAULT_INSTANCE_ID#@#DEFAULT_GROUP";
+    PersistenceData data1 = PersistenceDataBuilder.createPersistenceData(dataInfoId1, "v1");
+    data1.setVersion(100L);
+    repo.saveProvideData(data1);
+
+    Map<String, Long> query = Maps.newHashMap();
+    query.put(dataInfoId1, -1L);
+    query.put(dataInfoId2, -1L);
+    FetchProvideDataBatchRequest request = new FetchProvideDataBatchRequest(query);
+    handler.checkParam(request);
+    Map<String, ProvideData> ret = (Map<String, ProvideData>) handler.doHandle(null, request);
+    // not found is skipped
+    Assert.assertEquals(1, ret.size());
+    Assert.assertEquals(100L, ret.get(dataInfoId1).getVersion().longValue());
+
+    // the version not advanced
+    query.put(dataInfoId1, 100L);
+    ret = (Map<String, ProvideData>) handler.doHandle(null, request);
+    Assert.assertTrue(ret.isEmpty());
+
+    PersistenceData data2 = PersistenceDataBuilder.createPersistenceData(dataInfoId1, "v2");
+    data2.setVersion(200L);
+    repo.saveProvideData(data2);
+    ret = (Map<String, ProvideData>) handler.doHandle(null, request);
+    Assert.assertEquals(200L, ret.get(dataInfoId1).getVersion().longValue());
+
+    // the querier holds the deleted data, answer the deletion marker
+    repo.removeProvideData(dataInfoId1);
+    query.put(dataInfoId1, 200L);
+    ret = (Map<String, ProvideData>) handler.doHandle(null, request);
+    Assert.assertEquals(1, ret.size());
+    Assert.assertNull(ret.get(dataInfoId1).getProvideData());
+    Assert.assertEquals(200L, ret.get(dataInfoId1).getVersion().longValue());
+    query.put(dataInfoId1, -1L);
+    ret = (Map<String, ProvideData>) handler.doHandle(null, request);
+    Assert.assertTrue(ret.isEmpty());
+    Assert.assertEquals(FetchProvideDataBatchRequest.class, handler.interest());
+  }
+}
@@ -20,9 +20,15 @@ import static org.mockito.Mockito.*;
 
 import com.alipay.sofa.registry.common.model.GenericResponse;
 import com.alipay.sofa.registry.common.model.Node;
+import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedList;
+import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.BaseHeartBeatResponse;
 import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.HeartbeatRequest;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.DataNode;
+import com.alipay.sofa.registry.common.model.metaserver.nodes.SessionNode;
+import com.alipay.sofa.registry.common.model.slot.Slot;
 import com.alipay.sofa.registry.common.model.slot.SlotConfig;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotTableDelta;
 import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.server.meta.AbstractMetaServerTestBase;
 import com.alipay.sofa.registry.server.meta.MetaLeaderService;
@@ -31,6 +37,10 @@ import com.alipay.sofa.registry.server.meta.lease.data.DataServerManager;
 import com.alipay.sofa.registry.server.meta.lease.session.SessionServerManager;
 import com.alipay.sofa.registry.server.meta.metaserver.impl.DefaultCurrentDcMetaServer;
 import com.alipay.sofa.registry.server.meta.slot.manager.DefaultSlotManager;
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeoutException;
 import org.junit.Assert;
 import org.junit.Before;
@@ -136,6 +146,126 @@ public class HeartbeatRequestHandlerTest extends AbstractMetaServerTestBase {
     verify(channel, times(3)).close();
   }
 
+  @Test
+  public void testConditionalHeartbeat() throws TimeoutException, InterruptedException {
+    makeMetaLeader();
+    SlotTable t1 = randomSlotTable(randomDataNodes(3));
+    Map<Integer, Slot> slots = t1.getSlotMap();
+    Slot slot = slots.get(0);
+    slots.put(0, new Slot(0, slot.getLeader(), slot.getLeaderEpoch() + 1, Collections.emptyList()));
+    SlotTable t2 = new SlotTable(t1.getEpoch() + 1, slots.values());
+    VersionedList metaNodes = new VersionedList(10, Collections.emptyList());
+    VersionedList sessionNodes = new VersionedList(20, Collections.emptyList());
+    when(currentDcMetaServer.getClusterMeta()).thenReturn(metaNodes);
+    when(sessionServerManager.getSessionServerMetaInfo()).thenReturn(sessionNodes);
+    when(currentDcMetaServer.getSlotTable()).thenReturn(t1);
+
+    // nothing changed
+    BaseHeartBeatResponse response =
+        heartbeatResponse(newHeartbeat().setKnownEpochs(t1.getEpoch(), 10, 20, 0));
+    Assert.assertNull(response.getSlotTable());
+    Assert.assertNull(response.getSlotTableDelta());
+    Assert.assertNull(response.getVersionedMetaNodes());
+    Assert.assertNull(response.getVersionedSessionNodes());
+
+    // the delta of the changed slot
+    when(currentDcMetaServer.getSlotTable()).thenReturn(t2);
+    response = heartbeatResponse(newHeartbeat().setKnownEpochs(t1.getEpoch(), 9, 20, 0));
+    Assert.assertNull(response.getSlotTable());
+    SlotTableDelta delta = response.getSlotTableDelta();
+    Assert.assertEquals(1, delta.getUpdatedSlots().size());
+    Assert.assertEquals(metaNodes, response.getVersionedMetaNodes());
+    Assert.assertNull(response.getVersionedSessionNodes());
+    Assert.assertTrue(response.fillUnchanged(metaNodes, t1, sessionNodes));
+    Assert.assertEquals(t2, response.getSlotTable());
+
+    // unknown epoch, the whole table
+    response = heartbeatResponse(newHeartbeat().setKnownEpochs(t1.getEpoch() - 1, 10, 19, 0));
+    Assert.assertEquals(t2, response.getSlotTable());
+    Assert.assertNull(response.getSlotTableDelta());
+    Assert.assertEquals(sessionNodes, response.getVersionedSessionNodes());
+
+    // not conditional
+    response = heartbeatResponse(newHeartbeat());
+    Assert.assertEquals(t2, response.getSlotTable());
+    Assert.assertEquals(metaNodes, response.getVersionedMetaNodes());
+    Assert.assertEquals(sessionNodes, response.getVersionedSessionNodes());
+  }
+
+  @Test
+  public void testConditionalHeartbeatBlacklist() throws TimeoutException, InterruptedException {
+    makeMetaLeader();
+    SlotTable table = randomSlotTable(randomDataNodes(3));
+    SessionNode session1 = new SessionNode(randomURL(randomIp()), getDc(), null);
+    SessionNode session2 = new SessionNode(randomURL(randomIp()), getDc(), null);
+    List<SessionNode> all = Lists.newArrayList(session1, session2);
+    when(currentDcMetaServer.getClusterMeta())
+        .thenReturn(new VersionedList(10, Collections.emptyList()));
+    when(currentDcMetaServer.getSlotTable()).thenReturn(table);
+    when(sessionServerManager.getSessionServerMetaInfo()).thenReturn(new VersionedList(20, all));
+    long sign = HeartbeatRequest.sessionNodesSign(all);
+    Assert.assertEquals(
+        sign, HeartbeatRequest.sessionNodesSign(Lists.newArrayList(session2, session1)));
+
+    BaseHeartBeatResponse response =
+        heartbeatResponse(newHeartbeat().setKnownEpochs(table.getEpoch(), 10, 20, sign));
+    Assert.assertNull(response.getVersionedSessionNodes());
+
+    // session2 is blacklisted, the epoch is the same but the filtered list changed
+    VersionedList<SessionNode> filtered =
+        new VersionedList(20, Collections.singletonList(session1));
+    when(sessionServerManager.getSessionServerMetaInfo()).thenReturn(filtered);
+    response = heartbeatResponse(newHeartbeat().setKnownEpochs(table.getEpoch(), 10, 20, sign));
+    Assert.assertEquals(filtered, response.getVersionedSessionNodes());
+
+    response =
+        heartbeatResponse(
+            newHeartbeat()
+                .setKnownEpochs(
+                    table.getEpoch(),
+                    10,
+                    20,
+                    HeartbeatRequest.sessionNodesSign(filtered.getClusterMembers())));
+    Assert.assertNull(response.getVersionedSessionNodes());
+  }
+
+  @Test
+  public void testSessionNodesSign() {
+    SessionNode session1 = new SessionNode(randomURL(randomIp()), getDc(), null);
+    SessionNode session2 = new SessionNode(randomURL(randomIp()), getDc(), null);
+    long sign =
+        handler.sessionNodesSign(new VersionedList<>(20, Lists.newArrayList(session1, session2)));
+    Assert.assertEquals(
+        HeartbeatRequest.sessionNodesSign(Lists.newArrayList(session1, session2)), sign);
+    // the list is rebuilt for each heartbeat
+    Assert.assertEquals(
+        sign,
+        handler.sessionNodesSign(new VersionedList<>(20, Lists.newArrayList(session1, session2))));
+    Assert.assertEquals(
+        sign,
+        handler.sessionNodesSign(new VersionedList<>(20, Lists.newArrayList(session2, session1))));
+    Assert.assertEquals(
+        HeartbeatRequest.sessionNodesSign(Collections.singletonList(session1)),
+        handler.sessionNodesSign(new VersionedList<>(20, Collections.singletonList(session1))));
+  }
+
+  private HeartbeatRequest<Node> newHeartbeat() {
+    return new HeartbeatRequest<>(
+        new DataNode(randomURL(randomIp()), getDc()),
+        0,
+        getDc(),
+        System.currentTimeMillis(),
+        new SlotConfig.SlotBasicInfo(
+            SlotConfig.SLOT_NUM, SlotConfig.SLOT_REPLICAS, SlotConfig.FUNC));
+  }
+
+  private BaseHeartBeatResponse heartbeatResponse(HeartbeatRequest<Node> heartbeat) {
+    GenericResponse<BaseHeartBeatResponse> response =
+        (GenericResponse<BaseHeartBeatResponse>) handler.doHandle(channel, heartbeat);
+    Assert.assertTrue(response.isSuccess());
+    return response.getData();
+  }
+
   @Test
   public void testInterest() {
     Assert.assertEquals(HeartbeatRequest.class, handler.interest());
@@ -19,12 +19,19 @@ package com.alipay.sofa.registry.server.meta.slot.arrange;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 
+import com.alipay.sofa.registry.common.model.slot.BaseSlotStatus;
+import com.alipay.sofa.registry.common.model.slot.FollowerSlotStatus;
+import com.alipay.sofa.registry.common.model.slot.LeaderSlotStatus;
+import com.alipay.sofa.registry.common.model.slot.SlotWeight;
 import com.alipay.sofa.registry.server.meta.AbstractMetaServerTestBase;
 import com.alipay.sofa.registry.server.meta.lease.data.DefaultDataServerManager;
 import com.alipay.sofa.registry.server.meta.monitor.SlotTableMonitor;
+import com.alipay.sofa.registry.server.meta.monitor.data.DataServerStats;
 import com.alipay.sofa.registry.server.meta.resource.SlotTableResource;
 import com.alipay.sofa.registry.server.meta.slot.SlotManager;
 import com.alipay.sofa.registry.server.meta.slot.status.SlotTableStatusService;
+import com.google.common.collect.Lists;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -120,4 +127,26 @@ public class ScheduledSlotArrangerTest extends AbstractMetaServerTestBase {
     slotTableResource.startSlotTableReconcile();
     Assert.assertEquals("running", slotTableResource.getReconcileStatus().getMessage());
   }
+
+  @Test
+  public void testCollectSlotWeights() {
+    LeaderSlotStatus leader =
+        new LeaderSlotStatus(1, 1, "10.0.0.1", BaseSlotStatus.LeaderStatus.HEALTHY);
+    leader.setWeight(new SlotWeight(10, 100, 5));
+    FollowerSlotStatus follower = new FollowerSlotStatus(1, 1, "10.0.0.2", 0, 0);
+    follower.setWeight(new SlotWeight(10, 100, 0));
+    FollowerSlotStatus follower2 = new FollowerSlotStatus(2, 1, "10.0.0.2", 0, 0);
+    follower2.setWeight(new SlotWeight(20, 200, 0));
+    LeaderSlotStatus noWeight =
+        new LeaderSlotStatus(3, 1, "10.0.0.1", BaseSlotStatus.LeaderStatus.HEALTHY);
+    when(dataServerManager.getDataServersStats())
+        .thenReturn(
+            Lists.newArrayList(
+                new DataServerStats("10.0.0.2", 1, Lists.newArrayList(follower, follower2)),
+                new DataServerStats("10.0.0.1", 1, Lists.newArrayList(leader, noWeight))));
+    Map<Integer, SlotWeight> weights = slotArranger.collectSlotWeights();
+    Assert.assertEquals(2, weights.size());
+    Assert.assertEquals(leader.getWeight(), weights.get(1));
+    Assert.assertEquals(follower2.getWeight(), weights.get(2));
+  }
 }
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.slot.balance;
+
+import com.alipay.sofa.registry.common.model.metaserver.nodes.DataNode;
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotWeight;
+import com.alipay.sofa.registry.server.meta.AbstractMetaServerTestBase;
+import com.alipay.sofa.registry.server.meta.slot.util.builder.SlotTableBuilder;
+import com.alipay.sofa.registry.server.shared.util.NodeUtils;
+import com.google.common.collect.Maps;
+import java.util.List;
+import java.util.Map;
+import org.assertj.core.util.Lists;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WeightedSlotBalancerTest extends AbstractMetaServerTestBase {
+
+  private final List<DataNode> dataNodes =
+      Lists.newArrayList(
+          new DataNode(randomURL("10.0.0.1"), getDc()),
+          new DataNode(randomURL("10.0.0.2"), getDc()),
+          new DataNode(randomURL("10.0.0.3"), getDc()));
+
+  @Test
+  public void testBalanceLoad() {
+    SlotTable slotTable = randomSlotTable(dataNodes, 12, 2);
+    final String heavy = "10.0.0.1";
+    Map<Integer, SlotWeight> weights = Maps.newHashMap();
+    for (Slot slot : slotTable.getSlots()) {
+      weights.put(
+          slot.getId(),
+          heavy.equals(slot.getLeader())
+              ? new SlotWeight(1000, 100000, 100)
+              : new SlotWeight(10, 1000, 1));
+    }
+    WeightedBalancePolicy policy = new WeightedBalancePolicy();
+    // 4 leaders per node, allows 2~6 leaders
+    policy.setBalanceThreshold(50);
+    policy.setMaxMoveLeaderSlots(2);
+    final double before = maxLoad(slotTable, weights, policy);
+
+    SlotTable balanced = newBalancer(slotTable, weights, policy).balance();
+    Assert.assertNotNull(balanced);
+    assertSlotTableNoDupLeaderFollower(balanced);
+    Assert.assertTrue(balanced.getEpoch() > slotTable.getEpoch());
+    // the leader nums are kept in the water marks
+    Assert.assertNull(new DefaultSlotBalancer(newBuilder(balanced), ips(), policy).balance());
+    // the swaps are capped by max move
+    int swapped = 0;
+    for (Slot slot : balanced.getSlots()) {
+      if (!slot.getLeader().equals(slotTable.getSlot(slot.getId()).getLeader())) {
+        swapped++;
+      }
+    }
+    Assert.assertEquals(2, swapped);
+    Assert.assertTrue(maxLoad(balanced, weights, policy) < before);
+  }
+
+  @Test
+  public void testNoWeight() {
+    SlotTable slotTable = randomSlotTable(dataNodes, 12, 2);
+    WeightedBalancePolicy policy = new WeightedBalancePolicy();
+    Assert.assertNull(newBalancer(slotTable, Maps.newHashMap(), policy).balance());
+
+    Map<Integer, SlotWeight> weights = Maps.newHashMap();
+    for (Slot slot : slotTable.getSlots()) {
+      weights.put(slot.getId(), new SlotWeight(10, 1000, 1));
+    }
+    Assert.assertNull(newBalancer(slotTable, weights, policy).balance());
+
+    policy.setEnabled(false);
+    weights.put(0, new SlotWeight(10000, 1000000, 1000));
+    Assert.assertNull(newBalancer(slotTable, weights, policy).balance());
+  }
+
+  @Test
+  public void testLoadOf() {
+    WeightedBalancePolicy policy = new WeightedBalancePolicy();
+    SlotWeight total = new SlotWeight(100, 1000, 0);
+    Assert.assertEquals(0.5, policy.loadOf(new SlotWeight(50, 500, 0), total), 0.0001);
+    Assert.assertEquals(0, policy.loadOf(null, total), 0.0001);
+    Assert.assertEquals(0, policy.loadOf(SlotWeight.EMPTY, SlotWeight.EMPTY), 0.0001);
+  }
+
+  private WeightedSlotBalancer newBalancer(
+      SlotTable slotTable, Map<Integer, SlotWeight> weights, WeightedBalancePolicy policy) {
+    return new WeightedSlotBalancer(newBuilder(slotTable), ips(), weights, policy);
+  }
+
+  private SlotTableBuilder newBuilder(SlotTable slotTable) {
+    SlotTableBuilder builder = new SlotTableBuilder(slotTable, 12, 2);
+    builder.init(ips());
+    return builder;
+  }
+
+  private List<String> ips() {
+    return NodeUtils.transferNodeToIpList(dataNodes);
+  }
+
+  private double maxLoad(
+      SlotTable slotTable, Map<Integer, SlotWeight> weights, WeightedBalancePolicy policy) {
+    int pubs = 0;
+    long bytes = 0, changes = 0;
+    for (SlotWeight w : weights.values()) {
+      pubs += w.getPublisherNum();
+      bytes += w.getDataBytes();
+      changes += w.getChangesPerMin();
+    }
+    final SlotWeight total = new SlotWeight(pubs, bytes, changes);
+    Map<String, Double> loads = Maps.newHashMap();
+    for (Slot slot : slotTable.getSlots()) {
+      final double load = policy.loadOf(weights.get(slot.getId()), total);
+      loads.merge(slot.getLeader(), load, Double::sum);
+      for (String follower : slot.getFollowers()) {
+        loads.merge(follower, policy.followerLoadOf(load), Double::sum);
+      }
+    }
+    return loads.values().stream().mapToDouble(Double::doubleValue).max().getAsDouble();
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.meta.slot.util;
+
+import com.alipay.sofa.registry.common.model.slot.Slot;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotTableDelta;
+import com.google.common.collect.Lists;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SlotTableHistoryTest {
+
+  @Test
+  public void testDeltaOf() {
+    SlotTableHistory history = new SlotTableHistory(2);
+    SlotTable t1 = table(1, "a", "a", "a", "a");
+    Assert.assertNull(history.deltaOf(t1.getEpoch(), t1));
+    Assert.assertNull(history.deltaOf(-1, t1));
+    Assert.assertEquals(1, history.size());
+
+    SlotTable t2 = table(2, "a", "b", "a", "a");
+    SlotTableDelta delta = history.deltaOf(t1.getEpoch(), t2);
+    Assert.assertEquals(1, delta.size());
+    Assert.assertEquals(t2, delta.apply(t1));
+    // cached
+    Assert.assertSame(delta, history.deltaOf(t1.getEpoch(), t2));
+
+    // too big, the whole table is cheaper
+    SlotTable t3 = table(3, "b", "b", "b", "a");
+    Assert.assertNull(history.deltaOf(t1.getEpoch(), t3));
+    Assert.assertEquals(2, history.deltaOf(t2.getEpoch(), t3).size());
+
+    // t1 is evicted
+    Assert.assertEquals(2, history.size());
+    SlotTable t4 = table(4, "a", "a", "a", "a");
+    Assert.assertNull(history.deltaOf(t1.getEpoch(), t4));
+    Assert.assertNull(history.deltaOf(t3.getEpoch() + 100, t4));
+    Assert.assertEquals(2, history.size());
+  }
+
+  private static SlotTable table(long epoch, String... leaders) {
+    List<Slot> slots = Lists.newArrayList();
+    for (int i = 0; i < leaders.length; i++) {
+      slots.add(new Slot(i, leaders[i], 1, Collections.emptyList()));
+    }
+    return new SlotTable(epoch, slots);
+  }
+}
@@ -409,8 +409,17 @@ public class SessionServerBootstrap {
     CustomSerializerManager.registerCustomSerializer(
         ReceivedConfigDataPb.class.getName(), serializer);
 
-    SerializerManager.addSerializer(
-        ProtobufSerializer.PROTOCOL_PROTOBUF, ProtobufSerializer.getInstance());
+    ProtobufSerializer pbSerializer = ProtobufSerializer.getInstance();
+    pbSerializer.registerParser(PublisherRegisterPb.class, PublisherRegisterPb.parser());
+    pbSerializer.registerParser(SubscriberRegisterPb.class, SubscriberRegisterPb.parser());
+    pbSerializer.registerParser(SyncConfigRequestPb.class, SyncConfigRequestPb.parser());
+    pbSerializer.registerParser(SyncConfigResponsePb.class, SyncConfigResponsePb.parser());
+    pbSerializer.registerParser(RegisterResponsePb.class, RegisterResponsePb.parser());
+    pbSerializer.registerParser(ResultPb.class, ResultPb.parser());
+    pbSerializer.registerParser(ReceivedDataPb.class, ReceivedDataPb.parser());
+    pbSerializer.registerParser(ReceivedConfigDataPb.class, ReceivedConfigDataPb.parser());
+
+    SerializerManager.addSerializer(ProtobufSerializer.PROTOCOL_PROTOBUF, pbSerializer);
   }
 
   private void stopServer() {
@@ -53,6 +53,8 @@ public interface SessionServerConfig extends ServerShareConfig {
 
   int getScanSubscriberIntervalMillis();
 
+  int getScanSubscriberFullRounds();
+
   int getClientNodeExchangeTimeoutMillis();
 
   int getClientNodePushConcurrencyLevel();
@@ -105,12 +107,18 @@ public interface SessionServerConfig extends ServerShareConfig {
 
   int getDataChangeFetchTaskWorkerSize();
 
+  boolean isDataChangeFetchAsync();
+
+  int getDataChangeFetchAsyncMaxInFlight();
+
   int getSubscriberRegisterTaskWorkerSize();
 
   int getWatchPushTaskWorkerSize();
 
   int getWatchPushTaskMaxBufferSize();
 
+  String getInvalidForeverZones();
+
   boolean isInvalidForeverZone(String zoneId);
 
   boolean isInvalidIgnored(String dataId);
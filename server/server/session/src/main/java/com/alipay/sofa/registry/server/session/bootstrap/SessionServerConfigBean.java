@@ -78,6 +78,10 @@ public class SessionServerConfigBean implements SessionServerConfig {
 
   private int dataChangeFetchTaskWorkerSize = OsUtils.getCpuCount() * 6;
 
+  private boolean dataChangeFetchAsync = true;
+
+  private int dataChangeFetchAsyncMaxInFlight = 4096;
+
   private int subscriberRegisterTaskWorkerSize = OsUtils.getCpuCount() * 4;
 
   private int dataChangeDebouncingMillis = 1000;
@@ -133,6 +137,9 @@ public class SessionServerConfigBean implements SessionServerConfig {
 
   private int scanSubscriberIntervalMillis = 1000 * 5;
 
+  // the version watchdog only rescans the changed dataInfoIds, rescan all every N rounds
+  private int scanSubscriberFullRounds = 60;
+
   private double accessLimitRate = 30000.0;
 
   private String sessionServerRegion;
@@ -458,6 +465,7 @@ public class SessionServerConfigBean implements SessionServerConfig {
     this.httpServerPort = httpServerPort;
   }
 
+  @Override
   public String getInvalidForeverZones() {
     return invalidForeverZones;
   }
@@ -469,6 +477,8 @@ public class SessionServerConfigBean implements SessionServerConfig {
    */
   public void setInvalidForeverZones(String invalidForeverZones) {
     this.invalidForeverZones = invalidForeverZones;
+    // rebuild the set when next use
+    this.invalidForeverZonesSet = null;
   }
 
   public String getInvalidIgnoreDataidRegex() {
@@ -482,6 +492,7 @@ public class SessionServerConfigBean implements SessionServerConfig {
    */
   public void setInvalidIgnoreDataidRegex(String invalidIgnoreDataidRegex) {
     this.invalidIgnoreDataidRegex = invalidIgnoreDataidRegex;
+    this.invalidIgnoreDataIdPattern = null;
   }
 
   @Override
@@ -648,6 +659,45 @@ public class SessionServerConfigBean implements SessionServerConfig {
     this.dataChangeFetchTaskWorkerSize = dataChangeFetchTaskWorkerSize;
   }
 
+  /**
+   * Getter method for property <tt>dataChangeFetchAsync</tt>.
+   *
+   * @return property value of dataChangeFetchAsync
+   */
+  @Override
+  public boolean isDataChangeFetchAsync() {
+    return dataChangeFetchAsync;
+  }
+
+  /**
+   * Setter method for property <tt>dataChangeFetchAsync</tt>.
+   *
+   * @param dataChangeFetchAsync value to be assigned to property dataChangeFetchAsync
+   */
+  public void setDataChangeFetchAsync(boolean dataChangeFetchAsync) {
+    this.dataChangeFetchAsync = dataChangeFetchAsync;
+  }
+
+  /**
+   * Getter method for property <tt>dataChangeFetchAsyncMaxInFlight</tt>.
+   *
+   * @return property value of dataChangeFetchAsyncMaxInFlight
+   */
+  @Override
+  public int getDataChangeFetchAsyncMaxInFlight() {
+    return dataChangeFetchAsyncMaxInFlight;
+  }
+
+  /**
+   * Setter method for property <tt>dataChangeFetchAsyncMaxInFlight</tt>.
+   *
+   * @param dataChangeFetchAsyncMaxInFlight value to be assigned to property
+   *     dataChangeFetchAsyncMaxInFlight
+   */
+  public void setDataChangeFetchAsyncMaxInFlight(int dataChangeFetchAsyncMaxInFlight) {
+    this.dataChangeFetchAsyncMaxInFlight = dataChangeFetchAsyncMaxInFlight;
+  }
+
   /**
    * Getter method for property <tt>pushDataTaskRetryFirstDelayMillis</tt>.
    *
@@ -736,7 +786,9 @@ public class SessionServerConfigBean implements SessionServerConfig {
 
   @Override
   public boolean isInvalidForeverZone(String zoneId) {
-    if (invalidForeverZonesSet == null) {
+    // the setter resets the field, read it once
+    Set<String> zones = invalidForeverZonesSet;
+    if (zones == null) {
       String[] zoneNameArr = getInvalidForeverZones().split(";");
       Set<String> set = new HashSet<>();
       for (String str : zoneNameArr) {
@@ -745,23 +797,25 @@ public class SessionServerConfigBean implements SessionServerConfig {
           set.add(str);
         }
       }
+      zones = set;
       invalidForeverZonesSet = set;
     }
-    return invalidForeverZonesSet.contains(zoneId);
+    return zones.contains(zoneId);
   }
 
   @Override
   public boolean isInvalidIgnored(String dataId) {
-    if (invalidIgnoreDataIdPattern == null) {
+    Optional<Pattern> pattern = invalidIgnoreDataIdPattern;
+    if (pattern == null) {
       String invalidIgnoreDataidRegex = getInvalidIgnoreDataidRegex();
       if (StringUtils.isBlank(invalidIgnoreDataidRegex)) {
-        invalidIgnoreDataIdPattern = Optional.empty();
+        pattern = Optional.empty();
       } else {
-        invalidIgnoreDataIdPattern = Optional.of(Pattern.compile(invalidIgnoreDataidRegex));
+        pattern = Optional.of(Pattern.compile(invalidIgnoreDataidRegex));
       }
+      invalidIgnoreDataIdPattern = pattern;
     }
-    final Pattern p = invalidIgnoreDataIdPattern.get();
-    return p != null && p.matcher(dataId).find();
+    return pattern.isPresent() && pattern.get().matcher(dataId).find();
   }
 
   /**
@@ -853,6 +907,15 @@ public class SessionServerConfigBean implements SessionServerConfig {
     this.scanSubscriberIntervalMillis = scanSubscriberIntervalMillis;
   }
 
+  @Override
+  public int getScanSubscriberFullRounds() {
+    return scanSubscriberFullRounds;
+  }
+
+  public void setScanSubscriberFullRounds(int scanSubscriberFullRounds) {
+    this.scanSubscriberFullRounds = scanSubscriberFullRounds;
+  }
+
   public int getSlotSyncMaxBufferSize() {
     return slotSyncMaxBufferSize;
   }
@@ -189,6 +189,7 @@ public class SessionServerConfiguration {
       list.add(publisherHandler());
       list.add(subscriberHandler());
       list.add(watcherHandler());
+      list.add(batchRegisterHandler());
       list.add(clientNodeConnectionHandler());
       list.add(syncConfigHandler());
       list.add(publisherPbHandler());
@@ -244,6 +245,11 @@ public class SessionServerConfiguration {
       return new WatcherHandler();
     }
 
+    @Bean
+    public AbstractServerHandler batchRegisterHandler() {
+      return new BatchRegisterHandler();
+    }
+
     @Bean
     public AbstractServerHandler clientNodeConnectionHandler() {
       return new ClientNodeConnectionHandler();
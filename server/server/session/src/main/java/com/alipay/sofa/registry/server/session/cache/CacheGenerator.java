@@ -16,6 +16,10 @@
  */
 package com.alipay.sofa.registry.server.session.cache;
 
+import com.google.common.collect.Maps;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * @author shangyu.wh
  * @version $Id: CacheGenerator.java, v 0.1 2017-12-06 17:29 shangyu.wh Exp $
@@ -29,4 +33,69 @@ public interface CacheGenerator {
    * @return
    */
   Value generatePayload(Key key);
+
+  /**
+   * regenerator cache with the stale value
+   *
+   * @param key
+   * @param stale
+   * @return
+   */
+  default Value refreshPayload(Key key, Value stale) {
+    return generatePayload(key);
+  }
+
+  /**
+   * generator cache without blocking the caller, default generates it in the caller
+   *
+   * @param key
+   * @return
+   */
+  default CompletableFuture<Value> generatePayloadAsync(Key key) {
+    try {
+      return CompletableFuture.completedFuture(generatePayload(key));
+    } catch (Throwable e) {
+      CompletableFuture<Value> future = new CompletableFuture<>();
+      future.completeExceptionally(e);
+      return future;
+    }
+  }
+
+  /**
+   * regenerator cache with the stale value without blocking the caller, default regenerates it in
+   * the caller
+   *
+   * @param key
+   * @param stale
+   * @return
+   */
+  default CompletableFuture<Value> refreshPayloadAsync(Key key, Value stale) {
+    try {
+      return CompletableFuture.completedFuture(refreshPayload(key, stale));
+    } catch (Throwable e) {
+      CompletableFuture<Value> future = new CompletableFuture<>();
+      future.completeExceptionally(e);
+      return future;
+    }
+  }
+
+  /**
+   * regenerator multi caches together, the generator could load them in batch. default refreshes
+   * them one by one
+   *
+   * @param stales the stale value of each key, null if absent
+   * @return
+   */
+  default Map<Key, CompletableFuture<Value>> refreshPayloadsAsync(Map<Key, Value> stales) {
+    Map<Key, CompletableFuture<Value>> ret = Maps.newHashMapWithExpectedSize(stales.size());
+    for (Map.Entry<Key, Value> e : stales.entrySet()) {
+      final Value stale = e.getValue();
+      ret.put(
+          e.getKey(),
+          stale == null || stale.getPayload() == null
+              ? generatePayloadAsync(e.getKey())
+              : refreshPayloadAsync(e.getKey(), stale));
+    }
+    return ret;
+  }
 }
@@ -16,6 +16,9 @@
  */
 package com.alipay.sofa.registry.server.session.cache;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * @author shangyu.wh
  * @version $Id: CacheService.java, v 0.1 2017-12-06 20:19 shangyu.wh Exp $
@@ -32,6 +35,34 @@ public interface CacheService {
 
   Value getValueIfPresent(Key key);
 
+  /**
+   * refresh the stale cache by key, the generator could patch the stale value instead of
+   * regenerating the whole value
+   *
+   * @param key
+   * @param stale
+   * @return
+   */
+  Value refresh(Key key, Value stale) throws CacheAccessException;
+
+  /**
+   * refresh the stale cache by key without blocking the caller. the concurrent refreshes of the
+   * same key share one pending load, the cache is updated before the future completes
+   *
+   * @param key
+   * @param stale
+   * @return the future completed with the refreshed value, or CacheAccessException if failed
+   */
+  CompletableFuture<Value> refreshAsync(Key key, Value stale);
+
+  /**
+   * refresh multi caches without blocking the caller, the generator could load them in batch
+   *
+   * @param stales the stale value of each key, null if absent
+   * @return the future of each key
+   */
+  Map<Key, CompletableFuture<Value>> refreshAsync(Map<Key, Value> stales);
+
   /**
    * invalidate cache by key
    *
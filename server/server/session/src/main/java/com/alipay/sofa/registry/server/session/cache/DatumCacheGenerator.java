@@ -17,10 +17,15 @@
 package com.alipay.sofa.registry.server.session.cache;
 
 import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.session.node.service.DataNodeService;
+import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.google.common.collect.Maps;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -45,20 +50,182 @@ public class DatumCacheGenerator implements CacheGenerator {
       final long now = System.currentTimeMillis();
       SubDatum datum = dataNodeService.fetch(dataInfoId, dataCenter);
       final long span = System.currentTimeMillis() - now;
-      if (datum == null) {
-        LOGGER.info("loadNil,{},{},span={}", dataInfoId, dataCenter, span);
-      } else {
-        LOGGER.info(
-            "loadD,{},{},{},{},{},span={}",
-            dataInfoId,
-            dataCenter,
-            datum.getPubNum(),
-            datum.getDataBoxBytes(),
-            datum.getVersion(),
-            span);
-      }
-      return new Value((SubDatum) datum);
+      logLoaded(dataInfoId, dataCenter, datum, span);
+      return new Value(datum);
     }
     throw new IllegalArgumentException("unsupported key type:" + entityType);
   }
+
+  @Override
+  public Value refreshPayload(Key key, Value stale) {
+    EntityType entityType = key.getEntityType();
+    if (!(entityType instanceof DatumKey) || !(stale.getPayload() instanceof SubDatum)) {
+      return generatePayload(key);
+    }
+    DatumKey datumKey = (DatumKey) entityType;
+    final String dataCenter = datumKey.getDataCenter();
+    final String dataInfoId = datumKey.getDataInfoId();
+    ParaCheckUtil.checkNotBlank(dataCenter, "dataCenter");
+    ParaCheckUtil.checkNotBlank(dataInfoId, "dataInfoId");
+    final SubDatum cached = (SubDatum) stale.getPayload();
+    final long now = System.currentTimeMillis();
+    SubDatumDelta delta = dataNodeService.fetchDelta(dataInfoId, dataCenter, cached.getVersion());
+    final long span = System.currentTimeMillis() - now;
+    Value value = applyDelta(dataInfoId, dataCenter, cached, delta, span);
+    return value != null ? value : generatePayload(key);
+  }
+
+  @Override
+  public CompletableFuture<Value> generatePayloadAsync(Key key) {
+    EntityType entityType = key.getEntityType();
+    if (!(entityType instanceof DatumKey)) {
+      return CacheGenerator.super.generatePayloadAsync(key);
+    }
+    DatumKey datumKey = (DatumKey) entityType;
+    final String dataCenter = datumKey.getDataCenter();
+    final String dataInfoId = datumKey.getDataInfoId();
+    ParaCheckUtil.checkNotBlank(dataCenter, "dataCenter");
+    ParaCheckUtil.checkNotBlank(dataInfoId, "dataInfoId");
+    final long now = System.currentTimeMillis();
+    return dataNodeService
+        .fetchAsync(dataInfoId, dataCenter)
+        .thenApply(
+            datum -> {
+              logLoaded(dataInfoId, dataCenter, datum, System.currentTimeMillis() - now);
+              return new Value(datum);
+            });
+  }
+
+  @Override
+  public CompletableFuture<Value> refreshPayloadAsync(Key key, Value stale) {
+    EntityType entityType = key.getEntityType();
+    if (!(entityType instanceof DatumKey) || !(stale.getPayload() instanceof SubDatum)) {
+      return generatePayloadAsync(key);
+    }
+    DatumKey datumKey = (DatumKey) entityType;
+    final String dataCenter = datumKey.getDataCenter();
+    final String dataInfoId = datumKey.getDataInfoId();
+    ParaCheckUtil.checkNotBlank(dataCenter, "dataCenter");
+    ParaCheckUtil.checkNotBlank(dataInfoId, "dataInfoId");
+    final SubDatum cached = (SubDatum) stale.getPayload();
+    final long now = System.currentTimeMillis();
+    return dataNodeService
+        .fetchDeltaAsync(dataInfoId, dataCenter, cached.getVersion())
+        .thenCompose(
+            delta -> {
+              final long span = System.currentTimeMillis() - now;
+              Value value = applyDelta(dataInfoId, dataCenter, cached, delta, span);
+              return value != null
+                  ? CompletableFuture.completedFuture(value)
+                  : generatePayloadAsync(key);
+            });
+  }
+
+  @Override
+  public Map<Key, CompletableFuture<Value>> refreshPayloadsAsync(Map<Key, Value> stales) {
+    final Map<Key, CompletableFuture<Value>> ret = Maps.newHashMapWithExpectedSize(stales.size());
+    // dataCenter -> dataInfoId -> key
+    final Map<String, Map<String, Key>> groups = Maps.newHashMap();
+    for (Key key : stales.keySet()) {
+      EntityType entityType = key.getEntityType();
+      if (!(entityType instanceof DatumKey)) {
+        ret.put(key, refreshOne(key, stales.get(key)));
+        continue;
+      }
+      DatumKey datumKey = (DatumKey) entityType;
+      ParaCheckUtil.checkNotBlank(datumKey.getDataCenter(), "dataCenter");
+      ParaCheckUtil.checkNotBlank(datumKey.getDataInfoId(), "dataInfoId");
+      groups
+          .computeIfAbsent(datumKey.getDataCenter(), k -> Maps.newHashMap())
+          .put(datumKey.getDataInfoId(), key);
+    }
+    final long now = System.currentTimeMillis();
+    for (Map.Entry<String, Map<String, Key>> group : groups.entrySet()) {
+      final String dataCenter = group.getKey();
+      final Map<String, Key> keys = group.getValue();
+      final Map<String, Long> sinceVersions = Maps.newHashMapWithExpectedSize(keys.size());
+      for (Map.Entry<String, Key> e : keys.entrySet()) {
+        final SubDatum cached = cachedDatum(stales.get(e.getValue()));
+        sinceVersions.put(e.getKey(), cached == null ? 0 : cached.getVersion());
+      }
+      Map<String, CompletableFuture<SubDatumDelta>> deltas =
+          dataNodeService.fetchDeltasAsync(dataCenter, sinceVersions);
+      for (Map.Entry<String, Key> e : keys.entrySet()) {
+        final String dataInfoId = e.getKey();
+        final Key key = e.getValue();
+        final SubDatum cached = cachedDatum(stales.get(key));
+        ret.put(
+            key,
+            deltas
+                .get(dataInfoId)
+                .thenCompose(
+                    delta -> {
+                      final long span = System.currentTimeMillis() - now;
+                      Value value = applyDelta(dataInfoId, dataCenter, cached, delta, span);
+                      return value != null
+                          ? CompletableFuture.completedFuture(value)
+                          : generatePayloadAsync(key);
+                    }));
+      }
+    }
+    return ret;
+  }
+
+  private CompletableFuture<Value> refreshOne(Key key, Value stale) {
+    return cachedDatum(stale) == null
+        ? generatePayloadAsync(key)
+        : refreshPayloadAsync(key, stale);
+  }
+
+  private static SubDatum cachedDatum(Value stale) {
+    return stale != null && stale.getPayload() instanceof SubDatum
+        ? (SubDatum) stale.getPayload()
+        : null;
+  }
+
+  /** @return null if the delta could not be applied to the cached datum */
+  private static Value applyDelta(
+      String dataInfoId, String dataCenter, SubDatum cached, SubDatumDelta delta, long span) {
+    if (delta.isFull()) {
+      logLoaded(dataInfoId, dataCenter, delta.getFullDatum(), span);
+      return new Value(delta.getFullDatum());
+    }
+    SubDatum datum = cached == null ? null : DatumUtils.applyDelta(cached, delta);
+    if (datum == null) {
+      LOGGER.warn(
+          "loadDeltaMismatch,{},{},{}>{},expectNum={}",
+          dataInfoId,
+          dataCenter,
+          delta.getFromVersion(),
+          delta.getVersion(),
+          delta.getPubNum());
+      return null;
+    }
+    LOGGER.info(
+        "loadDelta,{},{},{},{}>{},add={},remove={},span={}",
+        dataInfoId,
+        dataCenter,
+        datum.getPubNum(),
+        delta.getFromVersion(),
+        delta.getVersion(),
+        delta.getAddPublishers().size(),
+        delta.getRemovedRegisterIds().size(),
+        span);
+    return new Value(datum);
+  }
+
+  private static void logLoaded(String dataInfoId, String dataCenter, SubDatum datum, long span) {
+    if (datum == null) {
+      LOGGER.info("loadNil,{},{},span={}", dataInfoId, dataCenter, span);
+    } else {
+      LOGGER.info(
+          "loadD,{},{},{},{},{},span={}",
+          dataInfoId,
+          dataCenter,
+          datum.getPubNum(),
+          datum.getDataBoxBytes(),
+          datum.getVersion(),
+          span);
+    }
+  }
 }
@@ -22,7 +22,10 @@ import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.google.common.cache.*;
+import com.google.common.collect.Maps;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,6 +42,9 @@ public class SessionCacheService implements CacheService {
   /** injectQ */
   private Map<String, CacheGenerator> cacheGenerators;
 
+  // the pending async loads, the concurrent refreshes of a key share one load
+  private final Map<Key, CompletableFuture<Value>> loadings = Maps.newConcurrentMap();
+
   @PostConstruct
   public void init() {
     this.readWriteCacheMap =
@@ -75,12 +81,15 @@ public class SessionCacheService implements CacheService {
   }
 
   private Value generatePayload(Key key) {
+    return getCacheGenerator(key).generatePayload(key);
+  }
+
+  private CacheGenerator getCacheGenerator(Key key) {
     ParaCheckUtil.checkNotNull(key, "generatePayload.key");
     ParaCheckUtil.checkNotNull(key.getEntityType(), "generatePayload.key.entityType");
 
     EntityType entityType = key.getEntityType();
-    CacheGenerator cacheGenerator = cacheGenerators.get(entityType.getClass().getName());
-    return cacheGenerator.generatePayload(key);
+    return cacheGenerators.get(entityType.getClass().getName());
   }
 
   @Override
@@ -98,6 +107,124 @@ public class SessionCacheService implements CacheService {
     return readWriteCacheMap.getIfPresent(key);
   }
 
+  @Override
+  public Value refresh(Key key, Value stale) throws CacheAccessException {
+    if (stale == null || stale.getPayload() == null) {
+      invalidate(key);
+      return getValue(key);
+    }
+    final Value value;
+    try {
+      value = getCacheGenerator(key).refreshPayload(key, stale);
+    } catch (Throwable e) {
+      String msg = "Cannot refresh value for key is:" + key;
+      throw new CacheAccessException(msg, e);
+    }
+    update(key, stale, value);
+    return value;
+  }
+
+  @Override
+  public CompletableFuture<Value> refreshAsync(Key key, Value stale) {
+    CompletableFuture<Value> loading = loadings.get(key);
+    if (loading != null) {
+      return loading;
+    }
+    final CompletableFuture<Value> future = new CompletableFuture<>();
+    loading = loadings.putIfAbsent(key, future);
+    if (loading != null) {
+      return loading;
+    }
+    CompletableFuture<Value> load;
+    try {
+      final CacheGenerator generator = getCacheGenerator(key);
+      load =
+          stale == null || stale.getPayload() == null
+              ? generator.generatePayloadAsync(key)
+              : generator.refreshPayloadAsync(key, stale);
+    } catch (Throwable e) {
+      load = new CompletableFuture<>();
+      load.completeExceptionally(e);
+    }
+    onLoaded(key, stale, load, future);
+    return future;
+  }
+
+  @Override
+  public Map<Key, CompletableFuture<Value>> refreshAsync(Map<Key, Value> stales) {
+    final Map<Key, CompletableFuture<Value>> ret = Maps.newHashMapWithExpectedSize(stales.size());
+    // the keys without pending load, grouped by generator
+    final Map<CacheGenerator, Map<Key, Value>> loads = Maps.newHashMap();
+    for (Map.Entry<Key, Value> e : stales.entrySet()) {
+      final Key key = e.getKey();
+      final CompletableFuture<Value> future = new CompletableFuture<>();
+      final CompletableFuture<Value> loading = loadings.putIfAbsent(key, future);
+      if (loading != null) {
+        ret.put(key, loading);
+        continue;
+      }
+      ret.put(key, future);
+      try {
+        loads.computeIfAbsent(getCacheGenerator(key), k -> Maps.newHashMap()).put(key, e.getValue());
+      } catch (Throwable t) {
+        CompletableFuture<Value> failed = new CompletableFuture<>();
+        failed.completeExceptionally(t);
+        onLoaded(key, e.getValue(), failed, future);
+      }
+    }
+    for (Map.Entry<CacheGenerator, Map<Key, Value>> e : loads.entrySet()) {
+      final Map<Key, Value> keys = e.getValue();
+      Map<Key, CompletableFuture<Value>> futures;
+      try {
+        futures = e.getKey().refreshPayloadsAsync(keys);
+      } catch (Throwable t) {
+        futures = Collections.emptyMap();
+        CACHE_LOGGER.error("failed to refresh in batch, num={}", keys.size(), t);
+      }
+      for (Map.Entry<Key, Value> k : keys.entrySet()) {
+        CompletableFuture<Value> load = futures.get(k.getKey());
+        if (load == null) {
+          load = new CompletableFuture<>();
+          load.completeExceptionally(new IllegalStateException("not loaded"));
+        }
+        onLoaded(k.getKey(), k.getValue(), load, ret.get(k.getKey()));
+      }
+    }
+    return ret;
+  }
+
+  private void onLoaded(
+      Key key, Value stale, CompletableFuture<Value> load, CompletableFuture<Value> future) {
+    load.whenComplete(
+        (value, e) -> {
+          try {
+            if (e == null) {
+              update(key, stale, value);
+            }
+          } finally {
+            // remove before completing, the callers see a new load if the result is too old
+            loadings.remove(key, future);
+          }
+          if (e != null) {
+            future.completeExceptionally(
+                new CacheAccessException("Cannot refresh value for key is:" + key, e));
+          } else {
+            future.complete(value);
+          }
+        });
+  }
+
+  private void update(Key key, Value stale, Value value) {
+    if (stale == null) {
+      readWriteCacheMap.put(key, value);
+      return;
+    }
+    // the stale maybe replaced by others in the refreshing, keep the replaced one
+    if (!readWriteCacheMap.asMap().replace(key, stale, value)) {
+      readWriteCacheMap.asMap().putIfAbsent(key, value);
+    }
+  }
+
   @Override
   public void invalidate(Key key) {
     readWriteCacheMap.invalidate(key);
@@ -84,8 +84,7 @@ public final class PublisherConverter {
     List<ServerDataBox> serverDataBoxes = new ArrayList<>();
     if (null != boxList) {
       for (DataBox dataBox : boxList) {
-        ServerDataBox serverDataBox = new ServerDataBox(ServerDataBox.getBytes(dataBox.getData()));
-        serverDataBoxes.add(serverDataBox);
+        serverDataBoxes.add(ServerDataBox.of(dataBox.getData()));
       }
     }
     return serverDataBoxes;
@@ -107,6 +107,23 @@ public final class ReceivedDataConvertor {
     if (receivedDataJava == null) {
       return null;
     }
+    return convert2Pb(
+        receivedDataJava, DataBoxConvertor.convert2PbMaps(receivedDataJava.getData()));
+  }
+
+  /**
+   * the dataBoxesPbMap is converted from receivedDataJava.data, it could be shared by the pushes of
+   * the same datum
+   *
+   * @param receivedDataJava receivedDataJava
+   * @param dataBoxesPbMap dataBoxesPbMap
+   * @return ReceivedDataPb
+   */
+  public static ReceivedDataPb convert2Pb(
+      ReceivedData receivedDataJava, Map<String, DataBoxesPb> dataBoxesPbMap) {
+    if (receivedDataJava == null) {
+      return null;
+    }
     try {
       ReceivedDataPb.Builder builder = ReceivedDataPb.newBuilder();
       builder
@@ -118,8 +135,6 @@ public final class ReceivedDataConvertor {
           .setSegment(receivedDataJava.getSegment())
           .setVersion(receivedDataJava.getVersion())
           .addAllSubscriberRegistIds(receivedDataJava.getSubscriberRegistIds());
-      Map<String, DataBoxesPb> dataBoxesPbMap =
-          DataBoxConvertor.convert2PbMaps(receivedDataJava.getData());
       builder.putAllData(dataBoxesPbMap);
       return builder.build();
     } catch (Throwable e) {
@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.filter;
+
+import com.google.common.collect.Maps;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * immutable ip lookup: a hash map for the full ips and a binary radix trie for the ipv4 subnets
+ * (cidr, e.g. 10.1.0.0/16). the subnet match is the longest prefix match, costs at most 32 steps
+ * and does not allocate. build it with the Builder and replace the whole matcher when the config
+ * changes
+ */
+public final class IPMatcher<V> {
+  private static final IPMatcher EMPTY = new Builder().build();
+
+  private static final int IPV4_BITS = 32;
+
+  private final Map<String, V> fulls;
+
+  // node i has children[2*i] (bit 0) and children[2*i+1] (bit 1), 0 means no child, root is 0
+  private final int[] children;
+
+  private final Object[] values;
+
+  private final int subnetNum;
+
+  private IPMatcher(Map<String, V> fulls, int[] children, Object[] values, int subnetNum) {
+    this.fulls = fulls;
+    this.children = children;
+    this.values = values;
+    this.subnetNum = subnetNum;
+  }
+
+  public static <V> IPMatcher<V> empty() {
+    return (IPMatcher<V>) EMPTY;
+  }
+
+  public static <V> Builder<V> builder() {
+    return new Builder<>();
+  }
+
+  /** @return the value of the full ip, else the value of the longest matched subnet, else null */
+  public V match(String ip) {
+    if (ip == null) {
+      return null;
+    }
+    final V full = fulls.get(ip);
+    if (full != null || subnetNum == 0) {
+      return full;
+    }
+    final long addr = parseIPv4(ip);
+    if (addr < 0) {
+      return null;
+    }
+    int node = 0;
+    Object found = values[0];
+    for (int i = 0; i < IPV4_BITS; i++) {
+      node = children[(node << 1) | bitOf(addr, i)];
+      if (node == 0) {
+        break;
+      }
+      if (values[node] != null) {
+        found = values[node];
+      }
+    }
+    return (V) found;
+  }
+
+  public boolean contains(String ip) {
+    return match(ip) != null;
+  }
+
+  public boolean isEmpty() {
+    return fulls.isEmpty() && subnetNum == 0;
+  }
+
+  public Set<String> fulls() {
+    return fulls.keySet();
+  }
+
+  public int subnetSize() {
+    return subnetNum;
+  }
+
+  public static boolean isSubnet(String pattern) {
+    return pattern != null && pattern.indexOf('/') > 0;
+  }
+
+  private static int bitOf(long addr, int index) {
+    return (int) (addr >>> (IPV4_BITS - 1 - index)) & 1;
+  }
+
+  /** @return the ipv4 address as unsigned int, -1 if not a ipv4 address */
+  static long parseIPv4(CharSequence ip) {
+    final int len = ip.length();
+    if (len < 7 || len > 15) {
+      return -1;
+    }
+    long addr = 0;
+    int octet = -1;
+    int dots = 0;
+    for (int i = 0; i < len; i++) {
+      final char c = ip.charAt(i);
+      if (c == '.') {
+        if (octet < 0 || ++dots > 3) {
+          return -1;
+        }
+        addr = (addr << 8) | octet;
+        octet = -1;
+      } else if (c >= '0' && c <= '9') {
+        octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+        if (octet > 255) {
+          return -1;
+        }
+      } else {
+        return -1;
+      }
+    }
+    if (dots != 3 || octet < 0) {
+      return -1;
+    }
+    return (addr << 8) | octet;
+  }
+
+  @Override
+  public String toString() {
+    return "IPMatcher{fulls=" + fulls.size() + ", subnets=" + subnetNum + '}';
+  }
+
+  public static final class Builder<V> {
+    private final Map<String, V> fulls = Maps.newHashMap();
+
+    private int[] children = new int[32];
+
+    private Object[] values = new Object[16];
+
+    private int nodeNum = 1;
+
+    private int subnetNum;
+
+    private Builder() {}
+
+    public Builder<V> addFull(String ip, V value) {
+      if (ip != null && value != null) {
+        fulls.put(ip, value);
+      }
+      return this;
+    }
+
+    /**
+     * add a full ip or a ipv4 subnet in cidr notation
+     *
+     * @return false if the pattern is a illegal subnet
+     */
+    public boolean add(String pattern, V value) {
+      if (isSubnet(pattern)) {
+        return addSubnet(pattern, value);
+      }
+      addFull(pattern, value);
+      return true;
+    }
+
+    /** @return false if the cidr is illegal */
+    public boolean addSubnet(String cidr, V value) {
+      if (cidr == null || value == null) {
+        return false;
+      }
+      final int slash = cidr.indexOf('/');
+      if (slash <= 0 || slash == cidr.length() - 1) {
+        return false;
+      }
+      final long addr = parseIPv4(cidr.subSequence(0, slash));
+      final int prefix;
+      try {
+        prefix = Integer.parseInt(cidr.substring(slash + 1));
+      } catch (NumberFormatException e) {
+        return false;
+      }
+      if (addr < 0 || prefix < 0 || prefix > IPV4_BITS) {
+        return false;
+      }
+      int node = 0;
+      for (int i = 0; i < prefix; i++) {
+        final int index = (node << 1) | bitOf(addr, i);
+        if (children[index] == 0) {
+          // newNode may grow the array, assign to the grown one
+          final int child = newNode();
+          children[index] = child;
+        }
+        node = children[index];
+      }
+      if (values[node] == null) {
+        subnetNum++;
+      }
+      values[node] = value;
+      return true;
+    }
+
+    private int newNode() {
+      if (nodeNum == values.length) {
+        values = Arrays.copyOf(values, nodeNum << 1);
+        children = Arrays.copyOf(children, nodeNum << 2);
+      }
+      return nodeNum++;
+    }
+
+    public IPMatcher<V> build() {
+      return new IPMatcher<>(
+          Collections.unmodifiableMap(Maps.newHashMap(fulls)),
+          Arrays.copyOf(children, nodeNum << 1),
+          Arrays.copyOf(values, nodeNum),
+          subnetNum);
+    }
+  }
+}
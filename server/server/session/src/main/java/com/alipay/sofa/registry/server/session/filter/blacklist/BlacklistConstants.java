@@ -33,4 +33,7 @@ public class BlacklistConstants {
 
   /** match full ip */
   public static final String IP_FULL = "IP_FULL";
+
+  /** match ipv4 subnet in cidr notation, e.g. 10.1.0.0/16 */
+  public static final String IP_SUBNET = "IP_SUBNET";
 }
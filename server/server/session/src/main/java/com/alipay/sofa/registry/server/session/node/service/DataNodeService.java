@@ -20,8 +20,10 @@ import com.alipay.sofa.registry.common.model.ClientOffPublishers;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
 import com.alipay.sofa.registry.remoting.exchange.ExchangeCallback;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author shangyu.wh
@@ -64,4 +66,47 @@ public interface DataNodeService {
    * @return
    */
   SubDatum fetch(String dataInfoId, String dataCenterId);
+
+  /**
+   * fetch the changes of one dataCenter publisher data since the version from data server, if the
+   * data server could not build the delta, the whole datum is returned in SubDatumDelta.fullDatum
+   *
+   * @param dataInfoId
+   * @param dataCenterId
+   * @param sinceVersion
+   * @return
+   */
+  SubDatumDelta fetchDelta(String dataInfoId, String dataCenterId, long sinceVersion);
+
+  /**
+   * fetch the publisher data without blocking the caller, the future is completed in the callback
+   * of the data server response
+   *
+   * @param dataInfoId
+   * @param dataCenterId
+   * @return
+   */
+  CompletableFuture<SubDatum> fetchAsync(String dataInfoId, String dataCenterId);
+
+  /**
+   * the async version of fetchDelta
+   *
+   * @param dataInfoId
+   * @param dataCenterId
+   * @param sinceVersion
+   * @return
+   */
+  CompletableFuture<SubDatumDelta> fetchDeltaAsync(
+      String dataInfoId, String dataCenterId, long sinceVersion);
+
+  /**
+   * fetch the changes of multi dataInfoIds, the dataInfoIds whose slots have the same leader are
+   * fetched in one request
+   *
+   * @param dataCenterId
+   * @param sinceVersions the cached version of each dataInfoId, 0 means fetch the whole datum
+   * @return the future of each dataInfoId
+   */
+  Map<String, CompletableFuture<SubDatumDelta>> fetchDeltasAsync(
+      String dataCenterId, Map<String, Long> sinceVersions);
 }
@@ -23,6 +23,7 @@ import com.alipay.sofa.registry.common.model.slot.Slot;
 import com.alipay.sofa.registry.common.model.slot.SlotAccessGenericResponse;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
 import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.common.model.store.UnPublisher;
 import com.alipay.sofa.registry.compress.CompressConstants;
@@ -51,7 +52,9 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import java.util.*;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.PostConstruct;
@@ -66,6 +69,20 @@ public class DataNodeServiceImpl implements DataNodeService {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(DataNodeServiceImpl.class);
 
+  // the max num of dataInfoIds in one BatchGetDataRequest
+  private static final int MAX_BATCH_GET_SIZE = 100;
+
+  // the data server without BatchGetDataHandler responds with these errors
+  private static final String NO_PROCESSOR_MSG = "No user processor found";
+
+  private static final String UNKNOWN_REQUEST_MSG = "unknown request";
+
+  private static final long BATCH_GET_RECHECK_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+  // the data servers not support BatchGetDataRequest, fetch one by one until recheck
+  private final Map<String /*dataNodeIp*/, Long /*timestamp*/> batchGetUnsupported =
+      Maps.newConcurrentMap();
+
   @Autowired private NodeExchanger dataNodeExchanger;
 
   @Autowired private SlotTableCache slotTableCache;
@@ -80,8 +97,20 @@ public class DataNodeServiceImpl implements DataNodeService {
       MetricsableThreadPoolExecutor.newExecutor(
           "DataNodeCallback", OsUtils.getCpuCount() * 2, 4096, discardHandler);
 
+  // complete the async fetches and run the push chain out of the bolt threads. each queued
+  // callback holds fetch permits, so the queue sized by the permits never overflows
+  private ThreadPoolExecutor fetchCallbackExecutor;
+
+  // limit the in-flight async fetches, fetch in the caller thread if exhausted
+  private Semaphore fetchPermits;
+
   @PostConstruct
   public void init() {
+    final int maxInFlight = sessionServerConfig.getDataChangeFetchAsyncMaxInFlight();
+    this.fetchPermits = new Semaphore(maxInFlight);
+    this.fetchCallbackExecutor =
+        MetricsableThreadPoolExecutor.newExecutor(
+            "DatumFetchCallback", OsUtils.getCpuCount() * 2, maxInFlight);
     this.workers = new Worker[sessionServerConfig.getDataNodeExecutorWorkerSize()];
     blockingQueues =
         new BlockingQueues<>(
@@ -204,62 +233,380 @@ public class DataNodeServiceImpl implements DataNodeService {
 
   @Override
   public SubDatum fetch(String dataInfoId, String dataCenter) {
+    return toDatum(getData(dataInfoId, dataCenter, 0));
+  }
+
+  @Override
+  public SubDatumDelta fetchDelta(String dataInfoId, String dataCenter, long sinceVersion) {
+    return toDelta(dataInfoId, dataCenter, getData(dataInfoId, dataCenter, sinceVersion));
+  }
+
+  @Override
+  public CompletableFuture<SubDatum> fetchAsync(String dataInfoId, String dataCenter) {
+    return getDataAsync(dataInfoId, dataCenter, 0).thenApply(DataNodeServiceImpl::toDatum);
+  }
+
+  @Override
+  public CompletableFuture<SubDatumDelta> fetchDeltaAsync(
+      String dataInfoId, String dataCenter, long sinceVersion) {
+    return getDataAsync(dataInfoId, dataCenter, sinceVersion)
+        .thenApply(data -> toDelta(dataInfoId, dataCenter, data));
+  }
+
+  private static SubDatum toDatum(Object data) {
+    return data == null ? null : SubDatum.intern((SubDatum) data);
+  }
+
+  private static SubDatumDelta toDelta(String dataInfoId, String dataCenter, Object data) {
+    if (data instanceof SubDatumDelta) {
+      return SubDatumDelta.intern((SubDatumDelta) data);
+    }
+    // the data server not support delta, the whole datum returned
+    return SubDatumDelta.fullOf(dataInfoId, dataCenter, toDatum(data));
+  }
+
+  private Object getData(String dataInfoId, String dataCenter, long sinceVersion) {
     String dataNodeIp = null;
     int slotId = -1;
     try {
       final Slot slot = getSlot(dataInfoId);
       dataNodeIp = slot.getLeader();
       slotId = slot.getId();
-      GetDataRequest getDataRequest =
-          new GetDataRequest(ServerEnv.PROCESS_ID, dataInfoId, dataCenter, slot.getId());
-      getDataRequest.setAcceptEncodes(CompressConstants.defaultCompressEncodes);
-      getDataRequest.setSlotTableEpoch(slotTableCache.getEpoch());
-      getDataRequest.setSlotLeaderEpoch(slot.getLeaderEpoch());
-      Request<GetDataRequest> getDataRequestStringRequest =
-          new Request<GetDataRequest>() {
+      Response response =
+          dataNodeExchanger.request(
+              newGetDataRequest(dataInfoId, dataCenter, slot, sinceVersion, null));
+      return handleGetDataResponse(
+          response.getResult(), dataNodeIp, dataInfoId, dataCenter, slotId);
+    } catch (RequestException e) {
+      throw new RuntimeException(
+          StringFormatter.format(
+              "GetData fail {}, {}, {}, slotId={}", dataNodeIp, dataInfoId, dataCenter, slotId),
+          e);
+    }
+  }
 
+  /**
+   * the response is handled in the callback, the caller thread does not wait for the data server.
+   * if the in-flight fetches exceed the limit, fetch in the caller thread
+   */
+  private CompletableFuture<Object> getDataAsync(
+      String dataInfoId, String dataCenter, long sinceVersion) {
+    if (!fetchPermits.tryAcquire()) {
+      return getDataInCaller(dataInfoId, dataCenter, sinceVersion);
+    }
+    final CompletableFuture<Object> future = new CompletableFuture<>();
+    String dataNodeIp = null;
+    int slotId = -1;
+    try {
+      final Slot slot = getSlot(dataInfoId);
+      final String ip = slot.getLeader();
+      final int id = slot.getId();
+      dataNodeIp = ip;
+      slotId = id;
+      final CallbackHandler handler =
+          new CallbackHandler() {
             @Override
-            public GetDataRequest getRequestBody() {
-              return getDataRequest;
+            public void onCallback(Channel channel, Object message) {
+              fetchPermits.release();
+              try {
+                future.complete(handleGetDataResponse(message, ip, dataInfoId, dataCenter, id));
+              } catch (Throwable e) {
+                future.completeExceptionally(e);
+              }
             }
 
             @Override
-            public URL getRequestUrl() {
-              return getUrl(slot);
+            public void onException(Channel channel, Throwable exception) {
+              fetchPermits.release();
+              future.completeExceptionally(
+                  new RuntimeException(
+                      StringFormatter.format(
+                          "GetData fail {}, {}, {}, slotId={}", ip, dataInfoId, dataCenter, id),
+                      exception));
             }
 
             @Override
-            public Integer getTimeout() {
-              return sessionServerConfig.getDataNodeExchangeForFetchDatumTimeoutMillis();
+            public Executor getExecutor() {
+              return fetchCallbackExecutor;
             }
           };
+      Response response =
+          dataNodeExchanger.request(
+              newGetDataRequest(dataInfoId, dataCenter, slot, sinceVersion, handler));
+      Response.ResultStatus result = (Response.ResultStatus) response.getResult();
+      if (result != Response.ResultStatus.SUCCESSFUL) {
+        throw new RequestException("response not success, status=" + result);
+      }
+    } catch (Throwable e) {
+      fetchPermits.release();
+      future.completeExceptionally(
+          new RuntimeException(
+              StringFormatter.format(
+                  "GetData fail {}, {}, {}, slotId={}", dataNodeIp, dataInfoId, dataCenter, slotId),
+              e));
+    }
+    return future;
+  }
+
+  private CompletableFuture<Object> getDataInCaller(
+      String dataInfoId, String dataCenter, long sinceVersion) {
+    final CompletableFuture<Object> future = new CompletableFuture<>();
+    try {
+      future.complete(getData(dataInfoId, dataCenter, sinceVersion));
+    } catch (Throwable e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
 
-      Response response = dataNodeExchanger.request(getDataRequestStringRequest);
-      Object result = response.getResult();
-      SlotAccessGenericResponse<SubDatum> genericResponse =
-          (SlotAccessGenericResponse<SubDatum>) result;
-      if (genericResponse.isSuccess()) {
-        final SubDatum datum = genericResponse.getData();
-        if (datum == null) {
-          return null;
+  @Override
+  public Map<String, CompletableFuture<SubDatumDelta>> fetchDeltasAsync(
+      String dataCenter, Map<String, Long> sinceVersions) {
+    final Map<String, CompletableFuture<SubDatumDelta>> ret =
+        Maps.newHashMapWithExpectedSize(sinceVersions.size());
+    final Map<String /*leader*/, List<GetDataRequest>> groups = Maps.newHashMap();
+    for (Map.Entry<String, Long> e : sinceVersions.entrySet()) {
+      final String dataInfoId = e.getKey();
+      final long sinceVersion = e.getValue();
+      final Slot slot = slotTableCache.getSlot(slotTableCache.slotOf(dataInfoId));
+      if (slot == null || StringUtils.isBlank(slot.getLeader())) {
+        // the single fetch reports the error
+        ret.put(dataInfoId, fetchDeltaAsync(dataInfoId, dataCenter, sinceVersion));
+        continue;
+      }
+      groups
+          .computeIfAbsent(slot.getLeader(), k -> Lists.newArrayList())
+          .add(newGetDataRequestBody(dataInfoId, dataCenter, slot, sinceVersion));
+    }
+    for (Map.Entry<String, List<GetDataRequest>> group : groups.entrySet()) {
+      if (!isBatchGetSupported(group.getKey())) {
+        for (GetDataRequest req : group.getValue()) {
+          final String dataInfoId = req.getDataInfoId();
+          ret.put(dataInfoId, fetchDeltaAsync(dataInfoId, dataCenter, req.getSinceVersion()));
         }
-        return SubDatum.intern(datum);
-      } else {
-        throw new RuntimeException(
-            StringFormatter.format(
-                "GetData got fail response {}, {}, {}, slotId={} msg:{}",
+        continue;
+      }
+      for (List<GetDataRequest> requests : Lists.partition(group.getValue(), MAX_BATCH_GET_SIZE)) {
+        Map<String, CompletableFuture<Object>> futures =
+            batchGetDataAsync(group.getKey(), requests);
+        futures.forEach(
+            (dataInfoId, future) ->
+                ret.put(
+                    dataInfoId, future.thenApply(data -> toDelta(dataInfoId, dataCenter, data))));
+      }
+    }
+    return ret;
+  }
+
+  private boolean isBatchGetSupported(String dataNodeIp) {
+    final Long timestamp = batchGetUnsupported.get(dataNodeIp);
+    if (timestamp == null) {
+      return true;
+    }
+    if (System.currentTimeMillis() - timestamp > BATCH_GET_RECHECK_MILLIS) {
+      batchGetUnsupported.remove(dataNodeIp, timestamp);
+      return true;
+    }
+    return false;
+  }
+
+  static boolean isBatchGetUnsupported(Throwable exception) {
+    for (Throwable e = exception; e != null; e = e.getCause()) {
+      final String msg = e.getMessage();
+      if (msg != null
+          && (msg.contains(NO_PROCESSOR_MSG)
+              || msg.toLowerCase(Locale.ROOT).contains(UNKNOWN_REQUEST_MSG))) {
+        return true;
+      }
+      if (e.getCause() == e) {
+        break;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * the requests share one rpc to the slot leader. if the data server not support
+   * BatchGetDataRequest, fallback to fetch one by one. other failures, e.g. timeout, fail the
+   * futures and the periodic version check retries them
+   */
+  private Map<String, CompletableFuture<Object>> batchGetDataAsync(
+      String dataNodeIp, List<GetDataRequest> requests) {
+    final Map<String, CompletableFuture<Object>> futures =
+        Maps.newHashMapWithExpectedSize(requests.size());
+    for (GetDataRequest req : requests) {
+      futures.put(req.getDataInfoId(), new CompletableFuture<>());
+    }
+    if (requests.size() == 1) {
+      GetDataRequest req = requests.get(0);
+      pipe(
+          getDataAsync(req.getDataInfoId(), req.getDataCenter(), req.getSinceVersion()),
+          futures.get(req.getDataInfoId()));
+      return futures;
+    }
+    if (!fetchPermits.tryAcquire(requests.size())) {
+      for (GetDataRequest req : requests) {
+        pipe(
+            getDataInCaller(req.getDataInfoId(), req.getDataCenter(), req.getSinceVersion()),
+            futures.get(req.getDataInfoId()));
+      }
+      return futures;
+    }
+    final CallbackHandler handler =
+        new CallbackHandler() {
+          @Override
+          public void onCallback(Channel channel, Object message) {
+            fetchPermits.release(requests.size());
+            if (!(message instanceof BatchGetDataResponse)) {
+              onFail(new RuntimeException("BatchGetData got fail response " + message));
+              return;
+            }
+            List<Object> responses = ((BatchGetDataResponse) message).getResponses();
+            for (int i = 0; i < requests.size(); i++) {
+              final GetDataRequest req = requests.get(i);
+              final CompletableFuture<Object> future = futures.get(req.getDataInfoId());
+              try {
+                future.complete(
+                    handleGetDataResponse(
+                        responses.get(i),
+                        dataNodeIp,
+                        req.getDataInfoId(),
+                        req.getDataCenter(),
+                        req.getSlotId()));
+              } catch (Throwable e) {
+                future.completeExceptionally(e);
+              }
+            }
+          }
+
+          @Override
+          public void onException(Channel channel, Throwable exception) {
+            fetchPermits.release(requests.size());
+            onFail(exception);
+          }
+
+          private void onFail(Throwable exception) {
+            if (!isBatchGetUnsupported(exception)) {
+              LOGGER.error(
+                  "BatchGetData fail {}, num={}, {}",
+                  dataNodeIp,
+                  requests.size(),
+                  exception.getMessage());
+              final Throwable e =
+                  new RuntimeException(
+                      StringFormatter.format(
+                          "BatchGetData fail {}, num={}", dataNodeIp, requests.size()),
+                      exception);
+              futures.values().forEach(f -> f.completeExceptionally(e));
+              return;
+            }
+            LOGGER.warn(
+                "BatchGetData unsupported by {}, fallback to single, {}",
                 dataNodeIp,
-                dataInfoId,
-                dataCenter,
-                slotId,
-                genericResponse.getMessage()));
+                exception.getMessage());
+            batchGetUnsupported.put(dataNodeIp, System.currentTimeMillis());
+            for (GetDataRequest req : requests) {
+              pipe(
+                  getDataAsync(req.getDataInfoId(), req.getDataCenter(), req.getSinceVersion()),
+                  futures.get(req.getDataInfoId()));
+            }
+          }
+
+          @Override
+          public Executor getExecutor() {
+            return fetchCallbackExecutor;
+          }
+        };
+    try {
+      Response response =
+          dataNodeExchanger.request(
+              newRequest(
+                  new BatchGetDataRequest(ServerEnv.PROCESS_ID, requests),
+                  new URL(dataNodeIp, sessionServerConfig.getDataServerPort()),
+                  handler));
+      Response.ResultStatus result = (Response.ResultStatus) response.getResult();
+      if (result != Response.ResultStatus.SUCCESSFUL) {
+        throw new RequestException("response not success, status=" + result);
       }
-    } catch (RequestException e) {
-      throw new RuntimeException(
-          StringFormatter.format(
-              "GetData fail {}, {}, {}, slotId={}", dataNodeIp, dataInfoId, dataCenter, slotId),
-          e);
+    } catch (Throwable e) {
+      handler.onException(null, e);
+    }
+    return futures;
+  }
+
+  private static <T> void pipe(CompletableFuture<T> from, CompletableFuture<T> to) {
+    from.whenComplete(
+        (v, e) -> {
+          if (e != null) {
+            to.completeExceptionally(e);
+          } else {
+            to.complete(v);
+          }
+        });
+  }
+
+  private Request<GetDataRequest> newGetDataRequest(
+      String dataInfoId,
+      String dataCenter,
+      Slot slot,
+      long sinceVersion,
+      CallbackHandler callbackHandler) {
+    return newRequest(
+        newGetDataRequestBody(dataInfoId, dataCenter, slot, sinceVersion),
+        getUrl(slot),
+        callbackHandler);
+  }
+
+  private GetDataRequest newGetDataRequestBody(
+      String dataInfoId, String dataCenter, Slot slot, long sinceVersion) {
+    GetDataRequest getDataRequest =
+        new GetDataRequest(ServerEnv.PROCESS_ID, dataInfoId, dataCenter, slot.getId());
+    getDataRequest.setAcceptEncodes(CompressConstants.defaultCompressEncodes);
+    getDataRequest.setSlotTableEpoch(slotTableCache.getEpoch());
+    getDataRequest.setSlotLeaderEpoch(slot.getLeaderEpoch());
+    getDataRequest.setSinceVersion(sinceVersion);
+    return getDataRequest;
+  }
+
+  private <T> Request<T> newRequest(T body, URL url, CallbackHandler callbackHandler) {
+    return new Request<T>() {
+
+      @Override
+      public T getRequestBody() {
+        return body;
+      }
+
+      @Override
+      public URL getRequestUrl() {
+        return url;
+      }
+
+      @Override
+      public CallbackHandler getCallBackHandler() {
+        return callbackHandler;
+      }
+
+      @Override
+      public Integer getTimeout() {
+        return sessionServerConfig.getDataNodeExchangeForFetchDatumTimeoutMillis();
+      }
+    };
+  }
+
+  private static Object handleGetDataResponse(
+      Object result, String dataNodeIp, String dataInfoId, String dataCenter, int slotId) {
+    SlotAccessGenericResponse<Object> genericResponse = (SlotAccessGenericResponse<Object>) result;
+    if (genericResponse.isSuccess()) {
+      return genericResponse.getData();
     }
+    throw new RuntimeException(
+        StringFormatter.format(
+            "GetData got fail response {}, {}, {}, slotId={} msg:{}",
+            dataNodeIp,
+            dataInfoId,
+            dataCenter,
+            slotId,
+            genericResponse.getMessage()));
   }
 
   private CommonResponse sendRequest(Request request) throws RequestException {
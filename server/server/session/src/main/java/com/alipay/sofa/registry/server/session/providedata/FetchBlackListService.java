@@ -21,8 +21,10 @@ import com.alipay.sofa.registry.common.model.constants.ValueConstants;
 import com.alipay.sofa.registry.common.model.metaserver.ProvideData;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.connections.ConnectionsService;
+import com.alipay.sofa.registry.server.session.filter.IPMatcher;
 import com.alipay.sofa.registry.server.session.filter.blacklist.BlacklistConfig;
 import com.alipay.sofa.registry.server.session.filter.blacklist.BlacklistConstants;
 import com.alipay.sofa.registry.server.session.filter.blacklist.MatchType;
@@ -35,7 +37,9 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -60,7 +64,7 @@ public class FetchBlackListService extends AbstractFetchSystemPropertyService<Bl
   public FetchBlackListService() {
     super(
         ValueConstants.BLACK_LIST_DATA_ID,
-        new BlacklistStorage(INIT_VERSION, Lists.newArrayList()));
+        new BlacklistStorage(INIT_VERSION, Lists.newArrayList(), Collections.emptyMap()));
   }
 
   private Map<String, Map<String, Set<String>>> convertBlacklistConfig(
@@ -108,31 +112,67 @@ public class FetchBlackListService extends AbstractFetchSystemPropertyService<Bl
     }
   }
 
-  private void clientOffBlackIp(Map<String, Map<String, Set<String>>> blacklistConfigMap) {
-    if (blacklistConfigMap != null) {
-      Set<String> ipSet = new HashSet();
-
-      for (Map.Entry<String, Map<String, Set<String>>> configEntry :
-          blacklistConfigMap.entrySet()) {
-        if (BlacklistConstants.FORBIDDEN_PUB.equals(configEntry.getKey())
-            || BlacklistConstants.FORBIDDEN_SUB_BY_PREFIX.equals(configEntry.getKey())) {
-          Map<String, Set<String>> typeMap = configEntry.getValue();
-          if (typeMap != null) {
-            for (Map.Entry<String, Set<String>> typeEntry : typeMap.entrySet()) {
-              if (BlacklistConstants.IP_FULL.equals(typeEntry.getKey())) {
-                if (typeEntry.getValue() != null) {
-                  ipSet.addAll(typeEntry.getValue());
-                }
-              }
-            }
+  private void clientOffBlackIp(Map<String, IPMatcher<Boolean>> matchers) {
+    Set<String> ipSet = new HashSet();
+    List<IPMatcher<Boolean>> subnets = Lists.newArrayList();
+    for (Map.Entry<String, IPMatcher<Boolean>> e : matchers.entrySet()) {
+      if (BlacklistConstants.FORBIDDEN_PUB.equals(e.getKey())
+          || BlacklistConstants.FORBIDDEN_SUB_BY_PREFIX.equals(e.getKey())) {
+        ipSet.addAll(e.getValue().fulls());
+        if (e.getValue().subnetSize() != 0) {
+          subnets.add(e.getValue());
+        }
+      }
+    }
+    if (!subnets.isEmpty()) {
+      // the connections could not be looked up by subnet, scan the connected ips
+      for (Channel channel : connectionsService.getAllChannel()) {
+        String ip = channel.getRemoteAddress().getAddress().getHostAddress();
+        for (IPMatcher<Boolean> subnet : subnets) {
+          if (subnet.contains(ip)) {
+            ipSet.add(ip);
+            break;
           }
         }
       }
+    }
+    List<ConnectId> conIds = connectionsService.getIpConnects(ipSet);
+    // blacklist remove pub, sub, watch
+    sessionRegistry.blacklist(conIds);
+  }
 
-      List<ConnectId> conIds = connectionsService.getIpConnects(ipSet);
-      // blacklist remove pub, sub, watch
-      sessionRegistry.blacklist(conIds);
+  /** compile the configs to Map[blacklist type, IPMatcher] */
+  static Map<String, IPMatcher<Boolean>> compile(List<BlacklistConfig> configs) {
+    Map<String, IPMatcher.Builder<Boolean>> builders = Maps.newHashMap();
+    for (BlacklistConfig config : configs) {
+      List<MatchType> matchTypes = config.getMatchTypes();
+      if (config.getType() == null || matchTypes == null) {
+        continue;
+      }
+      IPMatcher.Builder<Boolean> builder =
+          builders.computeIfAbsent(config.getType(), k -> IPMatcher.builder());
+      for (MatchType<String> matchType : matchTypes) {
+        if (matchType == null || matchType.getPatternSet() == null) {
+          continue;
+        }
+        if (BlacklistConstants.IP_FULL.equals(matchType.getType())) {
+          for (String ip : matchType.getPatternSet()) {
+            builder.addFull(ip, true);
+          }
+        } else if (BlacklistConstants.IP_SUBNET.equals(matchType.getType())) {
+          for (String subnet : matchType.getPatternSet()) {
+            if (!builder.addSubnet(subnet, true)) {
+              LOGGER.error("illegal blacklist subnet: {}, type={}", subnet, config.getType());
+            }
+          }
+        }
+      }
+    }
+    Map<String, IPMatcher<Boolean>> matchers = Maps.newHashMapWithExpectedSize(builders.size());
+    for (Map.Entry<String, IPMatcher.Builder<Boolean>> e : builders.entrySet()) {
+      matchers.put(e.getKey(), e.getValue().build());
     }
+    return matchers;
   }
 
   @Override
@@ -155,11 +195,15 @@ public class FetchBlackListService extends AbstractFetchSystemPropertyService<Bl
     // {"FORBIDDEN_PUB":{"IP_FULL":["1.1.1.1"]},"FORBIDDEN_SUB_BY_PREFIX":{"IP_FULL":["1.1.1.1"]}}
     Map<String, Map<String, Set<String>>> blacklistConfigMap =
         convertBlacklistConfig(data, blacklistConfigs);
-    clientOffBlackIp(blacklistConfigMap);
+    Map<String, IPMatcher<Boolean>> matchers = compile(blacklistConfigs);
+    if (blacklistConfigMap != null) {
+      clientOffBlackIp(matchers);
+    }
 
     // after cancel success
     try {
-      BlacklistStorage update = new BlacklistStorage(provideData.getVersion(), blacklistConfigs);
+      BlacklistStorage update =
+          new BlacklistStorage(provideData.getVersion(), blacklistConfigs, matchers);
       if (compareAndSet(expect, update)) {
         return true;
       }
@@ -173,12 +217,33 @@ public class FetchBlackListService extends AbstractFetchSystemPropertyService<Bl
   protected static class BlacklistStorage extends SystemDataStorage {
     final List<BlacklistConfig> blacklistConfigList;
 
-    public BlacklistStorage(long version, List<BlacklistConfig> blacklistConfigList) {
+    // blacklist type -> matcher, compiled from blacklistConfigList
+    final Map<String, IPMatcher<Boolean>> matchers;
+
+    public BlacklistStorage(
+        long version,
+        List<BlacklistConfig> blacklistConfigList,
+        Map<String, IPMatcher<Boolean>> matchers) {
       super(version);
       this.blacklistConfigList = blacklistConfigList;
+      this.matchers = matchers;
     }
   }
 
+  /** @return true if the ip matches the full ips or subnets of the blacklist type */
+  public boolean match(String type, String ip) {
+    IPMatcher<Boolean> matcher = storage.get().matchers.get(type);
+    return matcher != null && matcher.contains(ip);
+  }
+
+  @VisibleForTesting
+  public void setBlacklistConfigList(List<BlacklistConfig> blacklistConfigList) {
+    BlacklistStorage current = storage.get();
+    storage.set(
+        new BlacklistStorage(
+            current.getVersion(), blacklistConfigList, compile(blacklistConfigList)));
+  }
+
   /**
    * Getter method for property <tt>blacklistConfigList</tt>.
    *
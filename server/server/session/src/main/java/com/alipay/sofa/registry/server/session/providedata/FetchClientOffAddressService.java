@@ -30,6 +30,7 @@ import com.alipay.sofa.registry.remoting.Channel;
 import com.alipay.sofa.registry.remoting.bolt.BoltChannel;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.connections.ConnectionsService;
+import com.alipay.sofa.registry.server.session.filter.IPMatcher;
 import com.alipay.sofa.registry.server.session.loggers.Loggers;
 import com.alipay.sofa.registry.server.session.providedata.FetchClientOffAddressService.ClientOffAddressResp;
 import com.alipay.sofa.registry.server.session.providedata.FetchClientOffAddressService.ClientOffAddressStorage;
@@ -172,8 +173,14 @@ public class FetchClientOffAddressService
   protected static class ClientOffAddressStorage extends SystemDataStorage {
     final Map<String, AddressVersion> clientOffAddress;
 
+    // compiled from clientOffAddress, the address is a full ip or a ipv4 subnet
+    final IPMatcher<AddressVersion> matcher;
+
     final Set<String> reduces;
 
+    // compiled from reduces, the ips in the reduced subnets are matched too
+    final IPMatcher<Boolean> reduceMatcher;
+
     final AtomicReference<ClientOffTable> updating;
 
     public ClientOffAddressStorage(
@@ -183,11 +190,39 @@ public class FetchClientOffAddressService
         ClientOffTable updating) {
       super(version);
       this.clientOffAddress = clientOffAddress;
+      this.matcher = compile(clientOffAddress);
       this.reduces = reduces;
+      this.reduceMatcher = compileReduces(reduces);
       this.updating = new AtomicReference<>(updating);
     }
   }
 
+  static IPMatcher<AddressVersion> compile(Map<String, AddressVersion> clientOffAddress) {
+    if (clientOffAddress.isEmpty()) {
+      return IPMatcher.empty();
+    }
+    IPMatcher.Builder<AddressVersion> builder = IPMatcher.builder();
+    for (Map.Entry<String, AddressVersion> e : clientOffAddress.entrySet()) {
+      if (!builder.add(e.getKey(), e.getValue())) {
+        LOGGER.error("illegal clientOff subnet: {}", e.getKey());
+      }
+    }
+    return builder.build();
+  }
+
+  static IPMatcher<Boolean> compileReduces(Set<String> reduces) {
+    if (CollectionUtils.isEmpty(reduces)) {
+      return IPMatcher.empty();
+    }
+    IPMatcher.Builder<Boolean> builder = IPMatcher.builder();
+    for (String reduce : reduces) {
+      if (!builder.add(reduce, true)) {
+        LOGGER.error("illegal clientOff reduce subnet: {}", reduce);
+      }
+    }
+    return builder.build();
+  }
+
   protected static class ClientOffAddressResp extends SystemDataStorage {
     final Map<String, AddressVersion> clientOffAddress;
 
@@ -235,9 +270,9 @@ public class FetchClientOffAddressService
       return true;
     }
 
-    Set<String> addAddress = table.addAddress;
-    Set<String> removes = table.removes;
-    Set<String> clientOpens = table.clientOpens;
+    Set<String> addAddress = resolveIps(table.addAddress);
+    Set<String> removes = excludeClientOff(resolveIps(table.removes));
+    Set<String> clientOpens = excludeClientOff(resolveIps(table.clientOpens));
 
     if (CollectionUtils.isEmpty(addAddress)
         && CollectionUtils.isEmpty(removes)
@@ -259,6 +294,51 @@ public class FetchClientOffAddressService
     return true;
   }
 
+  /** the connections are looked up by ip, replace the subnets with the connected ips in them */
+  Set<String> resolveIps(Set<String> addresses) {
+    if (CollectionUtils.isEmpty(addresses)) {
+      return addresses;
+    }
+    Set<String> ips = Sets.newHashSetWithExpectedSize(addresses.size());
+    IPMatcher.Builder<Boolean> builder = IPMatcher.builder();
+    for (String address : addresses) {
+      if (IPMatcher.isSubnet(address)) {
+        builder.addSubnet(address, true);
+      } else {
+        ips.add(address);
+      }
+    }
+    IPMatcher<Boolean> subnets = builder.build();
+    if (subnets.isEmpty()) {
+      return addresses;
+    }
+    for (Channel channel : connectionsService.getAllChannel()) {
+      String ip = channel.getRemoteAddress().getAddress().getHostAddress();
+      if (subnets.contains(ip)) {
+        ips.add(ip);
+      }
+    }
+    return ips;
+  }
+
+  /** the ip is still off if it is in another subnet */
+  private Set<String> excludeClientOff(Set<String> ips) {
+    if (CollectionUtils.isEmpty(ips)) {
+      return ips;
+    }
+    IPMatcher<AddressVersion> matcher = storage.get().matcher;
+    if (matcher.subnetSize() == 0) {
+      return ips;
+    }
+    Set<String> ret = Sets.newHashSetWithExpectedSize(ips.size());
+    for (String ip : ips) {
+      if (!matcher.contains(ip)) {
+        ret.add(ip);
+      }
+    }
+    return ret;
+  }
+
   private void unMarkChannel(Set<String> ipSet) {
     connectionsService.markChannelAndGetIpConnects(ipSet, CLIENT_OFF, null);
   }
@@ -299,8 +379,8 @@ public class FetchClientOffAddressService
   protected void processClientOpen() {
     List<Channel> channels = connectionsService.getAllChannel();
     ClientOffAddressStorage storage = this.storage.get();
-    Map<String, AddressVersion> clientOffAddress = storage.clientOffAddress;
-    Set<String> reduces = storage.reduces;
+    IPMatcher<AddressVersion> clientOffAddress = storage.matcher;
+    IPMatcher<Boolean> reduces = storage.reduceMatcher;
 
     Set<String> retryClientOpen = Sets.newHashSetWithExpectedSize(8);
     for (Channel channel : channels) {
@@ -309,7 +389,7 @@ public class FetchClientOffAddressService
 
       BoltChannel boltChannel = (BoltChannel) channel;
       Object value = boltChannel.getConnAttribute(CLIENT_OFF);
-      if (Boolean.TRUE.equals(value) && !clientOffAddress.containsKey(ip)) {
+      if (Boolean.TRUE.equals(value) && !clientOffAddress.contains(ip)) {
 
         if (reduces.contains(ip)) {
           unMarkChannel(Collections.singleton(ip));
@@ -335,8 +415,9 @@ public class FetchClientOffAddressService
     return storage.get().clientOffAddress.keySet();
   }
 
+  /** @return the client off address of the ip, match the full ip first, then the subnets */
   public AddressVersion getAddress(String address) {
-    return storage.get().clientOffAddress.get(address);
+    return storage.get().matcher.match(address);
   }
 
   public long lastLoadVersion() {
@@ -19,12 +19,14 @@ package com.alipay.sofa.registry.server.session.push;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.alipay.sofa.registry.task.TimingWheelDebouncer;
 import com.alipay.sofa.registry.util.ConcurrentUtils;
 import com.alipay.sofa.registry.util.StringFormatter;
 import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import javax.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -56,6 +58,21 @@ public class ChangeProcessor {
 
   interface ChangeHandler {
     boolean onChange(String dataInfoId, TriggerPushContext changeCtx);
+
+    /**
+     * handle the changes expired at the same time, the handler could fetch the datum in batch
+     *
+     * @param tasks
+     */
+    default void onChanges(List<ChangeTask> tasks) {
+      for (ChangeTask task : tasks) {
+        try {
+          task.doChange();
+        } catch (Throwable e) {
+          LOGGER.error("failed to doChange, {}", task, e);
+        }
+      }
+    }
   }
 
   static final class ChangeTask {
@@ -92,8 +109,12 @@ public class ChangeProcessor {
   }
 
   static final class Worker extends WakeUpLoopRunnable {
-    // task sorted by expire probably
-    final LinkedHashMap<ChangeKey, ChangeTask> tasks = Maps.newLinkedHashMap();
+    private static final int TICK_MILLIS = 10;
+    private static final int TICKS_PER_WHEEL = 512;
+    private static final int IDLE_WAITING_MILLIS = 100;
+
+    final TimingWheelDebouncer<ChangeKey, ChangeTask> tasks =
+        new TimingWheelDebouncer<>(TICK_MILLIS, TICKS_PER_WHEEL, t -> t.expireTimestamp);
     final int changeDebouncingMillis;
     final int changeDebouncingMaxMillis;
 
@@ -103,76 +124,83 @@ public class ChangeProcessor {
     }
 
     ChangeTask get(ChangeKey key) {
-      synchronized (tasks) {
-        return tasks.get(key);
-      }
+      return tasks.get(key);
     }
 
     boolean commitChange(ChangeKey key, ChangeHandler handler, TriggerPushContext changeCtx) {
       final long now = System.currentTimeMillis();
       final ChangeTask task = new ChangeTask(key, changeCtx, handler, now + changeDebouncingMillis);
-
-      synchronized (tasks) {
-        final ChangeTask exist = tasks.get(key);
-        if (exist == null) {
-          task.expireDeadlineTimestamp = now + changeDebouncingMaxMillis;
-          tasks.put(key, task);
-          return true;
-        }
-        if (task.changeCtx.getExpectDatumVersion() <= exist.changeCtx.getExpectDatumVersion()) {
-          return false;
-        }
-        // compare with exist
-        if (task.expireTimestamp <= exist.expireDeadlineTimestamp) {
-          // not reach deadline, requeue to wait
-          task.expireDeadlineTimestamp = exist.expireDeadlineTimestamp;
-          // merge change, merge tracetimes
-          task.changeCtx.addTraceTime(exist.changeCtx.getFirstTimes());
-          // tasks is linkedMap, must remove the exist first, then enqueue in the tail
-          tasks.remove(key);
-          tasks.put(key, task);
-        } else {
-          // reach deadline, could not requeue, use exist.expire as newTask.expire
-          exist.changeCtx.setExpectDatumVersion(task.changeCtx.getExpectDatumVersion());
-        }
-        return true;
+      task.expireDeadlineTimestamp = now + changeDebouncingMaxMillis;
+      final boolean idle = tasks.isEmpty();
+      if (!tasks.put(key, task, Worker::merge)) {
+        return false;
       }
+      if (idle) {
+        // the idle worker waits longer than a tick, wake it to poll by the tick
+        wakeup();
+      }
+      return true;
     }
 
-    ChangeTask getExpire() {
-      final long now = System.currentTimeMillis();
-      synchronized (tasks) {
-        if (tasks.isEmpty()) {
-          return null;
-        }
-        Iterator<ChangeTask> it = tasks.values().iterator();
-        final ChangeTask first = it.next();
-        if (first.expireTimestamp <= now) {
-          it.remove();
-          return first;
-        }
+    static ChangeTask merge(ChangeTask exist, ChangeTask task) {
+      if (task.changeCtx.getExpectDatumVersion() <= exist.changeCtx.getExpectDatumVersion()) {
         return null;
       }
+      // compare with exist
+      if (task.expireTimestamp <= exist.expireDeadlineTimestamp) {
+        // not reach deadline, requeue to wait
+        task.expireDeadlineTimestamp = exist.expireDeadlineTimestamp;
+        // merge change, merge tracetimes
+        task.changeCtx.addTraceTime(exist.changeCtx.getFirstTimes());
+        return task;
+      }
+      // reach deadline, could not requeue, use exist.expire as newTask.expire
+      exist.changeCtx.setExpectDatumVersion(task.changeCtx.getExpectDatumVersion());
+      return exist;
+    }
+
+    List<ChangeTask> getExpires() {
+      return tasks.pollExpired(System.currentTimeMillis());
     }
 
     @Override
     public void runUnthrowable() {
-      for (; ; ) {
-        final ChangeTask task = getExpire();
-        if (task == null) {
-          break;
+      final List<ChangeTask> expires = getExpires();
+      if (expires.size() == 1) {
+        doChange(expires.get(0));
+        return;
+      }
+      // coalesce the expired changes of the same handler
+      final Map<ChangeHandler, List<ChangeTask>> groups = Maps.newHashMap();
+      for (ChangeTask task : expires) {
+        groups.computeIfAbsent(task.changeHandler, k -> Lists.newArrayList()).add(task);
+      }
+      for (Map.Entry<ChangeHandler, List<ChangeTask>> group : groups.entrySet()) {
+        final List<ChangeTask> tasks = group.getValue();
+        if (tasks.size() == 1) {
+          doChange(tasks.get(0));
+          continue;
         }
         try {
-          task.doChange();
+          group.getKey().onChanges(tasks);
         } catch (Throwable e) {
-          LOGGER.error("failed to doChange, {}", task);
+          LOGGER.error("failed to doChanges, num={}", tasks.size(), e);
         }
       }
     }
 
+    private static void doChange(ChangeTask task) {
+      try {
+        task.doChange();
+      } catch (Throwable e) {
+        LOGGER.error("failed to doChange, {}", task);
+      }
+    }
+
+    /** poll every tick while the wheel holds tasks, the commit wakes the idle worker */
     @Override
     public int getWaitingMillis() {
-      return 100;
+      return tasks.isEmpty() ? IDLE_WAITING_MILLIS : TICK_MILLIS;
     }
   }
 
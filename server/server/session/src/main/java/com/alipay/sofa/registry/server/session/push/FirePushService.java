@@ -100,6 +100,7 @@ public class FirePushService {
 
   public boolean fireOnPushEmpty(Subscriber subscriber, String dataCenter, long version) {
     long pushVersion = subscriber.markPushEmpty(dataCenter, version);
+    sessionInterests.markChanged(subscriber.getDataInfoId());
 
     SubDatum emptyDatum = DatumUtils.newEmptySubDatum(subscriber, dataCenter, pushVersion);
     final long now = System.currentTimeMillis();
@@ -169,6 +170,98 @@ public class FirePushService {
   boolean doExecuteOnChange(String changeDataInfoId, TriggerPushContext changeCtx) {
     final long expectVersion = changeCtx.getExpectDatumVersion();
     final SubDatum datum = getDatum(changeCtx.dataCenter, changeDataInfoId, expectVersion);
+    return onChangeDatum(changeDataInfoId, changeCtx, datum);
+  }
+
+  /**
+   * the change worker does not wait for the data server, the push continues in the callback of the
+   * fetch, so a few workers could keep many fetches in flight
+   */
+  boolean doExecuteOnChangeAsync(String changeDataInfoId, TriggerPushContext changeCtx) {
+    final Key key = datumKey(changeCtx.dataCenter, changeDataInfoId);
+    final Value value = sessionCacheService.getValueIfPresent(key);
+    final SubDatum cached = getIfExpected(value, changeCtx.getExpectDatumVersion());
+    if (cached != null) {
+      CACHE_HIT_COUNTER.inc();
+      onDatumChange(changeCtx, cached);
+      return true;
+    }
+    CACHE_MISS_COUNTER.inc();
+    refreshOnChange(key, value, changeDataInfoId, changeCtx, true);
+    return true;
+  }
+
+  /** the missed datum of the changes are fetched in batch, grouped by the slot leader */
+  void doExecuteOnChanges(List<ChangeProcessor.ChangeTask> tasks) {
+    final Map<Key, Value> stales = Maps.newHashMapWithExpectedSize(tasks.size());
+    final Map<Key, ChangeProcessor.ChangeTask> misses = Maps.newHashMapWithExpectedSize(tasks.size());
+    for (ChangeProcessor.ChangeTask task : tasks) {
+      CHANGE_TASK_EXEC_COUNTER.inc();
+      final String dataInfoId = task.key.dataInfoId;
+      final TriggerPushContext changeCtx = task.changeCtx;
+      try {
+        final Key key = datumKey(changeCtx.dataCenter, dataInfoId);
+        final Value value = sessionCacheService.getValueIfPresent(key);
+        final SubDatum cached = getIfExpected(value, changeCtx.getExpectDatumVersion());
+        if (cached != null) {
+          CACHE_HIT_COUNTER.inc();
+          onDatumChange(changeCtx, cached);
+          continue;
+        }
+        CACHE_MISS_COUNTER.inc();
+        stales.put(key, value);
+        misses.put(key, task);
+      } catch (Throwable e) {
+        LOGGER.error("failed to do change Task, {}, {}", dataInfoId, changeCtx, e);
+      }
+    }
+    if (stales.isEmpty()) {
+      return;
+    }
+    final Map<Key, CompletableFuture<Value>> futures = sessionCacheService.refreshAsync(stales);
+    for (Map.Entry<Key, ChangeProcessor.ChangeTask> e : misses.entrySet()) {
+      final ChangeProcessor.ChangeTask task = e.getValue();
+      onRefreshed(futures.get(e.getKey()), e.getKey(), task.key.dataInfoId, task.changeCtx, true);
+    }
+  }
+
+  private void refreshOnChange(
+      Key key, Value stale, String changeDataInfoId, TriggerPushContext changeCtx, boolean retry) {
+    onRefreshed(
+        sessionCacheService.refreshAsync(key, stale), key, changeDataInfoId, changeCtx, retry);
+  }
+
+  private void onRefreshed(
+      CompletableFuture<Value> future,
+      Key key,
+      String changeDataInfoId,
+      TriggerPushContext changeCtx,
+      boolean retry) {
+    future.whenComplete(
+            (value, e) -> {
+              if (e != null) {
+                LOGGER.error("failed to do change Task, {}, {}", changeDataInfoId, changeCtx, e);
+                return;
+              }
+              final SubDatum datum = value == null ? null : (SubDatum) value.getPayload();
+              if (retry
+                  && datum != null
+                  && datum.getVersion() < changeCtx.getExpectDatumVersion()) {
+                // the shared load maybe started before the change, load again
+                refreshOnChange(key, value, changeDataInfoId, changeCtx, false);
+                return;
+              }
+              try {
+                onChangeDatum(changeDataInfoId, changeCtx, datum);
+              } catch (Throwable t) {
+                LOGGER.error("failed to do change Task, {}, {}", changeDataInfoId, changeCtx, t);
+              }
+            });
+  }
+
+  private boolean onChangeDatum(
+      String changeDataInfoId, TriggerPushContext changeCtx, SubDatum datum) {
+    final long expectVersion = changeCtx.getExpectDatumVersion();
     if (datum == null) {
       // datum change, but get null datum, should not happen
       LOGGER.error("[changeNil] {},{},{}", changeCtx.dataCenter, changeDataInfoId, expectVersion);
@@ -224,23 +317,32 @@ public class FirePushService {
   }
 
   SubDatum getDatum(String dataCenter, String dataInfoId, long expectVersion) {
-    Key key = new Key(DatumKey.class.getName(), new DatumKey(dataInfoId, dataCenter));
+    Key key = datumKey(dataCenter, dataInfoId);
     Value value = sessionCacheService.getValueIfPresent(key);
-    if (value != null) {
-      SubDatum datum = (SubDatum) value.getPayload();
-      if (datum != null && datum.getVersion() >= expectVersion) {
-        // the expect version got
-        CACHE_HIT_COUNTER.inc();
-        return datum;
-      }
+    SubDatum datum = getIfExpected(value, expectVersion);
+    if (datum != null) {
+      // the expect version got
+      CACHE_HIT_COUNTER.inc();
+      return datum;
     }
     CACHE_MISS_COUNTER.inc();
-    // the cache is too old
-    sessionCacheService.invalidate(key);
-    value = sessionCacheService.getValue(key);
+    // the cache is too old, refresh it with the changes since the cached version
+    value = sessionCacheService.refresh(key, value);
     return value == null ? null : (SubDatum) value.getPayload();
   }
 
+  private static Key datumKey(String dataCenter, String dataInfoId) {
+    return new Key(DatumKey.class.getName(), new DatumKey(dataInfoId, dataCenter));
+  }
+
+  private static SubDatum getIfExpected(Value value, long expectVersion) {
+    if (value == null) {
+      return null;
+    }
+    SubDatum datum = (SubDatum) value.getPayload();
+    return datum != null && datum.getVersion() >= expectVersion ? datum : null;
+  }
+
   private List<Subscriber> subscribersPushCheck(
       String dataCenter, Long version, Collection<Subscriber> subscribers) {
     List<Subscriber> subscribersSend = Lists.newArrayList();
@@ -267,6 +369,9 @@ public class FirePushService {
     public boolean onChange(String dataInfoId, TriggerPushContext changeCtx) {
       try {
         CHANGE_TASK_EXEC_COUNTER.inc();
+        if (sessionServerConfig.isDataChangeFetchAsync()) {
+          return doExecuteOnChangeAsync(dataInfoId, changeCtx);
+        }
         doExecuteOnChange(dataInfoId, changeCtx);
         return true;
       } catch (Throwable e) {
@@ -274,6 +379,15 @@ public class FirePushService {
         return false;
       }
     }
+
+    @Override
+    public void onChanges(List<ChangeProcessor.ChangeTask> tasks) {
+      if (!sessionServerConfig.isDataChangeFetchAsync()) {
+        ChangeProcessor.ChangeHandler.super.onChanges(tasks);
+        return;
+      }
+      doExecuteOnChanges(tasks);
+    }
   }
 
   final class RegHandler implements RegProcessor.RegHandler {
@@ -23,22 +23,27 @@ import com.alipay.sofa.registry.compress.Compressor;
 import com.alipay.sofa.registry.core.model.ReceivedConfigData;
 import com.alipay.sofa.registry.core.model.ReceivedData;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
-import com.alipay.sofa.registry.server.session.converter.ReceivedDataConverter;
 import com.alipay.sofa.registry.server.session.converter.pb.ReceivedDataConvertor;
-import com.alipay.sofa.registry.server.session.predicate.ZonePredicate;
 import com.alipay.sofa.registry.server.session.providedata.CompressPushService;
+import com.alipay.sofa.registry.util.SystemUtils;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import java.util.*;
-import java.util.function.Predicate;
 import javax.annotation.Resource;
 import org.springframework.beans.factory.annotation.Autowired;
 
 public class PushDataGenerator {
+  private static final String KEY_PUSH_PAYLOAD_CACHE_CAPACITY = "registry.push.payload.capacity";
 
   @Autowired protected SessionServerConfig sessionServerConfig;
 
   @Resource protected CompressPushService compressPushService;
 
+  private final PushPayloadCache payloadCache =
+      new PushPayloadCache(
+          30 * 1000,
+          SystemUtils.getSystemInteger(KEY_PUSH_PAYLOAD_CACHE_CAPACITY, 1024 * 1024 * 256));
+
   public PushData createPushData(SubDatum unzipDatum, Map<String, Subscriber> subscriberMap) {
     unzipDatum.mustUnzipped();
     if (subscriberMap.size() > 1) {
@@ -49,43 +54,41 @@ public class PushDataGenerator {
     SubscriberUtils.assertClientVersion(subscriberMap.values(), BaseInfo.ClientVersion.StoreData);
 
     final Subscriber subscriber = subscriberMap.values().iterator().next();
-    String dataId = subscriber.getDataId();
     String clientCell = sessionServerConfig.getClientCell(subscriber.getCell());
 
-    Predicate<String> zonePredicate =
-        ZonePredicate.zonePredicate(dataId, clientCell, subscriber.getScope(), sessionServerConfig);
-
-    PushData<ReceivedData> pushData =
-        ReceivedDataConverter.getReceivedDataMulti(
-            unzipDatum,
-            subscriber.getScope(),
-            Lists.newArrayList(subscriberMap.keySet()),
-            clientCell,
-            zonePredicate);
-    pushData.getPayload().setVersion(unzipDatum.getVersion());
+    // the subscribers of the same datum version share the payload
+    PushPayloadCache.Payload payload =
+        payloadCache.get(unzipDatum, subscriber.getScope(), clientCell, sessionServerConfig);
+    ReceivedData receivedData = payload.newReceivedData(Lists.newArrayList(subscriberMap.keySet()));
     final Byte serializerIndex = subscriber.getSourceAddress().getSerializerIndex();
     if (serializerIndex == null || URL.PROTOBUF != serializerIndex) {
-      return pushData;
+      return new PushData<>(receivedData, payload.getDataCount());
     }
     Compressor compressor =
         compressPushService.getCompressor(
-            pushData.getPayload(),
+            payload.getDataBoxesSize(),
             subscriber.getAcceptEncodes(),
             subscriber.getSourceAddress().getIpAddress());
     if (compressor == null) {
-      ReceivedDataPb receivedDataPb = ReceivedDataConvertor.convert2Pb(pushData.getPayload());
-      return new PushData<>(receivedDataPb, pushData.getDataCount());
+      ReceivedDataPb receivedDataPb =
+          ReceivedDataConvertor.convert2Pb(receivedData, payload.getDataPb());
+      return new PushData<>(receivedDataPb, payload.getDataCount());
     } else {
       ReceivedDataPb receivedDataPb =
-          ReceivedDataConvertor.convert2CompressedPb(pushData.getPayload(), compressor);
+          ReceivedDataConvertor.convert2CompressedPb(receivedData, compressor);
       return new PushData<>(
           receivedDataPb,
-          pushData.getDataCount(),
+          payload.getDataCount(),
           compressor.getEncoding(),
           receivedDataPb.getBody().size());
     }
   }
 
+  @VisibleForTesting
+  PushPayloadCache getPayloadCache() {
+    return payloadCache;
+  }
+
   public PushData createPushData(Watcher watcher, ReceivedConfigData data) {
     URL url = watcher.getSourceAddress();
     Object o = data;
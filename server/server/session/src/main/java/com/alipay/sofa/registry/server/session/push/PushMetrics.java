@@ -163,6 +163,17 @@ public final class PushMetrics {
             .name("push_reg_skip")
             .help("push reg skip count")
             .register();
+    private static final Counter PAYLOAD_CACHE_COUNTER =
+        Counter.build()
+            .namespace("session")
+            .subsystem("push")
+            .name("payload_cache_total")
+            .help("push payload cache")
+            .labelNames("type")
+            .register();
+    static final Counter.Child PAYLOAD_CACHE_GET_COUNTER = PAYLOAD_CACHE_COUNTER.labels("get");
+    static final Counter.Child PAYLOAD_CACHE_MISS_COUNTER = PAYLOAD_CACHE_COUNTER.labels("miss");
+
     static final Counter PUSH_REG_COMMIT_COUNTER =
         Counter.build()
             .namespace("session")
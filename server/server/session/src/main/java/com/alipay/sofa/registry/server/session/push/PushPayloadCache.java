@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.push;
+
+import com.alipay.sofa.registry.cache.Sizer;
+import com.alipay.sofa.registry.common.model.client.pb.DataBoxesPb;
+import com.alipay.sofa.registry.common.model.store.PushData;
+import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.concurrent.CachedExecutor;
+import com.alipay.sofa.registry.core.model.DataBox;
+import com.alipay.sofa.registry.core.model.ReceivedData;
+import com.alipay.sofa.registry.core.model.ScopeEnum;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
+import com.alipay.sofa.registry.server.session.converter.ReceivedDataConverter;
+import com.alipay.sofa.registry.server.session.converter.pb.DataBoxConvertor;
+import com.alipay.sofa.registry.server.session.predicate.ZonePredicate;
+import com.alipay.sofa.registry.server.session.providedata.CompressPushService;
+import com.alipay.sofa.registry.util.StringFormatter;
+import com.alipay.sofa.registry.util.StringUtils;
+import com.google.common.base.Utf8;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * cache the subscriber-independent part of the push data. the subscribers of the same datum version
+ * share the converted data boxes, only the subscriber registerIds differ per push
+ */
+public final class PushPayloadCache {
+  private final CachedExecutor<Key, Payload> cachedExecutor;
+
+  public PushPayloadCache(long silentMs, long maxWeight) {
+    this.cachedExecutor =
+        new CachedExecutor<Key, Payload>(
+            silentMs, maxWeight, (Key k, Payload v) -> k.size() + v.size(), false) {
+          @Override
+          protected void onMiss(Key key) {
+            PushMetrics.Push.PAYLOAD_CACHE_MISS_COUNTER.inc();
+          }
+        };
+  }
+
+  public Payload get(
+      SubDatum unzipDatum,
+      ScopeEnum scope,
+      String clientCell,
+      SessionServerConfig sessionServerConfig) {
+    final String dataId = unzipDatum.getDataId();
+    // the zone filter depends on the config, the changed config would not hit the old payload
+    final Key key =
+        new Key(
+            unzipDatum.getDataCenter(),
+            unzipDatum.getDataInfoId(),
+            unzipDatum.getVersion(),
+            scope,
+            clientCell,
+            sessionServerConfig.getInvalidForeverZones(),
+            sessionServerConfig.isInvalidIgnored(dataId));
+    final Predicate<String> zonePredicate =
+        ZonePredicate.zonePredicate(dataId, clientCell, scope, sessionServerConfig);
+    PushMetrics.Push.PAYLOAD_CACHE_GET_COUNTER.inc();
+    try {
+      return cachedExecutor.execute(
+          key,
+          () -> {
+            PushData<ReceivedData> pushData =
+                ReceivedDataConverter.getReceivedDataMulti(
+                    unzipDatum, scope, Collections.emptyList(), clientCell, zonePredicate);
+            return new Payload(pushData.getPayload(), pushData.getDataCount());
+          });
+    } catch (Throwable e) {
+      throw new IllegalStateException(
+          StringFormatter.format("failed to build push payload, {}", key), e);
+    }
+  }
+
+  public long getHitCount() {
+    return cachedExecutor.getHitCount();
+  }
+
+  public long getMissingCount() {
+    return cachedExecutor.getMissingCount();
+  }
+
+  public static final class Payload implements Sizer {
+    private final ReceivedData template;
+    private final int dataCount;
+    private final int dataBoxesSize;
+    private final int size;
+    private volatile Map<String, DataBoxesPb> dataPb;
+
+    Payload(ReceivedData template, int dataCount) {
+      this.template = template;
+      this.dataCount = dataCount;
+      this.dataBoxesSize = CompressPushService.dataBoxesMapSize(template.getData());
+      this.size = sizeof(template.getData());
+    }
+
+    /**
+     * the data map is shared with other pushes, must not be modified
+     *
+     * @param subscriberRegisterIds subscriberRegisterIds
+     * @return ReceivedData
+     */
+    public ReceivedData newReceivedData(List<String> subscriberRegisterIds) {
+      ReceivedData receivedData =
+          new ReceivedData(
+              template.getDataId(),
+              template.getGroup(),
+              template.getInstanceId(),
+              template.getSegment(),
+              subscriberRegisterIds,
+              template.getData(),
+              template.getVersion());
+      receivedData.setScope(template.getScope());
+      receivedData.setLocalZone(template.getLocalZone());
+      return receivedData;
+    }
+
+    public Map<String, DataBoxesPb> getDataPb() {
+      Map<String, DataBoxesPb> pb = dataPb;
+      if (pb == null) {
+        // concurrent convert is harmless, the result is the same
+        pb = DataBoxConvertor.convert2PbMaps(template.getData());
+        dataPb = pb;
+      }
+      return pb;
+    }
+
+    public int getDataCount() {
+      return dataCount;
+    }
+
+    public int getDataBoxesSize() {
+      return dataBoxesSize;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    // the java strings of the data boxes and the utf8 bytes of the pb maps which converted lazily
+    static int sizeof(Map<String, List<DataBox>> dataBoxesMap) {
+      int size = 64;
+      for (Map.Entry<String, List<DataBox>> e : dataBoxesMap.entrySet()) {
+        size += StringUtils.sizeof(e.getKey()) + Utf8.encodedLength(e.getKey()) + 32;
+        for (DataBox box : e.getValue()) {
+          size += 32;
+          final String data = box.getData();
+          if (data != null) {
+            size += StringUtils.sizeof(data) + Utf8.encodedLength(data);
+          }
+        }
+      }
+      return size;
+    }
+  }
+
+  static final class Key implements Sizer {
+    final String dataCenter;
+    final String dataInfoId;
+    final long version;
+    final ScopeEnum scope;
+    final String clientCell;
+    final String invalidForeverZones;
+    final boolean invalidIgnored;
+
+    Key(
+        String dataCenter,
+        String dataInfoId,
+        long version,
+        ScopeEnum scope,
+        String clientCell,
+        String invalidForeverZones,
+        boolean invalidIgnored) {
+      this.dataCenter = dataCenter;
+      this.dataInfoId = dataInfoId;
+      this.version = version;
+      this.scope = scope;
+      this.clientCell = clientCell;
+      this.invalidForeverZones = invalidForeverZones;
+      this.invalidIgnored = invalidIgnored;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key that = (Key) o;
+      return version == that.version
+          && scope == that.scope
+          && invalidIgnored == that.invalidIgnored
+          && Objects.equals(dataInfoId, that.dataInfoId)
+          && Objects.equals(dataCenter, that.dataCenter)
+          && Objects.equals(clientCell, that.clientCell)
+          && Objects.equals(invalidForeverZones, that.invalidForeverZones);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(
+          dataCenter, dataInfoId, version, scope, clientCell, invalidForeverZones, invalidIgnored);
+    }
+
+    @Override
+    public int size() {
+      return StringUtils.sizeof(dataCenter)
+          + StringUtils.sizeof(dataInfoId)
+          + StringUtils.sizeof(clientCell)
+          + StringUtils.sizeof(invalidForeverZones)
+          + 20;
+    }
+
+    @Override
+    public String toString() {
+      return StringFormatter.format(
+          "PushPayloadKey{{},{},ver={},scope={},cell={},invalidZones={},invalidIgnored={}}",
+          dataInfoId,
+          dataCenter,
+          version,
+          scope,
+          clientCell,
+          invalidForeverZones,
+          invalidIgnored);
+    }
+  }
+}
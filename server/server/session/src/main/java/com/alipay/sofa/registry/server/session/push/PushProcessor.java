@@ -32,6 +32,7 @@ import com.alipay.sofa.registry.remoting.exchange.RequestChannelClosedException;
 import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfig;
 import com.alipay.sofa.registry.server.session.circuit.breaker.CircuitBreakerService;
 import com.alipay.sofa.registry.server.session.node.service.ClientNodeService;
+import com.alipay.sofa.registry.server.session.store.Interests;
 import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.task.KeyedThreadPoolExecutor;
 import com.alipay.sofa.registry.task.MetricsableThreadPoolExecutor;
@@ -69,6 +70,8 @@ public class PushProcessor {
 
   @Autowired protected CircuitBreakerService circuitBreakerService;;
 
+  @Autowired protected Interests sessionInterests;
+
   final Cleaner cleaner = new Cleaner();
 
   final RejectedDiscardHandler discardHandler = new RejectedDiscardHandler();
@@ -244,6 +247,7 @@ public class PushProcessor {
       subscriber.checkAndUpdateCtx(
           task.datum.getDataCenter(), task.datum.getVersion(), task.getPushDataCount());
     }
+    sessionInterests.markChanged(task.datum.getDataInfoId());
     PUSH_EMPTY_SKIP_COUNTER.inc();
     LOGGER.info(
         "[pushEmptySkip]{},{},{}", task.taskID, task.pushingTaskKey, task.datum.getVersion());
@@ -474,6 +478,8 @@ public class PushProcessor {
               pushTask.pushingTaskKey);
         }
       }
+      // the pushed version changed, the version watchdog rescan it
+      sessionInterests.markChanged(pushTask.datum.getDataInfoId());
       this.pushTask.trace.finishPush(
           PushTrace.PushStatus.OK,
           pushTask.taskID,
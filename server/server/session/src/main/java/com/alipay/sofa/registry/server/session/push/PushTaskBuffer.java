@@ -20,16 +20,15 @@ import static com.alipay.sofa.registry.server.session.push.PushMetrics.Push.*;
 
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.task.TimingWheelDebouncer;
 import com.alipay.sofa.registry.util.ConcurrentUtils;
 import com.alipay.sofa.registry.util.StringFormatter;
 import com.alipay.sofa.registry.util.SystemUtils;
 import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import java.net.InetSocketAddress;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 public final class PushTaskBuffer {
   private static final Logger LOGGER = LoggerFactory.getLogger(PushTaskBuffer.class);
@@ -37,6 +36,10 @@ public final class PushTaskBuffer {
   private static final int MAX_BUFFERED_SIZE =
       SystemUtils.getSystemInteger(KEY_MAX_BUFFERED_SIZE, 10000);
 
+  private static final int TICK_MILLIS = 10;
+  private static final int TICKS_PER_WHEEL = 1024;
+  private static final int IDLE_WAITING_MILLIS = 200;
+
   final BufferWorker[] workers;
 
   PushTaskBuffer(int workerSize) {
@@ -51,96 +54,83 @@ public final class PushTaskBuffer {
   boolean buffer(PushTask pushTask) {
     final BufferTaskKey key = bufferTaskKey(pushTask);
     final BufferWorker worker = workerOf(key);
-    if (worker.bufferMap.size() >= MAX_BUFFERED_SIZE) {
+    if (worker.buffer.size() >= MAX_BUFFERED_SIZE) {
+      return false;
+    }
+    final boolean idle = worker.buffer.isEmpty();
+    // the merger runs in the lock of the buffer, keep the prev and log it after the put
+    final PushTask[] prevs = new PushTask[1];
+    final boolean buffered =
+        worker.buffer.put(
+            key,
+            pushTask,
+            (prev, task) -> {
+              prevs[0] = prev;
+              if (!task.afterThan(prev)) {
+                return null;
+              }
+              // update the expireTimestamp as prev's, avoid the push block by the continues fire
+              task.expireTimestamp = prev.expireTimestamp;
+              return task;
+            });
+    final PushTask prev = prevs[0];
+    if (!buffered) {
+      BUFFER_SKIP_COUNTER.inc();
+      LOGGER.info(
+          "[SkipBuffer]key={},prev={},ver={}/{},now={},ver={}/{},retry={}",
+          key,
+          prev.taskID,
+          prev.datum.getVersion(),
+          prev.trace.pushCause.pushType,
+          pushTask.taskID,
+          pushTask.datum.getVersion(),
+          pushTask.trace.pushCause.pushType,
+          pushTask.retryCount);
       return false;
     }
-    if (worker.bufferMap.putIfAbsent(key, pushTask) == null) {
-      // fast path
-      wakeup(worker, pushTask);
+    if (prev != null) {
+      BUFFER_REPLACE_COUNTER.inc();
+    } else {
       BUFFER_NEW_COUNTER.inc();
-      return true;
-    }
-
-    for (; ; ) {
-      final PushTask prev = worker.bufferMap.get(key);
-      if (prev == null) {
-        if (worker.bufferMap.putIfAbsent(key, pushTask) == null) {
-          // prev has remove at this time
-          wakeup(worker, pushTask);
-          BUFFER_NEW_COUNTER.inc();
-          return true;
-        }
-      } else {
-        if (pushTask.afterThan(prev)) {
-          final long originExpireTimestamp = pushTask.expireTimestamp;
-          // update the expireTimestamp as prev's, avoid the push block by the continues fire
-          pushTask.expireTimestamp = prev.expireTimestamp;
-          if (worker.bufferMap.replace(key, prev, pushTask)) {
-            wakeup(worker, pushTask);
-            BUFFER_REPLACE_COUNTER.inc();
-            return true;
-          } else {
-            // put failed, recover the expireTimestamp
-            pushTask.expireTimestamp = originExpireTimestamp;
-          }
-        } else {
-          BUFFER_SKIP_COUNTER.inc();
-          LOGGER.info(
-              "[SkipBuffer]key={},prev={},ver={}/{},now={},ver={}/{},retry={}",
-              key,
-              prev.taskID,
-              prev.datum.getVersion(),
-              prev.trace.pushCause.pushType,
-              pushTask.taskID,
-              pushTask.datum.getVersion(),
-              prev.trace.pushCause.pushType,
-              pushTask.retryCount);
-          return false;
-        }
-      }
     }
+    wakeup(worker, pushTask, idle);
+    return true;
   }
 
-  private void wakeup(BufferWorker worker, PushTask pushTask) {
-    if (pushTask.trace.pushCause.pushType.noDelay) {
+  private void wakeup(BufferWorker worker, PushTask pushTask, boolean idle) {
+    // the idle worker waits longer than a tick, wake it to poll by the tick
+    if (idle || pushTask.trace.pushCause.pushType.noDelay) {
       worker.wakeup();
     }
   }
 
+  /** no delay task is due at once */
+  static long expireTimestampOf(PushTask task) {
+    return task.trace.pushCause.pushType.noDelay ? 0 : task.expireTimestamp;
+  }
+
   final class BufferWorker extends WakeUpLoopRunnable {
-    final Map<BufferTaskKey, PushTask> bufferMap = new ConcurrentHashMap<>(4096);
+    final TimingWheelDebouncer<BufferTaskKey, PushTask> buffer =
+        new TimingWheelDebouncer<>(TICK_MILLIS, TICKS_PER_WHEEL, PushTaskBuffer::expireTimestampOf);
 
     @Override
     public void runUnthrowable() {
       watchBuffer(this);
     }
 
+    /** poll every tick while the wheel holds tasks, the put wakes the idle worker */
     @Override
     public int getWaitingMillis() {
-      return 200;
+      return buffer.isEmpty() ? IDLE_WAITING_MILLIS : TICK_MILLIS;
     }
 
     private List<PushTask> transferAndMerge() {
-      if (bufferMap.isEmpty()) {
-        return Collections.emptyList();
-      }
-      List<PushTask> pending = Lists.newArrayListWithCapacity(1024);
-      final long now = System.currentTimeMillis();
-      for (Map.Entry<BufferTaskKey, PushTask> e : bufferMap.entrySet()) {
-        final PushTask task = e.getValue();
-        // no delay or expire, push immediately
-        if (task.trace.pushCause.pushType.noDelay || task.expireTimestamp <= now) {
-          pending.add(task);
-          // the task maybe update
-          bufferMap.remove(e.getKey(), task);
-        }
-      }
-      return pending;
+      return buffer.pollExpired(System.currentTimeMillis());
     }
   }
 
   int watchBuffer(BufferWorker worker) {
-    int bufferedSize = worker.bufferMap.size();
+    int bufferedSize = worker.buffer.size();
     if (bufferedSize >= MAX_BUFFERED_SIZE) {
       LOGGER.warn("arrived max buffered size: buffered={}", bufferedSize);
     }
@@ -219,7 +209,7 @@ public final class PushTaskBuffer {
   public int size() {
     int size = 0;
     for (BufferWorker w : workers) {
-      size += w.bufferMap.size();
+      size += w.buffer.size();
     }
     return size;
   }
@@ -375,25 +375,38 @@ public class SessionRegistry implements Registry {
     }
   }
 
-  private Tuple<Map<String, DatumVersion>, List<Subscriber>> selectSubscribers(
+  private Tuple<Map<Integer, Map<String, DatumVersion>>, List<Subscriber>> selectSubscribers(
       long round, String dataCenter) {
     final long start = System.currentTimeMillis();
-    Tuple<Map<String, DatumVersion>, List<Subscriber>> tuple =
-        sessionInterests.selectSubscribers(dataCenter);
+    final int fullRounds = sessionServerConfig.getScanSubscriberFullRounds();
+    // only rescan the changed dataInfoIds, and rescan all every fullRounds
+    final boolean full = fullRounds <= 1 || round % fullRounds == 0;
+    Tuple<Map<Integer, Map<String, DatumVersion>>, List<Subscriber>> tuple =
+        sessionInterests.selectSubscribersBySlot(dataCenter, full);
     SCAN_VER_LOGGER.info(
-        "[select]round={}, interestSize={}, pushEmptySize={}, span={}",
+        "[select]round={}, full={}, slots={}, interestSize={}, pushEmptySize={}, span={}",
         round,
+        full,
         tuple.o1.size(),
+        interestSize(tuple.o1),
         tuple.o2.size(),
         System.currentTimeMillis() - start);
     return tuple;
   }
 
+  private static int interestSize(Map<Integer, Map<String, DatumVersion>> interestVersions) {
+    int size = 0;
+    for (Map<String, DatumVersion> versions : interestVersions.values()) {
+      size += versions.size();
+    }
+    return size;
+  }
+
   private void scanSubscribers(long round) {
     final String dataCenter = sessionServerConfig.getSessionServerDataCenter();
-    final Tuple<Map<String, DatumVersion>, List<Subscriber>> tuple =
+    final Tuple<Map<Integer, Map<String, DatumVersion>>, List<Subscriber>> tuple =
         selectSubscribers(round, dataCenter);
-    final Map<String, DatumVersion> interestVersions = tuple.o1;
+    final Map<Integer, Map<String, DatumVersion>> interestVersions = tuple.o1;
     final List<Subscriber> toPushEmptySubscribers = tuple.o2;
     try {
       scanVersions(round, dataCenter, interestVersions);
@@ -404,11 +417,11 @@ public class SessionRegistry implements Registry {
   }
 
   private void scanVersions(
-      long round, String dataCenter, Map<String, DatumVersion> interestVersions) {
-    Map<Integer, Map<String, DatumVersion>> interestVersionsGroup = groupBySlot(interestVersions);
-
+      long round,
+      String dataCenter,
+      Map<Integer, Map<String, DatumVersion>> interestVersionsGroup) {
     Map<Integer, FetchVersionResult> resultMap =
-        Maps.newHashMapWithExpectedSize(interestVersions.size());
+        Maps.newHashMapWithExpectedSize(interestVersionsGroup.size());
     for (Map.Entry<Integer, Map<String, DatumVersion>> group : interestVersionsGroup.entrySet()) {
       final Integer slotId = group.getKey();
       try {
@@ -424,7 +437,7 @@ public class SessionRegistry implements Registry {
             slotId,
             dataCenter,
             slotTableCache.getLeader(slotId),
-            interestVersions.size(),
+            group.getValue().size(),
             0,
             "N");
 
@@ -508,22 +521,6 @@ public class SessionRegistry implements Registry {
     }
   }
 
-  private Map<Integer, Map<String, DatumVersion>> groupBySlot(
-      Map<String, DatumVersion> interestVersions) {
-    if (CollectionUtils.isEmpty(interestVersions)) {
-      return Collections.emptyMap();
-    }
-    TreeMap<Integer, Map<String, DatumVersion>> ret = Maps.newTreeMap();
-    for (Map.Entry<String, DatumVersion> interestVersion : interestVersions.entrySet()) {
-      final String dataInfoId = interestVersion.getKey();
-      Map<String, DatumVersion> map =
-          ret.computeIfAbsent(
-              slotTableCache.slotOf(dataInfoId), k -> Maps.newHashMapWithExpectedSize(256));
-      map.put(dataInfoId, interestVersion.getValue());
-    }
-    return ret;
-  }
-
   private static final class FetchVersionResult {
     final String leader;
     final int slotId;
@@ -18,11 +18,9 @@ package com.alipay.sofa.registry.server.session.remoting.handler;
 
 import com.alipay.sofa.registry.common.model.GenericResponse;
 import com.alipay.sofa.registry.common.model.Node;
-import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestRequest;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffDigestResult;
 import com.alipay.sofa.registry.common.model.slot.DataSlotDiffUtils;
-import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.remoting.Channel;
@@ -33,7 +31,6 @@ import com.alipay.sofa.registry.server.shared.env.ServerEnv;
 import com.alipay.sofa.registry.server.shared.remoting.AbstractServerHandler;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.alipay.sofa.registry.util.StringFormatter;
-import java.util.Map;
 import java.util.concurrent.Executor;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -61,13 +58,10 @@ public class DataSlotDiffDigestRequestHandler
   @Override
   public Object doHandle(Channel channel, DataSlotDiffDigestRequest request) {
     try {
-      DataSlotDiffDigestResult result =
-          calcDiffResult(
-              request.getSlotId(),
-              request.getDatumDigest(),
-              sessionDataStore.getDataInfoIdPublishers(request.getSlotId()));
+      DataSlotDiffDigestResult result = calcDiffResult(request);
       result.setSlotTableEpoch(slotTableCache.getEpoch());
       result.setSessionProcessId(ServerEnv.PROCESS_ID);
+      result.setAdditiveDigestSupported(true);
       return new GenericResponse().fillSucceed(result);
     } catch (Throwable e) {
       String msg =
@@ -82,13 +76,17 @@ public class DataSlotDiffDigestRequestHandler
     return new GenericResponse().fillFailed(msg);
   }
 
-  private DataSlotDiffDigestResult calcDiffResult(
-      int targetSlot,
-      Map<String, DatumDigest> digestMap,
-      Map<String, Map<String, Publisher>> existingPublishers) {
-
-    DataSlotDiffDigestResult result =
-        DataSlotDiffUtils.diffDigestResult(digestMap, existingPublishers);
+  private DataSlotDiffDigestResult calcDiffResult(DataSlotDiffDigestRequest request) {
+    final int targetSlot = request.getSlotId();
+    DataSlotDiffDigestResult result;
+    if (request.isAdditiveDigest()) {
+      // the digests are precomputed, no need to copy the publishers
+      result = DataSlotDiffUtils.diffDigest(request, sessionDataStore.getDatumDigests(targetSlot));
+    } else {
+      result =
+          DataSlotDiffUtils.diffDigestResult(
+              request.getDatumDigest(), sessionDataStore.getDataInfoIdPublishers(targetSlot));
+    }
     DataSlotDiffUtils.logDiffResult(result, targetSlot);
     return result;
   }
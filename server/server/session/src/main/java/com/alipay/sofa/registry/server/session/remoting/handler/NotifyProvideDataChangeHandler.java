@@ -19,6 +19,7 @@ package com.alipay.sofa.registry.server.session.remoting.handler;
 import com.alipay.sofa.registry.common.model.Node.NodeType;
 import com.alipay.sofa.registry.common.model.metaserver.ProvideDataChangeEvent;
 import com.alipay.sofa.registry.remoting.Channel;
+import com.alipay.sofa.registry.server.session.providedata.ConfigProvideDataWatcher;
 import com.alipay.sofa.registry.server.shared.providedata.SystemPropertyProcessorManager;
 import com.alipay.sofa.registry.server.shared.remoting.AbstractClientHandler;
 import java.util.concurrent.Executor;
@@ -35,6 +36,8 @@ public class NotifyProvideDataChangeHandler extends AbstractClientHandler<Provid
 
   @Autowired SystemPropertyProcessorManager systemPropertyProcessorManager;
 
+  @Autowired ConfigProvideDataWatcher configProvideDataWatcher;
+
   @Override
   protected NodeType getConnectNodeType() {
     return NodeType.META;
@@ -46,6 +49,8 @@ public class NotifyProvideDataChangeHandler extends AbstractClientHandler<Provid
 
     // system data do fetch
     systemPropertyProcessorManager.doFetch(notifyDataInfoId);
+    // watched config data do fetch
+    configProvideDataWatcher.notifyChange(notifyDataInfoId, provideDataChangeEvent.getVersion());
     return null;
   }
 
@@ -52,12 +52,14 @@ public abstract class AbstractDataManager<T extends BaseInfo>
     final String registerId = data.getRegisterId();
     // quick path
     if (dataMap.putIfAbsent(registerId, data) == null) {
+      onChange(null, data);
       return new Tuple<>(null, true);
     }
     for (; ; ) {
       final T existing = dataMap.get(registerId);
       if (existing == null) {
         if (dataMap.putIfAbsent(registerId, data) == null) {
+          onChange(null, data);
           return new Tuple<>(null, true);
         }
       } else {
@@ -73,6 +75,7 @@ public abstract class AbstractDataManager<T extends BaseInfo>
           return new Tuple<>(existing, false);
         }
         if (dataMap.replace(registerId, existing, data)) {
+          onChange(existing, data);
           return new Tuple<>(existing, true);
         }
       }
@@ -94,6 +97,8 @@ public abstract class AbstractDataManager<T extends BaseInfo>
 
     if (dataToDelete == null) {
       logger.warn("Delete but not registered, {}, {}", dataInfoId, registerId);
+    } else {
+      onChange(dataToDelete, null);
     }
     return dataToDelete;
   }
@@ -112,6 +117,7 @@ public abstract class AbstractDataManager<T extends BaseInfo>
         continue;
       }
       if (dataMap.remove(pos.getRegisterId(), data)) {
+        onChange(data, null);
         ret.put(data.getRegisterId(), data);
       }
     }
@@ -233,6 +239,14 @@ public abstract class AbstractDataManager<T extends BaseInfo>
 
   protected abstract Store<T> getStore();
 
+  /**
+   * called after the data in store is replaced, the calls of different data may be out of order
+   *
+   * @param prev null if the data is added
+   * @param now null if the data is removed
+   */
+  protected void onChange(T prev, T now) {}
+
   class ConnectDataIndexer extends DataIndexer<ConnectId, DataPos> {
 
     public ConnectDataIndexer(String name) {
@@ -16,6 +16,7 @@
  */
 package com.alipay.sofa.registry.server.session.store;
 
+import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import java.util.Map;
 
@@ -27,4 +28,12 @@ public interface DataStore extends DataManager<Publisher, String, String> {
 
   Map<String /*dataInfoId*/, Map<String /*registerId*/, Publisher>> getDataInfoIdPublishers(
       int slotId);
+
+  /**
+   * the digests are maintained incrementally when the publishers change
+   *
+   * @param slotId
+   * @return the additive digests of the dataInfoIds which have publishers
+   */
+  Map<String /*dataInfoId*/, DatumDigest> getDatumDigests(int slotId);
 }
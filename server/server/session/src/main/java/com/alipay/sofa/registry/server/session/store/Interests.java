@@ -45,6 +45,25 @@ public interface Interests extends DataManager<Subscriber, String, String> {
 
   Tuple<Map<String, DatumVersion>, List<Subscriber>> selectSubscribers(String dataCenter);
 
+  /**
+   * select the max pushed versions grouped by slot and the subscribers need to push empty, only
+   * the dataInfoIds marked changed since the last select are rescanned
+   *
+   * @param dataCenter
+   * @param full rescan all the subscribers
+   * @return
+   */
+  Tuple<Map<Integer, Map<String, DatumVersion>>, List<Subscriber>> selectSubscribersBySlot(
+      String dataCenter, boolean full);
+
+  /**
+   * mark the push context of subscribers of the dataInfoId changed, e.g. pushed or marked push
+   * empty
+   *
+   * @param dataInfoId
+   */
+  void markChanged(String dataInfoId);
+
   Map<String, List<String>> filterIPs(String group, int limit);
 
   enum InterestVersionCheck {
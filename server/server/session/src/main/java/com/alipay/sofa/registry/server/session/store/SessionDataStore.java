@@ -18,12 +18,16 @@ package com.alipay.sofa.registry.server.session.store;
 
 import com.alipay.sofa.registry.common.model.PublisherUtils;
 import com.alipay.sofa.registry.common.model.Tuple;
+import com.alipay.sofa.registry.common.model.dataserver.AdditiveDatumDigest;
+import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.server.session.slot.SlotTableCache;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+import java.util.Collections;
 import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -39,6 +43,8 @@ public class SessionDataStore extends AbstractDataManager<Publisher> implements
 
   private final SlotStore<Publisher> store = new SlotStore<>(this::slotOf);
 
+  private final Map<Integer, Map<String, AdditiveDatumDigest>> digests = Maps.newConcurrentMap();
+
   public SessionDataStore() {
     super(LOGGER);
   }
@@ -58,6 +64,53 @@ public class SessionDataStore extends AbstractDataManager<Publisher> implements
     return store.copyMap(slotId);
   }
 
+  @Override
+  public Map<String, DatumDigest> getDatumDigests(int slotId) {
+    Map<String, AdditiveDatumDigest> slotDigests = digests.get(slotId);
+    if (slotDigests == null) {
+      return Collections.emptyMap();
+    }
+    Map<String, DatumDigest> ret = Maps.newHashMapWithExpectedSize(slotDigests.size());
+    for (Map.Entry<String, AdditiveDatumDigest> e : slotDigests.entrySet()) {
+      ret.put(e.getKey(), e.getValue().toDigest());
+    }
+    return ret;
+  }
+
+  @Override
+  protected void onChange(Publisher prev, Publisher now) {
+    final String dataInfoId = prev != null ? prev.getDataInfoId() : now.getDataInfoId();
+    // remove the empty digest and the empty slot in the same compute, avoid racing with add
+    digests.compute(
+        slotOf(dataInfoId),
+        (slotId, slotDigests) -> {
+          if (slotDigests == null) {
+            slotDigests = Maps.newConcurrentMap();
+          }
+          slotDigests.compute(
+              dataInfoId,
+              (k, digest) -> {
+                if (digest == null) {
+                  digest = new AdditiveDatumDigest();
+                }
+                if (prev != null) {
+                  digest.remove(prev.getRegisterId(), prev.registerVersion());
+                }
+                if (now != null) {
+                  digest.add(now.getRegisterId(), now.registerVersion());
+                }
+                // keep the signs left by the out of order changes, they are added back later
+                return digest.isEmpty() ? null : digest;
+              });
+          return slotDigests.isEmpty() ? null : slotDigests;
+        });
+  }
+
+  @VisibleForTesting
+  int digestSlotNum() {
+    return digests.size();
+  }
+
   @Override
   protected Store<Publisher> getStore() {
     return store;
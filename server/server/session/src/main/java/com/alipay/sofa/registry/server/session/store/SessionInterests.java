@@ -18,6 +18,8 @@ package com.alipay.sofa.registry.server.session.store;
 
 import com.alipay.sofa.registry.common.model.Tuple;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.func.SlotFunction;
+import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
 import com.alipay.sofa.registry.common.model.store.Subscriber;
 import com.alipay.sofa.registry.core.model.ScopeEnum;
 import com.alipay.sofa.registry.log.Logger;
@@ -25,9 +27,13 @@ import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.util.CollectionUtils;
@@ -46,6 +52,11 @@ public class SessionInterests extends AbstractDataManager<Subscriber> implements
 
   private final Store<Subscriber> store = new SimpleStore<>(1024 * 16, 256);
 
+  private final SlotFunction slotFunction = SlotFunctionRegistry.getFunc();
+
+  private final Map<String /*dataCenter*/, InterestVersions> versionsByDataCenter =
+      Maps.newConcurrentMap();
+
   @Override
   public boolean add(Subscriber subscriber) {
     ParaCheckUtil.checkNotNull(subscriber.getScope(), "subscriber.scope");
@@ -78,8 +89,7 @@ public class SessionInterests extends AbstractDataManager<Subscriber> implements
 
   @Override
   public Tuple<Map<String, DatumVersion>, List<Subscriber>> selectSubscribers(String dataCenter) {
-    final String localDataCenter = sessionServerConfig.getSessionServerDataCenter();
-    final boolean isLocalDataCenter = localDataCenter.equals(dataCenter);
+    final boolean isLocalDataCenter = isLocalDataCenter(dataCenter);
     Store<Subscriber> store = getStore();
     final Map<String, DatumVersion> versions =
         Maps.newHashMapWithExpectedSize(store.getDataInfoIds().size());
@@ -87,31 +97,165 @@ public class SessionInterests extends AbstractDataManager<Subscriber> implements
 
     store.forEach(
         (String dataInfoId, Map<String, Subscriber> subs) -> {
-          if (CollectionUtils.isEmpty(subs)) {
-            return;
-          }
-          long maxVersion = 0;
-          for (Subscriber sub : subs.values()) {
-            // not global sub and not local dataCenter, not interest the other dataCenter's pub
-            if (sub.getScope() != ScopeEnum.global && !isLocalDataCenter) {
-              continue;
-            }
-            if (sub.isMarkedPushEmpty(dataCenter)) {
-              if (sub.needPushEmpty(dataCenter)) {
-                toPushEmptySubscribers.add(sub);
-              }
-              continue;
-            }
-            final long pushVersion = sub.getPushedVersion(dataCenter);
-            if (maxVersion < pushVersion) {
-              maxVersion = pushVersion;
-            }
+          final long maxVersion =
+              selectMaxVersion(subs, dataCenter, isLocalDataCenter, toPushEmptySubscribers);
+          if (maxVersion >= 0) {
+            versions.put(dataInfoId, new DatumVersion(maxVersion));
           }
-          versions.put(dataInfoId, new DatumVersion(maxVersion));
         });
     return Tuple.of(versions, toPushEmptySubscribers);
   }
 
+  @Override
+  public Tuple<Map<Integer, Map<String, DatumVersion>>, List<Subscriber>> selectSubscribersBySlot(
+      String dataCenter, boolean full) {
+    InterestVersions interestVersions = versionsByDataCenter.get(dataCenter);
+    if (interestVersions == null) {
+      interestVersions =
+          versionsByDataCenter.computeIfAbsent(dataCenter, k -> new InterestVersions(dataCenter));
+    }
+    return interestVersions.select(full);
+  }
+
+  @Override
+  public void markChanged(String dataInfoId) {
+    for (InterestVersions interestVersions : versionsByDataCenter.values()) {
+      interestVersions.changedDataInfoIds.add(dataInfoId);
+    }
+  }
+
+  @Override
+  protected void onChange(Subscriber prev, Subscriber now) {
+    markChanged(now != null ? now.getDataInfoId() : prev.getDataInfoId());
+  }
+
+  private boolean isLocalDataCenter(String dataCenter) {
+    return sessionServerConfig.getSessionServerDataCenter().equals(dataCenter);
+  }
+
+  /** @return the max pushed version of the subs, -1 if the subs is empty */
+  private static long selectMaxVersion(
+      Map<String, Subscriber> subs,
+      String dataCenter,
+      boolean isLocalDataCenter,
+      List<Subscriber> toPushEmptySubscribers) {
+    if (CollectionUtils.isEmpty(subs)) {
+      return -1;
+    }
+    long maxVersion = 0;
+    for (Subscriber sub : subs.values()) {
+      // not global sub and not local dataCenter, not interest the other dataCenter's pub
+      if (sub.getScope() != ScopeEnum.global && !isLocalDataCenter) {
+        continue;
+      }
+      if (sub.isMarkedPushEmpty(dataCenter)) {
+        if (sub.needPushEmpty(dataCenter)) {
+          toPushEmptySubscribers.add(sub);
+        }
+        continue;
+      }
+      final long pushVersion = sub.getPushedVersion(dataCenter);
+      if (maxVersion < pushVersion) {
+        maxVersion = pushVersion;
+      }
+    }
+    return maxVersion;
+  }
+
+  /**
+   * the max pushed versions of one dataCenter, kept up to date by rescanning the changed
+   * dataInfoIds. the slot maps are immutable after published, a changed slot is copied
+   */
+  private final class InterestVersions {
+    final String dataCenter;
+    final Set<String> changedDataInfoIds = Sets.newConcurrentHashSet();
+    // the dataInfoIds has subscribers waiting for push empty, recheck them on next select
+    final Set<String> pushEmptyDataInfoIds = Sets.newHashSet();
+    final Map<Integer, Map<String, DatumVersion>> slotVersions = Maps.newTreeMap();
+    boolean initialized;
+
+    InterestVersions(String dataCenter) {
+      this.dataCenter = dataCenter;
+    }
+
+    synchronized Tuple<Map<Integer, Map<String, DatumVersion>>, List<Subscriber>> select(
+        boolean full) {
+      final boolean isLocalDataCenter = isLocalDataCenter(dataCenter);
+      final List<Subscriber> toPushEmptySubscribers = Lists.newArrayListWithCapacity(256);
+      if (full || !initialized) {
+        // clear before scan, the changes during scanning would be rescanned next time
+        changedDataInfoIds.clear();
+        pushEmptyDataInfoIds.clear();
+        final Map<Integer, Map<String, DatumVersion>> versions = Maps.newHashMap();
+        getStore()
+            .forEach(
+                (String dataInfoId, Map<String, Subscriber> subs) -> {
+                  final long maxVersion =
+                      rescan(dataInfoId, subs, isLocalDataCenter, toPushEmptySubscribers);
+                  if (maxVersion >= 0) {
+                    versions
+                        .computeIfAbsent(slotFunction.slotOf(dataInfoId), k -> Maps.newHashMap())
+                        .put(dataInfoId, new DatumVersion(maxVersion));
+                  }
+                });
+        slotVersions.clear();
+        slotVersions.putAll(versions);
+        initialized = true;
+      } else {
+        final Set<String> dataInfoIds = Sets.newHashSet(pushEmptyDataInfoIds);
+        pushEmptyDataInfoIds.clear();
+        final Iterator<String> it = changedDataInfoIds.iterator();
+        while (it.hasNext()) {
+          dataInfoIds.add(it.next());
+          it.remove();
+        }
+        final Map<Integer, Map<String, DatumVersion>> changes = Maps.newHashMap();
+        for (String dataInfoId : dataInfoIds) {
+          final int slotId = slotFunction.slotOf(dataInfoId);
+          Map<String, DatumVersion> versions = changes.get(slotId);
+          if (versions == null) {
+            // copy on write, the published slot map maybe in sending
+            versions = Maps.newHashMap(slotVersions.getOrDefault(slotId, Collections.emptyMap()));
+            changes.put(slotId, versions);
+          }
+          final long maxVersion =
+              rescan(
+                  dataInfoId,
+                  getStore().get(dataInfoId),
+                  isLocalDataCenter,
+                  toPushEmptySubscribers);
+          if (maxVersion >= 0) {
+            versions.put(dataInfoId, new DatumVersion(maxVersion));
+          } else {
+            versions.remove(dataInfoId);
+          }
+        }
+        for (Map.Entry<Integer, Map<String, DatumVersion>> e : changes.entrySet()) {
+          if (e.getValue().isEmpty()) {
+            slotVersions.remove(e.getKey());
+          } else {
+            slotVersions.put(e.getKey(), e.getValue());
+          }
+        }
+      }
+      return Tuple.of(Maps.newTreeMap(slotVersions), toPushEmptySubscribers);
+    }
+
+    private long rescan(
+        String dataInfoId,
+        Map<String, Subscriber> subs,
+        boolean isLocalDataCenter,
+        List<Subscriber> toPushEmptySubscribers) {
+      final int pushEmptySize = toPushEmptySubscribers.size();
+      final long maxVersion =
+          selectMaxVersion(subs, dataCenter, isLocalDataCenter, toPushEmptySubscribers);
+      if (toPushEmptySubscribers.size() != pushEmptySize) {
+        pushEmptyDataInfoIds.add(dataInfoId);
+      }
+      return maxVersion;
+    }
+  }
+
   @Override
   protected Store<Subscriber> getStore() {
     return store;
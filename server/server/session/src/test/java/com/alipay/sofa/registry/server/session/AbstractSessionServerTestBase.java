@@ -640,5 +640,10 @@ public class AbstractSessionServerTestBase extends AbstractTestBase {
     public Map<String, PersistenceData> getAll() {
       return Maps.newHashMap(localRepo);
     }
+
+    @Override
+    public Map<String, PersistenceData> getAllFromCache() {
+      return getAll();
+    }
   }
 }
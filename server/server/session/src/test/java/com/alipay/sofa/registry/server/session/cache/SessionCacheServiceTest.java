@@ -17,9 +17,15 @@
 package com.alipay.sofa.registry.server.session.cache;
 
 import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
+import com.alipay.sofa.registry.common.model.store.SubPublisher;
 import com.alipay.sofa.registry.server.session.TestUtils;
 import com.alipay.sofa.registry.server.session.node.service.DataNodeService;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import org.assertj.core.util.Lists;
 import org.junit.Assert;
 import org.junit.Test;
@@ -84,4 +90,213 @@ public class SessionCacheServiceTest {
       cacheService.getValue(key);
     }
   }
+
+  @Test
+  public void testRefresh() {
+    SessionCacheService cacheService = new SessionCacheService();
+    cacheService.sessionServerConfig = TestUtils.newSessionConfig(dataCenter);
+
+    DatumCacheGenerator generator = new DatumCacheGenerator();
+    cacheService.setCacheGenerators(Collections.singletonMap(DatumKey.class.getName(), generator));
+    generator.dataNodeService = Mockito.mock(DataNodeService.class);
+    cacheService.init();
+
+    Key key = new Key(DatumKey.class.getName(), new DatumKey(dataInfoId, dataCenter));
+    SubPublisher pub1 = TestUtils.newSubPublisher(1, System.currentTimeMillis());
+    SubPublisher pub2 = TestUtils.newSubPublisher(1, System.currentTimeMillis());
+    SubDatum subDatum = TestUtils.newSubDatum("testDataId", 100, Lists.newArrayList(pub1, pub2));
+    Mockito.when(generator.dataNodeService.fetch(Mockito.anyString(), Mockito.anyString()))
+        .thenReturn(subDatum);
+    Value stale = cacheService.getValue(key);
+    Assert.assertEquals(stale.getPayload(), subDatum);
+
+    // patch the stale
+    SubPublisher pub3 = TestUtils.newSubPublisher(1, System.currentTimeMillis());
+    Mockito.when(
+            generator.dataNodeService.fetchDelta(
+                Mockito.anyString(), Mockito.anyString(), Mockito.anyLong()))
+        .thenReturn(
+            SubDatumDelta.deltaOf(
+                dataInfoId,
+                dataCenter,
+                100,
+                200,
+                2,
+                Lists.newArrayList(pub3),
+                Lists.newArrayList(pub1.getRegisterId()),
+                Collections.emptyList()));
+    Value value = cacheService.refresh(key, stale);
+    SubDatum patched = (SubDatum) value.getPayload();
+    Assert.assertEquals(patched.getVersion(), 200);
+    Assert.assertEquals(patched.getPubNum(), 2);
+    Assert.assertEquals(patched.mustGetPublishers().get(0), pub2);
+    Assert.assertEquals(patched.mustGetPublishers().get(1), pub3);
+    Assert.assertEquals(cacheService.getValueIfPresent(key), value);
+    Mockito.verify(generator.dataNodeService, Mockito.times(1))
+        .fetch(Mockito.anyString(), Mockito.anyString());
+
+    // patched mismatch, fetch the whole datum
+    Mockito.when(
+            generator.dataNodeService.fetchDelta(
+                Mockito.anyString(), Mockito.anyString(), Mockito.anyLong()))
+        .thenReturn(
+            SubDatumDelta.deltaOf(
+                dataInfoId,
+                dataCenter,
+                200,
+                300,
+                3,
+                Collections.emptyList(),
+                Collections.emptyList(),
+                Collections.emptyList()));
+    value = cacheService.refresh(key, value);
+    Assert.assertEquals(value.getPayload(), subDatum);
+    Mockito.verify(generator.dataNodeService, Mockito.times(2))
+        .fetch(Mockito.anyString(), Mockito.anyString());
+
+    // the delta is trimmed, got the whole datum
+    SubDatum full = TestUtils.newSubDatum("testDataId", 400, Lists.newArrayList(pub1));
+    Mockito.when(
+            generator.dataNodeService.fetchDelta(
+                Mockito.anyString(), Mockito.anyString(), Mockito.anyLong()))
+        .thenReturn(SubDatumDelta.fullOf(dataInfoId, dataCenter, full));
+    value = cacheService.refresh(key, value);
+    Assert.assertEquals(value.getPayload(), full);
+    Assert.assertEquals(cacheService.getValueIfPresent(key), value);
+  }
+
+  @Test
+  public void testRefreshAsync() throws Exception {
+    SessionCacheService cacheService = new SessionCacheService();
+    cacheService.sessionServerConfig = TestUtils.newSessionConfig(dataCenter);
+
+    DatumCacheGenerator generator = new DatumCacheGenerator();
+    cacheService.setCacheGenerators(Collections.singletonMap(DatumKey.class.getName(), generator));
+    generator.dataNodeService = Mockito.mock(DataNodeService.class);
+    cacheService.init();
+
+    Key key = new Key(DatumKey.class.getName(), new DatumKey(dataInfoId, dataCenter));
+    SubPublisher pub1 = TestUtils.newSubPublisher(1, System.currentTimeMillis());
+    SubPublisher pub2 = TestUtils.newSubPublisher(1, System.currentTimeMillis());
+    SubDatum subDatum = TestUtils.newSubDatum("testDataId", 100, Lists.newArrayList(pub1, pub2));
+    CompletableFuture<SubDatum> fetching = new CompletableFuture<>();
+    Mockito.when(generator.dataNodeService.fetchAsync(Mockito.anyString(), Mockito.anyString()))
+        .thenReturn(fetching);
+
+    // the concurrent loads share the pending one
+    CompletableFuture<Value> f1 = cacheService.refreshAsync(key, null);
+    CompletableFuture<Value> f2 = cacheService.refreshAsync(key, null);
+    Assert.assertSame(f1, f2);
+    Assert.assertFalse(f1.isDone());
+    Assert.assertNull(cacheService.getValueIfPresent(key));
+    Mockito.verify(generator.dataNodeService, Mockito.times(1))
+        .fetchAsync(Mockito.anyString(), Mockito.anyString());
+
+    fetching.complete(subDatum);
+    Value stale = f1.get();
+    Assert.assertEquals(stale.getPayload(), subDatum);
+    Assert.assertEquals(cacheService.getValueIfPresent(key), stale);
+
+    // the load is done, a new one started
+    Mockito.when(generator.dataNodeService.fetchAsync(Mockito.anyString(), Mockito.anyString()))
+        .thenReturn(CompletableFuture.completedFuture(subDatum));
+    Assert.assertNotSame(cacheService.refreshAsync(key, null), f1);
+
+    // patch the stale
+    SubPublisher pub3 = TestUtils.newSubPublisher(1, System.currentTimeMillis());
+    Mockito.when(
+            generator.dataNodeService.fetchDeltaAsync(
+                Mockito.anyString(), Mockito.anyString(), Mockito.anyLong()))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                SubDatumDelta.deltaOf(
+                    dataInfoId,
+                    dataCenter,
+                    100,
+                    200,
+                    2,
+                    Lists.newArrayList(pub3),
+                    Lists.newArrayList(pub1.getRegisterId()),
+                    Collections.emptyList())));
+    stale = cacheService.getValueIfPresent(key);
+    Value value = cacheService.refreshAsync(key, stale).get();
+    SubDatum patched = (SubDatum) value.getPayload();
+    Assert.assertEquals(patched.getVersion(), 200);
+    Assert.assertEquals(patched.mustGetPublishers().get(1), pub3);
+    Assert.assertEquals(cacheService.getValueIfPresent(key), value);
+
+    // patched mismatch, fetch the whole datum
+    Mockito.when(
+            generator.dataNodeService.fetchDeltaAsync(
+                Mockito.anyString(), Mockito.anyString(), Mockito.anyLong()))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                SubDatumDelta.deltaOf(
+                    dataInfoId,
+                    dataCenter,
+                    200,
+                    300,
+                    3,
+                    Collections.emptyList(),
+                    Collections.emptyList(),
+                    Collections.emptyList())));
+    value = cacheService.refreshAsync(key, value).get();
+    Assert.assertEquals(value.getPayload(), subDatum);
+
+    // failed, the cache not changed
+    CompletableFuture<SubDatumDelta> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new RuntimeException("test"));
+    Mockito.when(
+            generator.dataNodeService.fetchDeltaAsync(
+                Mockito.anyString(), Mockito.anyString(), Mockito.anyLong()))
+        .thenReturn(failed);
+    CompletableFuture<Value> f3 = cacheService.refreshAsync(key, value);
+    Assert.assertTrue(f3.isCompletedExceptionally());
+    try {
+      f3.get();
+      Assert.fail();
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof CacheAccessException);
+    }
+    Assert.assertEquals(cacheService.getValueIfPresent(key), value);
+  }
+
+  @Test
+  public void testRefreshAsyncInBatch() throws Exception {
+    SessionCacheService cacheService = new SessionCacheService();
+    cacheService.sessionServerConfig = TestUtils.newSessionConfig(dataCenter);
+
+    DatumCacheGenerator generator = new DatumCacheGenerator();
+    cacheService.setCacheGenerators(Collections.singletonMap(DatumKey.class.getName(), generator));
+    generator.dataNodeService = Mockito.mock(DataNodeService.class);
+    cacheService.init();
+
+    final String dataInfoId2 = dataInfoId + "2";
+    Key key1 = new Key(DatumKey.class.getName(), new DatumKey(dataInfoId, dataCenter));
+    Key key2 = new Key(DatumKey.class.getName(), new DatumKey(dataInfoId2, dataCenter));
+    SubDatum subDatum1 = TestUtils.newSubDatum(dataInfoId, 100, Collections.emptyList());
+    SubDatum subDatum2 = TestUtils.newSubDatum(dataInfoId2, 200, Collections.emptyList());
+    Map<String, CompletableFuture<SubDatumDelta>> deltas = new HashMap<>();
+    deltas.put(
+        dataInfoId,
+        CompletableFuture.completedFuture(SubDatumDelta.fullOf(dataInfoId, dataCenter, subDatum1)));
+    deltas.put(
+        dataInfoId2,
+        CompletableFuture.completedFuture(
+            SubDatumDelta.fullOf(dataInfoId2, dataCenter, subDatum2)));
+    Mockito.when(generator.dataNodeService.fetchDeltasAsync(Mockito.anyString(), Mockito.anyMap()))
+        .thenReturn(deltas);
+
+    Map<Key, Value> stales = new HashMap<>();
+    stales.put(key1, null);
+    stales.put(key2, null);
+    Map<Key, CompletableFuture<Value>> futures = cacheService.refreshAsync(stales);
+    // the keys are fetched in one call
+    Mockito.verify(generator.dataNodeService, Mockito.times(1))
+        .fetchDeltasAsync(Mockito.anyString(), Mockito.anyMap());
+    Assert.assertEquals(futures.get(key1).get().getPayload(), subDatum1);
+    Assert.assertEquals(futures.get(key2).get().getPayload(), subDatum2);
+    Assert.assertEquals(cacheService.getValueIfPresent(key1), futures.get(key1).get());
+    Assert.assertEquals(cacheService.getValueIfPresent(key2), futures.get(key2).get());
+  }
 }
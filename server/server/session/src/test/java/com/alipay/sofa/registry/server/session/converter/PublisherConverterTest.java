@@ -48,5 +48,6 @@ public class PublisherConverterTest {
     ServerDataBox box = publisher.getDataList().get(0);
     box.extract();
     Assert.assertEquals(box.getObject(), "testDataBox");
+    Assert.assertEquals(ServerDataBox.SERIALIZED_BY_JAVA, box.getSerialization());
   }
 }
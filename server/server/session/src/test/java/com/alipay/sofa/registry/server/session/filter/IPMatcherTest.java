@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.filter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IPMatcherTest {
+
+  @Test
+  public void testParse() {
+    Assert.assertEquals(0x0A010203L, IPMatcher.parseIPv4("10.1.2.3"));
+    Assert.assertEquals(0xFFFFFFFFL, IPMatcher.parseIPv4("255.255.255.255"));
+    Assert.assertEquals(-1, IPMatcher.parseIPv4("256.1.1.1"));
+    Assert.assertEquals(-1, IPMatcher.parseIPv4("1.1.1"));
+    Assert.assertEquals(-1, IPMatcher.parseIPv4("1.1.1.1.1"));
+    Assert.assertEquals(-1, IPMatcher.parseIPv4("1..1.1"));
+    Assert.assertEquals(-1, IPMatcher.parseIPv4("::ffff:1.1.1.1"));
+  }
+
+  @Test
+  public void testMatch() {
+    IPMatcher.Builder<String> builder = IPMatcher.builder();
+    Assert.assertTrue(builder.add("1.1.1.1", "full"));
+    Assert.assertTrue(builder.add("10.0.0.0/8", "a"));
+    Assert.assertTrue(builder.add("10.1.0.0/16", "b"));
+    Assert.assertTrue(builder.add("fe80::1", "v6"));
+    Assert.assertFalse(builder.add("10.1.0.0/33", "c"));
+    Assert.assertFalse(builder.add("10.1.0/16", "c"));
+    Assert.assertFalse(builder.add("10.1.0.0/x", "c"));
+    IPMatcher<String> matcher = builder.build();
+
+    Assert.assertEquals(2, matcher.subnetSize());
+    Assert.assertEquals(2, matcher.fulls().size());
+    Assert.assertEquals("full", matcher.match("1.1.1.1"));
+    Assert.assertEquals("v6", matcher.match("fe80::1"));
+    Assert.assertEquals("a", matcher.match("10.2.3.4"));
+    // longest prefix
+    Assert.assertEquals("b", matcher.match("10.1.3.4"));
+    Assert.assertNull(matcher.match("11.1.3.4"));
+    Assert.assertNull(matcher.match("1.1.1.2"));
+    Assert.assertNull(matcher.match(null));
+    Assert.assertFalse(matcher.contains("fe80::2"));
+
+    IPMatcher.Builder<String> all = IPMatcher.builder();
+    all.addSubnet("0.0.0.0/0", "all");
+    Assert.assertEquals("all", all.build().match("192.168.1.1"));
+
+    Assert.assertTrue(IPMatcher.empty().isEmpty());
+    Assert.assertNull(IPMatcher.empty().match("1.1.1.1"));
+  }
+
+  @Test
+  public void testGrow() {
+    IPMatcher.Builder<Integer> builder = IPMatcher.builder();
+    for (int i = 0; i < 256; i++) {
+      Assert.assertTrue(builder.addSubnet("10." + i + ".0.0/16", i));
+    }
+    IPMatcher<Integer> matcher = builder.build();
+    Assert.assertEquals(256, matcher.subnetSize());
+    for (int i = 0; i < 256; i++) {
+      Assert.assertEquals(i, matcher.match("10." + i + ".1.1").intValue());
+    }
+  }
+
+  @Test
+  public void testSingleSubnet() {
+    IPMatcher.Builder<String> builder = IPMatcher.builder();
+    Assert.assertTrue(builder.addSubnet("10.1.2.0/24", "a"));
+    IPMatcher<String> matcher = builder.build();
+    Assert.assertEquals("a", matcher.match("10.1.2.3"));
+    Assert.assertEquals("a", matcher.match("10.1.2.255"));
+    Assert.assertNull(matcher.match("10.1.3.3"));
+
+    builder = IPMatcher.builder();
+    Assert.assertTrue(builder.addSubnet("10.1.2.3/32", "b"));
+    matcher = builder.build();
+    Assert.assertEquals("b", matcher.match("10.1.2.3"));
+    Assert.assertNull(matcher.match("10.1.2.4"));
+  }
+
+  @Test
+  public void testMixedPrefix() {
+    IPMatcher.Builder<String> builder = IPMatcher.builder();
+    Assert.assertTrue(builder.addSubnet("192.168.1.0/24", "a"));
+    Assert.assertTrue(builder.addSubnet("172.16.0.0/12", "b"));
+    Assert.assertTrue(builder.addSubnet("10.1.2.3/32", "c"));
+    Assert.assertTrue(builder.addSubnet("10.0.0.0/8", "d"));
+    IPMatcher<String> matcher = builder.build();
+    Assert.assertEquals(4, matcher.subnetSize());
+    Assert.assertEquals("a", matcher.match("192.168.1.100"));
+    Assert.assertEquals("b", matcher.match("172.31.255.1"));
+    Assert.assertEquals("c", matcher.match("10.1.2.3"));
+    Assert.assertEquals("d", matcher.match("10.1.2.4"));
+    Assert.assertNull(matcher.match("192.168.2.1"));
+    Assert.assertNull(matcher.match("172.32.0.1"));
+  }
+}
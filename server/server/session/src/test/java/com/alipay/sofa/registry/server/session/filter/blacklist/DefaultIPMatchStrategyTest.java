@@ -32,11 +32,13 @@ public class DefaultIPMatchStrategyTest {
     strategy.setFetchBlackListService(mgr);
     mgr.getBlacklistConfigList()
         .add(getIpConfig(BlacklistConstants.FORBIDDEN_PUB + "1", Collections.emptyList()));
+    refresh(mgr);
 
     Assert.assertFalse(strategy.match("192.168.1.1", () -> BlacklistConstants.FORBIDDEN_PUB));
 
     mgr.getBlacklistConfigList()
         .add(getIpConfig(BlacklistConstants.FORBIDDEN_PUB, Collections.emptyList()));
+    refresh(mgr);
     Assert.assertFalse(strategy.match("192.168.1.1", () -> BlacklistConstants.FORBIDDEN_PUB));
 
     List<MatchType> types = Lists.newArrayList();
@@ -44,9 +46,11 @@ public class DefaultIPMatchStrategyTest {
     m.setType(BlacklistConstants.IP_FULL);
     types.add(m);
     mgr.getBlacklistConfigList().add(getIpConfig(BlacklistConstants.FORBIDDEN_PUB, types));
+    refresh(mgr);
     Assert.assertFalse(strategy.match("192.168.1.1", () -> BlacklistConstants.FORBIDDEN_PUB));
 
     m.setPatternSet(Sets.newSet("192.168.1.2"));
+    refresh(mgr);
     Assert.assertFalse(strategy.match("192.168.1.1", () -> BlacklistConstants.FORBIDDEN_PUB));
 
     m.setPatternSet(Sets.newSet("192.168.1.2", "192.168.1.1"));
@@ -55,9 +59,34 @@ public class DefaultIPMatchStrategyTest {
         mgr.getBlacklistConfigList().toString(),
         mgr.getBlacklistConfigList().toString().contains("192.168.1.1"));
 
+    refresh(mgr);
     Assert.assertTrue(strategy.match("192.168.1.1", () -> BlacklistConstants.FORBIDDEN_PUB));
   }
 
+  @Test
+  public void testSubnet() {
+    DefaultIPMatchStrategy strategy = new DefaultIPMatchStrategy();
+    FetchBlackListService mgr = new FetchBlackListService();
+    strategy.setFetchBlackListService(mgr);
+
+    List<MatchType> types = Lists.newArrayList();
+    MatchType m = new MatchType();
+    m.setType(BlacklistConstants.IP_SUBNET);
+    m.setPatternSet(Sets.newSet("10.1.0.0/16", "illegal/16"));
+    types.add(m);
+    mgr.getBlacklistConfigList().add(getIpConfig(BlacklistConstants.FORBIDDEN_PUB, types));
+    refresh(mgr);
+    Assert.assertTrue(strategy.match("10.1.2.3", () -> BlacklistConstants.FORBIDDEN_PUB));
+    Assert.assertFalse(strategy.match("10.2.2.3", () -> BlacklistConstants.FORBIDDEN_PUB));
+    Assert.assertFalse(
+        strategy.match("10.1.2.3", () -> BlacklistConstants.FORBIDDEN_SUB_BY_PREFIX));
+  }
+
+  private static void refresh(FetchBlackListService mgr) {
+    // the configs are compiled when updated
+    mgr.setBlacklistConfigList(mgr.getBlacklistConfigList());
+  }
+
   private BlacklistConfig getIpConfig(String type, List<MatchType> matchTypes) {
     BlacklistConfig cfg = new BlacklistConfig();
     cfg.setType(type);
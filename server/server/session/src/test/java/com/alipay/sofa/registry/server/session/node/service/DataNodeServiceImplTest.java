@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.server.session.node.service;
+
+import com.alipay.remoting.rpc.exception.InvokeServerException;
+import com.alipay.remoting.rpc.exception.InvokeTimeoutException;
+import com.alipay.remoting.rpc.exception.RpcServerException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DataNodeServiceImplTest {
+
+  @Test
+  public void testBatchGetUnsupported() {
+    Assert.assertTrue(
+        DataNodeServiceImpl.isBatchGetUnsupported(
+            new InvokeServerException(
+                "Server exception!",
+                new RpcServerException("No user processor found for request: xx"))));
+    Assert.assertTrue(
+        DataNodeServiceImpl.isBatchGetUnsupported(
+            new RuntimeException(new RuntimeException("Unknown request type, xx"))));
+    Assert.assertFalse(
+        DataNodeServiceImpl.isBatchGetUnsupported(new InvokeTimeoutException("timeout")));
+    Assert.assertFalse(
+        DataNodeServiceImpl.isBatchGetUnsupported(
+            new RuntimeException("BatchGetData got fail response null")));
+  }
+}
@@ -144,4 +144,34 @@ public class FetchClientOffServiceTest {
 
     Mockito.verify(connectionsService, Mockito.times(1)).closeIpConnects(anyList());
   }
+
+  @Test
+  public void testClientOpenReducedSubnet() {
+    ConnectionsService connections = mock(ConnectionsService.class);
+    FetchClientOffAddressService service = new FetchClientOffAddressService();
+    service
+        .setSessionServerConfig(sessionServerConfig)
+        .setSessionRegistry(sessionRegistry)
+        .setConnectionsService(connections);
+    // the subnet of the channel ip is removed from the client off address
+    Assert.assertTrue(
+        service.doProcess(
+            service.getStorage(),
+            new ClientOffAddressResp(
+                1L, Collections.emptyMap(), Collections.singleton("0.0.0.0/24"))));
+
+    BoltChannel boltChannel = (BoltChannel) channel;
+    boltChannel.setConnAttribute(CLIENT_OFF, Boolean.TRUE);
+    try {
+      when(connections.getAllChannel()).thenReturn(Collections.singletonList(channel));
+      when(connections.getIpFromConnectId(anyString())).thenReturn(url.getIpAddress());
+      service.processClientOpen();
+      Mockito.verify(connections, Mockito.times(1))
+          .markChannelAndGetIpConnects(
+              Collections.singleton(url.getIpAddress()), CLIENT_OFF, null);
+      Mockito.verify(connections, Mockito.times(0)).closeIpConnects(anyList());
+    } finally {
+      boltChannel.setConnAttribute(CLIENT_OFF, null);
+    }
+  }
 }
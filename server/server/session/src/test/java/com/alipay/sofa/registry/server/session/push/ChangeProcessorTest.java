@@ -39,7 +39,7 @@ public class ChangeProcessorTest {
 
     Assert.assertEquals(worker.changeDebouncingMillis, changeDebouncingMillis);
     Assert.assertEquals(worker.changeDebouncingMaxMillis, changeDebouncingMaxMillis);
-    Assert.assertNull(worker.getExpire());
+    Assert.assertTrue(worker.getExpires().isEmpty());
     worker.runUnthrowable();
 
     ChangeProcessor.ChangeHandler handler = mock(ChangeProcessor.ChangeHandler.class);
@@ -52,6 +52,8 @@ public class ChangeProcessorTest {
     // first commit
     Assert.assertTrue(worker.commitChange(key, handler, ctx));
     long now2 = System.currentTimeMillis();
+    // poll by the tick while the wheel holds tasks
+    Assert.assertTrue(worker.getWaitingMillis() < changeDebouncingMillis);
     ChangeProcessor.ChangeTask existingTask = worker.get(key);
     Assert.assertNotNull(existingTask);
     Assert.assertTrue(existingTask.toString().contains(dataInfoId));
@@ -62,7 +64,7 @@ public class ChangeProcessorTest {
         now1 + changeDebouncingMaxMillis,
         now2 + changeDebouncingMaxMillis);
 
-    Assert.assertNull(worker.getExpire());
+    Assert.assertTrue(worker.getExpires().isEmpty());
     // expectDatumVersion is less than exist
     ctx = new TriggerPushContext(dataCenter, 900, null, System.currentTimeMillis());
     Assert.assertFalse(worker.commitChange(key, handler, ctx));
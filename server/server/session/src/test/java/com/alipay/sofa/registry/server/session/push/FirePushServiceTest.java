@@ -34,6 +34,7 @@ import com.alipay.sofa.registry.server.session.store.Interests;
 import com.alipay.sofa.registry.task.FastRejectedExecutionException;
 import com.google.common.collect.Lists;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -164,16 +165,69 @@ public class FirePushServiceTest {
     datum = TestUtils.newSubDatum("testDataId", 80, Collections.emptyList());
     v = new Value((Sizer) datum);
     when(svc.sessionCacheService.getValueIfPresent(Mockito.anyObject())).thenReturn(v);
-    when(svc.sessionCacheService.getValue(Mockito.anyObject())).thenReturn(v);
+    when(svc.sessionCacheService.refresh(Mockito.anyObject(), Mockito.anyObject())).thenReturn(v);
     Assert.assertFalse(svc.doExecuteOnChange("testDataId", ctx));
   }
 
+  @Test
+  public void testExecuteOnChangeAsync() {
+    FirePushService svc = mockFirePushService();
+    final long now = System.currentTimeMillis();
+    TriggerPushContext ctx = new TriggerPushContext("testDc", 100, "testDataNode", now);
+    Subscriber subscriber = TestUtils.newZoneSubscriber(dataId, zone);
+    when(svc.sessionInterests.getDatas(Mockito.anyObject()))
+        .thenReturn(Collections.singletonList(subscriber));
+    svc.pushSwitchService = new PushSwitchService();
+    svc.pushSwitchService.setFetchStopPushService(new FetchStopPushService());
+    svc.pushSwitchService.fetchStopPushService.setStopPushSwitch(System.currentTimeMillis(), false);
+    svc.pushSwitchService.setFetchGrayPushSwitchService(new FetchGrayPushSwitchService());
+
+    // the push continues after the fetch completed
+    CompletableFuture<Value> fetching = new CompletableFuture<>();
+    when(svc.sessionCacheService.refreshAsync(Mockito.anyObject(), Mockito.anyObject()))
+        .thenReturn(fetching);
+    Assert.assertTrue(svc.doExecuteOnChangeAsync("testDataId", ctx));
+    Mockito.verify(svc.pushProcessor, Mockito.times(0))
+        .firePush(
+            Mockito.anyObject(), Mockito.anyObject(), Mockito.anyObject(), Mockito.anyObject());
+    SubDatum datum = TestUtils.newSubDatum("testDataId", 200, Collections.emptyList());
+    fetching.complete(new Value((Sizer) datum));
+    Mockito.verify(svc.pushProcessor, Mockito.times(1))
+        .firePush(
+            Mockito.anyObject(), Mockito.anyObject(), Mockito.anyObject(), Mockito.anyObject());
+
+    // the shared fetch is older than expect, fetch again
+    SubDatum old = TestUtils.newSubDatum("testDataId", 80, Collections.emptyList());
+    when(svc.sessionCacheService.refreshAsync(Mockito.anyObject(), Mockito.anyObject()))
+        .thenReturn(CompletableFuture.completedFuture(new Value((Sizer) old)));
+    Assert.assertTrue(svc.doExecuteOnChangeAsync("testDataId", ctx));
+    Mockito.verify(svc.sessionCacheService, Mockito.times(3))
+        .refreshAsync(Mockito.anyObject(), Mockito.anyObject());
+    Mockito.verify(svc.pushProcessor, Mockito.times(1))
+        .firePush(
+            Mockito.anyObject(), Mockito.anyObject(), Mockito.anyObject(), Mockito.anyObject());
+
+    // the cache hit, push without fetch
+    when(svc.sessionCacheService.getValueIfPresent(Mockito.anyObject()))
+        .thenReturn(new Value((Sizer) datum));
+    subscriber = TestUtils.newZoneSubscriber(dataId, zone);
+    when(svc.sessionInterests.getDatas(Mockito.anyObject()))
+        .thenReturn(Collections.singletonList(subscriber));
+    Assert.assertTrue(svc.doExecuteOnChangeAsync("testDataId", ctx));
+    Mockito.verify(svc.sessionCacheService, Mockito.times(3))
+        .refreshAsync(Mockito.anyObject(), Mockito.anyObject());
+    Mockito.verify(svc.pushProcessor, Mockito.times(2))
+        .firePush(
+            Mockito.anyObject(), Mockito.anyObject(), Mockito.anyObject(), Mockito.anyObject());
+  }
+
   @Test
   public void testChangeHandler() {
     final long now = System.currentTimeMillis();
     TriggerPushContext ctx = new TriggerPushContext("testDc", 100, "testDataNode", now);
     FirePushService svc = mockFirePushService();
-    when(svc.sessionCacheService.getValue(Mockito.anyObject())).thenThrow(new RuntimeException());
+    when(svc.sessionCacheService.refresh(Mockito.anyObject(), Mockito.anyObject()))
+        .thenThrow(new RuntimeException());
     Assert.assertFalse(svc.changeHandler.onChange("testDataId", ctx));
     SubDatum datum = TestUtils.newSubDatum("testDataId", 200, Collections.emptyList());
     Value v = new Value((Sizer) datum);
@@ -28,12 +28,14 @@ import com.alipay.sofa.registry.core.model.ReceivedConfigData;
 import com.alipay.sofa.registry.core.model.ReceivedData;
 import com.alipay.sofa.registry.core.model.ScopeEnum;
 import com.alipay.sofa.registry.server.session.TestUtils;
+import com.alipay.sofa.registry.server.session.bootstrap.SessionServerConfigBean;
 import com.alipay.sofa.registry.server.session.converter.ReceivedDataConverter;
 import com.alipay.sofa.registry.server.session.providedata.CompressPushService;
 import com.alipay.sofa.registry.server.shared.util.DatumUtils;
 import com.alipay.sofa.registry.util.DatumVersionUtil;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import org.assertj.core.util.Sets;
@@ -90,6 +92,81 @@ public class PushDataGeneratorTest {
     Assert.assertEquals(2, receivedData.getData().values().stream().mapToInt(List::size).sum());
   }
 
+  @Test
+  public void testSharedPayload() {
+    PushDataGenerator generator = new PushDataGenerator();
+    SessionServerConfigBean sessionServerConfig = TestUtils.newSessionConfig("testDc", zone);
+    generator.sessionServerConfig = sessionServerConfig;
+    generator.compressPushService = new CompressPushService();
+    Subscriber sub1 = TestUtils.newZoneSubscriber(zone);
+    Subscriber sub2 = TestUtils.newZoneSubscriber(zone);
+    Subscriber sub3 = TestUtils.newZonePbSubscriber(zone);
+    Subscriber sub4 = TestUtils.newZonePbSubscriber(zone);
+    SubPublisher pub = TestUtils.newSubPublisher(10, 20, "TESTZONE");
+    SubPublisher pub2 = TestUtils.newSubPublisher(10, 20, "TESTZONE");
+    SubDatum subDatum = TestUtils.newSubDatum("testDataId", 200, Lists.newArrayList(pub, pub2));
+
+    PushData<ReceivedData> pushData1 =
+        generator.createPushData(subDatum, Collections.singletonMap(sub1.getRegisterId(), sub1));
+    PushData<ReceivedData> pushData2 =
+        generator.createPushData(subDatum, Collections.singletonMap(sub2.getRegisterId(), sub2));
+    Assert.assertEquals(1, generator.getPayloadCache().getMissingCount());
+    Assert.assertEquals(1, generator.getPayloadCache().getHitCount());
+    Assert.assertSame(pushData1.getPayload().getData(), pushData2.getPayload().getData());
+    Assert.assertEquals(
+        Lists.newArrayList(sub1.getRegisterId()), pushData1.getPayload().getSubscriberRegistIds());
+    Assert.assertEquals(
+        Lists.newArrayList(sub2.getRegisterId()), pushData2.getPayload().getSubscriberRegistIds());
+    Assert.assertEquals(2, pushData2.getDataCount());
+    Assert.assertEquals(pushData2.getPayload().getVersion().longValue(), subDatum.getVersion());
+
+    PushData<ReceivedDataPb> pbData1 =
+        generator.createPushData(subDatum, Collections.singletonMap(sub3.getRegisterId(), sub3));
+    PushData<ReceivedDataPb> pbData2 =
+        generator.createPushData(subDatum, Collections.singletonMap(sub4.getRegisterId(), sub4));
+    Assert.assertEquals(1, generator.getPayloadCache().getMissingCount());
+    Assert.assertEquals(sub3.getRegisterId(), pbData1.getPayload().getSubscriberRegistIds(0));
+    Assert.assertEquals(sub4.getRegisterId(), pbData2.getPayload().getSubscriberRegistIds(0));
+    Assert.assertEquals(pbData1.getPayload().getDataMap(), pbData2.getPayload().getDataMap());
+    Assert.assertEquals(
+        2,
+        pbData1.getPayload().getDataMap().values().stream().mapToInt(b -> b.getDataCount()).sum());
+
+    // new version, miss
+    SubDatum newDatum = TestUtils.newSubDatum("testDataId", 201, Lists.newArrayList(pub));
+    PushData<ReceivedData> pushData3 =
+        generator.createPushData(newDatum, Collections.singletonMap(sub1.getRegisterId(), sub1));
+    Assert.assertEquals(2, generator.getPayloadCache().getMissingCount());
+    Assert.assertEquals(1, pushData3.getDataCount());
+
+    // the zone filter config changed, miss
+    Subscriber sub5 = TestUtils.newZoneSubscriber(zone);
+    sub5.setScope(ScopeEnum.dataCenter);
+    SubDatum otherZoneDatum =
+        TestUtils.newSubDatum(
+            "testDataId", 202, Lists.newArrayList(pub, TestUtils.newSubPublisher(10, 20, "OTHER")));
+    PushData<ReceivedData> pushData4 =
+        generator.createPushData(
+            otherZoneDatum, Collections.singletonMap(sub5.getRegisterId(), sub5));
+    Assert.assertEquals(3, generator.getPayloadCache().getMissingCount());
+    Assert.assertEquals(2, pushData4.getDataCount());
+    sessionServerConfig.setInvalidForeverZones("OTHER");
+    pushData4 =
+        generator.createPushData(
+            otherZoneDatum, Collections.singletonMap(sub5.getRegisterId(), sub5));
+    Assert.assertEquals(4, generator.getPayloadCache().getMissingCount());
+    Assert.assertEquals(1, pushData4.getDataCount());
+  }
+
+  @Test
+  public void testPayloadSize() {
+    Map<String, List<DataBox>> data = Maps.newHashMap();
+    Assert.assertEquals(64, PushPayloadCache.Payload.sizeof(data));
+    data.put("zone", Lists.newArrayList(new DataBox("abc"), new DataBox(null)));
+    // the java chars, the utf8 bytes and the overhead
+    Assert.assertEquals(64 + 8 + 4 + 32 + 32 + 6 + 3 + 32, PushPayloadCache.Payload.sizeof(data));
+  }
+
   @Test
   public void testWatch() {
     PushDataGenerator generator = new PushDataGenerator();
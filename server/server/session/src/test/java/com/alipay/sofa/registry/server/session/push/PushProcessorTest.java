@@ -35,6 +35,7 @@ import com.alipay.sofa.registry.server.session.circuit.breaker.CircuitBreakerSer
 import com.alipay.sofa.registry.server.session.node.service.ClientNodeService;
 import com.alipay.sofa.registry.server.session.providedata.FetchGrayPushSwitchService;
 import com.alipay.sofa.registry.server.session.providedata.FetchStopPushService;
+import com.alipay.sofa.registry.server.session.store.Interests;
 import com.alipay.sofa.registry.task.RejectedDiscardHandler;
 import com.alipay.sofa.registry.util.BackOffTimes;
 import java.util.Collections;
@@ -67,7 +68,7 @@ public class PushProcessorTest {
     PushCause pushCause = new PushCause(ctx, PushType.Sub, System.currentTimeMillis());
     Subscriber subscriber = TestUtils.newZoneSubscriber(dataId, zone);
     SubDatum datum = TestUtils.newSubDatum(subscriber.getDataId(), 100, Collections.emptyList());
-    Assert.assertTrue(worker.bufferMap.isEmpty());
+    Assert.assertTrue(worker.buffer.isEmpty());
 
     long now1 = System.currentTimeMillis();
     processor.firePush(
@@ -77,11 +78,11 @@ public class PushProcessorTest {
         datum);
     long now2 = System.currentTimeMillis();
 
-    Assert.assertEquals(worker.bufferMap.size(), 1);
-    PushTaskBuffer.BufferTaskKey taskKey = worker.bufferMap.keySet().iterator().next();
+    Assert.assertEquals(worker.buffer.size(), 1);
+    PushTaskBuffer.BufferTaskKey taskKey = worker.buffer.getAll().keySet().iterator().next();
     Assert.assertTrue(taskKey.toString(), taskKey.toString().contains(dataId));
 
-    PushTask task = worker.bufferMap.values().iterator().next();
+    PushTask task = worker.buffer.getAll().values().iterator().next();
     TestUtils.assertBetween(
         task.expireTimestamp,
         now1 + processor.sessionServerConfig.getPushDataTaskDebouncingMillis(),
@@ -97,7 +98,7 @@ public class PushProcessorTest {
         Collections.singletonMap(subscriber.getRegisterId(), subscriber),
         datum);
     Assert.assertEquals(BUFFER_SKIP_COUNTER.get(), skip + 1, 0);
-    Assert.assertEquals(worker.bufferMap.size(), 1, 0);
+    Assert.assertEquals(worker.buffer.size(), 1, 0);
 
     // fire after
     Assert.assertEquals(BUFFER_REPLACE_COUNTER.get(), replace, 0);
@@ -108,8 +109,8 @@ public class PushProcessorTest {
         Collections.singletonMap(subscriber.getRegisterId(), subscriber),
         datum);
     Assert.assertEquals(BUFFER_REPLACE_COUNTER.get(), replace + 1, 0);
-    Assert.assertEquals(worker.bufferMap.size(), 1, 0);
-    PushTask replaceTask = worker.bufferMap.get(taskKey);
+    Assert.assertEquals(worker.buffer.size(), 1, 0);
+    PushTask replaceTask = worker.buffer.get(taskKey);
     Assert.assertNotEquals(replaceTask, task);
     // replace.task expire set to prev.expire
     Assert.assertEquals(replaceTask.expireTimestamp, task.expireTimestamp);
@@ -121,7 +122,7 @@ public class PushProcessorTest {
 
     processor.pushSwitchService.fetchStopPushService.setStopPushSwitch(version, false);
     // task clean
-    worker.bufferMap.clear();
+    worker.buffer.clear();
     // first suspend, avoid run watchdog
     processor.taskBuffer.suspend();
     // pushExecutor init
@@ -140,20 +141,22 @@ public class PushProcessorTest {
         NetUtil.getLocalSocketAddress(),
         Collections.singletonMap(subscriber.getRegisterId() + "-test", subscriber),
         datum);
-    Assert.assertEquals(worker.bufferMap.size(), 2);
+    Assert.assertEquals(worker.buffer.size(), 2);
     // only one, sub is not expire
     Assert.assertEquals(1, processor.taskBuffer.watchBuffer(worker));
     Assert.assertEquals(processor.taskBuffer.watchBuffer(worker), 0);
-    Assert.assertEquals(worker.bufferMap.size(), 1);
+    Assert.assertEquals(worker.buffer.size(), 1);
 
-    task = worker.bufferMap.values().iterator().next();
+    task = worker.buffer.getAll().values().iterator().next();
     Assert.assertEquals(task.trace.pushCause.pushType, PushType.Sub);
-    // make task expire
-    task.expireTimestamp = System.currentTimeMillis();
+    // make task expire, the task is scheduled by tick when buffering
+    task.expireTimestamp = System.currentTimeMillis() - 1000;
+    worker.buffer.clear();
+    Assert.assertTrue(processor.taskBuffer.buffer(task));
 
     Assert.assertEquals(processor.taskBuffer.watchBuffer(worker), 1);
     Assert.assertEquals(processor.taskBuffer.watchBuffer(worker), 0);
-    Assert.assertEquals(worker.bufferMap.size(), 0);
+    Assert.assertEquals(worker.buffer.size(), 0);
 
     processor.taskBuffer.resume();
   }
@@ -224,8 +227,8 @@ public class PushProcessorTest {
         Collections.singletonMap(subscriber.getRegisterId(), subscriber),
         datum);
 
-    PushTask task = worker.bufferMap.values().iterator().next();
-    worker.bufferMap.clear();
+    PushTask task = worker.buffer.getAll().values().iterator().next();
+    worker.buffer.clear();
 
     processor.pushSwitchService.fetchStopPushService.setStopPushSwitch(version, true);
     Assert.assertFalse(processor.doPush(task));
@@ -260,7 +263,7 @@ public class PushProcessorTest {
     // no retry
     config.setPushTaskRetryTimes(0);
     Assert.assertFalse(processor.doPush(task));
-    Assert.assertEquals(worker.bufferMap.size(), 0);
+    Assert.assertEquals(worker.buffer.size(), 0);
     Assert.assertEquals(task.retryCount, 1);
 
     // support retry
@@ -270,7 +273,7 @@ public class PushProcessorTest {
     long now1 = System.currentTimeMillis();
     Assert.assertFalse(processor.doPush(task));
     // has add pending
-    Assert.assertEquals(worker.bufferMap.size(), 1);
+    Assert.assertEquals(worker.buffer.size(), 1);
     TestUtils.assertBetween(
         task.expireTimestamp,
         now1 + config.getPushDataTaskRetryFirstDelayMillis(),
@@ -369,7 +372,7 @@ public class PushProcessorTest {
         Collections.singletonMap(subscriber.getRegisterId(), subscriber),
         datum);
 
-    PushTask task = worker.bufferMap.values().iterator().next();
+    PushTask task = worker.buffer.getAll().values().iterator().next();
     processor.doPush(task);
     Thread.sleep(1);
     Assert.assertEquals(processor.pushingRecords.size(), 1);
@@ -395,6 +398,7 @@ public class PushProcessorTest {
         System.currentTimeMillis(), false);
     CircuitBreakerService circuitBreakerService = spy(InMemoryCircuitBreakerService.class);
     processor.circuitBreakerService = circuitBreakerService;
+    processor.sessionInterests = mock(Interests.class);
     processor.pushDataGenerator = new PushDataGenerator();
     processor.pushDataGenerator.sessionServerConfig = config;
     processor.intTaskBuffer();
@@ -419,7 +423,7 @@ public class PushProcessorTest {
         Collections.singletonMap(subscriber.getRegisterId(), subscriber),
         datum);
 
-    PushTask task = worker.bufferMap.values().iterator().next();
+    PushTask task = worker.buffer.getAll().values().iterator().next();
     processor.doPush(task);
     Thread.sleep(1);
     Assert.assertEquals(processor.pushingRecords.size(), 1);
@@ -453,7 +457,7 @@ public class PushProcessorTest {
         NetUtil.getLocalSocketAddress(),
         Collections.singletonMap(subscriber.getRegisterId(), subscriber),
         datum);
-    PushTask task = worker.bufferMap.values().iterator().next();
+    PushTask task = worker.buffer.getAll().values().iterator().next();
     processor.doPush(task);
     // no run too long
     Assert.assertEquals(0, processor.cleanPushingTaskRunTooLong());
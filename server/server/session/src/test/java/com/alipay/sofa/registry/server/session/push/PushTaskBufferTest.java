@@ -32,6 +32,8 @@ public class PushTaskBufferTest {
   public void test() {
     PushTaskBuffer buffer = new PushTaskBuffer(2);
     Assert.assertEquals(2, buffer.workers.length);
+    // the expired task would be polled by the workers
+    buffer.suspend();
 
     String dataId = "testDataId";
     Subscriber subscriber = TestUtils.newZoneSubscriber(dataId, "region");
@@ -58,6 +60,10 @@ public class PushTaskBufferTest {
     task1.expireTimestamp = 2;
     Assert.assertTrue(buffer.buffer(task1));
     Assert.assertEquals(task1.expireTimestamp, 1);
+    for (PushTaskBuffer.BufferWorker worker : buffer.workers) {
+      // poll by the tick while buffering
+      Assert.assertEquals(worker.buffer.isEmpty(), worker.getWaitingMillis() >= 100);
+    }
   }
 
   private static final class MockTask extends PushTask {
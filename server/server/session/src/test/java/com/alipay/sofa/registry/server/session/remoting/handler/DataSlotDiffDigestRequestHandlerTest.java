@@ -18,6 +18,8 @@ package com.alipay.sofa.registry.server.session.remoting.handler;
 
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.alipay.sofa.registry.common.model.GenericResponse;
@@ -30,6 +32,7 @@ import com.alipay.sofa.registry.server.session.TestUtils;
 import com.alipay.sofa.registry.server.session.bootstrap.ExecutorManager;
 import com.alipay.sofa.registry.server.session.slot.SlotTableCache;
 import com.alipay.sofa.registry.server.session.store.DataStore;
+import com.google.common.collect.Maps;
 import java.util.Collections;
 import java.util.Map;
 import org.junit.Assert;
@@ -78,6 +81,33 @@ public class DataSlotDiffDigestRequestHandlerTest {
     Assert.assertTrue(resp.getData() instanceof DataSlotDiffDigestResult);
   }
 
+  @Test
+  public void testHandleAdditive() {
+    DataSlotDiffDigestRequestHandler handler = newHandler();
+    handler.slotTableCache = mock(SlotTableCache.class);
+    TestUtils.MockBlotChannel channel = TestUtils.newChannel(9620, "localhost", 8888);
+    handler.sessionDataStore = mock(DataStore.class);
+    DatumDigest digest = new DatumDigest(1, 2, 3, 4, (short) 0, (short) 0);
+    Map<String, DatumDigest> digests = Maps.newHashMap();
+    digests.put("a", digest);
+    digests.put("b", digest);
+    when(handler.sessionDataStore.getDatumDigests(anyInt())).thenReturn(digests);
+
+    Map<String, DatumDigest> target = Maps.newHashMap();
+    target.put("a", digest);
+    target.put("b", new DatumDigest(1, 2, 3, 5, (short) 0, (short) 0));
+    target.put("c", digest);
+    DataSlotDiffDigestRequest request = request(1, target);
+    request.setAdditiveDigest(true);
+    GenericResponse resp = (GenericResponse) handler.doHandle(channel, request);
+    Assert.assertTrue(resp.isSuccess());
+    DataSlotDiffDigestResult result = (DataSlotDiffDigestResult) resp.getData();
+    Assert.assertEquals(result.getUpdatedDataInfoIds(), Collections.singletonList("b"));
+    Assert.assertTrue(result.getAddedDataInfoIds().isEmpty());
+    Assert.assertEquals(result.getRemovedDataInfoIds(), Collections.singletonList("c"));
+    verify(handler.sessionDataStore, times(0)).getDataInfoIdPublishers(anyInt());
+  }
+
   private static DataSlotDiffDigestRequest request(
       int slotId, Map<String, DatumDigest> datumDigest) {
     return new DataSlotDiffDigestRequest(1, slotId, datumDigest);
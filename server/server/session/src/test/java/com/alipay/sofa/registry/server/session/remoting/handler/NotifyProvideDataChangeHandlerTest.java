@@ -16,10 +16,13 @@
  */
 package com.alipay.sofa.registry.server.session.remoting.handler;
 
+import static org.mockito.Mockito.*;
+
 import com.alipay.sofa.registry.common.model.Node;
 import com.alipay.sofa.registry.common.model.constants.ValueConstants;
 import com.alipay.sofa.registry.common.model.metaserver.ProvideDataChangeEvent;
 import com.alipay.sofa.registry.remoting.ChannelHandler;
+import com.alipay.sofa.registry.server.session.providedata.ConfigProvideDataWatcher;
 import com.alipay.sofa.registry.server.session.providedata.FetchBlackListService;
 import com.alipay.sofa.registry.server.shared.providedata.SystemPropertyProcessorManager;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -53,7 +56,10 @@ public class NotifyProvideDataChangeHandlerTest {
   public void testHandle() {
     NotifyProvideDataChangeHandler handler = newHandler();
     handler.systemPropertyProcessorManager = newProvideDataProcessorManager();
+    handler.configProvideDataWatcher = mock(ConfigProvideDataWatcher.class);
     Assert.assertNull(handler.doHandle(null, request(ValueConstants.BLACK_LIST_DATA_ID)));
+    verify(handler.configProvideDataWatcher, times(1))
+        .notifyChange(ValueConstants.BLACK_LIST_DATA_ID, 10);
   }
 
   private static ProvideDataChangeEvent request(String dataInfoId) {
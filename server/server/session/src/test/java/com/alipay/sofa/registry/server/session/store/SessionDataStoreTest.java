@@ -17,7 +17,9 @@
 package com.alipay.sofa.registry.server.session.store;
 
 import com.alipay.sofa.registry.common.model.ConnectId;
+import com.alipay.sofa.registry.common.model.PublisherDigestUtil;
 import com.alipay.sofa.registry.common.model.PublisherUtils;
+import com.alipay.sofa.registry.common.model.dataserver.DatumDigest;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.server.session.TestUtils;
@@ -126,6 +128,75 @@ public class SessionDataStoreTest {
     Assert.assertEquals(store.getDatas().size(), 0);
   }
 
+  @Test
+  public void testDigest() {
+    SessionDataStore store = new SessionDataStore();
+    store.slotTableCache = Mockito.mock(SlotTableCache.class);
+    Publisher publisher0 = TestUtils.createTestPublishers(0, 1).get(0);
+    Publisher publisher1 = TestUtils.createTestPublishers(0, 1).get(0);
+    Mockito.when(store.slotTableCache.slotOf(Mockito.anyString())).thenReturn(0);
+    Assert.assertTrue(store.getDatumDigests(0).isEmpty());
+
+    List<Publisher> sameDataInfoIds = Lists.newArrayList();
+    for (int i = 0; i < 5; i++) {
+      Publisher p = TestUtils.createTestPublisher(publisher0.getDataId());
+      sameDataInfoIds.add(p);
+      store.add(p);
+    }
+    store.add(publisher0);
+    store.add(publisher1);
+    assertDigest(store, 0);
+    Assert.assertEquals(store.getDatumDigests(0).size(), 2);
+
+    // replace with the newer version
+    Publisher newer = PublisherUtils.clonePublisher(sameDataInfoIds.get(0));
+    newer.setVersion(newer.getVersion() + 1);
+    Assert.assertTrue(store.add(newer));
+    assertDigest(store, 0);
+
+    store.deleteById(sameDataInfoIds.get(1).getRegisterId(), publisher0.getDataInfoId());
+    assertDigest(store, 0);
+
+    store.deleteByConnectId(publisher1.connectId());
+    assertDigest(store, 0);
+    Assert.assertTrue(store.getDatumDigests(0).isEmpty());
+    // the empty digests and slot are removed
+    Assert.assertEquals(store.digestSlotNum(), 0);
+  }
+
+  @Test
+  public void testDigestOutOfOrder() {
+    SessionDataStore store = new SessionDataStore();
+    store.slotTableCache = Mockito.mock(SlotTableCache.class);
+    Mockito.when(store.slotTableCache.slotOf(Mockito.anyString())).thenReturn(0);
+    Publisher publisher = TestUtils.createTestPublishers(0, 1).get(0);
+    Publisher newer = PublisherUtils.clonePublisher(publisher);
+    newer.setVersion(newer.getVersion() + 1);
+
+    // the replace is applied before the add, the count reaches zero with the signs left
+    store.onChange(publisher, newer);
+    Assert.assertEquals(store.digestSlotNum(), 1);
+    store.onChange(null, publisher);
+    Assert.assertEquals(
+        PublisherDigestUtil.additiveDigest(
+            PublisherUtils.getDatumSummary(
+                Collections.singletonMap(
+                    newer.getDataInfoId(),
+                    Collections.singletonMap(newer.getRegisterId(), newer)))),
+        store.getDatumDigests(0));
+
+    store.onChange(newer, null);
+    Assert.assertTrue(store.getDatumDigests(0).isEmpty());
+    Assert.assertEquals(store.digestSlotNum(), 0);
+  }
+
+  private void assertDigest(SessionDataStore store, int slotId) {
+    Map<String, DatumDigest> expect =
+        PublisherDigestUtil.additiveDigest(
+            PublisherUtils.getDatumSummary(store.getDataInfoIdPublishers(slotId)));
+    Assert.assertEquals(expect, store.getDatumDigests(slotId));
+  }
+
   private void assertPublisher(Map<String, Map<String, Publisher>> m, Publisher publisher) {
     Assert.assertEquals(m.get(publisher.getDataInfoId()).get(publisher.getRegisterId()), publisher);
     Assert.assertEquals(m.get(publisher.getDataInfoId()).size(), 1);
@@ -16,11 +16,15 @@
  */
 package com.alipay.sofa.registry.server.session.store;
 
+import com.alipay.sofa.registry.common.model.Tuple;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
+import com.alipay.sofa.registry.common.model.slot.func.SlotFunctionRegistry;
 import com.alipay.sofa.registry.common.model.store.DataInfo;
 import com.alipay.sofa.registry.common.model.store.Subscriber;
 import com.alipay.sofa.registry.server.session.AbstractSessionServerTestBase;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import org.junit.Assert;
 import org.junit.Before;
@@ -98,6 +102,55 @@ public class SessionInterestsTest extends AbstractSessionServerTestBase {
     Assert.assertEquals(map.get(subscriber.getDataInfoId()).getValue(), 80);
   }
 
+  @Test
+  public void testSelectSubscribersBySlot() {
+    Tuple<Map<Integer, Map<String, DatumVersion>>, List<Subscriber>> tuple =
+        interests.selectSubscribersBySlot(getDc(), false);
+    Assert.assertTrue(tuple.o1.isEmpty());
+
+    Subscriber subscriber = randomSubscriber();
+    final String dataInfoId = subscriber.getDataInfoId();
+    final int slotId = SlotFunctionRegistry.getFunc().slotOf(dataInfoId);
+    interests.add(subscriber);
+    tuple = interests.selectSubscribersBySlot(getDc(), false);
+    Map<Integer, Map<String, DatumVersion>> prev = tuple.o1;
+    Assert.assertEquals(0, prev.get(slotId).get(dataInfoId).getValue());
+
+    // not mark changed, the version is not rescanned
+    subscriber.checkAndUpdateCtx(getDc(), 100, 10);
+    tuple = interests.selectSubscribersBySlot(getDc(), false);
+    Assert.assertEquals(0, tuple.o1.get(slotId).get(dataInfoId).getValue());
+    interests.markChanged(dataInfoId);
+    tuple = interests.selectSubscribersBySlot(getDc(), false);
+    Assert.assertEquals(100, tuple.o1.get(slotId).get(dataInfoId).getValue());
+    // copy on write, the selected map is not changed
+    Assert.assertEquals(0, prev.get(slotId).get(dataInfoId).getValue());
+
+    // full rescan
+    subscriber.checkAndUpdateCtx(getDc(), 200, 10);
+    tuple = interests.selectSubscribersBySlot(getDc(), true);
+    Assert.assertEquals(200, tuple.o1.get(slotId).get(dataInfoId).getValue());
+
+    // the push empty subscriber is rechecked until pushed
+    subscriber.markPushEmpty(getDc(), 300);
+    interests.markChanged(dataInfoId);
+    tuple = interests.selectSubscribersBySlot(getDc(), false);
+    Assert.assertEquals(Collections.singletonList(subscriber), tuple.o2);
+    Assert.assertEquals(0, tuple.o1.get(slotId).get(dataInfoId).getValue());
+    tuple = interests.selectSubscribersBySlot(getDc(), false);
+    Assert.assertEquals(Collections.singletonList(subscriber), tuple.o2);
+    subscriber.checkAndUpdateCtx(getDc(), 300, 0);
+    tuple = interests.selectSubscribersBySlot(getDc(), false);
+    Assert.assertTrue(tuple.o2.isEmpty());
+    tuple = interests.selectSubscribersBySlot(getDc(), false);
+    Assert.assertTrue(tuple.o2.isEmpty());
+
+    // unregister
+    interests.deleteById(subscriber.getRegisterId(), dataInfoId);
+    tuple = interests.selectSubscribersBySlot(getDc(), false);
+    Assert.assertFalse(tuple.o1.containsKey(slotId));
+  }
+
   @Test
   public void testFilterIPs() {
     Assert.assertEquals(0, interests.filterIPs("", 0).size());
@@ -21,16 +21,19 @@ import com.alipay.sofa.registry.common.model.Node.NodeType;
 import com.alipay.sofa.registry.common.model.ProcessId;
 import com.alipay.sofa.registry.common.model.elector.LeaderInfo;
 import com.alipay.sofa.registry.common.model.metaserver.DataOperation;
+import com.alipay.sofa.registry.common.model.metaserver.FetchProvideDataBatchRequest;
 import com.alipay.sofa.registry.common.model.metaserver.FetchProvideDataRequest;
 import com.alipay.sofa.registry.common.model.metaserver.FetchSystemPropertyRequest;
 import com.alipay.sofa.registry.common.model.metaserver.FetchSystemPropertyResult;
 import com.alipay.sofa.registry.common.model.metaserver.ProvideData;
 import com.alipay.sofa.registry.common.model.metaserver.SlotTableChangeEvent;
 import com.alipay.sofa.registry.common.model.metaserver.blacklist.RegistryForbiddenServerRequest;
+import com.alipay.sofa.registry.common.model.metaserver.cluster.VersionedList;
 import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.BaseHeartBeatResponse;
 import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.HeartbeatRequest;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.SessionNode;
 import com.alipay.sofa.registry.common.model.slot.GetSlotTableStatusRequest;
+import com.alipay.sofa.registry.common.model.slot.SlotTable;
 import com.alipay.sofa.registry.common.model.slot.SlotTableStatusResponse;
 import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.log.Logger;
@@ -39,6 +42,7 @@ import com.alipay.sofa.registry.remoting.exchange.message.Response;
 import com.alipay.sofa.registry.server.shared.env.ServerEnv;
 import com.alipay.sofa.registry.util.ConcurrentUtils;
 import com.alipay.sofa.registry.util.StringFormatter;
+import com.alipay.sofa.registry.util.SystemUtils;
 import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Sets;
@@ -64,6 +68,16 @@ public abstract class AbstractMetaServerService<T extends BaseHeartBeatResponse>
   final AtomicInteger renewFailCounter = new AtomicInteger(0);
   static final int MAX_RENEW_FAIL_COUNT = 3;
 
+  // the meta omits the unchanged sections of the response if the heartbeat carries the known
+  // versions
+  private boolean conditionalHeartbeat =
+      Boolean.parseBoolean(SystemUtils.getSystem("registry.meta.heartbeat.conditional", "true"));
+
+  // the last response with all sections, the base of next conditional heartbeat
+  private volatile BaseHeartBeatResponse lastResponse;
+
+  volatile boolean forceFullHeartbeat;
+
   @Override
   public synchronized void startRenewer() {
     if (renewerThread == null) {
@@ -140,6 +154,15 @@ public abstract class AbstractMetaServerService<T extends BaseHeartBeatResponse>
     boolean success = true;
     try {
       HeartbeatRequest heartbeatRequest = createRequest();
+      final BaseHeartBeatResponse last = lastResponse;
+      if (conditionalHeartbeat && !forceFullHeartbeat && last != null) {
+        heartbeatRequest.setKnownEpochs(
+            last.getSlotTable().getEpoch(),
+            last.getMetaServerEpoch(),
+            last.getSessionServerEpoch(),
+            HeartbeatRequest.sessionNodesSign(
+                last.getVersionedSessionNodes().getClusterMembers()));
+      }
       GenericResponse<T> resp =
           (GenericResponse<T>) metaServerManager.sendRequest(heartbeatRequest).getResult();
       handleHeartbeatResponse(resp);
@@ -175,6 +198,7 @@ public abstract class AbstractMetaServerService<T extends BaseHeartBeatResponse>
       throw new RuntimeException("renew node to metaServer error : resp is null");
     }
     if (resp.isSuccess()) {
+      fillUnchanged(resp.getData());
       updateState(resp.getData());
       metaServerManager.refresh(resp.getData());
       handleRenewResult(resp.getData());
@@ -204,6 +228,23 @@ public abstract class AbstractMetaServerService<T extends BaseHeartBeatResponse>
     }
   }
 
+  private void fillUnchanged(T response) {
+    final BaseHeartBeatResponse last = lastResponse;
+    final boolean filled =
+        last == null
+            ? response.fillUnchanged(VersionedList.EMPTY, SlotTable.INIT, VersionedList.EMPTY)
+            : response.fillUnchanged(
+                last.getVersionedMetaNodes(), last.getSlotTable(), last.getVersionedSessionNodes());
+    if (!filled) {
+      RENEWER_LOGGER.warn(
+          "[fillUnchanged]could not apply {} to {}, fetch whole slot table next time",
+          response.getSlotTableDelta(),
+          last == null ? null : last.getSlotTable());
+    }
+    this.forceFullHeartbeat = !filled;
+    this.lastResponse = response;
+  }
+
   void handleHeartbeatFailed(String leaderIp, Throwable e) {
     renewFailCounter.incrementAndGet();
     RENEWER_LOGGER.error(
@@ -254,8 +295,20 @@ public abstract class AbstractMetaServerService<T extends BaseHeartBeatResponse>
 
   @Override
   public Map<String, ProvideData> fetchData(Map<String, Long> dataInfoIdsWithVersion) {
-    // TODO unsupported this now
-    throw new UnsupportedOperationException();
+    final String leaderIp = metaServerManager.getMetaServerLeader();
+    try {
+      Response response =
+          metaServerManager.sendRequest(
+              new FetchProvideDataBatchRequest(new HashMap<>(dataInfoIdsWithVersion)));
+      return (Map<String, ProvideData>) response.getResult();
+    } catch (Throwable e) {
+      RENEWER_LOGGER.error(
+          "fetch provider datas error from {}, size={}",
+          leaderIp,
+          dataInfoIdsWithVersion.size(),
+          e);
+      throw new RuntimeException("fetch provider datas error! " + e.getMessage(), e);
+    }
   }
 
   @Override
@@ -379,6 +432,11 @@ public abstract class AbstractMetaServerService<T extends BaseHeartBeatResponse>
     }
   }
 
+  @VisibleForTesting
+  void setConditionalHeartbeat(boolean conditionalHeartbeat) {
+    this.conditionalHeartbeat = conditionalHeartbeat;
+  }
+
   @VisibleForTesting
   public void setMetaServerManager(MetaServerManager metaServerManager) {
     this.metaServerManager = metaServerManager;
@@ -32,6 +32,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 public abstract class AbstractProvideDataWatcher {
   private static final Logger LOGGER = LoggerFactory.getLogger(AbstractProvideDataWatcher.class);
   private final Map<String, DataWatcher> watcherMap = new ConcurrentHashMap<>(1024);
+  // the new watched or notified changed dataInfoIds, fetched as soon as possible
+  private final Set<String> changedIds = ConcurrentHashMap.newKeySet();
   @Autowired protected MetaServerService metaNodeService;
 
   protected final WatcherDog watcherDog = new WatcherDog();
@@ -55,12 +57,33 @@ public abstract class AbstractProvideDataWatcher {
       return true;
     }
     if (watcherMap.putIfAbsent(dataInfoId, new DataWatcher(dataInfoId)) == null) {
+      changedIds.add(dataInfoId);
       watcherDog.wakeup();
       return true;
     }
     return false;
   }
 
+  /**
+   * the meta server pushes the change of provide data, only fetch the watched one which version
+   * advanced, the periodic fetch is a safety net for the lost notifications
+   *
+   * @return true if the dataInfoId is watched and the version is newer
+   */
+  public boolean notifyChange(String dataInfoId, long version) {
+    final DataWatcher w = watcherMap.get(dataInfoId);
+    if (w == null) {
+      return false;
+    }
+    final ProvideData current = w.provideData;
+    if (!isDeleted(current) && versionOf(current) >= version) {
+      return false;
+    }
+    changedIds.add(dataInfoId);
+    watcherDog.wakeup();
+    return true;
+  }
+
   public int refreshWatch(Collection<String> watchers) {
     int count = 0;
     for (String dataID : watchers) {
@@ -72,12 +95,19 @@ public abstract class AbstractProvideDataWatcher {
   }
 
   protected final class WatcherDog extends WakeUpLoopRunnable {
+    long lastFetchAllTimestamp;
 
     @Override
     public void runUnthrowable() {
       clean();
-      // TODO need to avoid fetch too frequently by wakeup
-      fetch();
+      final long now = System.currentTimeMillis();
+      if (now - lastFetchAllTimestamp >= fetchIntervalMillis()) {
+        lastFetchAllTimestamp = now;
+        changedIds.clear();
+        fetch();
+      } else {
+        fetchChanged();
+      }
     }
 
     @Override
@@ -97,15 +127,44 @@ public abstract class AbstractProvideDataWatcher {
   }
 
   void fetch() {
-    List<Map<String, Long>> queryList = transferQuery(watcherMap.values(), fetchBatchSize());
+    fetch(watcherMap.values());
+  }
+
+  void fetchChanged() {
+    if (changedIds.isEmpty()) {
+      return;
+    }
+    List<DataWatcher> watchers = Lists.newArrayListWithCapacity(changedIds.size());
+    for (String dataInfoId : changedIds) {
+      changedIds.remove(dataInfoId);
+      DataWatcher w = watcherMap.get(dataInfoId);
+      if (w != null) {
+        watchers.add(w);
+      }
+    }
+    for (Map<String, Long> failed : fetch(watchers)) {
+      // retry in the next round
+      changedIds.addAll(failed.keySet());
+    }
+  }
+
+  /** @return the failed queries */
+  private List<Map<String, Long>> fetch(Collection<DataWatcher> watchers) {
+    List<Map<String, Long>> queryList = transferQuery(watchers, fetchBatchSize());
+    List<Map<String, Long>> failed = Collections.emptyList();
     for (Map<String, Long> query : queryList) {
       try {
         Map<String, ProvideData> datas = metaNodeService.fetchData(query);
         updateFetchData(datas);
       } catch (Throwable e) {
         LOGGER.error("failed to fetch data:{}", query.keySet(), e);
+        if (failed.isEmpty()) {
+          failed = Lists.newArrayList();
+        }
+        failed.add(query);
       }
     }
+    return failed;
   }
 
   void updateFetchData(Map<String, ProvideData> datas) {
@@ -115,17 +174,25 @@ public abstract class AbstractProvideDataWatcher {
         LOGGER.info("DataWatcher not found when update: {}", data.getKey());
         continue;
       }
-      ProvideData d = data.getValue();
-      if (w.provideData == null) {
-        w.provideData = data.getValue();
+      final ProvideData d = data.getValue();
+      final ProvideData current = w.provideData;
+      if (current == null) {
+        w.provideData = d;
         LOGGER.info("DataWatcher init provideData: {}, {}", data.getKey(), d);
         continue;
       }
-      if (w.provideData.getVersion() >= d.getVersion()) {
+      if (isDeleted(d)) {
+        if (!isDeleted(current)) {
+          w.provideData = d;
+          LOGGER.info("DataWatcher remove provideData: {}, {}", data.getKey(), current);
+        }
+        continue;
+      }
+      if (!isDeleted(current) && versionOf(current) >= versionOf(d)) {
         LOGGER.warn(
             "DataWatcher skip provideData: {}, current={}, fetch={}",
             data.getKey(),
-            w.provideData.getVersion(),
+            current.getVersion(),
             d.getVersion());
         continue;
       }
@@ -134,6 +201,15 @@ public abstract class AbstractProvideDataWatcher {
     }
   }
 
+  /** the meta server answers the deleted data with a null provideData */
+  private static boolean isDeleted(ProvideData data) {
+    return data == null || data.getProvideData() == null;
+  }
+
+  private static long versionOf(ProvideData data) {
+    return data == null || data.getVersion() == null ? -1 : data.getVersion();
+  }
+
   static List<Map<String, Long>> transferQuery(Collection<DataWatcher> watcherMap, int batchSize) {
     if (watcherMap.isEmpty()) {
       return Collections.emptyList();
@@ -143,7 +219,8 @@ public abstract class AbstractProvideDataWatcher {
     for (List<DataWatcher> list : lists) {
       Map<String, Long> m = Maps.newHashMapWithExpectedSize(list.size());
       for (DataWatcher w : list) {
-        m.put(w.dataInfoId, w.provideData == null ? -1 : w.provideData.getVersion());
+        // the deleted data is queried as not exists
+        m.put(w.dataInfoId, isDeleted(w.provideData) ? -1 : versionOf(w.provideData));
       }
       ret.add(m);
     }
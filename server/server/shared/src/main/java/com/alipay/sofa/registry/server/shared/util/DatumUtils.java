@@ -26,9 +26,11 @@ import com.alipay.sofa.registry.compress.CompressUtils;
 import com.alipay.sofa.registry.compress.CompressedItem;
 import com.alipay.sofa.registry.compress.Compressor;
 import com.alipay.sofa.registry.core.model.DataBox;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
 import com.alipay.sofa.registry.util.SystemUtils;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.collections.CollectionUtils;
@@ -84,19 +86,7 @@ public final class DatumUtils {
   public static SubDatum of(Datum datum) {
     List<SubPublisher> publishers = Lists.newArrayListWithCapacity(datum.publisherSize());
     for (Publisher publisher : datum.getPubMap().values()) {
-      final URL srcAddress = publisher.getSourceAddress();
-      // temp publisher the srcAddress maybe null
-      final String srcAddressString = srcAddress == null ? null : srcAddress.buildAddressString();
-      publishers.add(
-          new SubPublisher(
-              publisher.getRegisterId(),
-              publisher.getCell(),
-              publisher.getDataList(),
-              publisher.getClientId(),
-              publisher.getVersion(),
-              srcAddressString,
-              publisher.getRegisterTimestamp(),
-              publisher.getPublishSource()));
+      publishers.add(of(publisher));
     }
     return SubDatum.normalOf(
         datum.getDataInfoId(),
@@ -109,6 +99,30 @@ public final class DatumUtils {
         datum.getRecentVersions());
   }
 
+  public static SubPublisher of(Publisher publisher) {
+    return of(publisher, publisher.getDataList());
+  }
+
+  /**
+   * @param publisher
+   * @param dataList the dataList of the publisher, kept apart from the publisher
+   * @return SubPublisher
+   */
+  public static SubPublisher of(Publisher publisher, List<ServerDataBox> dataList) {
+    final URL srcAddress = publisher.getSourceAddress();
+    // temp publisher the srcAddress maybe null
+    final String srcAddressString = srcAddress == null ? null : srcAddress.buildAddressString();
+    return new SubPublisher(
+        publisher.getRegisterId(),
+        publisher.getCell(),
+        dataList,
+        publisher.getClientId(),
+        publisher.getVersion(),
+        srcAddressString,
+        publisher.getRegisterTimestamp(),
+        publisher.getPublishSource());
+  }
+
   public static long DataBoxListSize(List<DataBox> boxes) {
     if (CollectionUtils.isEmpty(boxes)) {
       return 0;
@@ -199,4 +213,45 @@ public final class DatumUtils {
         datum.getGroup(),
         datum.getRecentVersions());
   }
+
+  /**
+   * patch the cached datum with the delta, the patched datum keeps the compression of the cached
+   *
+   * @param datum the cached datum, its version must be the delta.fromVersion
+   * @param delta
+   * @return null if the patched datum mismatch the delta, need to fetch the whole datum
+   */
+  public static SubDatum applyDelta(SubDatum datum, SubDatumDelta delta) {
+    ParaCheckUtil.checkEquals(datum.getVersion(), delta.getFromVersion(), "delta.fromVersion");
+    final SubDatum unzipped = decompressSubDatum(datum);
+    final List<SubPublisher> cachedPubs = unzipped.mustGetPublishers();
+    Map<String, SubPublisher> pubs = new LinkedHashMap<>(cachedPubs.size() * 4 / 3 + 1);
+    for (SubPublisher pub : cachedPubs) {
+      pubs.put(pub.getRegisterId(), pub);
+    }
+    for (String registerId : delta.getRemovedRegisterIds()) {
+      pubs.remove(registerId);
+    }
+    for (SubPublisher pub : delta.getAddPublishers()) {
+      pubs.put(pub.getRegisterId(), pub);
+    }
+    if (pubs.size() != delta.getPubNum()) {
+      return null;
+    }
+    SubDatum patched =
+        SubDatum.normalOf(
+            datum.getDataInfoId(),
+            datum.getDataCenter(),
+            delta.getVersion(),
+            pubs.values(),
+            datum.getDataId(),
+            datum.getInstanceId(),
+            datum.getGroup(),
+            delta.getRecentVersions());
+    ZipSubPublisherList zip = datum.getZipPublishers();
+    if (zip == null) {
+      return patched;
+    }
+    return compressSubDatum(patched, CompressUtils.mustGet(zip.getEncoding()));
+  }
 }
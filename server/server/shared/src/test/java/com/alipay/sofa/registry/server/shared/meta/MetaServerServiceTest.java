@@ -25,7 +25,9 @@ import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.BaseHear
 import com.alipay.sofa.registry.common.model.metaserver.inter.heartbeat.HeartbeatRequest;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.MetaNode;
 import com.alipay.sofa.registry.common.model.metaserver.nodes.SessionNode;
+import com.alipay.sofa.registry.common.model.slot.Slot;
 import com.alipay.sofa.registry.common.model.slot.SlotTable;
+import com.alipay.sofa.registry.common.model.slot.SlotTableDelta;
 import com.alipay.sofa.registry.common.model.store.URL;
 import com.alipay.sofa.registry.remoting.exchange.message.Response;
 import com.alipay.sofa.registry.server.shared.TestUtils;
@@ -136,6 +138,55 @@ public class MetaServerServiceTest {
     Assert.assertTrue(zones.contains("192.168.1.2"));
   }
 
+  @Test
+  public void testConditionalHeartbeatResp() {
+    MockServerService mockServerService = new MockServerService();
+    mockServerService.setMetaServerManager(Mockito.mock(MetaServerManager.class));
+    VersionedList<MetaNode> metaNodes =
+        new VersionedList(2, Lists.newArrayList(new MetaNode(new URL("192.168.1.1"), "dc1")));
+    VersionedList<SessionNode> sessionNodes =
+        new VersionedList(
+            1,
+            Lists.newArrayList(
+                new SessionNode(new URL("192.168.1.2"), "zoneA", ServerEnv.PROCESS_ID)));
+    SlotTable t1 =
+        new SlotTable(10, Lists.newArrayList(new Slot(0, "a", 1, Collections.emptyList())));
+    SlotTable t2 =
+        new SlotTable(11, Lists.newArrayList(new Slot(0, "b", 2, Collections.emptyList())));
+
+    GenericResponse<BaseHeartBeatResponse> resp = new GenericResponse<>();
+    resp.setSuccess(true);
+    resp.setData(new BaseHeartBeatResponse(true, metaNodes, t1, sessionNodes, "test", 100));
+    mockServerService.handleHeartbeatResponse(resp);
+    Assert.assertFalse(mockServerService.forceFullHeartbeat);
+
+    // the unchanged sections are omitted
+    resp.setData(new BaseHeartBeatResponse(true, null, null, null, null, "test", 100));
+    mockServerService.handleHeartbeatResponse(resp);
+    Assert.assertEquals(t1, resp.getData().getSlotTable());
+    Assert.assertEquals(1, mockServerService.getSessionServerEpoch());
+    Assert.assertEquals(Sets.newHashSet("192.168.1.2"), mockServerService.getSessionServerList());
+    Assert.assertFalse(mockServerService.forceFullHeartbeat);
+
+    resp.setData(
+        new BaseHeartBeatResponse(true, null, null, SlotTableDelta.of(t1, t2), null, "test", 100));
+    mockServerService.handleHeartbeatResponse(resp);
+    Assert.assertEquals(t2, resp.getData().getSlotTable());
+    Assert.assertEquals(2, resp.getData().getMetaServerEpoch());
+    Assert.assertFalse(mockServerService.forceFullHeartbeat);
+
+    // the delta not match, keep the last and fetch the whole table next time
+    resp.setData(
+        new BaseHeartBeatResponse(true, null, null, SlotTableDelta.of(t1, t2), null, "test", 100));
+    mockServerService.handleHeartbeatResponse(resp);
+    Assert.assertEquals(t2, resp.getData().getSlotTable());
+    Assert.assertTrue(mockServerService.forceFullHeartbeat);
+
+    resp.setData(new BaseHeartBeatResponse(true, metaNodes, t2, sessionNodes, "test", 100));
+    mockServerService.handleHeartbeatResponse(resp);
+    Assert.assertFalse(mockServerService.forceFullHeartbeat);
+  }
+
   @Test
   public void testSuspend() {
     MockServerService mockServerService = new MockServerService();
@@ -18,6 +18,7 @@ package com.alipay.sofa.registry.server.shared.providedata;
 
 import static org.mockito.Mockito.*;
 
+import com.alipay.sofa.registry.common.model.ServerDataBox;
 import com.alipay.sofa.registry.common.model.metaserver.ProvideData;
 import com.alipay.sofa.registry.server.shared.meta.MetaServerService;
 import com.alipay.sofa.registry.util.ConcurrentUtils;
@@ -58,7 +59,7 @@ public class AbstractProvideDataWatcherTest {
 
     Map<String, ProvideData> updateMap = Maps.newHashMap();
     updateMap.put("dataIdNotExist", null);
-    ProvideData pd = new ProvideData(null, dataId, 100L);
+    ProvideData pd = new ProvideData(new ServerDataBox("v1"), dataId, 100L);
     updateMap.put(dataId, pd);
     watcher.updateFetchData(updateMap);
     Assert.assertTrue(watcher.get(dataId) == pd);
@@ -66,7 +67,7 @@ public class AbstractProvideDataWatcherTest {
     watcher.updateFetchData(updateMap);
     Assert.assertTrue(watcher.get(dataId) == pd);
 
-    ProvideData pd2 = new ProvideData(null, dataId, 200L);
+    ProvideData pd2 = new ProvideData(new ServerDataBox("v2"), dataId, 200L);
     updateMap.put(dataId, pd2);
 
     watcher.updateFetchData(updateMap);
@@ -74,12 +75,23 @@ public class AbstractProvideDataWatcherTest {
 
     Assert.assertTrue(TestWatcher.transferQuery(Collections.emptyList(), 2).isEmpty());
 
+    // the deleted data is queried as not exists
+    AbstractProvideDataWatcher.DataWatcher dw3 =
+        new AbstractProvideDataWatcher.DataWatcher("test3");
+    dw3.provideData = new ProvideData(null, "test3", 30L);
+    Assert.assertEquals(
+        -1,
+        TestWatcher.transferQuery(Collections.singletonList(dw3), 2)
+            .get(0)
+            .get("test3")
+            .longValue());
+
     List<AbstractProvideDataWatcher.DataWatcher> watcherList = Lists.newArrayList();
     watcherList.add(dw);
     watcherList.add(new AbstractProvideDataWatcher.DataWatcher("test1"));
     AbstractProvideDataWatcher.DataWatcher dw2 =
         new AbstractProvideDataWatcher.DataWatcher("test2");
-    dw2.provideData = new ProvideData(null, "test2", 50L);
+    dw2.provideData = new ProvideData(new ServerDataBox("v"), "test2", 50L);
     watcherList.add(dw2);
     List<Map<String, Long>> result = TestWatcher.transferQuery(watcherList, 100);
     Assert.assertEquals(1, result.size());
@@ -101,6 +113,70 @@ public class AbstractProvideDataWatcherTest {
     watcher.start();
   }
 
+  @Test
+  public void testDeleted() {
+    TestWatcher watcher = new TestWatcher();
+    watcher.lease = 1000;
+    final String dataId = "testDataId";
+    Assert.assertTrue(watcher.watch(dataId));
+    ProvideData pd = new ProvideData(new ServerDataBox("v1"), dataId, 100L);
+    watcher.updateFetchData(Collections.singletonMap(dataId, pd));
+    Assert.assertTrue(watcher.get(dataId) == pd);
+
+    // the deletion marker
+    ProvideData deleted = new ProvideData(null, dataId, 100L);
+    watcher.updateFetchData(Collections.singletonMap(dataId, deleted));
+    Assert.assertTrue(watcher.get(dataId) == deleted);
+    Assert.assertNull(ProvideData.toString(watcher.get(dataId)));
+    watcher.updateFetchData(Collections.singletonMap(dataId, new ProvideData(null, dataId, 50L)));
+    Assert.assertTrue(watcher.get(dataId) == deleted);
+
+    // created again, the version does not need to advance
+    Assert.assertTrue(watcher.notifyChange(dataId, 90));
+    ProvideData pd2 = new ProvideData(new ServerDataBox("v2"), dataId, 90L);
+    watcher.updateFetchData(Collections.singletonMap(dataId, pd2));
+    Assert.assertTrue(watcher.get(dataId) == pd2);
+
+    // the null version not throws
+    ProvideData pd3 = new ProvideData(new ServerDataBox("v3"), dataId, null);
+    watcher.updateFetchData(Collections.singletonMap(dataId, pd3));
+    Assert.assertTrue(watcher.get(dataId) == pd2);
+  }
+
+  @Test
+  public void testNotifyChange() {
+    TestWatcher watcher = new TestWatcher();
+    watcher.lease = 1000;
+    watcher.metaNodeService = mock(MetaServerService.class);
+    final String dataId = "testDataId";
+    Assert.assertFalse(watcher.notifyChange(dataId, 100));
+
+    Assert.assertTrue(watcher.watch(dataId));
+    // the first round fetches all
+    watcher.watcherDog.runUnthrowable();
+    verify(watcher.metaNodeService, times(1)).fetchData(anyMap());
+
+    ProvideData pd = new ProvideData(new ServerDataBox("v1"), dataId, 100L);
+    when(watcher.metaNodeService.fetchData(anyMap()))
+        .thenReturn(Collections.singletonMap(dataId, pd));
+    Assert.assertTrue(watcher.notifyChange(dataId, 100));
+    watcher.fetchChanged();
+    verify(watcher.metaNodeService, times(2)).fetchData(anyMap());
+    Assert.assertTrue(watcher.get(dataId) == pd);
+
+    // nothing changed
+    watcher.fetchChanged();
+    verify(watcher.metaNodeService, times(2)).fetchData(anyMap());
+    Assert.assertFalse(watcher.notifyChange(dataId, 100));
+
+    // failed and retry
+    when(watcher.metaNodeService.fetchData(anyMap())).thenThrow(new RuntimeException("mock"));
+    Assert.assertTrue(watcher.notifyChange(dataId, 200));
+    watcher.fetchChanged();
+    watcher.fetchChanged();
+    verify(watcher.metaNodeService, times(4)).fetchData(anyMap());
+  }
+
   private static final class TestWatcher extends AbstractProvideDataWatcher {
     int lease = 0;
 
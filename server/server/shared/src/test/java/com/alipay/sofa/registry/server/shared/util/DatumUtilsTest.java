@@ -23,10 +23,13 @@ import com.alipay.sofa.registry.common.model.dataserver.Datum;
 import com.alipay.sofa.registry.common.model.dataserver.DatumVersion;
 import com.alipay.sofa.registry.common.model.store.Publisher;
 import com.alipay.sofa.registry.common.model.store.SubDatum;
+import com.alipay.sofa.registry.common.model.store.SubDatumDelta;
+import com.alipay.sofa.registry.common.model.store.SubPublisher;
 import com.alipay.sofa.registry.common.model.store.Subscriber;
 import com.alipay.sofa.registry.compress.CompressUtils;
 import com.alipay.sofa.registry.core.model.DataBox;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import java.util.Collections;
 import java.util.Map;
 import org.junit.Assert;
@@ -137,4 +140,72 @@ public class DatumUtilsTest {
     Assert.assertEquals(1, unzip.getPubNum());
     Assert.assertEquals("testRegisterId", unzip.mustGetPublishers().get(0).getRegisterId());
   }
+
+  @Test
+  public void testApplyDelta() {
+    Datum datum = new Datum();
+    for (int i = 0; i < 3; i++) {
+      Publisher publisher = new Publisher();
+      publisher.setRegisterId("testRegisterId" + i);
+      publisher.setCell("testCell");
+      publisher.setDataList(Collections.emptyList());
+      publisher.setVersion(100);
+      publisher.setRegisterTimestamp(System.currentTimeMillis());
+      publisher.setPublishSource(PublishSource.CLIENT);
+      datum.addPublisher(publisher);
+    }
+    datum.setDataCenter("testDc");
+    datum.setDataId("testDataId");
+    datum.setVersion(200);
+    datum.setInstanceId("testInstanceId");
+    datum.setGroup("testGroup");
+    datum.setDataInfoId("testDataInfoId");
+    SubDatum subDatum = DatumUtils.of(datum);
+
+    Publisher replaced = new Publisher();
+    replaced.setRegisterId("testRegisterId1");
+    replaced.setCell("testCell");
+    replaced.setDataList(Collections.emptyList());
+    replaced.setVersion(101);
+    replaced.setRegisterTimestamp(System.currentTimeMillis());
+    replaced.setPublishSource(PublishSource.CLIENT);
+    SubDatumDelta delta =
+        SubDatumDelta.deltaOf(
+            "testDataInfoId",
+            "testDc",
+            200,
+            300,
+            2,
+            Lists.newArrayList(DatumUtils.of(replaced)),
+            Lists.newArrayList("testRegisterId0"),
+            Lists.newArrayList(200L));
+    SubDatum patched = DatumUtils.applyDelta(subDatum, delta);
+    Assert.assertEquals(300, patched.getVersion());
+    Assert.assertEquals(2, patched.getPubNum());
+    Assert.assertNull(patched.getZipPublishers());
+    Assert.assertEquals(Lists.newArrayList(200L), patched.getRecentVersions());
+    Map<String, SubPublisher> pubs = Maps.newHashMap();
+    patched.mustGetPublishers().forEach(p -> pubs.put(p.getRegisterId(), p));
+    Assert.assertEquals(101, pubs.get("testRegisterId1").getVersion());
+    Assert.assertEquals(100, pubs.get("testRegisterId2").getVersion());
+
+    // keep the compression of the cached datum
+    SubDatum zip = DatumUtils.compressSubDatum(subDatum, CompressUtils.mustGet("zstd"));
+    patched = DatumUtils.applyDelta(zip, delta);
+    Assert.assertNotNull(patched.getZipPublishers());
+    Assert.assertEquals(2, DatumUtils.decompressSubDatum(patched).mustGetPublishers().size());
+
+    // mismatch the pubNum
+    delta =
+        SubDatumDelta.deltaOf(
+            "testDataInfoId",
+            "testDc",
+            200,
+            300,
+            3,
+            Collections.emptyList(),
+            Lists.newArrayList("testRegisterId0"),
+            Collections.emptyList());
+    Assert.assertNull(DatumUtils.applyDelta(subDatum, delta));
+  }
 }
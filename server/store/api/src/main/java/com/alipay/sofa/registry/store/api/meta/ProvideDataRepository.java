@@ -66,4 +66,12 @@ public interface ProvideDataRepository {
    * @return
    */
   Map<String, PersistenceData> getAll();
+
+  /**
+   * query all provide data from the local cache, the cache is kept up to date by watching the
+   * changed rows instead of reloading the whole table
+   *
+   * @return
+   */
+  Map<String, PersistenceData> getAllFromCache();
 }
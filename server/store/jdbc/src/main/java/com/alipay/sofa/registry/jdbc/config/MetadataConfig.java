@@ -24,4 +24,10 @@ public interface MetadataConfig {
   int getRevisionRenewIntervalMinutes();
 
   int getInterfaceAppsIndexRenewIntervalMinutes();
+
+  int getWriteBehindFlushIntervalMillis();
+
+  int getWriteBehindBatchSize();
+
+  int getWriteBehindMaxPending();
 }
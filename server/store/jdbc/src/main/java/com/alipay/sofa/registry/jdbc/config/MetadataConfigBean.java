@@ -30,6 +30,11 @@ public class MetadataConfigBean implements MetadataConfig {
   private int revisionRenewIntervalMinutes = 60 * 3;
   private int interfaceAppsIndexRenewIntervalMinutes = 60 * 3;
 
+  // the refreshes of interface_apps_index and app_revision are coalesced and written in batch
+  private int writeBehindFlushIntervalMillis = 200;
+  private int writeBehindBatchSize = 200;
+  private int writeBehindMaxPending = 10000;
+
   public int getRevisionRenewIntervalMinutes() {
     return revisionRenewIntervalMinutes;
   }
@@ -46,4 +51,28 @@ public class MetadataConfigBean implements MetadataConfig {
       int interfaceAppsIndexRenewIntervalMinutes) {
     this.interfaceAppsIndexRenewIntervalMinutes = interfaceAppsIndexRenewIntervalMinutes;
   }
+
+  public int getWriteBehindFlushIntervalMillis() {
+    return writeBehindFlushIntervalMillis;
+  }
+
+  public void setWriteBehindFlushIntervalMillis(int writeBehindFlushIntervalMillis) {
+    this.writeBehindFlushIntervalMillis = writeBehindFlushIntervalMillis;
+  }
+
+  public int getWriteBehindBatchSize() {
+    return writeBehindBatchSize;
+  }
+
+  public void setWriteBehindBatchSize(int writeBehindBatchSize) {
+    this.writeBehindBatchSize = writeBehindBatchSize;
+  }
+
+  public int getWriteBehindMaxPending() {
+    return writeBehindMaxPending;
+  }
+
+  public void setWriteBehindMaxPending(int writeBehindMaxPending) {
+    this.writeBehindMaxPending = writeBehindMaxPending;
+  }
 }
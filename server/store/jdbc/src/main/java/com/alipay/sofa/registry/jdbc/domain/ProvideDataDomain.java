@@ -16,13 +16,14 @@
  */
 package com.alipay.sofa.registry.jdbc.domain;
 
+import com.alipay.sofa.registry.jdbc.informer.DbEntry;
 import java.util.Date;
 
 /**
  * @author xiaojian.xj
  * @version $Id: ProvideDataDomain.java, v 0.1 2021年03月13日 19:29 xiaojian.xj Exp $
  */
-public class ProvideDataDomain {
+public class ProvideDataDomain implements DbEntry {
 
   /** primary dataKey */
   private long id;
@@ -49,6 +49,7 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
   private final Logger logger;
   private static final int DB_INSERT_DELAY_MS = 1000;
   private volatile boolean allSynced = false;
+  private volatile boolean listed = false;
 
   public BaseInformer(String name, Logger logger) {
     this.name = name;
@@ -106,6 +107,7 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
       preList(newContainer);
       this.container = newContainer;
       lastLoadId = maxId;
+      listed = true;
     } finally {
       syncEnd();
     }
@@ -120,7 +122,7 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
       }
       for (T entry : entries) {
         callable.onEntry(entry);
-        curStart = Math.max(curStart, entry.getId());
+        curStart = Math.max(curStart, cursorOf(entry));
       }
       ConcurrentUtils.sleepUninterruptibly(10, TimeUnit.MILLISECONDS);
     }
@@ -137,7 +139,7 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
     }
     List<T> result = Lists.newArrayListWithExpectedSize(entries.size());
     for (T entry : entries) {
-      if (entry.getGmtCreate().getTime() >= now.getTime() - DB_INSERT_DELAY_MS) {
+      if (stableTimeOf(entry).getTime() >= now.getTime() - DB_INSERT_DELAY_MS) {
         break;
       }
       result.add(entry);
@@ -149,6 +151,15 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
     return container;
   }
 
+  /**
+   * the container has been built by a whole list at least once
+   *
+   * @return boolean
+   */
+  public boolean isListed() {
+    return listed;
+  }
+
   public void setEnabled(boolean enabled) {
     this.enabled = enabled;
     if (enabled) {
@@ -184,6 +195,27 @@ public abstract class BaseInformer<T extends DbEntry, C extends DbEntryContainer
 
   protected void preList(C newContainer) {}
 
+  /**
+   * the entries are listed in the order of the cursor, default is the auto increment id
+   *
+   * @param entry entry
+   * @return cursor
+   */
+  protected long cursorOf(T entry) {
+    return entry.getId();
+  }
+
+  /**
+   * the entry is skipped in this round if it is changed in DB_INSERT_DELAY_MS, the transaction with
+   * smaller cursor may not be committed yet
+   *
+   * @param entry entry
+   * @return the time of the entry changed
+   */
+  protected Date stableTimeOf(T entry) {
+    return entry.getGmtCreate();
+  }
+
   public void watchWakeup() {
     watchLoop.wakeup();
   }
@@ -64,6 +64,15 @@ public interface AppRevisionMapper {
 
   void replace(AppRevisionDomain domain);
 
+  /**
+   * insert on replace in one statement
+   *
+   * @param dataCenter
+   * @param domains
+   */
+  void batchReplace(
+      @Param("dataCenter") String dataCenter, @Param("domains") List<AppRevisionDomain> domains);
+
   List<AppRevisionDomain> getExpired(
       @Param("dataCenter") String dataCenter,
       @Param("beforeTime") Date beforeTime,
@@ -53,6 +53,27 @@ public interface InterfaceAppsIndexMapper {
    */
   int update(InterfaceAppsIndexDomain domain);
 
+  /**
+   * refresh gmt_modified of the referenced domains
+   *
+   * @param dataCenter
+   * @param domains
+   * @return effect rows number
+   */
+  int batchUpdate(
+      @Param("dataCenter") String dataCenter,
+      @Param("domains") List<InterfaceAppsIndexDomain> domains);
+
+  /**
+   * insert on replace in one statement
+   *
+   * @param dataCenter
+   * @param domains
+   */
+  void batchReplace(
+      @Param("dataCenter") String dataCenter,
+      @Param("domains") List<InterfaceAppsIndexDomain> domains);
+
   /**
    * query domains which gmt_modified is after than maxUpdate
    *
@@ -17,6 +17,7 @@
 package com.alipay.sofa.registry.jdbc.mapper;
 
 import com.alipay.sofa.registry.jdbc.domain.ProvideDataDomain;
+import java.util.Collection;
 import java.util.List;
 import org.apache.ibatis.annotations.Param;
 
@@ -57,21 +58,28 @@ public interface ProvideDataMapper {
       @Param("dataVersion") long dataVersion);
 
   /**
-   * query by page
+   * query the provide data with id greater than maxId, order by id
    *
    * @param dataCenter
-   * @param start
+   * @param maxId
    * @param limit
    * @return
    */
-  List<ProvideDataDomain> queryByPage(
-      @Param("dataCenter") String dataCenter, @Param("start") int start, @Param("limit") int limit);
+  List<ProvideDataDomain> queryAfterThanById(
+      @Param("dataCenter") String dataCenter,
+      @Param("maxId") long maxId,
+      @Param("limit") int limit);
 
   /**
-   * query total count
+   * query the provide data changed after maxVersion, order by data_version
    *
-   * @param dataCenter
+   * @param dataCenters
+   * @param maxVersion
+   * @param limit
    * @return
    */
-  int selectTotalCount(@Param("dataCenter") String dataCenter);
+  List<ProvideDataDomain> queryAfterThanByVersion(
+      @Param("dataCenters") Collection<String> dataCenters,
+      @Param("maxVersion") long maxVersion,
+      @Param("limit") int limit);
 }
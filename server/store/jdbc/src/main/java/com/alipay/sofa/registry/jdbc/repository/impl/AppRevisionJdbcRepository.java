@@ -23,6 +23,7 @@ import static com.alipay.sofa.registry.jdbc.repository.impl.MetadataMetrics.Regi
 import com.alipay.sofa.registry.cache.CacheCleaner;
 import com.alipay.sofa.registry.common.model.store.AppRevision;
 import com.alipay.sofa.registry.concurrent.CachedExecutor;
+import com.alipay.sofa.registry.jdbc.config.MetadataConfig;
 import com.alipay.sofa.registry.jdbc.constant.TableEnum;
 import com.alipay.sofa.registry.jdbc.convertor.AppRevisionDomainConvertor;
 import com.alipay.sofa.registry.jdbc.domain.AppRevisionDomain;
@@ -42,7 +43,9 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import java.util.*;
 import java.util.concurrent.*;
 import javax.annotation.PostConstruct;
@@ -79,6 +82,10 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
 
   @Autowired private DefaultCommonConfig defaultCommonConfig;
 
+  @Autowired private MetadataConfig metadataConfig;
+
+  private WriteBehindBuffer<String, AppRevisionDomain> writeBehindBuffer;
+
   final Informer informer;
 
   public AppRevisionJdbcRepository() {
@@ -106,6 +113,14 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
 
   @PostConstruct
   public void init() {
+    writeBehindBuffer =
+        new WriteBehindBuffer<>(
+            tableName(),
+            metadataConfig.getWriteBehindFlushIntervalMillis(),
+            metadataConfig.getWriteBehindBatchSize(),
+            metadataConfig.getWriteBehindMaxPending(),
+            this::flushEntriesToStorage);
+    writeBehindBuffer.start();
     informer.setEnabled(true);
     informer.start();
 
@@ -197,9 +212,10 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
       cachedExecutor.execute(
           entry.getRevision(),
           () -> {
-            if (appRevisionMapper.heartbeat(entry.getDataCenter(), entry.getRevision()) == 0) {
-              appRevisionMapper.replace(entry);
-            }
+            // the revision must be queryable once registered, wait for the group commit
+            CompletableFuture<Void> future = writeBehindBuffer.add(entry.getRevision(), entry);
+            writeBehindBuffer.wakeup();
+            future.get();
             LOG.info("insert revision {}, succeed", entry.getRevision());
             return true;
           });
@@ -210,6 +226,36 @@ public class AppRevisionJdbcRepository implements AppRevisionRepository, Recover
     }
   }
 
+  /**
+   * heartbeat the revisions which are alive in storage in one statement, and replace the others in
+   * one statement
+   */
+  void flushEntriesToStorage(List<AppRevisionDomain> entries) {
+    final String dataCenter = defaultCommonConfig.getClusterId(tableName());
+    List<String> revisions = Lists.newArrayListWithCapacity(entries.size());
+    for (AppRevisionDomain entry : entries) {
+      revisions.add(entry.getRevision());
+    }
+    Set<String> alives = Sets.newHashSetWithExpectedSize(entries.size());
+    for (AppRevisionDomain exist : appRevisionMapper.batchQuery(dataCenter, revisions)) {
+      if (!exist.isDeleted()) {
+        alives.add(exist.getRevision());
+      }
+    }
+    List<AppRevisionDomain> news = Lists.newArrayListWithCapacity(entries.size());
+    for (AppRevisionDomain entry : entries) {
+      if (!alives.contains(entry.getRevision())) {
+        news.add(entry);
+      }
+    }
+    if (!alives.isEmpty()) {
+      appRevisionMapper.batchHeartbeat(dataCenter, Lists.newArrayList(alives));
+    }
+    if (!news.isEmpty()) {
+      appRevisionMapper.batchReplace(dataCenter, news);
+    }
+  }
+
   public Collection<String> availableRevisions() {
     return localRevisions.asMap().keySet();
   }
@@ -19,6 +19,7 @@ package com.alipay.sofa.registry.jdbc.repository.impl;
 import com.alipay.sofa.registry.common.model.Tuple;
 import com.alipay.sofa.registry.common.model.appmeta.InterfaceMapping;
 import com.alipay.sofa.registry.concurrent.CachedExecutor;
+import com.alipay.sofa.registry.jdbc.config.MetadataConfig;
 import com.alipay.sofa.registry.jdbc.constant.TableEnum;
 import com.alipay.sofa.registry.jdbc.domain.InterfaceAppsIndexDomain;
 import com.alipay.sofa.registry.jdbc.informer.BaseInformer;
@@ -31,7 +32,10 @@ import com.alipay.sofa.registry.store.api.meta.RecoverConfig;
 import com.alipay.sofa.registry.store.api.repository.InterfaceAppsRepository;
 import com.alipay.sofa.registry.util.StringFormatter;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -49,9 +53,13 @@ public class InterfaceAppsJdbcRepository implements InterfaceAppsRepository, Rec
 
   @Autowired private DateNowRepository dateNowRepository;
 
+  @Autowired private MetadataConfig metadataConfig;
+
   private final CachedExecutor<Tuple<String, String>, Boolean> cachedExecutor =
       new CachedExecutor<>(1000 * 10);
 
+  private WriteBehindBuffer<Tuple<String, String>, InterfaceAppsIndexDomain> writeBehindBuffer;
+
   final Informer informer;
 
   public InterfaceAppsJdbcRepository() {
@@ -60,6 +68,14 @@ public class InterfaceAppsJdbcRepository implements InterfaceAppsRepository, Rec
 
   @PostConstruct
   public void init() {
+    writeBehindBuffer =
+        new WriteBehindBuffer<>(
+            tableName(),
+            metadataConfig.getWriteBehindFlushIntervalMillis(),
+            metadataConfig.getWriteBehindBatchSize(),
+            metadataConfig.getWriteBehindMaxPending(),
+            this::flushEntriesToStorage);
+    writeBehindBuffer.start();
     informer.setEnabled(true);
     informer.start();
   }
@@ -94,23 +110,31 @@ public class InterfaceAppsJdbcRepository implements InterfaceAppsRepository, Rec
 
   @Override
   public void waitSynced() {
+    writeBehindBuffer.flush();
     informer.waitSynced();
   }
 
   protected void refreshEntryToStorage(InterfaceAppsIndexDomain entry) {
     try {
+      final Tuple<String, String> key = new Tuple<>(entry.getInterfaceName(), entry.getAppName());
+      final AtomicReference<CompletableFuture<Void>> buffered = new AtomicReference<>();
       cachedExecutor.execute(
-          new Tuple<>(entry.getInterfaceName(), entry.getAppName()),
+          key,
           () -> {
-            if (interfaceAppsIndexMapper.update(entry) == 0) {
-              interfaceAppsIndexMapper.replace(entry);
-            }
-            LOG.info(
-                "insert interface app mapping {}=>{} succeed",
-                entry.getInterfaceName(),
-                entry.getAppName());
+            buffered.set(writeBehindBuffer.add(key, entry));
             return true;
           });
+      final CompletableFuture<Void> future = buffered.get();
+      if (future != null) {
+        // the entry is cached once buffered, drop it if the write failed, so the next refresh
+        // writes it again
+        future.whenComplete(
+            (v, e) -> {
+              if (e != null) {
+                cachedExecutor.invalidate(key);
+              }
+            });
+      }
     } catch (Exception e) {
       LOG.error("refresh to db failed: ", e);
       throw new RuntimeException(
@@ -118,6 +142,37 @@ public class InterfaceAppsJdbcRepository implements InterfaceAppsRepository, Rec
     }
   }
 
+  /**
+   * heartbeat the entries which are already in the index in one statement, and replace the others
+   * in one statement. if some heartbeats miss, the entries are refreshed one by one
+   */
+  void flushEntriesToStorage(List<InterfaceAppsIndexDomain> entries) {
+    final String dataCenter = defaultCommonConfig.getClusterId(tableName());
+    final InterfaceAppsIndexContainer c = informer.getContainer();
+    List<InterfaceAppsIndexDomain> exists = Lists.newArrayListWithCapacity(entries.size());
+    List<InterfaceAppsIndexDomain> news = Lists.newArrayListWithCapacity(entries.size());
+    for (InterfaceAppsIndexDomain entry : entries) {
+      if (c.containsName(entry.getInterfaceName(), entry.getAppName())) {
+        exists.add(entry);
+      } else {
+        news.add(entry);
+      }
+    }
+    if (!exists.isEmpty()
+        && interfaceAppsIndexMapper.batchUpdate(dataCenter, exists) < exists.size()) {
+      for (InterfaceAppsIndexDomain entry : exists) {
+        if (interfaceAppsIndexMapper.update(entry) == 0) {
+          interfaceAppsIndexMapper.replace(entry);
+        }
+      }
+    }
+    if (!news.isEmpty()) {
+      interfaceAppsIndexMapper.batchReplace(dataCenter, news);
+    }
+    LOG.info(
+        "refresh interface app mappings succeed, exists={}, news={}", exists.size(), news.size());
+  }
+
   @VisibleForTesting
   void cleanCache() {
     cachedExecutor.clean();
@@ -17,6 +17,8 @@
 package com.alipay.sofa.registry.jdbc.repository.impl;
 
 import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
 
 /**
  * @author xiaojian.xj
@@ -118,4 +120,34 @@ public class MetadataMetrics {
             .help("clientManager_query")
             .register();
   }
+
+  static final class WriteBehind {
+    static final Gauge QUEUE_DEPTH =
+        Gauge.build()
+            .namespace("metadata")
+            .subsystem("write_behind")
+            .name("queue_depth")
+            .help("pending entries waiting for flush")
+            .labelNames("table")
+            .register();
+
+    static final Histogram FLUSH_LATENCY =
+        Histogram.build()
+            .linearBuckets(0, 20, 30)
+            .namespace("metadata")
+            .subsystem("write_behind")
+            .name("flush_latency")
+            .help("flush latency in millis")
+            .labelNames("table")
+            .register();
+
+    static final Counter FLUSH_ROWS_COUNTER =
+        Counter.build()
+            .namespace("metadata")
+            .subsystem("write_behind")
+            .name("flush_rows_total")
+            .help("flushed rows")
+            .labelNames("table", "success")
+            .register();
+  }
 }
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jdbc.repository.impl;
+
+import com.alipay.sofa.registry.jdbc.domain.ProvideDataDomain;
+import com.alipay.sofa.registry.jdbc.informer.DbEntryContainer;
+import com.google.common.collect.Maps;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * the provide data loaded by the informer, the rows are keyed by dataCenter and dataKey. the
+ * deleted rows are not visible to the watch, they are dropped by the next whole list or by the
+ * local remove
+ */
+public class ProvideDataContainer implements DbEntryContainer<ProvideDataDomain> {
+
+  private final Map<String /*dataCenter*/, Map<String /*dataKey*/, ProvideDataDomain>> data =
+      Maps.newConcurrentMap();
+
+  @Override
+  public synchronized void onEntry(ProvideDataDomain entry) {
+    Map<String, ProvideDataDomain> map =
+        data.computeIfAbsent(entry.getDataCenter(), k -> Maps.newConcurrentMap());
+    ProvideDataDomain exist = map.get(entry.getDataKey());
+    if (exist == null || exist.getDataVersion() < entry.getDataVersion()) {
+      map.put(entry.getDataKey(), entry);
+    }
+  }
+
+  synchronized void onPut(ProvideDataDomain domain) {
+    data.computeIfAbsent(domain.getDataCenter(), k -> Maps.newConcurrentMap())
+        .put(domain.getDataKey(), domain);
+  }
+
+  synchronized void onRemove(String dataCenter, String dataKey, long dataVersion) {
+    Map<String, ProvideDataDomain> map = data.get(dataCenter);
+    if (map == null) {
+      return;
+    }
+    ProvideDataDomain exist = map.get(dataKey);
+    if (exist != null && exist.getDataVersion() <= dataVersion) {
+      map.remove(dataKey);
+    }
+  }
+
+  Map<String, ProvideDataDomain> queryAll(String dataCenter) {
+    Map<String, ProvideDataDomain> map = data.get(dataCenter);
+    return map == null ? Collections.emptyMap() : Maps.newHashMap(map);
+  }
+}
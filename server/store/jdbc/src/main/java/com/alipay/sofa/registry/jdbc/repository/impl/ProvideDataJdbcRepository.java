@@ -24,18 +24,23 @@ import com.alipay.sofa.registry.common.model.console.PersistenceDataBuilder;
 import com.alipay.sofa.registry.jdbc.constant.TableEnum;
 import com.alipay.sofa.registry.jdbc.convertor.ProvideDataDomainConvertor;
 import com.alipay.sofa.registry.jdbc.domain.ProvideDataDomain;
+import com.alipay.sofa.registry.jdbc.informer.BaseInformer;
 import com.alipay.sofa.registry.jdbc.mapper.ProvideDataMapper;
 import com.alipay.sofa.registry.log.Logger;
 import com.alipay.sofa.registry.log.LoggerFactory;
 import com.alipay.sofa.registry.store.api.config.DefaultCommonConfig;
+import com.alipay.sofa.registry.store.api.date.DateNowRepository;
 import com.alipay.sofa.registry.store.api.meta.ProvideDataRepository;
 import com.alipay.sofa.registry.store.api.meta.RecoverConfig;
 import com.alipay.sofa.registry.store.api.meta.RecoverConfigRepository;
-import com.alipay.sofa.registry.util.MathUtils;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.PostConstruct;
 import org.apache.commons.collections.CollectionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -54,13 +59,34 @@ public class ProvideDataJdbcRepository implements ProvideDataRepository, Recover
 
   @Autowired protected RecoverConfigRepository recoverConfigRepository;
 
+  @Autowired protected DateNowRepository dateNowRepository;
+
   private static final Integer batchQuerySize = 1000;
 
+  final Informer informer;
+
+  private final AtomicBoolean informerStarted = new AtomicBoolean(false);
+
+  public ProvideDataJdbcRepository() {
+    informer = new Informer();
+  }
+
   @PostConstruct
   public void init() {
     recoverConfigRepository.registerCallback(this);
   }
 
+  /**
+   * the repository is created on every node by the jdbc configuration, but only the meta server
+   * reads the cache, so the informer is started by the first getAllFromCache
+   */
+  private void startInformer() {
+    if (!informerStarted.get() && informerStarted.compareAndSet(false, true)) {
+      informer.setEnabled(true);
+      informer.start();
+    }
+  }
+
   @Override
   public boolean put(PersistenceData persistenceData) {
     String dataInfoId = PersistenceDataBuilder.getDataInfoId(persistenceData);
@@ -118,6 +144,9 @@ public class ProvideDataJdbcRepository implements ProvideDataRepository, Recover
       }
       PROVIDE_DATA_UPDATE_COUNTER.inc();
 
+      if (affect > 0) {
+        informer.getContainer().onPut(domain);
+      }
       if (affect == 0) {
         PersistenceData query = get(domain.getDataKey());
         LOG.error(
@@ -148,6 +177,9 @@ public class ProvideDataJdbcRepository implements ProvideDataRepository, Recover
     PROVIDE_DATA_UPDATE_COUNTER.inc();
     String clusterId = defaultCommonConfig.getClusterId(tableName(), key);
     int affect = provideDataMapper.remove(clusterId, key, version);
+    if (affect > 0) {
+      informer.getContainer().onRemove(clusterId, key, version);
+    }
     if (LOG.isInfoEnabled()) {
       LOG.info(
           "remove provideData, dataCenter: {}, key: {}, version: {}, affect rows: {}",
@@ -161,7 +193,6 @@ public class ProvideDataJdbcRepository implements ProvideDataRepository, Recover
 
   @Override
   public Map<String, PersistenceData> getAll() {
-
     String clusterId = defaultCommonConfig.getClusterId(tableName());
     Map<String, PersistenceData> responses = getAllByClusterId(clusterId);
 
@@ -170,36 +201,71 @@ public class ProvideDataJdbcRepository implements ProvideDataRepository, Recover
       Map<String, PersistenceData> recoverConfigMap = getAllByClusterId(recoverClusterId);
       LOG.info(
           "load recover config by recoverClusterId:{}, ret:{}", recoverClusterId, recoverConfigMap);
-      Set<String> dataInfoIds = recoverConfigRepository.queryKey(tableName());
-
-      if (CollectionUtils.isNotEmpty(dataInfoIds)) {
-        for (String dataInfoId : dataInfoIds) {
-          // dependency config
-          responses.put(dataInfoId, recoverConfigMap.get(dataInfoId));
-        }
-      }
+      putRecoverConfig(responses, recoverConfigMap);
     }
     PROVIDE_DATA_QUERY_COUNTER.inc();
     return responses;
   }
 
+  @Override
+  public Map<String, PersistenceData> getAllFromCache() {
+    startInformer();
+    if (!informer.isListed()) {
+      // the informer has not loaded the whole table yet
+      return getAll();
+    }
+    ProvideDataContainer container = informer.getContainer();
+    Map<String, PersistenceData> responses =
+        toPersistenceData(container.queryAll(defaultCommonConfig.getClusterId(tableName())));
+    if (defaultCommonConfig.isRecoverCluster()) {
+      putRecoverConfig(
+          responses,
+          toPersistenceData(container.queryAll(defaultCommonConfig.getRecoverClusterId())));
+    }
+    return responses;
+  }
+
+  private void putRecoverConfig(
+      Map<String, PersistenceData> responses, Map<String, PersistenceData> recoverConfigMap) {
+    Set<String> dataInfoIds = recoverConfigRepository.queryKey(tableName());
+
+    if (CollectionUtils.isNotEmpty(dataInfoIds)) {
+      for (String dataInfoId : dataInfoIds) {
+        // dependency config
+        responses.put(dataInfoId, recoverConfigMap.get(dataInfoId));
+      }
+    }
+  }
+
   private Map<String, PersistenceData> getAllByClusterId(String clusterId) {
-    int total = provideDataMapper.selectTotalCount(clusterId);
-    int round = MathUtils.divideCeil(total, batchQuerySize);
-    Map<String, PersistenceData> responses = Maps.newHashMapWithExpectedSize(total);
-    for (int i = 0; i < round; i++) {
-      int start = i * batchQuerySize;
+    Map<String, PersistenceData> responses = Maps.newHashMap();
+    long maxId = 0;
+    while (true) {
       List<ProvideDataDomain> provideDataDomains =
-          provideDataMapper.queryByPage(clusterId, start, batchQuerySize);
+          provideDataMapper.queryAfterThanById(clusterId, maxId, batchQuerySize);
       for (ProvideDataDomain provideDataDomain : provideDataDomains) {
         PersistenceData persistenceData =
             ProvideDataDomainConvertor.convert2PersistenceData(provideDataDomain);
         responses.put(PersistenceDataBuilder.getDataInfoId(persistenceData), persistenceData);
+        maxId = Math.max(maxId, provideDataDomain.getId());
+      }
+      if (provideDataDomains.size() < batchQuerySize) {
+        break;
       }
     }
     return responses;
   }
 
+  private static Map<String, PersistenceData> toPersistenceData(
+      Map<String, ProvideDataDomain> domains) {
+    Map<String, PersistenceData> responses = Maps.newHashMapWithExpectedSize(domains.size());
+    for (ProvideDataDomain domain : domains.values()) {
+      PersistenceData persistenceData = ProvideDataDomainConvertor.convert2PersistenceData(domain);
+      responses.put(PersistenceDataBuilder.getDataInfoId(persistenceData), persistenceData);
+    }
+    return responses;
+  }
+
   @Override
   public String tableName() {
     return TableEnum.PROVIDE_DATA.getTableName();
@@ -226,4 +292,64 @@ public class ProvideDataJdbcRepository implements ProvideDataRepository, Recover
     }
     return true;
   }
+
+  /**
+   * watch the provide data by data_version, the versions are generated by
+   * PersistenceDataBuilder.nextVersion and increase on every put. the whole list is still needed to
+   * find out the deleted rows
+   */
+  class Informer extends BaseInformer<ProvideDataDomain, ProvideDataContainer> {
+
+    Informer() {
+      super("ProvideData", LOG);
+    }
+
+    @Override
+    protected ProvideDataContainer containerFactory() {
+      return new ProvideDataContainer();
+    }
+
+    @Override
+    protected List<ProvideDataDomain> listFromStorage(long start, int limit) {
+      Set<String> dataCenters = Sets.newHashSet(defaultCommonConfig.getClusterId(tableName()));
+      if (defaultCommonConfig.isRecoverCluster()) {
+        dataCenters.add(defaultCommonConfig.getRecoverClusterId());
+      }
+      List<ProvideDataDomain> domains =
+          provideDataMapper.queryAfterThanByVersion(dataCenters, start, limit);
+      return trimTail(domains, limit);
+    }
+
+    @Override
+    protected long cursorOf(ProvideDataDomain entry) {
+      return entry.getDataVersion();
+    }
+
+    @Override
+    protected Date stableTimeOf(ProvideDataDomain entry) {
+      return entry.getGmtModified();
+    }
+
+    @Override
+    protected Date getNow() {
+      return dateNowRepository.getNow();
+    }
+  }
+
+  /**
+   * the versions are not unique, drop the rows with the same version as the last one of a full
+   * page, so they are listed in the next page
+   */
+  static List<ProvideDataDomain> trimTail(List<ProvideDataDomain> domains, int limit) {
+    if (domains.size() < limit) {
+      return domains;
+    }
+    final long lastVersion = domains.get(domains.size() - 1).getDataVersion();
+    int end = domains.size();
+    while (end > 0 && domains.get(end - 1).getDataVersion() == lastVersion) {
+      end--;
+    }
+    // all the rows have the same version, could not trim
+    return end == 0 ? domains : Lists.newArrayList(domains.subList(0, end));
+  }
 }
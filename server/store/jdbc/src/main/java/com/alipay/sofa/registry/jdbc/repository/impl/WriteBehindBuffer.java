@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jdbc.repository.impl;
+
+import static com.alipay.sofa.registry.jdbc.repository.impl.MetadataMetrics.WriteBehind.FLUSH_LATENCY;
+import static com.alipay.sofa.registry.jdbc.repository.impl.MetadataMetrics.WriteBehind.FLUSH_ROWS_COUNTER;
+import static com.alipay.sofa.registry.jdbc.repository.impl.MetadataMetrics.WriteBehind.QUEUE_DEPTH;
+
+import com.alipay.sofa.registry.log.Logger;
+import com.alipay.sofa.registry.log.LoggerFactory;
+import com.alipay.sofa.registry.util.ConcurrentUtils;
+import com.alipay.sofa.registry.util.ParaCheckUtil;
+import com.alipay.sofa.registry.util.WakeUpLoopRunnable;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * coalesce the refreshes of the same key and write them to the storage in batch. the pending
+ * entries are flushed every interval, or once the pending size reaches the batch size. when the
+ * pending size reaches the max pending, the caller flushes by itself, so the buffer is bounded
+ */
+final class WriteBehindBuffer<K, V> {
+  private static final Logger LOG = LoggerFactory.getLogger("METADATA-EXCHANGE", "[WriteBehind]");
+
+  interface Flusher<V> {
+    /** write the values in one batch, throws if any of them failed */
+    void flush(List<V> values) throws Exception;
+  }
+
+  private final String table;
+
+  private final int intervalMillis;
+
+  private final int batchSize;
+
+  private final int maxPending;
+
+  private final Flusher<V> flusher;
+
+  // guarded by this
+  private Map<K, Pending<V>> pendings = Maps.newLinkedHashMap();
+
+  // the flushes are serialized, keep the order of the refreshes of the same key
+  private final Lock flushLock = new ReentrantLock();
+
+  private final Worker worker = new Worker();
+
+  WriteBehindBuffer(
+      String table, int intervalMillis, int batchSize, int maxPending, Flusher<V> flusher) {
+    ParaCheckUtil.checkIsPositive(intervalMillis, "intervalMillis");
+    ParaCheckUtil.checkIsPositive(batchSize, "batchSize");
+    ParaCheckUtil.checkIsPositive(maxPending, "maxPending");
+    ParaCheckUtil.checkNotNull(flusher, "flusher");
+    this.table = table;
+    this.intervalMillis = intervalMillis;
+    this.batchSize = batchSize;
+    this.maxPending = Math.max(maxPending, batchSize);
+    this.flusher = flusher;
+  }
+
+  void start() {
+    ConcurrentUtils.createDaemonThread("WriteBehind-" + table, worker).start();
+  }
+
+  void close() {
+    worker.close();
+  }
+
+  /**
+   * @return the future completed after the value (or a later value of the same key) is written
+   */
+  CompletableFuture<Void> add(K key, V value) {
+    final CompletableFuture<Void> future;
+    final int size;
+    synchronized (this) {
+      Pending<V> pending = pendings.get(key);
+      if (pending == null) {
+        pending = new Pending<>(value);
+        pendings.put(key, pending);
+      } else {
+        pending.value = value;
+      }
+      future = pending.future;
+      size = pendings.size();
+    }
+    QUEUE_DEPTH.labels(table).set(size);
+    if (size >= maxPending) {
+      flush();
+    } else if (size >= batchSize) {
+      worker.wakeup();
+    }
+    return future;
+  }
+
+  /** flush the pending entries as soon as possible, without waiting for the interval */
+  void wakeup() {
+    worker.wakeup();
+  }
+
+  synchronized int pendingSize() {
+    return pendings.size();
+  }
+
+  void flush() {
+    flushLock.lock();
+    try {
+      final Map<K, Pending<V>> flushing;
+      synchronized (this) {
+        if (pendings.isEmpty()) {
+          return;
+        }
+        flushing = pendings;
+        pendings = Maps.newLinkedHashMap();
+      }
+      QUEUE_DEPTH.labels(table).set(pendingSize());
+      for (List<Pending<V>> batch :
+          Lists.partition(Lists.newArrayList(flushing.values()), batchSize)) {
+        flushBatch(batch);
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  private void flushBatch(List<Pending<V>> batch) {
+    final List<V> values = Lists.newArrayListWithCapacity(batch.size());
+    for (Pending<V> pending : batch) {
+      values.add(pending.value);
+    }
+    final long start = System.currentTimeMillis();
+    try {
+      flusher.flush(values);
+      FLUSH_ROWS_COUNTER.labels(table, "Y").inc(values.size());
+      for (Pending<V> pending : batch) {
+        pending.future.complete(null);
+      }
+    } catch (Throwable e) {
+      LOG.error("[{}]failed to flush {} entries", table, values.size(), e);
+      FLUSH_ROWS_COUNTER.labels(table, "N").inc(values.size());
+      for (Pending<V> pending : batch) {
+        pending.future.completeExceptionally(e);
+      }
+    } finally {
+      FLUSH_LATENCY.labels(table).observe(System.currentTimeMillis() - start);
+    }
+  }
+
+  private static final class Pending<V> {
+    // guarded by the buffer before flushing
+    V value;
+
+    final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    Pending(V value) {
+      this.value = value;
+    }
+  }
+
+  private final class Worker extends WakeUpLoopRunnable {
+    @Override
+    public void runUnthrowable() {
+      flush();
+    }
+
+    @Override
+    public int getWaitingMillis() {
+      return intervalMillis;
+    }
+  }
+}
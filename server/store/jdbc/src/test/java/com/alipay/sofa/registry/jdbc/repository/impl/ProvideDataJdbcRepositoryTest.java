@@ -20,11 +20,14 @@ import com.alipay.sofa.registry.common.model.console.PersistenceData;
 import com.alipay.sofa.registry.common.model.console.PersistenceDataBuilder;
 import com.alipay.sofa.registry.common.model.store.DataInfo;
 import com.alipay.sofa.registry.jdbc.AbstractH2DbTestBase;
+import com.alipay.sofa.registry.jdbc.domain.ProvideDataDomain;
 import com.alipay.sofa.registry.jdbc.mapper.ProvideDataMapper;
 import com.alipay.sofa.registry.jdbc.mapper.RecoverConfigMapper;
 import com.alipay.sofa.registry.store.api.meta.ProvideDataRepository;
 import com.alipay.sofa.registry.store.api.meta.RecoverConfigRepository;
+import com.google.common.collect.Lists;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Map;
 import javax.annotation.Resource;
 import org.junit.Assert;
@@ -94,4 +97,52 @@ public class ProvideDataJdbcRepositoryTest extends AbstractH2DbTestBase {
     Map<String, PersistenceData> all = provideDataRepository.getAll();
     Assert.assertTrue(all.values().contains(persistenceData));
   }
+
+  @Test
+  public void testGetAllFromCache() throws Exception {
+    ProvideDataJdbcRepository repository = (ProvideDataJdbcRepository) provideDataRepository;
+    // the first read starts the informer and falls back to the storage until listed
+    Assert.assertNotNull(provideDataRepository.getAllFromCache());
+    waitConditionUntilTimeOut(repository.informer::isListed, 5000);
+
+    long version = System.currentTimeMillis();
+    String dataInfoId =
+        DataInfo.toDataInfoId("testGetAllFromCache" + version, "DEFAULT", "DEFAULT");
+    PersistenceData persistenceData =
+        PersistenceDataBuilder.createPersistenceData(dataInfoId, "val");
+    Assert.assertTrue(provideDataRepository.put(persistenceData));
+    // write through
+    Assert.assertEquals("val", provideDataRepository.getAllFromCache().get(dataInfoId).getData());
+
+    // changed by others, the informer watches the changed row
+    ProvideDataDomain exist =
+        provideDataMapper.query(
+            repository.defaultCommonConfig.getClusterId(repository.tableName()), dataInfoId);
+    ProvideDataDomain update =
+        new ProvideDataDomain(
+            exist.getDataCenter(), dataInfoId, "val2", persistenceData.getVersion() + 1);
+    Assert.assertEquals(1, provideDataMapper.update(update, persistenceData.getVersion()));
+    waitConditionUntilTimeOut(
+        () -> "val2".equals(provideDataRepository.getAllFromCache().get(dataInfoId).getData()),
+        5000);
+    Assert.assertEquals(
+        persistenceData.getVersion() + 1,
+        provideDataRepository.getAllFromCache().get(dataInfoId).getVersion());
+
+    Assert.assertTrue(provideDataRepository.remove(dataInfoId, persistenceData.getVersion() + 1));
+    Assert.assertFalse(provideDataRepository.getAllFromCache().containsKey(dataInfoId));
+  }
+
+  @Test
+  public void testTrimTail() {
+    List<ProvideDataDomain> domains = Lists.newArrayList(domain(1), domain(2), domain(2));
+    Assert.assertEquals(3, ProvideDataJdbcRepository.trimTail(domains, 4).size());
+    Assert.assertEquals(1, ProvideDataJdbcRepository.trimTail(domains, 3).size());
+    domains = Lists.newArrayList(domain(2), domain(2));
+    Assert.assertEquals(2, ProvideDataJdbcRepository.trimTail(domains, 2).size());
+  }
+
+  private static ProvideDataDomain domain(long version) {
+    return new ProvideDataDomain("dc", "key" + version, "val", version);
+  }
 }
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alipay.sofa.registry.jdbc.repository.impl;
+
+import com.google.common.collect.Lists;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WriteBehindBufferTest {
+
+  @Test
+  public void testCoalesceAndBatch() throws Exception {
+    List<List<String>> batches = Lists.newArrayList();
+    WriteBehindBuffer<String, String> buffer =
+        new WriteBehindBuffer<>("test", 60000, 2, 100, values -> batches.add(values));
+    CompletableFuture<Void> f1 = buffer.add("a", "a1");
+    CompletableFuture<Void> f2 = buffer.add("a", "a2");
+    Assert.assertSame(f1, f2);
+    buffer.add("b", "b1");
+    CompletableFuture<Void> f3 = buffer.add("c", "c1");
+    Assert.assertEquals(3, buffer.pendingSize());
+    Assert.assertFalse(f1.isDone());
+
+    buffer.flush();
+    Assert.assertEquals(0, buffer.pendingSize());
+    Assert.assertEquals(2, batches.size());
+    Assert.assertEquals(Lists.newArrayList("a2", "b1"), batches.get(0));
+    Assert.assertEquals(Lists.newArrayList("c1"), batches.get(1));
+    Assert.assertTrue(f1.isDone());
+    Assert.assertTrue(f3.isDone());
+
+    // flush nothing
+    buffer.flush();
+    Assert.assertEquals(2, batches.size());
+  }
+
+  @Test
+  public void testFailed() {
+    WriteBehindBuffer<String, String> buffer =
+        new WriteBehindBuffer<>(
+            "test",
+            60000,
+            10,
+            100,
+            values -> {
+              throw new IllegalStateException("mock");
+            });
+    CompletableFuture<Void> f = buffer.add("a", "a1");
+    buffer.flush();
+    Assert.assertTrue(f.isCompletedExceptionally());
+    Assert.assertEquals(0, buffer.pendingSize());
+  }
+
+  @Test
+  public void testBounded() {
+    List<List<String>> batches = Lists.newArrayList();
+    WriteBehindBuffer<String, String> buffer =
+        new WriteBehindBuffer<>("test", 60000, 2, 3, values -> batches.add(values));
+    buffer.add("a", "a1");
+    buffer.add("b", "b1");
+    Assert.assertEquals(0, batches.size());
+    // reach the max pending, the caller flushes
+    CompletableFuture<Void> f = buffer.add("c", "c1");
+    Assert.assertTrue(f.isDone());
+    Assert.assertEquals(2, batches.size());
+    Assert.assertEquals(0, buffer.pendingSize());
+  }
+
+  @Test
+  public void testWorker() throws Exception {
+    List<List<String>> batches = Lists.newArrayList();
+    WriteBehindBuffer<String, String> buffer =
+        new WriteBehindBuffer<>("test", 100, 10, 100, values -> batches.add(values));
+    buffer.start();
+    try {
+      buffer.add("a", "a1").get(3, TimeUnit.SECONDS);
+      Assert.assertEquals(1, batches.size());
+    } finally {
+      buffer.close();
+    }
+  }
+}